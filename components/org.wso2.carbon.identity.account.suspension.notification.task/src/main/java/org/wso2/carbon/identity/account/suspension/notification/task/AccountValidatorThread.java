@@ -17,14 +17,18 @@
  */
 package org.wso2.carbon.identity.account.suspension.notification.task;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.account.suspension.notification.task.checkpoint.TenantScanCheckpoints;
 import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
+import org.wso2.carbon.identity.account.suspension.notification.task.lease.TenantLeaseManager;
+import org.wso2.carbon.identity.account.suspension.notification.task.metrics.IdleAccountTaskMetrics;
+import org.wso2.carbon.identity.account.suspension.notification.task.metrics.TaskPhase;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.EmailUtil;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationDispatcher;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiver;
 import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.application.common.model.User;
@@ -36,6 +40,10 @@ import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.event.Event;
 import org.wso2.carbon.identity.governance.IdentityGovernanceException;
 import org.wso2.carbon.identity.governance.IdentityMgtConstants;
+import org.wso2.carbon.identity.governance.listener.IdentityStoreEventListener;
+import org.wso2.carbon.identity.governance.model.UserIdentityClaim;
+import org.wso2.carbon.identity.governance.store.UserIdentityDataStore;
+import org.wso2.carbon.identity.governance.store.UserStoreBasedIdentityDataStore;
 import org.wso2.carbon.user.api.Tenant;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.core.UserCoreConstants;
@@ -46,8 +54,14 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AccountValidatorThread implements Runnable {
 
@@ -64,6 +78,32 @@ public class AccountValidatorThread implements Runnable {
             log.debug("Idle account suspension task started.");
         }
 
+        IdleAccountTaskMetrics metrics = NotificationTaskDataHolder.getInstance().getTaskMetrics();
+        metrics.runStarted();
+        List<TenantValidationSummary> summaries = new ArrayList<>();
+        try {
+            List<String> tenantDomains = getTenantDomains();
+            int parallelism = Math.min(NotificationTaskDataHolder.getInstance().getTenantParallelism(),
+                    tenantDomains.size());
+
+            if (parallelism > 1) {
+                summaries = validateTenantsInParallel(tenantDomains, parallelism);
+            } else {
+                for (String tenantDomain : tenantDomains) {
+                    TenantValidationSummary summary = validateTenant(tenantDomain);
+                    if (summary != null) {
+                        summaries.add(summary);
+                    }
+                }
+            }
+        } finally {
+            metrics.runCompleted(summaries);
+        }
+        reportSummaries(summaries);
+    }
+
+    private List<String> getTenantDomains() {
+
         RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
 
         Tenant[] tenants = new Tenant[0];
@@ -74,21 +114,137 @@ public class AccountValidatorThread implements Runnable {
             log.error("Error occurred while retrieving tenants", e);
         }
 
-        handleTask(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
-
+        List<String> tenantDomains = new ArrayList<>(tenants.length + 1);
+        tenantDomains.add(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
         for (Tenant tenant : tenants) {
-            handleTask(tenant.getDomain());
+            tenantDomains.add(tenant.getDomain());
         }
+        return tenantDomains;
+    }
+
+    /**
+     * Validate the tenants on a work stealing pool, so that a worker which is done with a small tenant picks up the
+     * next pending tenant while others are still busy with large ones. Each tenant is handled entirely within one
+     * worker, inside its own tenant flow.
+     */
+    private List<TenantValidationSummary> validateTenantsInParallel(List<String> tenantDomains, int parallelism) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Validating idle accounts of " + tenantDomains.size() + " tenants with parallelism: " +
+                    parallelism);
+        }
+
+        List<TenantValidationSummary> summaries = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(parallelism, new ValidatorThreadFactory(), null, true);
+        try {
+            Map<String, Future<TenantValidationSummary>> futures = new LinkedHashMap<>();
+            for (String tenantDomain : tenantDomains) {
+                futures.put(tenantDomain, pool.submit(() -> validateTenant(tenantDomain)));
+            }
 
+            for (Map.Entry<String, Future<TenantValidationSummary>> future : futures.entrySet()) {
+                try {
+                    TenantValidationSummary summary = future.getValue().get();
+                    if (summary != null) {
+                        summaries.add(summary);
+                    }
+                } catch (ExecutionException e) {
+                    log.error("Error occurred while validating idle accounts of tenant: " + future.getKey(),
+                            e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Idle account suspension task was interrupted before all the tenants were validated.");
+        } finally {
+            pool.shutdownNow();
+        }
+        return summaries;
     }
 
-    private void handleTask(String tenantDomain) {
+    /**
+     * Validate the idle accounts of a tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Summary of the run, or null if the task is not enabled for the tenant.
+     */
+    private TenantValidationSummary validateTenant(String tenantDomain) {
+
+        TenantLeaseManager leaseManager = NotificationTaskDataHolder.getInstance().getTenantLeaseManager();
+        TenantLeaseManager.TenantLease lease = null;
+        if (leaseManager != null) {
+            lease = leaseManager.acquire(IdentityTenantUtil.getTenantId(tenantDomain));
+            if (lease == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Idle accounts of tenant: " + tenantDomain + " are validated by another node.");
+                }
+                return null;
+            }
+        }
+
+        TenantValidationSummary summary = new TenantValidationSummary(tenantDomain,
+                NotificationTaskDataHolder.getInstance().getTenantTimeBudget());
+        summary.setLease(lease);
+        boolean isEnabled = true;
+        try {
+            isEnabled = handleTask(tenantDomain, summary);
+        } catch (RuntimeException e) {
+            summary.setFailed(true);
+            log.error("Unexpected error occurred while validating idle accounts of tenant: " + tenantDomain, e);
+        } finally {
+            summary.complete();
+            if (lease != null) {
+                // A failed run is left to be retried by another node, while a lost lease is held by another node.
+                if (summary.isFailed() || summary.isLeaseLost()) {
+                    lease.release();
+                } else {
+                    lease.complete();
+                }
+            }
+        }
+
+        if (!isEnabled) {
+            return null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Idle account suspension task completed for " + summary);
+        }
+        return summary;
+    }
+
+    private void reportSummaries(List<TenantValidationSummary> summaries) {
+
+        if (summaries.isEmpty()) {
+            return;
+        }
+
+        int notifiedUsers = 0;
+        int lockedUsers = 0;
+        int failedTenants = 0;
+        for (TenantValidationSummary summary : summaries) {
+            notifiedUsers += summary.getNotifiedUsers();
+            lockedUsers += summary.getLockedUsers();
+            if (summary.isFailed()) {
+                failedTenants++;
+            }
+            if (summary.getNotifiedUsers() > 0 || summary.getLockedUsers() > 0 || summary.isFailed() ||
+                    summary.getSkippedNotifications() > 0 || summary.getFailedNotifications() > 0) {
+                log.info("Idle account suspension task completed for " + summary);
+            }
+        }
+        log.info("Idle account suspension task completed for " + summaries.size() + " tenants. Notified users: " +
+                notifiedUsers + ", locked users: " + lockedUsers + ", failed tenants: " + failedTenants);
+    }
+
+    private boolean handleTask(String tenantDomain, TenantValidationSummary summary) {
 
         if (log.isDebugEnabled()) {
             log.debug("Handling idle account suspension task for tenant: " + tenantDomain);
         }
 
         Property[] identityProperties;
+        // Retrievals of the user stores, shared by all the delay windows of this run.
+        Map<String, NotificationReceiversRetrieval> retrievals = new HashMap<>();
         try {
             // Start Tenant flow
             PrivilegedCarbonContext.startTenantFlow();
@@ -111,7 +267,7 @@ public class AccountValidatorThread implements Runnable {
                     isEnabled = Boolean.parseBoolean(identityProperty.getValue());
 
                     if (!isEnabled) {
-                        return;
+                        return false;
                     }
                 }
 
@@ -151,107 +307,328 @@ public class AccountValidatorThread implements Runnable {
             }
 
             if (!isEnabled) {
-                return;
+                return false;
             }
 
-            notifyUsers(tenantDomain, suspensionDelay, notificationDelays);
+            notifyUsers(tenantDomain, suspensionDelay, notificationDelays, retrievals, summary);
 
-            lockAccounts(tenantDomain, suspensionDelay);
+            lockAccounts(tenantDomain, suspensionDelay, retrievals, summary);
 
         } catch (IdentityGovernanceException e) {
+            summary.setFailed(true);
             log.error("Error occurred while loading governance configuration for tenants", e);
         } catch (IdentityException e) {
+            summary.setFailed(true);
             log.error("Unable to disable user accounts", e);
         } finally {
+            NotificationReceiversRetrievalManager.closeRetrievals(retrievals);
             PrivilegedCarbonContext.endTenantFlow();
         }
+        return true;
     }
 
     /**
-     * Notify users about account inactivity via Email.
+     * Notify users about account inactivity via Email. The emails are handed over to the notification dispatcher and
+     * this method returns only after all of them are processed, so that the accounts are locked only after the
+     * reminders are sent. Once the time budget of the tenant is exceeded the remaining notifications are skipped, while
+     * locking of the accounts is still carried out.
      */
-    private void notifyUsers(String tenantDomain, long suspensionDelay, long[] notificationDelays) {
-        EmailUtil util = new EmailUtil();
-        for (long delay : notificationDelays) {
-            List<NotificationReceiver> receivers = null;
-            try {
-                receivers = NotificationReceiversRetrievalManager.getReceivers(delay, tenantDomain, suspensionDelay);
-            } catch (AccountSuspensionNotificationException e) {
-                log.error("Error occurred while retrieving notification receivers", e);
+    private void notifyUsers(String tenantDomain, long suspensionDelay, long[] notificationDelays,
+                             Map<String, NotificationReceiversRetrieval> retrievals,
+                             TenantValidationSummary summary) {
+
+        if (notificationDelays == null) {
+            return;
+        }
+
+        NotificationDispatcher dispatcher = NotificationTaskDataHolder.getInstance().getNotificationDispatcher();
+        NotificationDispatcher.TenantDispatch dispatch = dispatcher != null ? dispatcher.startDispatch(tenantDomain) :
+                null;
+        EmailUtil util = dispatch == null ? new EmailUtil() : null;
+        TenantScanCheckpoints checkpoints = NotificationTaskDataHolder.getInstance().isCheckpointEnabled() ?
+                new TenantScanCheckpoints(tenantDomain) : null;
+        try {
+            for (long delay : notificationDelays) {
+                if (summary.isLeaseLost()) {
+                    log.warn("Idle account task lease of tenant: " + tenantDomain + " is lost. Skipping the " +
+                            "notifications for the remaining periods.");
+                    if (dispatch != null) {
+                        dispatch.cancel();
+                    }
+                    return;
+                }
+                if (summary.isBudgetExceeded()) {
+                    log.warn("Time budget exceeded while notifying idle users of tenant: " + tenantDomain +
+                            ". Skipping the notifications for the remaining periods.");
+                    if (dispatch != null) {
+                        dispatch.cancel();
+                    }
+                    return;
+                }
+                try {
+                    NotificationReceiversRetrievalManager.processReceivers(delay, tenantDomain, suspensionDelay,
+                            retrievals, checkpoints, receivers -> notifyReceivers(util, dispatch, checkpoints, delay,
+                                    tenantDomain, receivers, summary));
+                } catch (AccountSuspensionNotificationException e) {
+                    log.error("Error occurred while retrieving notification receivers", e);
+                    if (checkpoints != null) {
+                        checkpoints.discardScanned(delay);
+                    }
+                }
+            }
+        } finally {
+            if (dispatch != null) {
+                awaitNotifications(dispatch, summary);
+            }
+            if (checkpoints != null) {
+                // Reminders which were skipped or failed have not been sent, so the windows are scanned again on the
+                // next run, by this node only if it still holds the lease of the tenant.
+                if (!summary.isLeaseLost() && summary.getSkippedNotifications() == 0 &&
+                        summary.getFailedNotifications() == 0) {
+                    checkpoints.save();
+                }
+                checkpoints.purge(suspensionDelay);
+            }
+        }
+    }
+
+    /**
+     * Notify a page of receivers, either through the dispatcher or inline if there is no dispatcher.
+     *
+     * @return False if the time budget of the tenant is exceeded, so that no further pages are retrieved.
+     */
+    private boolean notifyReceivers(EmailUtil util, NotificationDispatcher.TenantDispatch dispatch,
+                                    TenantScanCheckpoints checkpoints, long delay, String tenantDomain,
+                                    List<NotificationReceiver> receivers, TenantValidationSummary summary) {
+
+        if (summary.isLeaseLost()) {
+            summary.addSkippedNotifications(receivers.size());
+            if (dispatch != null) {
+                dispatch.cancel();
+            }
+            return false;
+        }
+        NotificationTaskDataHolder.getInstance().getTaskMetrics().recordNotificationReceivers(delay,
+                receivers.size());
+        if (checkpoints != null) {
+            receivers = checkpoints.filterReminded(delay, receivers);
+        }
+        for (int i = 0; i < receivers.size(); i++) {
+            if (summary.isBudgetExceeded()) {
+                summary.addSkippedNotifications(receivers.size() - i);
+                log.warn("Time budget exceeded while notifying idle users of tenant: " + tenantDomain +
+                        ". Skipping the remaining notifications.");
+                if (dispatch != null) {
+                    dispatch.cancel();
+                }
+                return false;
+            }
+            NotificationReceiver receiver = receivers.get(i);
+            if (log.isDebugEnabled()) {
+                log.debug("Sending notification to: " + IdentityUtil.addDomainToName(receiver.getUsername(),
+                        receiver.getUserStoreDomain()) + "@" + tenantDomain);
             }
-            if (CollectionUtils.isNotEmpty(receivers)) {
-                for (NotificationReceiver receiver : receivers) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Sending notification to: " + IdentityUtil.addDomainToName(receiver.getUsername(),
-                                receiver.getUserStoreDomain()) + "@" + tenantDomain);
+            if (dispatch == null) {
+                long startTime = System.nanoTime();
+                boolean sent = util.sendEmail(receiver);
+                NotificationTaskDataHolder.getInstance().getTaskMetrics().recordPhase(TaskPhase.NOTIFICATION_DISPATCH,
+                        startTime);
+                if (sent) {
+                    summary.incrementNotifiedUsers();
+                    if (checkpoints != null) {
+                        checkpoints.recordReminder(delay, receiver);
                     }
-                    util.sendEmail(receiver);
+                } else {
+                    summary.addFailedNotifications(1);
                 }
+                continue;
+            }
+            try {
+                dispatch.submit(receiver, checkpoints == null ? null : sent -> checkpoints.recordReminder(delay,
+                        sent));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                summary.addSkippedNotifications(receivers.size() - i);
+                log.warn("Interrupted while notifying idle users of tenant: " + tenantDomain +
+                        ". Skipping the remaining notifications.");
+                dispatch.cancel();
+                return false;
             }
         }
+        return true;
+    }
+
+    private void awaitNotifications(NotificationDispatcher.TenantDispatch dispatch, TenantValidationSummary summary) {
+
+        try {
+            dispatch.awaitCompletion();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dispatch.cancel();
+            log.warn("Interrupted while waiting for the idle account notifications of tenant: " +
+                    summary.getTenantDomain() + " to be sent.");
+        }
+        summary.addNotifiedUsers(dispatch.getSentCount());
+        summary.addSkippedNotifications(dispatch.getSkippedCount());
+        summary.addFailedNotifications(dispatch.getFailedCount());
     }
 
     /**
-     * Disable user accounts which exceeds max inactivity timeout.
+     * Disable user accounts which exceeds max inactivity timeout. The user store manager of the tenant is resolved once
+     * for the run, and each page of accounts is locked in bulk when an identity data store is available for it.
      *
      * @throws IdentityException
      */
-    private void lockAccounts(String tenantDomain, long suspensionDelay) throws IdentityException {
-        List<NotificationReceiver> receivers = null;
-        try {
-            receivers = NotificationReceiversRetrievalManager.getReceivers(suspensionDelay, tenantDomain,
-                    suspensionDelay);
+    private void lockAccounts(String tenantDomain, long suspensionDelay,
+                              Map<String, NotificationReceiversRetrieval> retrievals, TenantValidationSummary summary)
+            throws IdentityException {
 
+        UserStoreManager userStoreManager = getUserStoreManager(tenantDomain);
+        UserIdentityDataStore identityDataStore = NotificationTaskDataHolder.getInstance().getUserIdentityDataStore();
+        IdleAccountTaskMetrics metrics = NotificationTaskDataHolder.getInstance().getTaskMetrics();
+        try {
+            NotificationReceiversRetrievalManager.processReceivers(suspensionDelay, tenantDomain, suspensionDelay,
+                    retrievals, receivers -> {
+                        if (summary.isLeaseLost()) {
+                            log.warn("Idle account task lease of tenant: " + tenantDomain + " is lost. Skipping " +
+                                    "the remaining accounts to be locked.");
+                            return false;
+                        }
+                        metrics.recordLockReceivers(suspensionDelay, receivers.size());
+                        long startTime = System.nanoTime();
+                        try {
+                            lockAccounts(tenantDomain, userStoreManager, identityDataStore, receivers, summary);
+                        } catch (IdentityException e) {
+                            throw new AccountSuspensionNotificationException(e.getMessage(), e);
+                        } finally {
+                            metrics.recordPhase(TaskPhase.ACCOUNT_LOCK, startTime);
+                        }
+                        return true;
+                    });
         } catch (AccountSuspensionNotificationException e) {
+            if (e.getCause() instanceof IdentityException) {
+                throw (IdentityException) e.getCause();
+            }
             throw IdentityException.error("Error occurred while retrieving users for account disable", e);
         }
-        if (receivers.size() > 0) {
-            for (NotificationReceiver receiver : receivers) {
-                if (log.isDebugEnabled()) {
-                    log.debug("Locking idle account: " + IdentityUtil.addDomainToName(receiver.getUsername(),
-                            receiver.getUserStoreDomain()) + "@" + tenantDomain);
-                }
-                RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
-                int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+    }
 
-                UserRealm userRealm;
-                try {
-                    userRealm = (UserRealm) realmService.getTenantUserRealm(tenantId);
-                } catch (UserStoreException e) {
-                    throw new IdentityException("Failed retrieve the user realm for tenant: " + tenantDomain, e);
+    /**
+     * Lock a page of accounts, which belong to a single user store.
+     */
+    private void lockAccounts(String tenantDomain, UserStoreManager userStoreManager,
+                              UserIdentityDataStore identityDataStore, List<NotificationReceiver> receivers,
+                              TenantValidationSummary summary) throws IdentityException {
+
+        String userStoreDomain = receivers.get(0).getUserStoreDomain();
+        if (identityDataStore != null) {
+            UserStoreManager storeManager = IdentityUtil.getPrimaryDomainName().equals(userStoreDomain) ?
+                    userStoreManager : userStoreManager.getSecondaryUserStoreManager(userStoreDomain);
+            if (storeManager != null && isIdentityDataStoreUsed(identityDataStore, storeManager)) {
+                lockAccounts(tenantDomain, userStoreDomain, storeManager, identityDataStore, receivers);
+                for (int i = 0; i < receivers.size(); i++) {
+                    summary.incrementLockedUsers();
                 }
+                return;
+            }
+        }
 
-                UserStoreManager userStoreManager;
-                try {
-                    userStoreManager = userRealm.getUserStoreManager();
-                } catch (org.wso2.carbon.user.core.UserStoreException e) {
-                    throw new IdentityException("Failed retrieve the user store manager for tenant: " + tenantDomain,
-                            e);
-                }
+        for (NotificationReceiver receiver : receivers) {
+            lockAccount(tenantDomain, userStoreManager, receiver);
+            summary.incrementLockedUsers();
+        }
+    }
 
-                Map<String, String> updatedClaims = new HashMap<>();
-                updatedClaims.put(NotificationConstants.ACCOUNT_LOCKED_CLAIM, Boolean.TRUE.toString());
-                updatedClaims.put(NotificationConstants.ACCOUNT_LOCKED_REASON_CLAIM,
-                        IdentityMgtConstants.LockedReason.IDLE_ACCOUNT.toString());
-                updatedClaims.put(NotificationConstants.PASSWORD_RESET_FAIL_ATTEMPTS_CLAIM, "0");
-                try {
-                    userStoreManager.setUserClaimValues(IdentityUtil.addDomainToName(receiver.getUsername(),
-                            receiver.getUserStoreDomain()), updatedClaims, UserCoreConstants.DEFAULT_PROFILE);
-                } catch (org.wso2.carbon.user.core.UserStoreException e) {
-                    throw new IdentityException("Failed to update claim values for user: " + IdentityUtil
-                            .addDomainToName(receiver.getUsername(), receiver.getUserStoreDomain()) + " in tenant: " +
-                            tenantDomain);
-                }
+    /**
+     * Write the lock claims of a page of accounts to the identity data store at once, and fire the account suspension
+     * event of each account. This bypasses the user operation listeners, hence it is used only when the identity
+     * claims are kept in the identity data store rather than in the user store, and the listeners which act on an
+     * account lock, such as the session termination and the account lock notification, do not run for these accounts.
+     */
+    private void lockAccounts(String tenantDomain, String userStoreDomain, UserStoreManager storeManager,
+                              UserIdentityDataStore identityDataStore, List<NotificationReceiver> receivers)
+            throws IdentityException {
 
-                User user = new User();
-                user.setUserName(receiver.getUsername());
-                user.setTenantDomain(tenantDomain);
-                user.setUserStoreDomain(receiver.getUserStoreDomain());
-                triggerNotification(user);
-            }
+        if (log.isDebugEnabled()) {
+            log.debug("Locking " + receivers.size() + " idle accounts of user store: " + userStoreDomain +
+                    " in tenant: " + tenantDomain);
+        }
+
+        List<UserIdentityClaim> userIdentityClaims = new ArrayList<>(receivers.size());
+        for (NotificationReceiver receiver : receivers) {
+            userIdentityClaims.add(new UserIdentityClaim(receiver.getUsername(), getLockClaims()));
+        }
+        identityDataStore.store(userIdentityClaims, storeManager);
+
+        for (NotificationReceiver receiver : receivers) {
+            User user = new User();
+            user.setUserName(receiver.getUsername());
+            user.setTenantDomain(tenantDomain);
+            user.setUserStoreDomain(userStoreDomain);
+            triggerNotification(user);
+        }
+    }
+
+    private void lockAccount(String tenantDomain, UserStoreManager userStoreManager, NotificationReceiver receiver)
+            throws IdentityException {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Locking idle account: " + IdentityUtil.addDomainToName(receiver.getUsername(),
+                    receiver.getUserStoreDomain()) + "@" + tenantDomain);
+        }
+
+        try {
+            userStoreManager.setUserClaimValues(IdentityUtil.addDomainToName(receiver.getUsername(),
+                    receiver.getUserStoreDomain()), getLockClaims(), UserCoreConstants.DEFAULT_PROFILE);
+        } catch (org.wso2.carbon.user.core.UserStoreException e) {
+            throw new IdentityException("Failed to update claim values for user: " + IdentityUtil
+                    .addDomainToName(receiver.getUsername(), receiver.getUserStoreDomain()) + " in tenant: " +
+                    tenantDomain);
+        }
+
+        User user = new User();
+        user.setUserName(receiver.getUsername());
+        user.setTenantDomain(tenantDomain);
+        user.setUserStoreDomain(receiver.getUserStoreDomain());
+        triggerNotification(user);
+    }
+
+    private UserStoreManager getUserStoreManager(String tenantDomain) throws IdentityException {
+
+        RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
+        int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+
+        UserRealm userRealm;
+        try {
+            userRealm = (UserRealm) realmService.getTenantUserRealm(tenantId);
+        } catch (UserStoreException e) {
+            throw new IdentityException("Failed retrieve the user realm for tenant: " + tenantDomain, e);
+        }
+
+        try {
+            return userRealm.getUserStoreManager();
+        } catch (org.wso2.carbon.user.core.UserStoreException e) {
+            throw new IdentityException("Failed retrieve the user store manager for tenant: " + tenantDomain,
+                    e);
         }
     }
 
+    private boolean isIdentityDataStoreUsed(UserIdentityDataStore identityDataStore, UserStoreManager storeManager) {
+
+        return !(identityDataStore instanceof UserStoreBasedIdentityDataStore) && !Boolean.parseBoolean(storeManager
+                .getRealmConfiguration().getUserStoreProperty(IdentityStoreEventListener.STORE_IDENTITY_CLAIMS));
+    }
+
+    private Map<String, String> getLockClaims() {
+
+        Map<String, String> updatedClaims = new HashMap<>();
+        updatedClaims.put(NotificationConstants.ACCOUNT_LOCKED_CLAIM, Boolean.TRUE.toString());
+        updatedClaims.put(NotificationConstants.ACCOUNT_LOCKED_REASON_CLAIM,
+                IdentityMgtConstants.LockedReason.IDLE_ACCOUNT.toString());
+        updatedClaims.put(NotificationConstants.PASSWORD_RESET_FAIL_ATTEMPTS_CLAIM, "0");
+        return updatedClaims;
+    }
+
     private String[] getPropertyNames() {
 
         List<String> properties = new ArrayList<>();
@@ -276,4 +653,21 @@ public class AccountValidatorThread implements Runnable {
                     user.toFullQualifiedUsername(), e);
         }
     }
+
+    /**
+     * Creates daemon workers with descriptive names for the idle account validation pool.
+     */
+    private static class ValidatorThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("idle-account-validator-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
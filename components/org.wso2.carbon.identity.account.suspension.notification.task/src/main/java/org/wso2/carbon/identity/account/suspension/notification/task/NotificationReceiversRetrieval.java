@@ -28,7 +28,43 @@ public interface NotificationReceiversRetrieval {
     public List<NotificationReceiver> getNotificationReceivers(long lookupMin, long lookupMax,
             long delayForSuspension, String tenantDomain) throws AccountSuspensionNotificationException;
 
+    /**
+     * Retrieve the users whose last login time falls within the given range, page by page. Each page is passed to
+     * the handler before the next page is retrieved, so that the memory used does not grow with the number of users.
+     * The default implementation pages over {@link #getNotificationReceivers(long, long, long, String)} and does
+     * not bound the memory. Implementations are expected to override it.
+     *
+     * @param lookupMin          Lookup minimum timestamp.
+     * @param lookupMax          Lookup maximum timestamp.
+     * @param delayForSuspension Allowed account suspension delay in days.
+     * @param tenantDomain       Tenant domain.
+     * @param pageSize           Maximum number of receivers in a page.
+     * @param handler            Handler of the pages.
+     * @throws AccountSuspensionNotificationException If the receivers could not be retrieved or handled.
+     */
+    default void processNotificationReceivers(long lookupMin, long lookupMax, long delayForSuspension,
+                                              String tenantDomain, int pageSize,
+                                              NotificationReceiversPageHandler handler)
+            throws AccountSuspensionNotificationException {
+
+        List<NotificationReceiver> receivers = getNotificationReceivers(lookupMin, lookupMax, delayForSuspension,
+                tenantDomain);
+        for (int from = 0; from < receivers.size(); from += pageSize) {
+            if (!handler.handle(receivers.subList(from, Math.min(from + pageSize, receivers.size())))) {
+                return;
+            }
+        }
+    }
+
     void init(RealmConfiguration realmConfiguration);
 
+    /**
+     * Release the resources such as connections which are kept by the retrieval across the delay windows of a run.
+     * The retrieval may be used again after closing, in which case the resources are acquired again.
+     */
+    default void close() {
+
+    }
+
 
 }
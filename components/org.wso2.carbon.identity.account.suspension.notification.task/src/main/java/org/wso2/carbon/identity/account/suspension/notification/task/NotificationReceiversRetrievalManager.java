@@ -19,6 +19,7 @@ package org.wso2.carbon.identity.account.suspension.notification.task;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.checkpoint.TenantScanCheckpoints;
 import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiver;
@@ -27,6 +28,8 @@ import org.wso2.carbon.identity.account.suspension.notification.task.util.Notifi
 import java.text.ParseException;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.List;
 import java.util.ArrayList;
@@ -39,35 +42,144 @@ public class NotificationReceiversRetrievalManager {
     public static List<NotificationReceiver> getReceivers(long delay, String tenantDomain, long delayForSuspension)
             throws AccountSuspensionNotificationException {
 
+        List<NotificationReceiver> receivers = new ArrayList<>();
+        processReceivers(delay, tenantDomain, delayForSuspension, page -> {
+            receivers.addAll(page);
+            return true;
+        });
+        return receivers;
+    }
+
+    /**
+     * Retrieve the notification receivers of all the notification enabled user stores of the tenant page by page.
+     * The pages are passed to the handler one at a time, so that no more than a single page is held in memory.
+     *
+     * @param delay              Number of idle days of the users to be retrieved.
+     * @param tenantDomain       Tenant domain.
+     * @param delayForSuspension Allowed account suspension delay in days.
+     * @param handler            Handler of the pages.
+     * @throws AccountSuspensionNotificationException If the receivers could not be retrieved or handled.
+     */
+    public static void processReceivers(long delay, String tenantDomain, long delayForSuspension,
+                                        NotificationReceiversPageHandler handler)
+            throws AccountSuspensionNotificationException {
+
+        Map<String, NotificationReceiversRetrieval> retrievals = new HashMap<>();
+        try {
+            processReceivers(delay, tenantDomain, delayForSuspension, retrievals, handler);
+        } finally {
+            closeRetrievals(retrievals);
+        }
+    }
+
+    /**
+     * Retrieve the notification receivers of all the notification enabled user stores of the tenant page by page,
+     * reusing the retrievals of the user stores kept in the given map. This allows the connections of a retrieval to
+     * be shared by all the delay windows of a run. The caller owns the map and must close the retrievals with
+     * {@link #closeRetrievals(Map)} at the end of the run.
+     *
+     * @param delay              Number of idle days of the users to be retrieved.
+     * @param tenantDomain       Tenant domain.
+     * @param delayForSuspension Allowed account suspension delay in days.
+     * @param retrievals         Retrievals of the run keyed by the user store domain.
+     * @param handler            Handler of the pages.
+     * @throws AccountSuspensionNotificationException If the receivers could not be retrieved or handled.
+     */
+    public static void processReceivers(long delay, String tenantDomain, long delayForSuspension,
+                                        Map<String, NotificationReceiversRetrieval> retrievals,
+                                        NotificationReceiversPageHandler handler)
+            throws AccountSuspensionNotificationException {
+
+        processReceivers(delay, tenantDomain, delayForSuspension, retrievals, null, handler);
+    }
+
+    /**
+     * Retrieve the notification receivers of all the notification enabled user stores of the tenant page by page,
+     * resuming each user store from its scan checkpoint. A user store which is scanned to the end is marked in the
+     * checkpoints, while the checkpoints are saved by the caller.
+     *
+     * @param delay              Number of idle days of the users to be retrieved.
+     * @param tenantDomain       Tenant domain.
+     * @param delayForSuspension Allowed account suspension delay in days.
+     * @param retrievals         Retrievals of the run keyed by the user store domain.
+     * @param checkpoints        Scan checkpoints of the tenant, or null to scan the whole window.
+     * @param handler            Handler of the pages.
+     * @throws AccountSuspensionNotificationException If the receivers could not be retrieved or handled.
+     */
+    public static void processReceivers(long delay, String tenantDomain, long delayForSuspension,
+                                        Map<String, NotificationReceiversRetrieval> retrievals,
+                                        TenantScanCheckpoints checkpoints, NotificationReceiversPageHandler handler)
+            throws AccountSuspensionNotificationException {
+
         Set<String> userStoreDomains = NotificationReceiversRetrievalUtil.
                 getSuspensionNotificationEnabledUserStores(tenantDomain);
-
-        List<NotificationReceiver> receivers = new ArrayList<>();
+        int pageSize = NotificationTaskDataHolder.getInstance().getReceiversPageSize();
 
         for (String userStoreDomain : userStoreDomains) {
             if (log.isDebugEnabled()) {
                 log.debug("Idle account suspension task enabled for user store: " + userStoreDomain + " in tenant: "
                         + tenantDomain);
             }
-            NotificationReceiversRetrieval notificationReceiversRetrieval = NotificationReceiversRetrievalUtil
-                    .getNotificationReceiversRetrievalForDomain(userStoreDomain, tenantDomain);
+            NotificationReceiversRetrieval notificationReceiversRetrieval = retrievals.get(userStoreDomain);
+            if (notificationReceiversRetrieval == null) {
+                notificationReceiversRetrieval = NotificationReceiversRetrievalUtil
+                        .getNotificationReceiversRetrievalForDomain(userStoreDomain, tenantDomain);
+                if (notificationReceiversRetrieval != null) {
+                    retrievals.put(userStoreDomain, notificationReceiversRetrieval);
+                }
+            }
             if (notificationReceiversRetrieval != null) {
-                long lookupMin;
+                long executionTime;
                 try {
-                    lookupMin = getCurrentExecutionTime(NotificationTaskDataHolder.getInstance().
-                            getNotificationTriggerTime()).getTimeInMillis() - TimeUnit.DAYS.toMillis(delay+1);
+                    executionTime = getCurrentExecutionTime(NotificationTaskDataHolder.getInstance().
+                            getNotificationTriggerTime()).getTimeInMillis();
                 } catch (ParseException e) {
                     throw new AccountSuspensionNotificationException("Error occurred while reading notification "
                             + "trigger time", e);
                 }
+                long lookupMin = executionTime - TimeUnit.DAYS.toMillis(delay+1);
                 long lookupMax = lookupMin + TimeUnit.DAYS.toMillis(1);
-                List<NotificationReceiver> newReceivers = notificationReceiversRetrieval
-                        .getNotificationReceivers(lookupMin, lookupMax, delayForSuspension, tenantDomain);
-                receivers.addAll(newReceivers);
+                if (checkpoints != null) {
+                    // Users who have been idle longer than the suspension delay are locked instead of reminded.
+                    lookupMin = checkpoints.getScanStart(delay, userStoreDomain, lookupMin,
+                            executionTime - TimeUnit.DAYS.toMillis(delayForSuspension));
+                    if (lookupMin >= lookupMax) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("User store: " + userStoreDomain + " of tenant: " + tenantDomain + " is " +
+                                    "already scanned for the notification delay: " + delay);
+                        }
+                        continue;
+                    }
+                }
+                StoppableHandler storeHandler = new StoppableHandler(handler);
+                notificationReceiversRetrieval.processNotificationReceivers(lookupMin, lookupMax, delayForSuspension,
+                        tenantDomain, pageSize, storeHandler);
+                if (storeHandler.stopped) {
+                    return;
+                }
+                if (checkpoints != null) {
+                    checkpoints.markScanned(delay, userStoreDomain, lookupMax);
+                }
             }
         }
+    }
 
-        return receivers;
+    /**
+     * Close the retrievals of a run.
+     *
+     * @param retrievals Retrievals of the run keyed by the user store domain.
+     */
+    public static void closeRetrievals(Map<String, NotificationReceiversRetrieval> retrievals) {
+
+        for (Map.Entry<String, NotificationReceiversRetrieval> retrieval : retrievals.entrySet()) {
+            try {
+                retrieval.getValue().close();
+            } catch (RuntimeException e) {
+                log.error("Error occurred while closing the notification receivers retrieval of user store: " +
+                        retrieval.getKey(), e);
+            }
+        }
+        retrievals.clear();
     }
 
     private static Calendar getCurrentExecutionTime(Date triggerTime) {
@@ -83,4 +195,27 @@ public class NotificationReceiversRetrievalManager {
         return calendar;
     }
 
+    /**
+     * Keeps track of whether the handler asked to stop, so that the remaining user stores are not queried either.
+     */
+    private static class StoppableHandler implements NotificationReceiversPageHandler {
+
+        private final NotificationReceiversPageHandler handler;
+        private boolean stopped;
+
+        private StoppableHandler(NotificationReceiversPageHandler handler) {
+
+            this.handler = handler;
+        }
+
+        @Override
+        public boolean handle(List<NotificationReceiver> receivers) throws AccountSuspensionNotificationException {
+
+            if (receivers.isEmpty()) {
+                return true;
+            }
+            stopped = !handler.handle(receivers);
+            return !stopped;
+        }
+    }
 }
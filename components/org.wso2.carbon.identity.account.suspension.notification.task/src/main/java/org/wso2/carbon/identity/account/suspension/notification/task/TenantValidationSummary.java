@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.account.suspension.notification.task;
+
+import org.wso2.carbon.identity.account.suspension.notification.task.lease.TenantLeaseManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a single idle account validation run of a tenant. An instance is owned by the worker which handles the
+ * tenant, hence it is not thread safe.
+ */
+public class TenantValidationSummary {
+
+    private final String tenantDomain;
+    private final long startTime;
+    private final long deadline;
+    private long endTime;
+    private int notifiedUsers;
+    private int skippedNotifications;
+    private int failedNotifications;
+    private int lockedUsers;
+    private boolean failed;
+    private TenantLeaseManager.TenantLease lease;
+
+    /**
+     * @param tenantDomain Tenant domain.
+     * @param timeBudget   Time budget of the tenant in seconds. A non positive value means no budget.
+     */
+    public TenantValidationSummary(String tenantDomain, long timeBudget) {
+
+        this.tenantDomain = tenantDomain;
+        this.startTime = System.currentTimeMillis();
+        this.deadline = timeBudget > 0 ? startTime + TimeUnit.SECONDS.toMillis(timeBudget) : Long.MAX_VALUE;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    /**
+     * Check whether the time budget of the tenant has been used up, or was used up by the time the run completed.
+     *
+     * @return True if the time budget is exceeded.
+     */
+    public boolean isBudgetExceeded() {
+
+        return (endTime > 0 ? endTime : System.currentTimeMillis()) > deadline;
+    }
+
+    public void setLease(TenantLeaseManager.TenantLease lease) {
+
+        this.lease = lease;
+    }
+
+    /**
+     * Check whether the lease of the tenant is lost, in which case the task of the tenant may be taken over by another
+     * node and has to be stopped.
+     *
+     * @return True if the lease is lost.
+     */
+    public boolean isLeaseLost() {
+
+        return lease != null && lease.isLost();
+    }
+
+    public void complete() {
+
+        this.endTime = System.currentTimeMillis();
+    }
+
+    public long getDuration() {
+
+        return (endTime > 0 ? endTime : System.currentTimeMillis()) - startTime;
+    }
+
+    public void incrementNotifiedUsers() {
+
+        notifiedUsers++;
+    }
+
+    public void addNotifiedUsers(int count) {
+
+        notifiedUsers += count;
+    }
+
+    public int getNotifiedUsers() {
+
+        return notifiedUsers;
+    }
+
+    public void addSkippedNotifications(int count) {
+
+        skippedNotifications += count;
+    }
+
+    public int getSkippedNotifications() {
+
+        return skippedNotifications;
+    }
+
+    public void addFailedNotifications(int count) {
+
+        failedNotifications += count;
+    }
+
+    public int getFailedNotifications() {
+
+        return failedNotifications;
+    }
+
+    public void incrementLockedUsers() {
+
+        lockedUsers++;
+    }
+
+    public int getLockedUsers() {
+
+        return lockedUsers;
+    }
+
+    public void setFailed(boolean failed) {
+
+        this.failed = failed;
+    }
+
+    public boolean isFailed() {
+
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+
+        return "tenant: " + tenantDomain + ", duration: " + getDuration() + "ms, notified users: " + notifiedUsers +
+                ", skipped notifications: " + skippedNotifications + ", failed notifications: " +
+                failedNotifications + ", locked users: " + lockedUsers +
+                ", failed: " + failed;
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.account.suspension.notification.task.checkpoint;
+
+import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data access of the idle account scan checkpoints and of the sent reminders. The tables are expected to be created
+ * along with the identity database.
+ * <pre>
+ * CREATE TABLE IDN_IDLE_ACCOUNT_SCAN (
+ *     TENANT_ID INTEGER NOT NULL,
+ *     USER_STORE_DOMAIN VARCHAR(255) NOT NULL,
+ *     NOTIFICATION_DELAY INTEGER NOT NULL,
+ *     LAST_LOGIN_TIME BIGINT NOT NULL,
+ *     UPDATED_TIME BIGINT NOT NULL,
+ *     PRIMARY KEY (TENANT_ID, USER_STORE_DOMAIN, NOTIFICATION_DELAY)
+ * );
+ *
+ * CREATE TABLE IDN_IDLE_ACCOUNT_REMINDER (
+ *     TENANT_ID INTEGER NOT NULL,
+ *     USER_STORE_DOMAIN VARCHAR(255) NOT NULL,
+ *     USER_NAME VARCHAR(255) NOT NULL,
+ *     NOTIFICATION_DELAY INTEGER NOT NULL,
+ *     REMINDER_DAY BIGINT NOT NULL,
+ *     PRIMARY KEY (TENANT_ID, USER_STORE_DOMAIN, USER_NAME, NOTIFICATION_DELAY, REMINDER_DAY)
+ * );
+ * </pre>
+ */
+public class ScanCheckpointDAO {
+
+    // SQL states of the integrity constraint violation class.
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION_CLASS = "23";
+
+    /**
+     * Get the scan checkpoints of a notification delay window of a tenant.
+     *
+     * @param tenantId Tenant id.
+     * @param delay    Notification delay in days.
+     * @return Last login time up to which each user store is scanned, keyed by the user store domain.
+     * @throws AccountSuspensionNotificationException If the checkpoints could not be read.
+     */
+    public Map<String, Long> getCheckpoints(int tenantId, long delay) throws AccountSuspensionNotificationException {
+
+        Map<String, Long> checkpoints = new HashMap<>();
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false);
+             PreparedStatement prepStmt = connection.prepareStatement(NotificationConstants.GET_SCAN_CHECKPOINTS)) {
+            prepStmt.setInt(1, tenantId);
+            prepStmt.setInt(2, (int) delay);
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    checkpoints.put(resultSet.getString(1), resultSet.getLong(2));
+                }
+            }
+        } catch (SQLException e) {
+            throw new AccountSuspensionNotificationException("Error while reading the idle account scan checkpoints " +
+                    "of tenant: " + tenantId, e);
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Save the scan checkpoints of a notification delay window of a tenant.
+     *
+     * @param tenantId    Tenant id.
+     * @param delay       Notification delay in days.
+     * @param checkpoints Last login time up to which each user store is scanned, keyed by the user store domain.
+     * @throws AccountSuspensionNotificationException If the checkpoints could not be saved.
+     */
+    public void saveCheckpoints(int tenantId, long delay, Map<String, Long> checkpoints)
+            throws AccountSuspensionNotificationException {
+
+        long now = System.currentTimeMillis();
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
+            try (PreparedStatement updateStmt = connection.prepareStatement(NotificationConstants
+                    .UPDATE_SCAN_CHECKPOINT);
+                 PreparedStatement insertStmt = connection.prepareStatement(NotificationConstants
+                         .INSERT_SCAN_CHECKPOINT)) {
+                for (Map.Entry<String, Long> checkpoint : checkpoints.entrySet()) {
+                    updateStmt.setLong(1, checkpoint.getValue());
+                    updateStmt.setLong(2, now);
+                    updateStmt.setInt(3, tenantId);
+                    updateStmt.setString(4, checkpoint.getKey());
+                    updateStmt.setInt(5, (int) delay);
+                    if (updateStmt.executeUpdate() == 0) {
+                        insertStmt.setInt(1, tenantId);
+                        insertStmt.setString(2, checkpoint.getKey());
+                        insertStmt.setInt(3, (int) delay);
+                        insertStmt.setLong(4, checkpoint.getValue());
+                        insertStmt.setLong(5, now);
+                        insertStmt.executeUpdate();
+                    }
+                }
+                IdentityDatabaseUtil.commitTransaction(connection);
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new AccountSuspensionNotificationException("Error while saving the idle account scan checkpoints " +
+                    "of tenant: " + tenantId, e);
+        }
+    }
+
+    /**
+     * Get the reminders of a notification delay window which are already sent to the given users.
+     *
+     * @param tenantId        Tenant id.
+     * @param userStoreDomain User store domain of the users.
+     * @param delay           Notification delay in days.
+     * @param userNames       Usernames without the user store domain.
+     * @return Keys of the sent reminders, as built by {@link #getReminderKey(String, long)}.
+     * @throws AccountSuspensionNotificationException If the reminders could not be read.
+     */
+    public Set<String> getSentReminders(int tenantId, String userStoreDomain, long delay,
+                                        Collection<String> userNames) throws AccountSuspensionNotificationException {
+
+        Set<String> reminders = new HashSet<>();
+        if (userNames.isEmpty()) {
+            return reminders;
+        }
+
+        StringBuilder sqlStmt = new StringBuilder(NotificationConstants.GET_SENT_REMINDERS);
+        for (int i = 0; i < userNames.size(); i++) {
+            sqlStmt.append(i == 0 ? "?" : ", ?");
+        }
+        sqlStmt.append(")");
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false);
+             PreparedStatement prepStmt = connection.prepareStatement(sqlStmt.toString())) {
+            int index = 1;
+            prepStmt.setInt(index++, tenantId);
+            prepStmt.setString(index++, userStoreDomain);
+            prepStmt.setInt(index++, (int) delay);
+            for (String userName : userNames) {
+                prepStmt.setString(index++, userName);
+            }
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    reminders.add(getReminderKey(resultSet.getString(1), resultSet.getLong(2)));
+                }
+            }
+        } catch (SQLException e) {
+            throw new AccountSuspensionNotificationException("Error while reading the sent idle account reminders " +
+                    "of tenant: " + tenantId, e);
+        }
+        return reminders;
+    }
+
+    /**
+     * Record a sent reminder. Recording an already recorded reminder has no effect.
+     *
+     * @param tenantId        Tenant id.
+     * @param userStoreDomain User store domain of the user.
+     * @param userName        Username without the user store domain.
+     * @param delay           Notification delay in days.
+     * @param reminderDay     Day on which the reminder is due, in days since the epoch.
+     * @throws AccountSuspensionNotificationException If the reminder could not be recorded.
+     */
+    public void addSentReminder(int tenantId, String userStoreDomain, String userName, long delay, long reminderDay)
+            throws AccountSuspensionNotificationException {
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
+            try (PreparedStatement prepStmt = connection.prepareStatement(NotificationConstants
+                    .INSERT_SENT_REMINDER)) {
+                prepStmt.setInt(1, tenantId);
+                prepStmt.setString(2, userStoreDomain);
+                prepStmt.setString(3, userName);
+                prepStmt.setInt(4, (int) delay);
+                prepStmt.setLong(5, reminderDay);
+                prepStmt.executeUpdate();
+                IdentityDatabaseUtil.commitTransaction(connection);
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                if (e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION_CLASS)) {
+                    return;
+                }
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new AccountSuspensionNotificationException("Error while recording the idle account reminder of " +
+                    "user: " + userName + " of tenant: " + tenantId, e);
+        }
+    }
+
+    /**
+     * Delete the sent reminders of a tenant which were due before the given day.
+     *
+     * @param tenantId Tenant id.
+     * @param day      Day in days since the epoch.
+     * @throws AccountSuspensionNotificationException If the reminders could not be deleted.
+     */
+    public void deleteSentRemindersBefore(int tenantId, long day) throws AccountSuspensionNotificationException {
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
+            try (PreparedStatement prepStmt = connection.prepareStatement(NotificationConstants
+                    .DELETE_SENT_REMINDERS_BEFORE)) {
+                prepStmt.setInt(1, tenantId);
+                prepStmt.setLong(2, day);
+                prepStmt.executeUpdate();
+                IdentityDatabaseUtil.commitTransaction(connection);
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new AccountSuspensionNotificationException("Error while deleting the expired idle account " +
+                    "reminders of tenant: " + tenantId, e);
+        }
+    }
+
+    /**
+     * Build the key of a reminder, which identifies it within a user store and a notification delay window.
+     *
+     * @param userName    Username without the user store domain.
+     * @param reminderDay Day on which the reminder is due, in days since the epoch.
+     * @return Key of the reminder.
+     */
+    public static String getReminderKey(String userName, long reminderDay) {
+
+        return reminderDay + ":" + userName;
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.account.suspension.notification.task.checkpoint;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiver;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan checkpoints of the notification delay windows of a tenant run.
+ * <ul>
+ * <li>Each user store of a window is scanned from the last login time up to which it was scanned by the previous run,
+ * so that a rerun on the same day does not scan the store again, and a run after an outage also covers the days which
+ * were missed. The checkpoints are saved only once all the reminders of the run are sent, and never for a window whose
+ * retrieval failed.</li>
+ * <li>Sent reminders are recorded by (user, window, day on which the reminder is due), so that the users of a
+ * partially scanned store are not reminded again when the store is scanned once more.</li>
+ * </ul>
+ * If the checkpoints can not be accessed, the run carries on without them, as if checkpointing is disabled.
+ * The checkpoints are used by the thread which runs the task of the tenant, while reminders may be recorded by the
+ * workers of the notification dispatcher.
+ */
+public class TenantScanCheckpoints {
+
+    private static final Log log = LogFactory.getLog(TenantScanCheckpoints.class);
+
+    private final ScanCheckpointDAO checkpointDAO = new ScanCheckpointDAO();
+    private final String tenantDomain;
+    private final int tenantId;
+    private final Map<Long, Map<String, Long>> checkpoints = new HashMap<>();
+    private final Map<Long, Map<String, Long>> scannedStores = new HashMap<>();
+    private volatile boolean available = true;
+
+    public TenantScanCheckpoints(String tenantDomain) {
+
+        this.tenantDomain = tenantDomain;
+        this.tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+    }
+
+    /**
+     * Get the last login time from which a user store of a window is to be scanned.
+     *
+     * @param delay           Notification delay in days.
+     * @param userStoreDomain User store domain.
+     * @param lookupMin       Start of the window of the current run.
+     * @param catchUpLimit    Earliest last login time to be scanned when catching up on the days missed by an outage.
+     * @return Start of the scan. It is not before the end of the window if the store is already scanned.
+     */
+    public long getScanStart(long delay, String userStoreDomain, long lookupMin, long catchUpLimit) {
+
+        Long checkpoint = getCheckpoints(delay).get(userStoreDomain);
+        if (checkpoint == null) {
+            return lookupMin;
+        }
+        if (checkpoint >= lookupMin) {
+            return checkpoint;
+        }
+        return Math.max(checkpoint, Math.min(catchUpLimit, lookupMin));
+    }
+
+    /**
+     * Mark a user store of a window as scanned. The checkpoint is saved by {@link #save()}.
+     *
+     * @param delay           Notification delay in days.
+     * @param userStoreDomain User store domain.
+     * @param lookupMax       End of the window of the current run.
+     */
+    public void markScanned(long delay, String userStoreDomain, long lookupMax) {
+
+        if (available) {
+            scannedStores.computeIfAbsent(delay, k -> new HashMap<>()).put(userStoreDomain, lookupMax);
+        }
+    }
+
+    /**
+     * Forget the user stores of a window which are marked as scanned by this run, so that the window is scanned again
+     * on the next run, as its retrieval failed.
+     *
+     * @param delay Notification delay in days.
+     */
+    public void discardScanned(long delay) {
+
+        scannedStores.remove(delay);
+    }
+
+    /**
+     * Remove the receivers who are already sent the reminder of the window.
+     *
+     * @param delay     Notification delay in days.
+     * @param receivers Receivers of a single user store.
+     * @return Receivers who are not reminded yet.
+     */
+    public List<NotificationReceiver> filterReminded(long delay, List<NotificationReceiver> receivers) {
+
+        if (!available || receivers.isEmpty()) {
+            return receivers;
+        }
+
+        Set<String> userNames = new LinkedHashSet<>();
+        for (NotificationReceiver receiver : receivers) {
+            userNames.add(receiver.getUsername());
+        }
+        Set<String> sentReminders;
+        try {
+            sentReminders = checkpointDAO.getSentReminders(tenantId, receivers.get(0).getUserStoreDomain(), delay,
+                    userNames);
+        } catch (AccountSuspensionNotificationException e) {
+            disable(e);
+            return receivers;
+        }
+        if (sentReminders.isEmpty()) {
+            return receivers;
+        }
+
+        List<NotificationReceiver> pending = new ArrayList<>(receivers.size());
+        for (NotificationReceiver receiver : receivers) {
+            if (!sentReminders.contains(ScanCheckpointDAO.getReminderKey(receiver.getUsername(),
+                    getReminderDay(delay, receiver)))) {
+                pending.add(receiver);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug((receivers.size() - pending.size()) + " users of tenant: " + tenantDomain + " are already " +
+                    "reminded for the notification delay: " + delay);
+        }
+        return pending;
+    }
+
+    /**
+     * Record a sent reminder.
+     *
+     * @param delay    Notification delay in days.
+     * @param receiver Receiver of the reminder.
+     */
+    public void recordReminder(long delay, NotificationReceiver receiver) {
+
+        if (!available) {
+            return;
+        }
+        try {
+            checkpointDAO.addSentReminder(tenantId, receiver.getUserStoreDomain(), receiver.getUsername(), delay,
+                    getReminderDay(delay, receiver));
+        } catch (AccountSuspensionNotificationException e) {
+            disable(e);
+        }
+    }
+
+    /**
+     * Save the checkpoints of the user stores which are scanned by this run.
+     */
+    public void save() {
+
+        if (!available) {
+            return;
+        }
+        try {
+            for (Map.Entry<Long, Map<String, Long>> scanned : scannedStores.entrySet()) {
+                checkpointDAO.saveCheckpoints(tenantId, scanned.getKey(), scanned.getValue());
+            }
+            scannedStores.clear();
+        } catch (AccountSuspensionNotificationException e) {
+            disable(e);
+        }
+    }
+
+    /**
+     * Delete the recorded reminders which can no longer be sent again.
+     *
+     * @param retentionDays Number of days for which the reminders are kept after they are due.
+     */
+    public void purge(long retentionDays) {
+
+        if (!available) {
+            return;
+        }
+        try {
+            checkpointDAO.deleteSentRemindersBefore(tenantId, TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis())
+                    - retentionDays);
+        } catch (AccountSuspensionNotificationException e) {
+            disable(e);
+        }
+    }
+
+    /**
+     * Get the day on which the reminder of a window is due for a receiver. The day is the same for every run which
+     * covers the receiver, until the user logs in again.
+     *
+     * @param delay    Notification delay in days.
+     * @param receiver Receiver of the reminder.
+     * @return Day in days since the epoch.
+     */
+    private static long getReminderDay(long delay, NotificationReceiver receiver) {
+
+        if (receiver.getLastLoginTime() > 0) {
+            return TimeUnit.MILLISECONDS.toDays(receiver.getLastLoginTime()) + delay;
+        }
+        return TimeUnit.MILLISECONDS.toDays(System.currentTimeMillis());
+    }
+
+    private Map<String, Long> getCheckpoints(long delay) {
+
+        Map<String, Long> windowCheckpoints = checkpoints.get(delay);
+        if (windowCheckpoints != null) {
+            return windowCheckpoints;
+        }
+        windowCheckpoints = new HashMap<>();
+        if (available) {
+            try {
+                windowCheckpoints = checkpointDAO.getCheckpoints(tenantId, delay);
+            } catch (AccountSuspensionNotificationException e) {
+                disable(e);
+            }
+        }
+        checkpoints.put(delay, windowCheckpoints);
+        return windowCheckpoints;
+    }
+
+    private void disable(AccountSuspensionNotificationException e) {
+
+        if (available) {
+            available = false;
+            log.error("Idle account scan checkpoints of tenant: " + tenantDomain + " are not accessible. The " +
+                    "remaining windows of the run are scanned without checkpoints.", e);
+        }
+    }
+}
@@ -20,9 +20,12 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.account.suspension.notification.task.AccountValidatorThread;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
+import org.wso2.carbon.identity.account.suspension.notification.task.lease.TenantLeaseManager;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationDispatcher;
 import org.wso2.carbon.identity.base.IdentityRuntimeException;
 import org.wso2.carbon.identity.core.handler.InitConfig;
+import org.wso2.carbon.identity.core.model.IdentityEventListenerConfig;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.event.IdentityEventException;
@@ -30,6 +33,9 @@ import org.wso2.carbon.identity.event.event.Event;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.governance.IdentityGovernanceException;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
+import org.wso2.carbon.identity.governance.common.PostAuthenticationClaimWriter;
+import org.wso2.carbon.identity.governance.listener.IdentityStoreEventListener;
+import org.wso2.carbon.identity.governance.store.UserIdentityDataStore;
 import org.wso2.carbon.user.core.UserStoreConfigConstants;
 import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.carbon.user.core.UserStoreManager;
@@ -86,7 +92,9 @@ public class AccountSuspensionNotificationHandler extends AbstractEventHandler i
                     userClaims.put(NotificationConstants.LAST_LOGIN_TIME, currentTime);
                 }
 
-                userStoreManager.setUserClaimValues(userName, userClaims, null);
+                if (!PostAuthenticationClaimWriter.addClaims(userStoreManager, userName, userClaims, lastLoginClaim)) {
+                    userStoreManager.setUserClaimValues(userName, userClaims, null);
+                }
             } catch (UserStoreException e) {
                 log.error("Error occurred while updating last login claim for user: ", e);
             }
@@ -154,6 +162,10 @@ public class AccountSuspensionNotificationHandler extends AbstractEventHandler i
 
         NotificationTaskDataHolder.getInstance().setNotificationTriggerTime(configs.getModuleProperties().
                 getProperty(NotificationConstants.SUSPENSION_NOTIFICATION_TRIGGER_TIME));
+        initTenantExecutionConfigs();
+        initNotificationDispatcher();
+        initBulkLock();
+        initLeaseManager();
         startScheduler();
         NotificationTaskDataHolder.getInstance().getBundleContext()
                 .registerService(IdentityConnectorConfig.class.getName(), this, null);
@@ -193,6 +205,130 @@ public class AccountSuspensionNotificationHandler extends AbstractEventHandler i
         return null;
     }
 
+    private void initTenantExecutionConfigs() {
+
+        NotificationTaskDataHolder.getInstance().setTenantParallelism(Math.max(1, getIntProperty(
+                NotificationConstants.SUSPENSION_NOTIFICATION_TENANT_PARALLELISM, 1)));
+        NotificationTaskDataHolder.getInstance().setReceiversPageSize(Math.max(1, getIntProperty(
+                NotificationConstants.SUSPENSION_NOTIFICATION_RECEIVERS_PAGE_SIZE,
+                NotificationConstants.DEFAULT_RECEIVERS_PAGE_SIZE)));
+
+        String tenantTimeBudget = configs.getModuleProperties().getProperty(NotificationConstants.
+                SUSPENSION_NOTIFICATION_TENANT_TIME_BUDGET);
+        if (StringUtils.isNotBlank(tenantTimeBudget)) {
+            try {
+                NotificationTaskDataHolder.getInstance().setTenantTimeBudget(Long.parseLong(tenantTimeBudget.trim()));
+            } catch (NumberFormatException e) {
+                log.error("Invalid value: " + tenantTimeBudget + " for the property: " +
+                        NotificationConstants.SUSPENSION_NOTIFICATION_TENANT_TIME_BUDGET + ". No time budget will " +
+                        "be applied.", e);
+            }
+        }
+
+        NotificationTaskDataHolder.getInstance().setCheckpointEnabled(Boolean.parseBoolean(configs
+                .getModuleProperties().getProperty(NotificationConstants.SUSPENSION_NOTIFICATION_CHECKPOINT_ENABLE)));
+    }
+
+    private void initNotificationDispatcher() {
+
+        int threadPoolSize = Math.max(1, getIntProperty(NotificationConstants.SUSPENSION_NOTIFICATION_THREAD_POOL_SIZE,
+                1));
+        NotificationTaskDataHolder.getInstance().setNotificationSendingThreadPoolSize(String.valueOf(threadPoolSize));
+
+        NotificationDispatcher previousDispatcher = NotificationTaskDataHolder.getInstance()
+                .getNotificationDispatcher();
+        if (previousDispatcher != null) {
+            previousDispatcher.shutdown();
+        }
+        NotificationTaskDataHolder.getInstance().setNotificationDispatcher(new NotificationDispatcher(threadPoolSize,
+                getIntProperty(NotificationConstants.SUSPENSION_NOTIFICATION_QUEUE_CAPACITY,
+                        NotificationConstants.DEFAULT_NOTIFICATION_QUEUE_CAPACITY),
+                getIntProperty(NotificationConstants.SUSPENSION_NOTIFICATION_RATE_LIMIT, 0),
+                getIntProperty(NotificationConstants.SUSPENSION_NOTIFICATION_RETRY_COUNT,
+                        NotificationConstants.DEFAULT_NOTIFICATION_RETRY_COUNT),
+                getIntProperty(NotificationConstants.SUSPENSION_NOTIFICATION_RETRY_DELAY,
+                        (int) NotificationConstants.DEFAULT_NOTIFICATION_RETRY_DELAY)));
+    }
+
+    private void initLeaseManager() {
+
+        TenantLeaseManager previousLeaseManager = NotificationTaskDataHolder.getInstance().getTenantLeaseManager();
+        if (previousLeaseManager != null) {
+            previousLeaseManager.shutdown();
+            NotificationTaskDataHolder.getInstance().setTenantLeaseManager(null);
+        }
+        if (!Boolean.parseBoolean(configs.getModuleProperties().getProperty(NotificationConstants.
+                SUSPENSION_NOTIFICATION_LEASE_ENABLE))) {
+            return;
+        }
+
+        long timeToLive = TimeUnit.SECONDS.toMillis(Math.max(1, getIntProperty(NotificationConstants.
+                SUSPENSION_NOTIFICATION_LEASE_TTL, NotificationConstants.DEFAULT_LEASE_TTL)));
+        NotificationTaskDataHolder.getInstance().setTenantLeaseManager(new TenantLeaseManager(timeToLive,
+                TimeUnit.HOURS.toMillis(NotificationConstants.SCHEDULER_DELAY)));
+    }
+
+    /**
+     * Resolve the identity data store which is configured for the identity store event listener, so that the idle
+     * accounts can be locked in bulk by writing the lock claims directly to it. The bulk write bypasses the user
+     * operation listeners, hence the listeners which act on an account lock do not run for these accounts.
+     */
+    private void initBulkLock() {
+
+        NotificationTaskDataHolder.getInstance().setUserIdentityDataStore(null);
+        if (!Boolean.parseBoolean(configs.getModuleProperties().getProperty(NotificationConstants.
+                SUSPENSION_NOTIFICATION_BULK_LOCK_ENABLE))) {
+            return;
+        }
+
+        IdentityEventListenerConfig listenerConfig = IdentityUtil.readEventListenerProperty(NotificationConstants.
+                USER_OPERATION_EVENT_LISTENER_TYPE, IdentityStoreEventListener.class.getName());
+        Object storeClassName = listenerConfig != null ? listenerConfig.getProperties().get(NotificationConstants.
+                IDENTITY_DATA_STORE_PROPERTY) : null;
+        if (storeClassName == null) {
+            log.warn("Identity data store is not configured for the identity store event listener. Idle accounts " +
+                    "will be locked one by one.");
+            return;
+        }
+        try {
+            NotificationTaskDataHolder.getInstance().setUserIdentityDataStore((UserIdentityDataStore) Class.forName(
+                    storeClassName.toString().trim()).newInstance());
+            log.warn("Idle accounts will be locked in bulk. The user operation listeners, such as the session " +
+                    "termination and the account lock notification, will not run for the locked accounts.");
+        } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e) {
+            log.error("Error while loading the identity data store: " + storeClassName + ". Idle accounts will be " +
+                    "locked one by one.", e);
+        }
+    }
+
+    /**
+     * Read a non negative integer module property.
+     *
+     * @param propertyName Name of the property.
+     * @param defaultValue Value to be used if the property is not set or invalid.
+     * @return Value of the property.
+     */
+    private int getIntProperty(String propertyName, int defaultValue) {
+
+        String value = configs.getModuleProperties().getProperty(propertyName);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            if (intValue >= 0) {
+                return intValue;
+            }
+        } catch (NumberFormatException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while parsing the value of the property: " + propertyName, e);
+            }
+        }
+        log.error("Invalid value: " + value + " for the property: " + propertyName + ". Default value: " +
+                defaultValue + " will be used.");
+        return defaultValue;
+    }
+
     private void startScheduler() {
 
         if(!Boolean.parseBoolean(configs.getModuleProperties().getProperty(NotificationConstants.
@@ -242,8 +378,8 @@ public class AccountSuspensionNotificationHandler extends AbstractEventHandler i
             delay += schedulerDelayInSeconds;
         }
 
-        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(NotificationTaskDataHolder.getInstance().
-                getNotificationSendingThreadPoolSize());
+        // The notifications are sent by the workers of the notification dispatcher, hence a single scheduler thread.
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
         scheduler.scheduleAtFixedRate(new AccountValidatorThread(), delay, schedulerDelayInSeconds, TimeUnit.SECONDS);
     }
 
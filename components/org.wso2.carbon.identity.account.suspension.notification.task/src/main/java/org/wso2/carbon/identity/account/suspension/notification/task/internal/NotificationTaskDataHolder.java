@@ -18,9 +18,13 @@ package org.wso2.carbon.identity.account.suspension.notification.task.internal;
 
 import org.osgi.framework.BundleContext;
 import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversRetrievalFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.lease.TenantLeaseManager;
+import org.wso2.carbon.identity.account.suspension.notification.task.metrics.IdleAccountTaskMetrics;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationDispatcher;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
+import org.wso2.carbon.identity.governance.store.UserIdentityDataStore;
 import org.wso2.carbon.user.core.service.RealmService;
 
 import java.text.DateFormat;
@@ -29,6 +33,7 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class NotificationTaskDataHolder {
 
@@ -43,6 +48,50 @@ public class NotificationTaskDataHolder {
     private String notificationTriggerTime;
     private String schedulerDelay;
     private String notificationSendingThreadPoolSize = "1";
+    private int tenantParallelism = 1;
+    private long tenantTimeBudget;
+    private int receiversPageSize = NotificationConstants.DEFAULT_RECEIVERS_PAGE_SIZE;
+    private NotificationDispatcher notificationDispatcher;
+    private boolean checkpointEnabled;
+    private UserIdentityDataStore userIdentityDataStore;
+    private TenantLeaseManager tenantLeaseManager;
+    private final IdleAccountTaskMetrics taskMetrics = new IdleAccountTaskMetrics(TimeUnit.HOURS.toMillis(
+            NotificationConstants.SCHEDULER_DELAY));
+
+    public NotificationDispatcher getNotificationDispatcher() {
+        return notificationDispatcher;
+    }
+
+    public void setNotificationDispatcher(NotificationDispatcher notificationDispatcher) {
+        this.notificationDispatcher = notificationDispatcher;
+    }
+
+    public int getReceiversPageSize() {
+        return receiversPageSize;
+    }
+
+    public void setReceiversPageSize(int receiversPageSize) {
+        this.receiversPageSize = receiversPageSize;
+    }
+
+    public int getTenantParallelism() {
+        return tenantParallelism;
+    }
+
+    public void setTenantParallelism(int tenantParallelism) {
+        this.tenantParallelism = tenantParallelism;
+    }
+
+    /**
+     * @return Time budget of a tenant in the idle account suspension task in seconds. 0 if there is no budget.
+     */
+    public long getTenantTimeBudget() {
+        return tenantTimeBudget;
+    }
+
+    public void setTenantTimeBudget(long tenantTimeBudget) {
+        this.tenantTimeBudget = tenantTimeBudget;
+    }
 
     public int getNotificationSendingThreadPoolSize() {
         return Integer.parseInt(notificationSendingThreadPoolSize);
@@ -112,4 +161,45 @@ public class NotificationTaskDataHolder {
     public RealmService getRealmService() {
         return realmService;
     }
+
+    public boolean isCheckpointEnabled() {
+
+        return checkpointEnabled;
+    }
+
+    public void setCheckpointEnabled(boolean checkpointEnabled) {
+
+        this.checkpointEnabled = checkpointEnabled;
+    }
+
+    /**
+     * @return Identity data store used to lock the idle accounts in bulk, or null if they are locked one by one.
+     */
+    public UserIdentityDataStore getUserIdentityDataStore() {
+
+        return userIdentityDataStore;
+    }
+
+    public void setUserIdentityDataStore(UserIdentityDataStore userIdentityDataStore) {
+
+        this.userIdentityDataStore = userIdentityDataStore;
+    }
+
+    /**
+     * @return Manager of the tenant leases, or null if the task is not coordinated across the nodes of a cluster.
+     */
+    public TenantLeaseManager getTenantLeaseManager() {
+
+        return tenantLeaseManager;
+    }
+
+    public void setTenantLeaseManager(TenantLeaseManager tenantLeaseManager) {
+
+        this.tenantLeaseManager = tenantLeaseManager;
+    }
+
+    public IdleAccountTaskMetrics getTaskMetrics() {
+
+        return taskMetrics;
+    }
 }
@@ -25,6 +25,8 @@ import org.wso2.carbon.identity.account.suspension.notification.task.Notificatio
 import org.wso2.carbon.identity.account.suspension.notification.task.handler.AccountSuspensionNotificationHandler;
 import org.wso2.carbon.identity.account.suspension.notification.task.jdbc.JDBCNotificationReceiversRetrievalFactory;
 import org.wso2.carbon.identity.account.suspension.notification.task.ldap.LDAPNotificationReceiversRetrievalFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.lease.TenantLeaseManager;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationDispatcher;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
@@ -66,11 +68,25 @@ public class NotificationTaskServiceComponent {
                 JDBCNotificationReceiversRetrievalFactory();
         bundleContext.registerService(NotificationReceiversRetrievalFactory.class.getName(),
                 jdbcNotificationReceiversRetrievalFactory, null);
+        NotificationTaskDataHolder.getInstance().getTaskMetrics().registerMBean();
     }
 
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        NotificationDispatcher notificationDispatcher = NotificationTaskDataHolder.getInstance()
+                .getNotificationDispatcher();
+        if (notificationDispatcher != null) {
+            notificationDispatcher.shutdown();
+            NotificationTaskDataHolder.getInstance().setNotificationDispatcher(null);
+        }
+        TenantLeaseManager tenantLeaseManager = NotificationTaskDataHolder.getInstance().getTenantLeaseManager();
+        if (tenantLeaseManager != null) {
+            tenantLeaseManager.shutdown();
+            NotificationTaskDataHolder.getInstance().setTenantLeaseManager(null);
+        }
+        NotificationTaskDataHolder.getInstance().getTaskMetrics().unregisterMBean();
+
         if (log.isDebugEnabled()) {
             log.debug("Notification bundle de-activated");
         }
@@ -20,9 +20,11 @@ package org.wso2.carbon.identity.account.suspension.notification.task.jdbc;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversPageHandler;
 import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversRetrieval;
 import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
+import org.wso2.carbon.identity.account.suspension.notification.task.metrics.TaskPhase;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiver;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiversRetrievalUtil;
@@ -35,6 +37,7 @@ import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.UserStoreManager;
 import org.wso2.carbon.user.core.claim.ClaimManager;
+import org.wso2.carbon.user.core.jdbc.JDBCRealmConstants;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.user.core.util.DatabaseUtil;
 
@@ -44,6 +47,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -54,23 +58,66 @@ public class JDBCNotificationReceiversRetrieval implements NotificationReceivers
 
     private static final Log log = LogFactory.getLog(JDBCNotificationReceiversRetrieval.class);
     private RealmConfiguration realmConfiguration = null;
+    // Created once per retrieval and kept across the pages and delay windows of a run, until close() is called.
+    private DataSource dataSource;
+    private boolean dataSourceResolved;
+    private String databaseType;
 
     @Override
     public void init(RealmConfiguration realmConfiguration) {
         this.realmConfiguration = realmConfiguration;
     }
 
+    @Override
+    public void close() {
+
+        DataSource ownedDataSource = dataSource;
+        dataSource = null;
+        dataSourceResolved = false;
+        databaseType = null;
+        // A data source looked up by its JNDI name is shared, hence only a pool created from the user store URL is
+        // closed.
+        if (ownedDataSource == null || StringUtils.isNotBlank(realmConfiguration.getUserStoreProperty(
+                JDBCRealmConstants.DATASOURCE))) {
+            return;
+        }
+        try {
+            if (ownedDataSource instanceof AutoCloseable) {
+                ((AutoCloseable) ownedDataSource).close();
+            } else {
+                // The pools created by DatabaseUtil expose close() without implementing AutoCloseable.
+                ownedDataSource.getClass().getMethod("close").invoke(ownedDataSource);
+            }
+        } catch (Exception e) {
+            log.warn("Error while closing the data source of the user store: " + realmConfiguration
+                    .getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME), e);
+        }
+    }
+
     @Override
     public List<NotificationReceiver> getNotificationReceivers(long lookupMin, long lookupMax,
                                                                long delayForSuspension, String tenantDomain)
             throws AccountSuspensionNotificationException {
 
         List<NotificationReceiver> users = new ArrayList<>();
+        processNotificationReceivers(lookupMin, lookupMax, delayForSuspension, tenantDomain,
+                NotificationTaskDataHolder.getInstance().getReceiversPageSize(), page -> {
+                    users.addAll(page);
+                    return true;
+                });
+        return users;
+    }
+
+    @Override
+    public void processNotificationReceivers(long lookupMin, long lookupMax, long delayForSuspension,
+                                             String tenantDomain, int pageSize,
+                                             NotificationReceiversPageHandler handler)
+            throws AccountSuspensionNotificationException {
+
         RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
 
         try {
-            ClaimManager claimManager = (ClaimManager) realmService.getTenantUserRealm(IdentityTenantUtil.
-                    getTenantId(tenantDomain)).getClaimManager();
+            int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
             String userStoreDomain = realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.
                     PROPERTY_DOMAIN_NAME);
 
@@ -88,76 +135,129 @@ public class JDBCNotificationReceiversRetrieval implements NotificationReceivers
                     log.debug("Property " + NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME +
                             " is enabled in identity.xml file. Hence treating last login time as identity claim.");
                 }
-                return NotificationReceiversRetrievalUtil.getNotificationReceiversFromIdentityClaim(lookupMin,
-                        lookupMax, delayForSuspension, realmService, tenantDomain, userStoreDomain);
+                NotificationReceiversRetrievalUtil.processNotificationReceiversFromIdentityClaim(lookupMin,
+                        lookupMax, delayForSuspension, realmService, tenantDomain, userStoreDomain, pageSize,
+                        handler);
+                return;
             }
 
+            ClaimManager claimManager = (ClaimManager) realmService.getTenantUserRealm(tenantId).getClaimManager();
+            UserStoreManager userStoreManager = (UserStoreManager) realmService.getTenantUserRealm(tenantId)
+                    .getUserStoreManager();
             String lastLoginClaim = NotificationConstants.LAST_LOGIN_TIME;
             String lastLoginTimeAttribute = claimManager.getAttributeName(userStoreDomain, lastLoginClaim);
+            String[] claims = {NotificationConstants.FIRST_NAME_CLAIM, NotificationConstants.EMAIL_CLAIM,
+                    lastLoginClaim};
+
+            List<String> userNames;
+            String lastUserName = null;
+            do {
+                long startTime = System.nanoTime();
+                try {
+                    userNames = getIdleUserNames(lookupMin, lookupMax, tenantId, lastLoginTimeAttribute,
+                            lastUserName, pageSize);
+                } finally {
+                    NotificationTaskDataHolder.getInstance().getTaskMetrics().recordPhase(TaskPhase.RECEIVER_QUERY,
+                            startTime);
+                }
+                if (userNames.isEmpty()) {
+                    return;
+                }
+                lastUserName = userNames.get(userNames.size() - 1);
+
+                String[] qualifiedUserNames = new String[userNames.size()];
+                for (int i = 0; i < qualifiedUserNames.length; i++) {
+                    qualifiedUserNames[i] = IdentityUtil.addDomainToName(userNames.get(i), userStoreDomain);
+                }
+                Map<String, Map<String, String>> claimsOfUsers = NotificationReceiversRetrievalUtil
+                        .getUsersClaimValues(userStoreManager, qualifiedUserNames, claims);
 
-            try (Connection dbConnection = getDBConnection(realmConfiguration)) {
-                String sqlStmt = NotificationConstants.GET_USERS_FILTERED_BY_LAST_LOGIN_TIME;
-                try (PreparedStatement prepStmt = dbConnection.prepareStatement(sqlStmt)) {
-
-                    prepStmt.setString(1, lastLoginTimeAttribute);
-                    prepStmt.setString(2, String.valueOf(lookupMin));
-                    prepStmt.setString(3, String.valueOf(lookupMax));
-                    // As UM_TENANT_ID is integer, this has to be set as an int to work with postgres.
-                    prepStmt.setInt(4, IdentityTenantUtil.getTenantId(tenantDomain));
-                    prepStmt.setInt(5, IdentityTenantUtil.getTenantId(tenantDomain));
-
-                    try (ResultSet resultSet = prepStmt.executeQuery()) {
-
-                        while (resultSet.next()) {
-                            String userName = resultSet.getString(1);
-
-                            if (StringUtils.isNotBlank(userName)) {
-
-                                String[] claims = new String[3];
-                                claims[0] = NotificationConstants.FIRST_NAME_CLAIM;
-                                claims[1] = NotificationConstants.EMAIL_CLAIM;
-                                claims[2] = lastLoginClaim;
-
-                                UserStoreManager userStoreManager =
-                                        (UserStoreManager) realmService.getTenantUserRealm(IdentityTenantUtil
-                                                .getTenantId(tenantDomain)).getUserStoreManager();
-
-                                Map<String, String> map =
-                                        userStoreManager.getUserClaimValues(IdentityUtil.addDomainToName
-                                                (userName, userStoreDomain), claims, null);
-
-                                NotificationReceiver receiver = new NotificationReceiver();
-                                receiver.setEmail(map.get(NotificationConstants.EMAIL_CLAIM));
-                                receiver.setUsername(userName);
-                                receiver.setFirstName(map.get(NotificationConstants.FIRST_NAME_CLAIM));
-                                receiver.setUserStoreDomain(userStoreDomain);
-
-                                long lastLoginTime = Long.parseLong(map.get(lastLoginClaim));
-                                long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
-                                receiver.setExpireDate(new SimpleDateFormat("dd-MM-yyyy").format(new Date(expireDate)));
-                                users.add(receiver);
-                            }
-                        }
+                List<NotificationReceiver> receivers = new ArrayList<>(userNames.size());
+                for (String userName : userNames) {
+                    if (StringUtils.isBlank(userName)) {
+                        continue;
                     }
-                    dbConnection.commit();
-                } catch (SQLException e) {
-                    DatabaseUtil.rollBack(dbConnection);
-                    if (log.isDebugEnabled()) {
-                        log.debug("Using sql : " + sqlStmt);
+                    Map<String, String> map = claimsOfUsers.get(userName);
+                    if (map == null) {
+                        map = Collections.emptyMap();
                     }
-                    throw new AccountSuspensionNotificationException(e.getMessage(), e);
+
+                    NotificationReceiver receiver = new NotificationReceiver();
+                    receiver.setEmail(map.get(NotificationConstants.EMAIL_CLAIM));
+                    receiver.setUsername(userName);
+                    receiver.setFirstName(map.get(NotificationConstants.FIRST_NAME_CLAIM));
+                    receiver.setUserStoreDomain(userStoreDomain);
+
+                    long lastLoginTime = Long.parseLong(map.get(lastLoginClaim));
+                    receiver.setLastLoginTime(lastLoginTime);
+                    long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
+                    receiver.setExpireDate(new SimpleDateFormat("dd-MM-yyyy").format(new Date(expireDate)));
+                    receivers.add(receiver);
                 }
-            }
+                if (!handler.handle(receivers)) {
+                    return;
+                }
+            } while (userNames.size() == pageSize);
         } catch (IdentityRuntimeException | SQLException | NumberFormatException | UserStoreException e) {
             throw new AccountSuspensionNotificationException(e.getMessage(), e);
         }
-        return users;
+    }
+
+    /**
+     * Read a page of users whose last login time falls within the given range, ordered by the username. The
+     * connection is released before returning, so that it is not held while the page is being handled.
+     */
+    private List<String> getIdleUserNames(long lookupMin, long lookupMax, int tenantId, String lastLoginTimeAttribute,
+                                          String lastUserName, int pageSize)
+            throws SQLException, UserStoreException, AccountSuspensionNotificationException {
+
+        List<String> userNames = new ArrayList<>();
+        try (Connection dbConnection = getDBConnection(realmConfiguration)) {
+            if (databaseType == null) {
+                databaseType = NotificationReceiversRetrievalUtil.getDatabaseType(dbConnection);
+            }
+            String sqlStmt = NotificationReceiversRetrievalUtil.getPagedQuery(databaseType,
+                    NotificationConstants.GET_USERS_FILTERED_BY_LAST_LOGIN_TIME + (lastUserName == null ? "" :
+                            NotificationConstants.USER_NAME_AFTER_CLAUSE) +
+                            NotificationConstants.ORDER_BY_USER_NAME_CLAUSE);
+            try (PreparedStatement prepStmt = dbConnection.prepareStatement(sqlStmt)) {
+
+                int index = 1;
+                prepStmt.setString(index++, lastLoginTimeAttribute);
+                prepStmt.setString(index++, String.valueOf(lookupMin));
+                prepStmt.setString(index++, String.valueOf(lookupMax));
+                // As UM_TENANT_ID is integer, this has to be set as an int to work with postgres.
+                prepStmt.setInt(index++, tenantId);
+                prepStmt.setInt(index++, tenantId);
+                if (lastUserName != null) {
+                    prepStmt.setString(index++, lastUserName);
+                }
+                prepStmt.setInt(index, pageSize);
+
+                try (ResultSet resultSet = prepStmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        userNames.add(resultSet.getString(1));
+                    }
+                }
+                dbConnection.commit();
+            } catch (SQLException e) {
+                DatabaseUtil.rollBack(dbConnection);
+                if (log.isDebugEnabled()) {
+                    log.debug("Using sql : " + sqlStmt);
+                }
+                throw new AccountSuspensionNotificationException(e.getMessage(), e);
+            }
+        }
+        return userNames;
     }
 
     private Connection getDBConnection(RealmConfiguration realmConfiguration) throws SQLException, UserStoreException {
 
         Connection dbConnection = null;
-        DataSource dataSource = DatabaseUtil.createUserStoreDataSource(realmConfiguration);
+        if (!dataSourceResolved) {
+            dataSource = DatabaseUtil.createUserStoreDataSource(realmConfiguration);
+            dataSourceResolved = true;
+        }
 
         if (dataSource != null) {
             dbConnection = DatabaseUtil.getDBConnection(dataSource);
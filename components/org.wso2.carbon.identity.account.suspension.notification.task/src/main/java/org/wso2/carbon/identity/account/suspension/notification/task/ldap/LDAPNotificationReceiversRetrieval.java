@@ -20,9 +20,11 @@ package org.wso2.carbon.identity.account.suspension.notification.task.ldap;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversPageHandler;
 import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversRetrieval;
 import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
+import org.wso2.carbon.identity.account.suspension.notification.task.metrics.TaskPhase;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiver;
 import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiversRetrievalUtil;
@@ -37,11 +39,19 @@ import org.wso2.carbon.user.core.ldap.LDAPConnectionContext;
 import org.wso2.carbon.user.core.ldap.LDAPConstants;
 import org.wso2.carbon.user.core.service.RealmService;
 
+import javax.naming.CommunicationException;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
 import javax.naming.directory.DirContext;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+import javax.naming.ldap.SortControl;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.time.Instant;
 import java.time.OffsetDateTime;
@@ -54,7 +64,12 @@ import java.util.concurrent.TimeUnit;
 public class LDAPNotificationReceiversRetrieval implements NotificationReceiversRetrieval {
 
     private static final Log log = LogFactory.getLog(LDAPNotificationReceiversRetrieval.class);
+    private static final String SUPPORTED_CONTROL_ATTRIBUTE = "supportedControl";
     private RealmConfiguration realmConfiguration = null;
+    // Kept open across the delay windows of a run, until close() is called.
+    private DirContext context;
+    private boolean pagedResultsSupported;
+    private boolean sortSupported;
 
     @Override
     public void init(RealmConfiguration realmConfiguration) {
@@ -66,91 +81,275 @@ public class LDAPNotificationReceiversRetrieval implements NotificationReceivers
             long delayForSuspension, String tenantDomain) throws AccountSuspensionNotificationException {
 
         List<NotificationReceiver> users = new ArrayList<NotificationReceiver>();
+        try {
+            processNotificationReceivers(lookupMin, lookupMax, delayForSuspension, tenantDomain,
+                    NotificationTaskDataHolder.getInstance().getReceiversPageSize(), page -> {
+                        users.addAll(page);
+                        return true;
+                    });
+        } finally {
+            close();
+        }
+        return users;
+    }
 
-        if (realmConfiguration != null) {
-            String ldapSearchBase = realmConfiguration.getUserStoreProperty(LDAPConstants.USER_SEARCH_BASE);
-            RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
+    @Override
+    public void processNotificationReceivers(long lookupMin, long lookupMax, long delayForSuspension,
+                                             String tenantDomain, int pageSize,
+                                             NotificationReceiversPageHandler handler)
+            throws AccountSuspensionNotificationException {
 
-            try {
-                ClaimManager claimManager = (ClaimManager) realmService.getTenantUserRealm(IdentityTenantUtil.
-                        getTenantId(tenantDomain)).getClaimManager();
-                String userStoreDomain = realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.
-                        PROPERTY_DOMAIN_NAME);
-                if (StringUtils.isBlank(userStoreDomain)) {
-                    userStoreDomain = IdentityUtil.getPrimaryDomainName();
-                }
+        if (realmConfiguration == null) {
+            return;
+        }
 
-                String identityClaimForLastLoginTime = IdentityUtil.
-                        getProperty(NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME);
-                boolean useIdentityClaimForLastLoginTime = StringUtils.isBlank(identityClaimForLastLoginTime) ||
-                        Boolean.parseBoolean(identityClaimForLastLoginTime);
+        String ldapSearchBase = realmConfiguration.getUserStoreProperty(LDAPConstants.USER_SEARCH_BASE);
+        RealmService realmService = NotificationTaskDataHolder.getInstance().getRealmService();
 
-                if (useIdentityClaimForLastLoginTime) {
-                    if (log.isDebugEnabled()) {
-                        log.debug("Property " + NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME +
-                                " is enabled in identity.xml file. Hence treating last login time as identity claim.");
-                    }
-                    return NotificationReceiversRetrievalUtil.getNotificationReceiversFromIdentityClaim(lookupMin,
-                            lookupMax, delayForSuspension, realmService, tenantDomain, userStoreDomain);
-                }
+        NamingEnumeration<SearchResult> results = null;
+        try {
+            ClaimManager claimManager = (ClaimManager) realmService.getTenantUserRealm(IdentityTenantUtil.
+                    getTenantId(tenantDomain)).getClaimManager();
+            String userStoreDomain = realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.
+                    PROPERTY_DOMAIN_NAME);
+            if (StringUtils.isBlank(userStoreDomain)) {
+                userStoreDomain = IdentityUtil.getPrimaryDomainName();
+            }
 
-                String lastLoginClaim = NotificationConstants.LAST_LOGIN_TIME;
-                String usernameMapAttribute = claimManager.getAttributeName(userStoreDomain, NotificationConstants.USERNAME_CLAIM);
-                String firstNameMapAttribute  = claimManager.getAttributeName(userStoreDomain, NotificationConstants.FIRST_NAME_CLAIM);
-                String emailMapAttribute = claimManager.getAttributeName(userStoreDomain, NotificationConstants.EMAIL_CLAIM);
-                String lastLoginTimeAttribute = claimManager.getAttributeName(userStoreDomain, lastLoginClaim);
+            String identityClaimForLastLoginTime = IdentityUtil.
+                    getProperty(NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME);
+            boolean useIdentityClaimForLastLoginTime = StringUtils.isBlank(identityClaimForLastLoginTime) ||
+                    Boolean.parseBoolean(identityClaimForLastLoginTime);
 
+            if (useIdentityClaimForLastLoginTime) {
                 if (log.isDebugEnabled()) {
-                    log.debug("Retrieving ldap user list for lookupMin: " + lookupMin + " - lookupMax: " + lookupMax);
+                    log.debug("Property " + NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME +
+                            " is enabled in identity.xml file. Hence treating last login time as identity claim.");
                 }
+                NotificationReceiversRetrievalUtil.processNotificationReceiversFromIdentityClaim(lookupMin,
+                        lookupMax, delayForSuspension, realmService, tenantDomain, userStoreDomain, pageSize,
+                        handler);
+                return;
+            }
 
-                String[] returnedAttrs = {emailMapAttribute, usernameMapAttribute, firstNameMapAttribute, lastLoginTimeAttribute};
+            String lastLoginClaim = NotificationConstants.LAST_LOGIN_TIME;
+            String usernameMapAttribute = claimManager.getAttributeName(userStoreDomain,
+                    NotificationConstants.USERNAME_CLAIM);
+            String firstNameMapAttribute = claimManager.getAttributeName(userStoreDomain,
+                    NotificationConstants.FIRST_NAME_CLAIM);
+            String emailMapAttribute = claimManager.getAttributeName(userStoreDomain,
+                    NotificationConstants.EMAIL_CLAIM);
+            String lastLoginTimeAttribute = claimManager.getAttributeName(userStoreDomain, lastLoginClaim);
 
-                LDAPConnectionContext ldapConnectionContext = new LDAPConnectionContext(realmConfiguration);
-                DirContext ctx = ldapConnectionContext.getContext();
+            if (log.isDebugEnabled()) {
+                log.debug("Retrieving ldap user list for lookupMin: " + lookupMin + " - lookupMax: " + lookupMax);
+            }
 
-                //carLicense is the mapped LDAP attribute for LastLoginTime claim
-                String searchFilter = getSearchFilter(lookupMin, lookupMax,lastLoginTimeAttribute);
+            String[] returnedAttrs = {emailMapAttribute, usernameMapAttribute, firstNameMapAttribute,
+                    lastLoginTimeAttribute};
 
-                SearchControls searchControls = new SearchControls();
-                searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
-                searchControls.setReturningAttributes(returnedAttrs);
+            //carLicense is the mapped LDAP attribute for LastLoginTime claim
+            String searchFilter = getSearchFilter(lookupMin, lookupMax,lastLoginTimeAttribute);
 
-                NamingEnumeration<SearchResult> results = ctx.search(ldapSearchBase, searchFilter, searchControls);
+            SearchControls searchControls = new SearchControls();
+            searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+            searchControls.setReturningAttributes(returnedAttrs);
 
-                if (log.isDebugEnabled()) {
-                    log.debug("LDAP user list retrieved.");
-                }
+            DirContext ctx = getContext();
+            byte[] cookie = null;
+            List<NotificationReceiver> receivers = new ArrayList<>(pageSize);
+            try {
+                do {
+                    setRequestControls(ctx, pageSize, cookie, lastLoginTimeAttribute);
+                    long startTime = System.nanoTime();
+                    try {
+                        results = ctx.search(ldapSearchBase, searchFilter, searchControls);
+                    } catch (CommunicationException e) {
+                        if (cookie != null) {
+                            throw e;
+                        }
+                        // The context kept from an earlier delay window may have been dropped by the server.
+                        if (log.isDebugEnabled()) {
+                            log.debug("LDAP connection of user store: " + userStoreDomain + " is no longer usable. " +
+                                    "Retrying with a new connection.", e);
+                        }
+                        close();
+                        ctx = getContext();
+                        setRequestControls(ctx, pageSize, null, lastLoginTimeAttribute);
+                        results = ctx.search(ldapSearchBase, searchFilter, searchControls);
+                    } finally {
+                        NotificationTaskDataHolder.getInstance().getTaskMetrics().recordPhase(TaskPhase.RECEIVER_QUERY,
+                                startTime);
+                    }
+
+                    while (results.hasMoreElements()) {
+                        SearchResult result = results.nextElement();
 
-                while (results.hasMoreElements()) {
-                    SearchResult result = results.nextElement();
+                        NotificationReceiver receiver = new NotificationReceiver();
+                        receiver.setEmail((String) result.getAttributes().get(emailMapAttribute).get());
+                        receiver.setUsername((String) result.getAttributes().get(usernameMapAttribute).get());
+                        receiver.setFirstName((String) result.getAttributes().get(firstNameMapAttribute).get());
+                        receiver.setUserStoreDomain(userStoreDomain);
 
-                    NotificationReceiver receiver = new NotificationReceiver();
-                    receiver.setEmail((String) result.getAttributes().get(emailMapAttribute).get());
-                    receiver.setUsername((String) result.getAttributes().get(usernameMapAttribute).get());
-                    receiver.setFirstName((String) result.getAttributes().get(firstNameMapAttribute).get());
-                    receiver.setUserStoreDomain(userStoreDomain);
+                        String lastLoginTimeValue = result.getAttributes().get(lastLoginTimeAttribute).get()
+                                .toString();
+                        long lastLoginTime = convertToWSO2DateFormat(lastLoginTimeValue);
+                        receiver.setLastLoginTime(lastLoginTime);
+                        long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
+                        receiver.setExpireDate(new SimpleDateFormat("dd-MM-yyyy").format(new Date(expireDate)));
 
-                    String lastLoginTimeValue = result.getAttributes().get(lastLoginTimeAttribute).get().toString();
-                    long lastLoginTime = convertToWSO2DateFormat(lastLoginTimeValue);
-                    long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
-                    receiver.setExpireDate(new SimpleDateFormat("dd-MM-yyyy").format(new Date(expireDate)));
+                        if (log.isDebugEnabled()) {
+                            log.debug("Expire date was set to: " + receiver.getExpireDate());
+                        }
+                        receivers.add(receiver);
 
-                    if (log.isDebugEnabled()) {
-                        log.debug("Expire date was set to: " + receiver.getExpireDate());
+                        if (receivers.size() == pageSize) {
+                            if (!handler.handle(receivers)) {
+                                return;
+                            }
+                            receivers = new ArrayList<>(pageSize);
+                        }
                     }
-                    users.add(receiver);
+                    closeResults(results);
+                    results = null;
+                    cookie = getResponseCookie(ctx);
+                } while (cookie != null && cookie.length > 0);
+            } finally {
+                resetRequestControls(ctx);
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("LDAP user list retrieved.");
+            }
+            if (!receivers.isEmpty()) {
+                handler.handle(receivers);
+            }
+        } catch (NamingException e) {
+            close();
+            throw new AccountSuspensionNotificationException("Failed to filter users from LDAP user store.", e);
+        } catch (UserStoreException e) {
+            throw new AccountSuspensionNotificationException("Failed to load LDAP connection context.", e);
+        } catch (org.wso2.carbon.user.api.UserStoreException e) {
+            throw new AccountSuspensionNotificationException("Error occurred while getting tenant user realm for "
+                    + "tenant:" + tenantDomain, e);
+        } catch (IOException e) {
+            throw new AccountSuspensionNotificationException("Failed to create the LDAP request controls.", e);
+        } finally {
+            closeResults(results);
+        }
+    }
+
+    /**
+     * Close the LDAP connection which is kept across the delay windows of a run.
+     */
+    @Override
+    public void close() {
+
+        closeContext(context);
+        context = null;
+    }
+
+    private DirContext getContext() throws UserStoreException, NamingException {
+
+        if (context == null) {
+            context = new LDAPConnectionContext(realmConfiguration).getContext();
+            resolveSupportedControls(context);
+        }
+        return context;
+    }
+
+    /**
+     * Check whether the server supports paged results and server side sorting, by reading the supported controls of
+     * the root DSE. Either of them is used only if the server advertises it.
+     */
+    private void resolveSupportedControls(DirContext ctx) {
+
+        pagedResultsSupported = false;
+        sortSupported = false;
+        if (!(ctx instanceof LdapContext)) {
+            return;
+        }
+        try {
+            Attribute supportedControls = ctx.getAttributes("", new String[]{SUPPORTED_CONTROL_ATTRIBUTE})
+                    .get(SUPPORTED_CONTROL_ATTRIBUTE);
+            if (supportedControls != null) {
+                pagedResultsSupported = supportedControls.contains(PagedResultsControl.OID);
+                sortSupported = supportedControls.contains(SortControl.OID);
+            }
+        } catch (NamingException e) {
+            log.warn("Unable to read the supported controls of the LDAP server. Search results will not be paged.",
+                    e);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("LDAP paged results supported: " + pagedResultsSupported + ", server side sort supported: " +
+                    sortSupported);
+        }
+    }
+
+    private void setRequestControls(DirContext ctx, int pageSize, byte[] cookie, String sortAttribute)
+            throws NamingException, IOException {
+
+        if (!(ctx instanceof LdapContext)) {
+            return;
+        }
+        List<Control> controls = new ArrayList<>(2);
+        if (pagedResultsSupported) {
+            controls.add(new PagedResultsControl(pageSize, cookie, Control.CRITICAL));
+        }
+        if (sortSupported) {
+            controls.add(new SortControl(sortAttribute, Control.NONCRITICAL));
+        }
+        ((LdapContext) ctx).setRequestControls(controls.isEmpty() ? null : controls.toArray(new Control[0]));
+    }
+
+    private byte[] getResponseCookie(DirContext ctx) throws NamingException {
+
+        if (!pagedResultsSupported || !(ctx instanceof LdapContext)) {
+            return null;
+        }
+        Control[] responseControls = ((LdapContext) ctx).getResponseControls();
+        if (responseControls != null) {
+            for (Control responseControl : responseControls) {
+                if (responseControl instanceof PagedResultsResponseControl) {
+                    return ((PagedResultsResponseControl) responseControl).getCookie();
                 }
+            }
+        }
+        return null;
+    }
+
+    private void resetRequestControls(DirContext ctx) {
+
+        if (ctx instanceof LdapContext) {
+            try {
+                ((LdapContext) ctx).setRequestControls(null);
             } catch (NamingException e) {
-                throw new AccountSuspensionNotificationException("Failed to filter users from LDAP user store.", e);
-            } catch (UserStoreException e) {
-                throw new AccountSuspensionNotificationException("Failed to load LDAP connection context.", e);
-            } catch (org.wso2.carbon.user.api.UserStoreException e) {
-                throw new AccountSuspensionNotificationException("Error occurred while getting tenant user realm for "
-                        + "tenant:" + tenantDomain, e);
+                log.error("Error occurred while resetting the LDAP request controls.", e);
+                close();
+            }
+        }
+    }
+
+    private void closeResults(NamingEnumeration<SearchResult> results) {
+
+        if (results != null) {
+            try {
+                results.close();
+            } catch (NamingException e) {
+                log.error("Error occurred while closing the LDAP search results.", e);
+            }
+        }
+    }
+
+    private void closeContext(DirContext ctx) {
+
+        if (ctx != null) {
+            try {
+                ctx.close();
+            } catch (NamingException e) {
+                log.error("Error occurred while closing the LDAP connection context.", e);
             }
         }
-        return users;
     }
 
     /**
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.account.suspension.notification.task.lease;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands out per tenant leases of the idle account suspension task, so that only one node of a cluster runs the task
+ * of a tenant at a time, and only once per run interval. The leases are kept in a table of the identity database.
+ * <pre>
+ * CREATE TABLE IDN_IDLE_ACCOUNT_TASK_LEASE (
+ *     TENANT_ID INTEGER NOT NULL,
+ *     OWNER_ID VARCHAR(255) NOT NULL,
+ *     EXPIRY_TIME BIGINT NOT NULL,
+ *     COMPLETED_TIME BIGINT NOT NULL,
+ *     PRIMARY KEY (TENANT_ID)
+ * );
+ * </pre>
+ * A lease is acquired with a time to live and is renewed in the background while it is held. If the node holding it
+ * stops, the lease expires and the task of the tenant is taken over by the next node which runs the task. Expiry times
+ * are compared across nodes, hence the clocks of the nodes are expected to be synchronized well within the time to
+ * live.
+ */
+public class TenantLeaseManager {
+
+    private static final Log log = LogFactory.getLog(TenantLeaseManager.class);
+
+    // SQL states of the integrity constraint violation class.
+    private static final String INTEGRITY_CONSTRAINT_VIOLATION_CLASS = "23";
+
+    private final String ownerId;
+    private final long timeToLive;
+    private final long runInterval;
+    private final ConnectionProvider connectionProvider;
+    private final Set<TenantLease> heldLeases = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService renewer;
+
+    /**
+     * @param timeToLive  Time to live of a lease in milliseconds.
+     * @param runInterval Interval between the runs of the task in milliseconds. A tenant is not run again by any node
+     *                    within half of the interval after its run is completed.
+     */
+    public TenantLeaseManager(long timeToLive, long runInterval) {
+
+        this(generateOwnerId(), timeToLive, runInterval, () -> IdentityDatabaseUtil.getDBConnection(true));
+    }
+
+    /**
+     * @param ownerId            Unique id of the node.
+     * @param timeToLive         Time to live of a lease in milliseconds.
+     * @param runInterval        Interval between the runs of the task in milliseconds.
+     * @param connectionProvider Provider of the connections to the database which holds the lease table.
+     */
+    public TenantLeaseManager(String ownerId, long timeToLive, long runInterval,
+                              ConnectionProvider connectionProvider) {
+
+        this.ownerId = ownerId;
+        this.timeToLive = timeToLive;
+        this.runInterval = runInterval;
+        this.connectionProvider = connectionProvider;
+        this.renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idle-account-lease-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long renewInterval = Math.max(1, timeToLive / 3);
+        this.renewer.scheduleWithFixedDelay(this::renewLeases, renewInterval, renewInterval, TimeUnit.MILLISECONDS);
+    }
+
+    public String getOwnerId() {
+
+        return ownerId;
+    }
+
+    /**
+     * Acquire the lease of a tenant.
+     *
+     * @param tenantId Tenant id.
+     * @return Lease of the tenant, or null if it is held by another node or if the task of the tenant was completed
+     * recently.
+     */
+    public TenantLease acquire(int tenantId) {
+
+        long now = System.currentTimeMillis();
+        long expiryTime = now + timeToLive;
+        try (Connection connection = connectionProvider.getConnection()) {
+            try {
+                boolean acquired;
+                try (PreparedStatement prepStmt = connection.prepareStatement(NotificationConstants.ACQUIRE_LEASE)) {
+                    prepStmt.setString(1, ownerId);
+                    prepStmt.setLong(2, expiryTime);
+                    prepStmt.setInt(3, tenantId);
+                    prepStmt.setString(4, ownerId);
+                    prepStmt.setLong(5, now);
+                    prepStmt.setLong(6, now - runInterval / 2);
+                    acquired = prepStmt.executeUpdate() > 0;
+                }
+                if (!acquired) {
+                    try (PreparedStatement prepStmt = connection.prepareStatement(NotificationConstants
+                            .INSERT_LEASE)) {
+                        prepStmt.setInt(1, tenantId);
+                        prepStmt.setString(2, ownerId);
+                        prepStmt.setLong(3, expiryTime);
+                        prepStmt.executeUpdate();
+                    }
+                }
+                IdentityDatabaseUtil.commitTransaction(connection);
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                throw e;
+            }
+        } catch (SQLException e) {
+            if (!isIntegrityConstraintViolation(e)) {
+                log.error("Error while acquiring the idle account task lease of tenant: " + tenantId, e);
+            }
+            return null;
+        }
+
+        TenantLease lease = new TenantLease(tenantId, expiryTime);
+        heldLeases.add(lease);
+        if (log.isDebugEnabled()) {
+            log.debug("Idle account task lease of tenant: " + tenantId + " acquired by: " + ownerId);
+        }
+        return lease;
+    }
+
+    /**
+     * Stop renewing the leases and release the leases which are held.
+     */
+    public void shutdown() {
+
+        renewer.shutdownNow();
+        for (TenantLease lease : heldLeases) {
+            lease.release();
+        }
+    }
+
+    private void renewLeases() {
+
+        for (TenantLease lease : heldLeases) {
+            long now = System.currentTimeMillis();
+            long expiryTime = now + timeToLive;
+            boolean renewed = false;
+            try (Connection connection = connectionProvider.getConnection()) {
+                try (PreparedStatement prepStmt = connection.prepareStatement(NotificationConstants.RENEW_LEASE)) {
+                    prepStmt.setLong(1, expiryTime);
+                    prepStmt.setInt(2, lease.tenantId);
+                    prepStmt.setString(3, ownerId);
+                    prepStmt.setLong(4, now);
+                    renewed = prepStmt.executeUpdate() > 0;
+                    IdentityDatabaseUtil.commitTransaction(connection);
+                } catch (SQLException e) {
+                    IdentityDatabaseUtil.rollbackTransaction(connection);
+                    throw e;
+                }
+            } catch (SQLException | RuntimeException e) {
+                // The lease is still held until it expires, so the renewal is retried in the next round.
+                log.error("Error while renewing the idle account task lease of tenant: " + lease.tenantId, e);
+                if (now < lease.expiryTime) {
+                    continue;
+                }
+            }
+
+            if (renewed) {
+                lease.expiryTime = expiryTime;
+            } else {
+                log.warn("Idle account task lease of tenant: " + lease.tenantId + " is lost by: " + ownerId);
+                lease.lost = true;
+                heldLeases.remove(lease);
+            }
+        }
+    }
+
+    private void updateLease(String query, TenantLease lease, long completedTime) {
+
+        try (Connection connection = connectionProvider.getConnection()) {
+            try (PreparedStatement prepStmt = connection.prepareStatement(query)) {
+                int index = 1;
+                if (completedTime > 0) {
+                    prepStmt.setLong(index++, completedTime);
+                }
+                prepStmt.setInt(index++, lease.tenantId);
+                prepStmt.setString(index, ownerId);
+                prepStmt.executeUpdate();
+                IdentityDatabaseUtil.commitTransaction(connection);
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                throw e;
+            }
+        } catch (SQLException e) {
+            // The lease expires by itself.
+            log.error("Error while releasing the idle account task lease of tenant: " + lease.tenantId, e);
+        }
+    }
+
+    private static boolean isIntegrityConstraintViolation(SQLException e) {
+
+        return e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_CONSTRAINT_VIOLATION_CLASS);
+    }
+
+    private static String generateOwnerId() {
+
+        String hostName;
+        try {
+            hostName = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            hostName = "unknown";
+        }
+        return hostName + ":" + UUID.randomUUID();
+    }
+
+    /**
+     * Provides connections to the database which holds the lease table.
+     */
+    @FunctionalInterface
+    public interface ConnectionProvider {
+
+        Connection getConnection() throws SQLException;
+    }
+
+    /**
+     * Lease of the task of a tenant, held by this node until it is completed, released or lost.
+     */
+    public class TenantLease {
+
+        private final int tenantId;
+        private volatile long expiryTime;
+        private volatile boolean lost;
+
+        private TenantLease(int tenantId, long expiryTime) {
+
+            this.tenantId = tenantId;
+            this.expiryTime = expiryTime;
+        }
+
+        public int getTenantId() {
+
+            return tenantId;
+        }
+
+        /**
+         * @return True if the lease could not be renewed and may now be held by another node.
+         */
+        public boolean isLost() {
+
+            return lost || System.currentTimeMillis() > expiryTime;
+        }
+
+        /**
+         * Release the lease, recording that the task of the tenant is completed for this run.
+         */
+        public void complete() {
+
+            if (heldLeases.remove(this)) {
+                updateLease(NotificationConstants.COMPLETE_LEASE, this, System.currentTimeMillis());
+            }
+        }
+
+        /**
+         * Release the lease without completing the task, so that it can be run by another node.
+         */
+        public void release() {
+
+            if (heldLeases.remove(this)) {
+                updateLease(NotificationConstants.RELEASE_LEASE, this, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.account.suspension.notification.task.metrics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.account.suspension.notification.task.TenantValidationSummary;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of the idle account suspension task. The metrics are recorded by the task, the tenant workers and the
+ * workers of the notification dispatcher, and are pulled either through {@link #getMetrics()} or over JMX, where they
+ * are registered under {@link #OBJECT_NAME}. Metrics of the last run are reset when a run starts, while the rest are
+ * kept since the server started.
+ */
+public class IdleAccountTaskMetrics implements IdleAccountTaskMetricsMXBean {
+
+    private static final Log log = LogFactory.getLog(IdleAccountTaskMetrics.class);
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.identity.account.suspension:type=IdleAccountTaskMetrics";
+    public static final String NOTIFY_WINDOW_PREFIX = "notify:";
+    public static final String LOCK_WINDOW_PREFIX = "lock:";
+
+    private final Map<TaskPhase, PhaseTimer> phaseTimers = new EnumMap<>(TaskPhase.class);
+    private final ConcurrentMap<String, LongAdder> lastRunReceivers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> tenantRunFailures = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> tenantNotificationFailures = new ConcurrentHashMap<>();
+    private final long runInterval;
+
+    private volatile boolean running;
+    private volatile long lastRunStartTime;
+    private volatile long lastRunDuration;
+    private volatile long lastSuccessfulRunTime;
+    private volatile int lastRunTenantCount;
+    private volatile int lastRunOverBudgetTenantCount;
+    private final AtomicLong runCount = new AtomicLong();
+    private final AtomicLong failedRunCount = new AtomicLong();
+    private final AtomicLong overrunCount = new AtomicLong();
+
+    /**
+     * @param runInterval Interval of the scheduler of the task in milliseconds. A run which takes longer is counted as
+     *                    an overrun.
+     */
+    public IdleAccountTaskMetrics(long runInterval) {
+
+        this.runInterval = runInterval;
+        for (TaskPhase phase : TaskPhase.values()) {
+            phaseTimers.put(phase, new PhaseTimer());
+        }
+    }
+
+    /**
+     * Record the start of a run, which resets the metrics of the last run.
+     */
+    public void runStarted() {
+
+        for (PhaseTimer timer : phaseTimers.values()) {
+            timer.lastRunNanos.reset();
+        }
+        lastRunReceivers.clear();
+        lastRunStartTime = System.currentTimeMillis();
+        running = true;
+    }
+
+    /**
+     * Record the completion of a run.
+     *
+     * @param summaries Summaries of the tenants which were validated by the run.
+     */
+    public void runCompleted(List<TenantValidationSummary> summaries) {
+
+        long now = System.currentTimeMillis();
+        int overBudgetTenants = 0;
+        boolean failed = false;
+        for (TenantValidationSummary summary : summaries) {
+            if (summary.isFailed()) {
+                failed = true;
+                tenantRunFailures.computeIfAbsent(summary.getTenantDomain(), k -> new AtomicLong()).incrementAndGet();
+            }
+            if (summary.getFailedNotifications() > 0) {
+                tenantNotificationFailures.computeIfAbsent(summary.getTenantDomain(), k -> new AtomicLong())
+                        .addAndGet(summary.getFailedNotifications());
+            }
+            if (summary.isBudgetExceeded()) {
+                overBudgetTenants++;
+            }
+        }
+
+        lastRunDuration = now - lastRunStartTime;
+        lastRunTenantCount = summaries.size();
+        lastRunOverBudgetTenantCount = overBudgetTenants;
+        runCount.incrementAndGet();
+        if (failed) {
+            failedRunCount.incrementAndGet();
+        } else {
+            lastSuccessfulRunTime = now;
+        }
+        if (runInterval > 0 && lastRunDuration > runInterval) {
+            overrunCount.incrementAndGet();
+            log.warn("Idle account suspension task took " + lastRunDuration + "ms, which is longer than the " +
+                    "interval of the scheduler: " + runInterval + "ms.");
+        }
+        running = false;
+    }
+
+    /**
+     * Record the time spent on an operation of a phase.
+     *
+     * @param phase     Phase.
+     * @param startTime Start of the operation, as returned by {@link System#nanoTime()}.
+     */
+    public void recordPhase(TaskPhase phase, long startTime) {
+
+        phaseTimers.get(phase).record(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Record the receivers of a page which is retrieved for a notification window.
+     *
+     * @param delay Notification delay of the window in days.
+     * @param count Number of receivers.
+     */
+    public void recordNotificationReceivers(long delay, int count) {
+
+        lastRunReceivers.computeIfAbsent(NOTIFY_WINDOW_PREFIX + delay, k -> new LongAdder()).add(count);
+    }
+
+    /**
+     * Record the receivers of a page which is retrieved to be locked.
+     *
+     * @param suspensionDelay Suspension delay in days.
+     * @param count           Number of receivers.
+     */
+    public void recordLockReceivers(long suspensionDelay, int count) {
+
+        lastRunReceivers.computeIfAbsent(LOCK_WINDOW_PREFIX + suspensionDelay, k -> new LongAdder()).add(count);
+    }
+
+    /**
+     * Register the metrics with the platform MBean server.
+     */
+    public void registerMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(this, objectName);
+        } catch (JMException e) {
+            log.error("Error while registering the idle account suspension task metrics MBean.", e);
+        }
+    }
+
+    /**
+     * Unregister the metrics from the platform MBean server.
+     */
+    public void unregisterMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while unregistering the idle account suspension task metrics MBean.", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+
+        return running;
+    }
+
+    @Override
+    public long getRunCount() {
+
+        return runCount.get();
+    }
+
+    @Override
+    public long getFailedRunCount() {
+
+        return failedRunCount.get();
+    }
+
+    @Override
+    public long getOverrunCount() {
+
+        return overrunCount.get();
+    }
+
+    @Override
+    public long getLastRunStartTime() {
+
+        return lastRunStartTime;
+    }
+
+    @Override
+    public long getLastRunDuration() {
+
+        return running ? System.currentTimeMillis() - lastRunStartTime : lastRunDuration;
+    }
+
+    @Override
+    public long getLastSuccessfulRunTime() {
+
+        return lastSuccessfulRunTime;
+    }
+
+    @Override
+    public int getLastRunTenantCount() {
+
+        return lastRunTenantCount;
+    }
+
+    @Override
+    public int getLastRunOverBudgetTenantCount() {
+
+        return lastRunOverBudgetTenantCount;
+    }
+
+    @Override
+    public Map<String, Long> getLastRunPhaseTimes() {
+
+        Map<String, Long> times = new TreeMap<>();
+        for (Map.Entry<TaskPhase, PhaseTimer> timer : phaseTimers.entrySet()) {
+            times.put(timer.getKey().getMetricName(), toMillis(timer.getValue().lastRunNanos.sum()));
+        }
+        return times;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseTimes() {
+
+        Map<String, Long> times = new TreeMap<>();
+        for (Map.Entry<TaskPhase, PhaseTimer> timer : phaseTimers.entrySet()) {
+            times.put(timer.getKey().getMetricName(), toMillis(timer.getValue().totalNanos.sum()));
+        }
+        return times;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<TaskPhase, PhaseTimer> timer : phaseTimers.entrySet()) {
+            counts.put(timer.getKey().getMetricName(), timer.getValue().count.sum());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseMaxTimes() {
+
+        Map<String, Long> times = new TreeMap<>();
+        for (Map.Entry<TaskPhase, PhaseTimer> timer : phaseTimers.entrySet()) {
+            times.put(timer.getKey().getMetricName(), toMillis(timer.getValue().maxNanos.get()));
+        }
+        return times;
+    }
+
+    @Override
+    public Map<String, Long> getLastRunReceiversPerWindow() {
+
+        Map<String, Long> receivers = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> window : lastRunReceivers.entrySet()) {
+            receivers.put(window.getKey(), window.getValue().sum());
+        }
+        return receivers;
+    }
+
+    @Override
+    public Map<String, Long> getTenantRunFailures() {
+
+        return toMap(tenantRunFailures);
+    }
+
+    @Override
+    public Map<String, Long> getTenantNotificationFailures() {
+
+        return toMap(tenantNotificationFailures);
+    }
+
+    @Override
+    public Map<String, Long> getMetrics() {
+
+        Map<String, Long> metrics = new TreeMap<>();
+        metrics.put("run.running", running ? 1L : 0L);
+        metrics.put("run.count", getRunCount());
+        metrics.put("run.failedCount", getFailedRunCount());
+        metrics.put("run.overrunCount", getOverrunCount());
+        metrics.put("run.lastStartTime", getLastRunStartTime());
+        metrics.put("run.lastDuration", getLastRunDuration());
+        metrics.put("run.lastSuccessfulTime", getLastSuccessfulRunTime());
+        metrics.put("run.lastTenantCount", (long) getLastRunTenantCount());
+        metrics.put("run.lastOverBudgetTenantCount", (long) getLastRunOverBudgetTenantCount());
+        putAll(metrics, "phase.lastRunTime.", getLastRunPhaseTimes());
+        putAll(metrics, "phase.time.", getPhaseTimes());
+        putAll(metrics, "phase.count.", getPhaseCounts());
+        putAll(metrics, "phase.maxTime.", getPhaseMaxTimes());
+        putAll(metrics, "window.lastRunReceivers.", getLastRunReceiversPerWindow());
+        putAll(metrics, "tenant.runFailures.", getTenantRunFailures());
+        putAll(metrics, "tenant.notificationFailures.", getTenantNotificationFailures());
+        return metrics;
+    }
+
+    private static void putAll(Map<String, Long> metrics, String prefix, Map<String, Long> values) {
+
+        for (Map.Entry<String, Long> value : values.entrySet()) {
+            metrics.put(prefix + value.getKey(), value.getValue());
+        }
+    }
+
+    private static Map<String, Long> toMap(Map<String, AtomicLong> counters) {
+
+        Map<String, Long> values = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> counter : counters.entrySet()) {
+            values.put(counter.getKey(), counter.getValue().get());
+        }
+        return values;
+    }
+
+    private static long toMillis(long nanos) {
+
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Accumulated time of a phase. Updated concurrently by the workers of the task.
+     */
+    private static class PhaseTimer {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder lastRunNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(long nanos) {
+
+            count.increment();
+            totalNanos.add(nanos);
+            lastRunNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+}
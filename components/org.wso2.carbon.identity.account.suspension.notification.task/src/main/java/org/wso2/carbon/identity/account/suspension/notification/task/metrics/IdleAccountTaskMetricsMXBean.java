@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.carbon.identity.account.suspension.notification.task.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the metrics of the idle account suspension task. Times are in milliseconds, and timestamps are in
+ * milliseconds since the epoch, 0 if there is none yet.
+ */
+public interface IdleAccountTaskMetricsMXBean {
+
+    boolean isRunning();
+
+    long getRunCount();
+
+    long getFailedRunCount();
+
+    /**
+     * @return Number of runs which took longer than the interval of the scheduler.
+     */
+    long getOverrunCount();
+
+    long getLastRunStartTime();
+
+    long getLastRunDuration();
+
+    /**
+     * @return Completion time of the last run in which no tenant failed.
+     */
+    long getLastSuccessfulRunTime();
+
+    int getLastRunTenantCount();
+
+    /**
+     * @return Number of tenants of the last run which exceeded their time budget.
+     */
+    int getLastRunOverBudgetTenantCount();
+
+    /**
+     * @return Time spent in each phase in the last run, summed over the tenants and the workers.
+     */
+    Map<String, Long> getLastRunPhaseTimes();
+
+    /**
+     * @return Time spent in each phase since the server started.
+     */
+    Map<String, Long> getPhaseTimes();
+
+    /**
+     * @return Number of timed operations of each phase since the server started.
+     */
+    Map<String, Long> getPhaseCounts();
+
+    /**
+     * @return Longest single operation of each phase since the server started.
+     */
+    Map<String, Long> getPhaseMaxTimes();
+
+    /**
+     * @return Number of receivers retrieved in the last run for each window, summed over the tenants. The keys are
+     * "notify:" or "lock:" followed by the delay of the window in days.
+     */
+    Map<String, Long> getLastRunReceiversPerWindow();
+
+    /**
+     * @return Number of failed runs of each tenant since the server started.
+     */
+    Map<String, Long> getTenantRunFailures();
+
+    /**
+     * @return Number of reminders of each tenant which could not be sent, since the server started.
+     */
+    Map<String, Long> getTenantNotificationFailures();
+
+    /**
+     * @return All the metrics as a flat map of metric names to values.
+     */
+    Map<String, Long> getMetrics();
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.wso2.carbon.identity.account.suspension.notification.task.metrics;
+
+/**
+ * Phases of the idle account suspension task which are timed separately.
+ */
+public enum TaskPhase {
+
+    /**
+     * Querying a user store or the identity database for the users who are idle within a window.
+     */
+    RECEIVER_QUERY("receiverQuery"),
+
+    /**
+     * Fetching the claims of the idle users from the user store.
+     */
+    RECEIVER_ENRICHMENT("receiverEnrichment"),
+
+    /**
+     * Publishing the reminder event of a user.
+     */
+    NOTIFICATION_DISPATCH("notificationDispatch"),
+
+    /**
+     * Locking a page of idle accounts.
+     */
+    ACCOUNT_LOCK("accountLock");
+
+    private final String metricName;
+
+    TaskPhase(String metricName) {
+
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+
+        return metricName;
+    }
+}
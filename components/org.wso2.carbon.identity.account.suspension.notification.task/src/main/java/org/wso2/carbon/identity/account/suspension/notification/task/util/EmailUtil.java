@@ -53,28 +53,52 @@ public class EmailUtil {
      * Send notification email to <code>receiver</code>
      *
      * @param receiver details of the notification receiver including the email address
+     * @return true if the notification was handed over to the event service
      */
-    public void sendEmail(NotificationReceiver receiver) {
+    public boolean sendEmail(NotificationReceiver receiver) {
+
+        Event identityMgtEvent;
+        try {
+            identityMgtEvent = buildEmailEvent(receiver);
+        } catch (UserStoreException e) {
+            log.error("Error while getting user store manager", e);
+            return false;
+        }
+
+        try {
+            publishEvent(identityMgtEvent);
+        } catch (IdentityEventException e) {
+            log.error("Error occurred while sending email to: " + receiver.getUsername(), e);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Build the notification event of <code>receiver</code>. The tenant of the receiver is taken from the carbon
+     * context of the calling thread.
+     *
+     * @param receiver details of the notification receiver including the email address
+     * @return notification event
+     * @throws UserStoreException if the user store manager of the receiver could not be resolved
+     */
+    public Event buildEmailEvent(NotificationReceiver receiver) throws UserStoreException {
 
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.USER_NAME, receiver.getUsername());
         properties.put(IdentityEventConstants.EventProperty.USER_STORE_DOMAIN, receiver.getUserStoreDomain());
         properties.put(IdentityEventConstants.EventProperty.TENANT_DOMAIN,
                 CarbonContext.getThreadLocalCarbonContext().getTenantDomain());
-        try {
-            UserStoreManager userStoreManager;
-            if(IdentityUtil.getPrimaryDomainName().equals(receiver.getUserStoreDomain())) {
-                userStoreManager = (UserStoreManager) CarbonContext.getThreadLocalCarbonContext().getUserRealm()
-                        .getUserStoreManager();
-            } else {
-                userStoreManager = ((UserStoreManager) CarbonContext.getThreadLocalCarbonContext().getUserRealm()
-                        .getUserStoreManager()).getSecondaryUserStoreManager(receiver.getUserStoreDomain());
-            }
-            properties.put(IdentityEventConstants.EventProperty.USER_STORE_MANAGER,userStoreManager);
-        } catch (UserStoreException e) {
-            log.error("Error while getting user store manager", e);
-            return;
+
+        UserStoreManager userStoreManager;
+        if(IdentityUtil.getPrimaryDomainName().equals(receiver.getUserStoreDomain())) {
+            userStoreManager = (UserStoreManager) CarbonContext.getThreadLocalCarbonContext().getUserRealm()
+                    .getUserStoreManager();
+        } else {
+            userStoreManager = ((UserStoreManager) CarbonContext.getThreadLocalCarbonContext().getUserRealm()
+                    .getUserStoreManager()).getSecondaryUserStoreManager(receiver.getUserStoreDomain());
         }
+        properties.put(IdentityEventConstants.EventProperty.USER_STORE_MANAGER,userStoreManager);
 
         try {
             String remainingDates = calculateRemainingDays(receiver.getExpireDate(), DATE_FORMAT);
@@ -87,13 +111,18 @@ public class EmailUtil {
         properties.put("suspension-date", receiver.getExpireDate());
         properties.put("TEMPLATE_TYPE", "idleAccountReminder");
 
-        Event identityMgtEvent = new Event(IdentityEventConstants.Event.TRIGGER_NOTIFICATION, properties);
-        try {
-            NotificationTaskDataHolder.getInstance().getIdentityEventService().handleEvent(identityMgtEvent);
-        } catch (IdentityEventException e) {
-            log.error("Error occurred while sending email to: " + receiver.getUsername(), e);
-        }
+        return new Event(IdentityEventConstants.Event.TRIGGER_NOTIFICATION, properties);
+    }
+
+    /**
+     * Publish a notification event built by {@link #buildEmailEvent(NotificationReceiver)}.
+     *
+     * @param identityMgtEvent notification event
+     * @throws IdentityEventException if the event could not be handled
+     */
+    public void publishEvent(Event identityMgtEvent) throws IdentityEventException {
 
+        NotificationTaskDataHolder.getInstance().getIdentityEventService().handleEvent(identityMgtEvent);
     }
 
     /**
@@ -30,6 +30,38 @@ public class NotificationConstants {
     public static final String TRIGGER_TIME_FORMAT = "HH:mm:ss";
     public static final long SCHEDULER_DELAY = 24; // In hours
     public static final String SUSPENSION_NOTIFICATION_THREAD_POOL_SIZE = "suspension.notification.thread.pool.size";
+    public static final String SUSPENSION_NOTIFICATION_TENANT_PARALLELISM =
+            "suspension.notification.tenant.parallelism";
+    public static final String SUSPENSION_NOTIFICATION_QUEUE_CAPACITY = "suspension.notification.queue.capacity";
+    public static final int DEFAULT_NOTIFICATION_QUEUE_CAPACITY = 1000;
+    // Notifications per second per tenant
+    public static final String SUSPENSION_NOTIFICATION_RATE_LIMIT = "suspension.notification.rate.limit";
+    public static final String SUSPENSION_NOTIFICATION_RETRY_COUNT = "suspension.notification.retry.count";
+    public static final int DEFAULT_NOTIFICATION_RETRY_COUNT = 3;
+    // In milliseconds
+    public static final String SUSPENSION_NOTIFICATION_RETRY_DELAY = "suspension.notification.retry.delay";
+    public static final long DEFAULT_NOTIFICATION_RETRY_DELAY = 1000;
+    public static final String SUSPENSION_NOTIFICATION_RECEIVERS_PAGE_SIZE =
+            "suspension.notification.receivers.page.size";
+    public static final int DEFAULT_RECEIVERS_PAGE_SIZE = 100;
+    // In seconds
+    public static final String SUSPENSION_NOTIFICATION_TENANT_TIME_BUDGET =
+            "suspension.notification.tenant.time.budget";
+    public static final String SUSPENSION_NOTIFICATION_CHECKPOINT_ENABLE =
+            "suspension.notification.checkpoint.enable";
+    public static final String SUSPENSION_NOTIFICATION_LEASE_ENABLE = "suspension.notification.lease.enable";
+    // In seconds
+    public static final String SUSPENSION_NOTIFICATION_LEASE_TTL = "suspension.notification.lease.ttl";
+    public static final int DEFAULT_LEASE_TTL = 300;
+    // Locks the idle accounts by writing the lock claims directly to the identity data store. This bypasses
+    // setUserClaimValues, hence the user operation listeners which act on an account lock, such as the session
+    // termination and the account lock notification, do not run for these accounts. Only the account suspension
+    // event is fired for each of them.
+    public static final String SUSPENSION_NOTIFICATION_BULK_LOCK_ENABLE = "suspension.notification.bulk.lock.enable";
+
+    public static final String USER_OPERATION_EVENT_LISTENER_TYPE = "org.wso2.carbon.user.core.listener" +
+            ".UserOperationEventListener";
+    public static final String IDENTITY_DATA_STORE_PROPERTY = "Data.Store";
 
     public static final String GET_USERS_FILTERED_BY_LAST_LOGIN_TIME = "SELECT UM_USER.UM_USER_NAME FROM "
     + "UM_USER, UM_USER_ATTRIBUTE WHERE UM_USER_ATTRIBUTE.UM_USER_ID = UM_USER.UM_ID AND UM_USER_ATTRIBUTE.UM_ATTR_NAME "
@@ -39,6 +71,39 @@ public class NotificationConstants {
     public static final String GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_IDENTITY_CLAIM = "SELECT USER_NAME, DATA_VALUE " +
             "FROM IDN_IDENTITY_USER_DATA WHERE DATA_KEY = ? AND DATA_VALUE BETWEEN ? AND ? AND TENANT_ID = ?";
 
+    // Keyset pagination of the above queries. The last username of the previous page is bound to the "after" clause.
+    public static final String USER_NAME_AFTER_CLAUSE = " AND UM_USER.UM_USER_NAME > ?";
+    public static final String ORDER_BY_USER_NAME_CLAUSE = " ORDER BY UM_USER.UM_USER_NAME";
+    public static final String IDENTITY_CLAIM_USER_NAME_AFTER_CLAUSE = " AND USER_NAME > ?";
+    public static final String IDENTITY_CLAIM_ORDER_BY_USER_NAME_CLAUSE = " ORDER BY USER_NAME";
+    public static final String LIMIT_CLAUSE = " LIMIT ?";
+    public static final String FETCH_NEXT_ROWS_CLAUSE = " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+
+    public static final String GET_SCAN_CHECKPOINTS = "SELECT USER_STORE_DOMAIN, LAST_LOGIN_TIME FROM " +
+            "IDN_IDLE_ACCOUNT_SCAN WHERE TENANT_ID = ? AND NOTIFICATION_DELAY = ?";
+    public static final String UPDATE_SCAN_CHECKPOINT = "UPDATE IDN_IDLE_ACCOUNT_SCAN SET LAST_LOGIN_TIME = ?, " +
+            "UPDATED_TIME = ? WHERE TENANT_ID = ? AND USER_STORE_DOMAIN = ? AND NOTIFICATION_DELAY = ?";
+    public static final String INSERT_SCAN_CHECKPOINT = "INSERT INTO IDN_IDLE_ACCOUNT_SCAN (TENANT_ID, " +
+            "USER_STORE_DOMAIN, NOTIFICATION_DELAY, LAST_LOGIN_TIME, UPDATED_TIME) VALUES (?, ?, ?, ?, ?)";
+    // The placeholders of the usernames and the closing parenthesis are appended at runtime.
+    public static final String GET_SENT_REMINDERS = "SELECT USER_NAME, REMINDER_DAY FROM IDN_IDLE_ACCOUNT_REMINDER " +
+            "WHERE TENANT_ID = ? AND USER_STORE_DOMAIN = ? AND NOTIFICATION_DELAY = ? AND USER_NAME IN (";
+    public static final String INSERT_SENT_REMINDER = "INSERT INTO IDN_IDLE_ACCOUNT_REMINDER (TENANT_ID, " +
+            "USER_STORE_DOMAIN, USER_NAME, NOTIFICATION_DELAY, REMINDER_DAY) VALUES (?, ?, ?, ?, ?)";
+    public static final String DELETE_SENT_REMINDERS_BEFORE = "DELETE FROM IDN_IDLE_ACCOUNT_REMINDER WHERE " +
+            "TENANT_ID = ? AND REMINDER_DAY < ?";
+
+    public static final String ACQUIRE_LEASE = "UPDATE IDN_IDLE_ACCOUNT_TASK_LEASE SET OWNER_ID = ?, EXPIRY_TIME = ? " +
+            "WHERE TENANT_ID = ? AND (OWNER_ID = ? OR EXPIRY_TIME < ?) AND COMPLETED_TIME < ?";
+    public static final String INSERT_LEASE = "INSERT INTO IDN_IDLE_ACCOUNT_TASK_LEASE (TENANT_ID, OWNER_ID, " +
+            "EXPIRY_TIME, COMPLETED_TIME) VALUES (?, ?, ?, 0)";
+    public static final String RENEW_LEASE = "UPDATE IDN_IDLE_ACCOUNT_TASK_LEASE SET EXPIRY_TIME = ? WHERE " +
+            "TENANT_ID = ? AND OWNER_ID = ? AND EXPIRY_TIME >= ?";
+    public static final String COMPLETE_LEASE = "UPDATE IDN_IDLE_ACCOUNT_TASK_LEASE SET EXPIRY_TIME = 0, " +
+            "COMPLETED_TIME = ? WHERE TENANT_ID = ? AND OWNER_ID = ?";
+    public static final String RELEASE_LEASE = "UPDATE IDN_IDLE_ACCOUNT_TASK_LEASE SET EXPIRY_TIME = 0 WHERE " +
+            "TENANT_ID = ? AND OWNER_ID = ?";
+
     public final static String USERNAME_CLAIM = "http://wso2.org/claims/username";
     public final static String FIRST_NAME_CLAIM = "http://wso2.org/claims/givenname";
     public final static String EMAIL_CLAIM = "http://wso2.org/claims/emailaddress";
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.account.suspension.notification.task.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
+import org.wso2.carbon.identity.account.suspension.notification.task.metrics.TaskPhase;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.user.api.UserStoreException;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Sends the idle account reminder emails asynchronously on a fixed set of worker threads, so that a slow
+ * notification handler does not stall the suspension task.
+ * <ul>
+ * <li>The number of reminders which are queued, in progress or waiting for a retry is bounded. Submitting a reminder
+ * blocks while the bound is reached.</li>
+ * <li>The reminders of a tenant are rate limited with a token bucket, which is applied on submission so that the
+ * workers are never held up by a throttled tenant.</li>
+ * <li>Reminders which fail to be published are retried with an exponential backoff.</li>
+ * </ul>
+ * Reminders are submitted through a {@link TenantDispatch}, which acts as the completion barrier of a tenant run.
+ */
+public class NotificationDispatcher {
+
+    private static final Log log = LogFactory.getLog(NotificationDispatcher.class);
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final Semaphore capacity;
+    private final int rateLimit;
+    private final int maxRetries;
+    private final long retryDelay;
+    private final EmailUtil emailUtil = new EmailUtil();
+
+    /**
+     * @param workerCount   Number of worker threads.
+     * @param queueCapacity Maximum number of reminders which are pending at a time.
+     * @param rateLimit     Maximum number of reminders of a tenant per second. 0 for no limit.
+     * @param maxRetries    Maximum number of retries of a failed reminder.
+     * @param retryDelay    Delay before the first retry in milliseconds. It is doubled on each retry.
+     */
+    public NotificationDispatcher(int workerCount, int queueCapacity, int rateLimit, int maxRetries,
+                                  long retryDelay) {
+
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, workerCount), new DispatcherThreadFactory());
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.capacity = new Semaphore(Math.max(1, queueCapacity));
+        this.rateLimit = Math.max(0, rateLimit);
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryDelay = Math.max(0, retryDelay);
+    }
+
+    /**
+     * Start dispatching the reminders of a tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Dispatch of the tenant.
+     */
+    public TenantDispatch startDispatch(String tenantDomain) {
+
+        return new TenantDispatch(tenantDomain);
+    }
+
+    /**
+     * Stop the workers. Pending reminders are dropped.
+     */
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    private void schedule(Runnable task, long delay) {
+
+        if (delay > 0) {
+            executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * Reminders of a single tenant run. A dispatch is used by the thread which runs the task of the tenant, while its
+     * reminders are sent by the workers of the dispatcher.
+     */
+    public class TenantDispatch {
+
+        private final String tenantDomain;
+        private final int tenantId;
+        private final TokenBucket tokenBucket;
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final Object completionLock = new Object();
+        private int pending;
+        private volatile boolean cancelled;
+
+        private TenantDispatch(String tenantDomain) {
+
+            this.tenantDomain = tenantDomain;
+            this.tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+            this.tokenBucket = rateLimit > 0 ? new TokenBucket(rateLimit) : null;
+        }
+
+        /**
+         * Queue a reminder. Blocks while the tenant is throttled or while the dispatcher is full.
+         *
+         * @param receiver Notification receiver.
+         * @throws InterruptedException If interrupted while waiting.
+         */
+        public void submit(NotificationReceiver receiver) throws InterruptedException {
+
+            submit(receiver, null);
+        }
+
+        /**
+         * Queue a reminder. Blocks while the tenant is throttled or while the dispatcher is full.
+         *
+         * @param receiver     Notification receiver.
+         * @param sentListener Listener which is called on a worker thread once the reminder is sent. May be null.
+         * @throws InterruptedException If interrupted while waiting.
+         */
+        public void submit(NotificationReceiver receiver, Consumer<NotificationReceiver> sentListener)
+                throws InterruptedException {
+
+            if (tokenBucket != null) {
+                tokenBucket.acquire();
+            }
+            capacity.acquire();
+            synchronized (completionLock) {
+                pending++;
+            }
+            try {
+                schedule(new DispatchTask(receiver, sentListener), 0);
+            } catch (RejectedExecutionException e) {
+                log.error("Unable to queue the idle account reminder of user: " + getQualifiedName(receiver) + ". " +
+                        "The dispatcher is shut down.", e);
+                complete(failed);
+            }
+        }
+
+        /**
+         * Skip the reminders of the tenant which are not sent yet.
+         */
+        public void cancel() {
+
+            cancelled = true;
+        }
+
+        /**
+         * Wait until all the submitted reminders are either sent, failed or skipped, or until the dispatcher is shut
+         * down.
+         *
+         * @throws InterruptedException If interrupted while waiting.
+         */
+        public void awaitCompletion() throws InterruptedException {
+
+            synchronized (completionLock) {
+                while (pending > 0 && !executor.isShutdown()) {
+                    completionLock.wait(TimeUnit.SECONDS.toMillis(1));
+                }
+            }
+        }
+
+        public int getSentCount() {
+
+            return sent.get();
+        }
+
+        public int getFailedCount() {
+
+            return failed.get();
+        }
+
+        public int getSkippedCount() {
+
+            return skipped.get();
+        }
+
+        private void complete(AtomicInteger outcome) {
+
+            outcome.incrementAndGet();
+            capacity.release();
+            synchronized (completionLock) {
+                pending--;
+                if (pending == 0) {
+                    completionLock.notifyAll();
+                }
+            }
+        }
+
+        private String getQualifiedName(NotificationReceiver receiver) {
+
+            return IdentityUtil.addDomainToName(receiver.getUsername(),
+                    receiver.getUserStoreDomain()) + "@" + tenantDomain;
+        }
+
+        private class DispatchTask implements Runnable {
+
+            private final NotificationReceiver receiver;
+            private final Consumer<NotificationReceiver> sentListener;
+            private Event event;
+            private int attempt;
+
+            private DispatchTask(NotificationReceiver receiver, Consumer<NotificationReceiver> sentListener) {
+
+                this.receiver = receiver;
+                this.sentListener = sentListener;
+            }
+
+            @Override
+            public void run() {
+
+                if (cancelled) {
+                    complete(skipped);
+                    return;
+                }
+
+                try {
+                    PrivilegedCarbonContext.startTenantFlow();
+                    PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+                    carbonContext.setTenantId(tenantId);
+                    carbonContext.setTenantDomain(tenantDomain);
+
+                    long startTime = System.nanoTime();
+                    try {
+                        if (event == null) {
+                            event = emailUtil.buildEmailEvent(receiver);
+                        }
+                        emailUtil.publishEvent(event);
+                    } finally {
+                        NotificationTaskDataHolder.getInstance().getTaskMetrics().recordPhase(
+                                TaskPhase.NOTIFICATION_DISPATCH, startTime);
+                    }
+                    if (sentListener != null) {
+                        sentListener.accept(receiver);
+                    }
+                    complete(sent);
+                } catch (UserStoreException e) {
+                    log.error("Error while getting user store manager of user: " + getQualifiedName(receiver), e);
+                    complete(failed);
+                } catch (IdentityEventException e) {
+                    retry(e);
+                } catch (RuntimeException e) {
+                    log.error("Unexpected error occurred while sending the idle account reminder to: " +
+                            getQualifiedName(receiver), e);
+                    complete(failed);
+                } finally {
+                    PrivilegedCarbonContext.endTenantFlow();
+                }
+            }
+
+            private void retry(IdentityEventException cause) {
+
+                if (attempt >= maxRetries || cancelled) {
+                    log.error("Error occurred while sending email to: " + getQualifiedName(receiver) + " after " +
+                            (attempt + 1) + " attempts.", cause);
+                    complete(failed);
+                    return;
+                }
+
+                long delay = retryDelay << Math.min(attempt, 20);
+                attempt++;
+                if (log.isDebugEnabled()) {
+                    log.debug("Sending email to: " + getQualifiedName(receiver) + " failed. Retrying in " + delay +
+                            "ms. Attempt: " + attempt, cause);
+                }
+                try {
+                    schedule(this, delay);
+                } catch (RejectedExecutionException e) {
+                    log.error("Error occurred while sending email to: " + getQualifiedName(receiver) +
+                            ". The dispatcher is shut down.", cause);
+                    complete(failed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Token bucket which holds up to a second worth of tokens and is refilled continuously.
+     */
+    private static class TokenBucket {
+
+        private final double tokensPerNano;
+        private final double maxTokens;
+        private double tokens;
+        private long lastRefill;
+
+        private TokenBucket(int tokensPerSecond) {
+
+            this.tokensPerNano = tokensPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+            this.maxTokens = tokensPerSecond;
+            this.tokens = tokensPerSecond;
+            this.lastRefill = System.nanoTime();
+        }
+
+        private synchronized void acquire() throws InterruptedException {
+
+            while (true) {
+                long now = System.nanoTime();
+                tokens = Math.min(maxTokens, tokens + (now - lastRefill) * tokensPerNano);
+                lastRefill = now;
+                if (tokens >= 1) {
+                    tokens--;
+                    return;
+                }
+                long waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+
+    private static class DispatcherThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = new Thread(runnable, "idle-account-notification-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class NotificationReceiver {
     private String expireDate;
     private String email;
     private String userStoreDomain;
+    private long lastLoginTime;
 
     public String getEmail() {
         return email;
@@ -64,4 +65,15 @@ public class NotificationReceiver {
     public String getUserStoreDomain() { return userStoreDomain; }
 
     public void setUserStoreDomain(String userStoreDomain) { this.userStoreDomain = userStoreDomain; }
+
+    /**
+     * @return Last login time of the user in milliseconds, or 0 if it is not known.
+     */
+    public long getLastLoginTime() {
+        return lastLoginTime;
+    }
+
+    public void setLastLoginTime(long lastLoginTime) {
+        this.lastLoginTime = lastLoginTime;
+    }
 }
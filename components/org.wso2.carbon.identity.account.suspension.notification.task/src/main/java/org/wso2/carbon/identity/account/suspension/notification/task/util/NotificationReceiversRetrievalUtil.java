@@ -22,9 +22,11 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.CarbonContext;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversPageHandler;
 import org.wso2.carbon.identity.account.suspension.notification.task.NotificationReceiversRetrieval;
 import org.wso2.carbon.identity.account.suspension.notification.task.exception.AccountSuspensionNotificationException;
 import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
+import org.wso2.carbon.identity.account.suspension.notification.task.metrics.TaskPhase;
 import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
@@ -32,8 +34,10 @@ import org.wso2.carbon.user.api.RealmConfiguration;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.model.UserClaimSearchEntry;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
+import org.wso2.carbon.utils.dbcreator.DatabaseCreator;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -41,6 +45,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -53,6 +58,9 @@ public class NotificationReceiversRetrievalUtil {
 
     public static final String NOTIFICATION_RECEIVERS_RETRIEVAL_CLASS = "NotificationReceiversRetrievalClass";
     private static final Log log = LogFactory.getLog(NotificationReceiversRetrievalUtil.class);
+    private static final String MSSQL = "mssql";
+    private static final String ORACLE = "oracle";
+    private static final String POSTGRE_SQL = "postgresql";
 
     public static Set<String> getSuspensionNotificationEnabledUserStores(String tenantDomain)
             throws AccountSuspensionNotificationException {
@@ -192,57 +200,200 @@ public class NotificationReceiversRetrievalUtil {
             lookupMax, long delayForSuspension, RealmService realmService, String tenantDomain, String userStoreDomain)
             throws AccountSuspensionNotificationException {
 
+        List<NotificationReceiver> users = new ArrayList<>();
+        processNotificationReceiversFromIdentityClaim(lookupMin, lookupMax, delayForSuspension, realmService,
+                tenantDomain, userStoreDomain, NotificationTaskDataHolder.getInstance().getReceiversPageSize(),
+                page -> {
+                    users.addAll(page);
+                    return true;
+                });
+        return users;
+    }
+
+    /**
+     * Retrieve the users whose accounts have been idle more than the allowed number of days page by page, by checking
+     * the identity database. Each page is read with a keyset query on the username and the connection is released
+     * before the claims of the page are fetched from the user store, with a single user store call per page.
+     *
+     * @param lookupMin          lookup mininum timestamp
+     * @param lookupMax          lookup maximum timestamp
+     * @param delayForSuspension allowed account suspension delay
+     * @param realmService       realm service
+     * @param tenantDomain       tenant domain
+     * @param userStoreDomain    userstore domain
+     * @param pageSize           maximum number of users in a page
+     * @param handler            handler of the pages
+     * @throws AccountSuspensionNotificationException if something happens when retrieving user details
+     */
+    public static void processNotificationReceiversFromIdentityClaim(long lookupMin, long lookupMax,
+                                                                     long delayForSuspension,
+                                                                     RealmService realmService, String tenantDomain,
+                                                                     String userStoreDomain, int pageSize,
+                                                                     NotificationReceiversPageHandler handler)
+            throws AccountSuspensionNotificationException {
+
         if (log.isDebugEnabled()) {
             log.debug("Retrieve users whose accounts have been idle more than the allowed number of days by checking " +
                     "the identity database.");
         }
 
-        List<NotificationReceiver> users = new ArrayList<>();
-        String sqlStmt = NotificationConstants.GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_IDENTITY_CLAIM;
-        try (Connection connection = IdentityDatabaseUtil.getDBConnection(true)) {
-            try (PreparedStatement prepStmt = connection.prepareStatement(sqlStmt)) {
-                prepStmt.setString(1, NotificationConstants.LAST_LOGIN_TIME_IDENTITY_CLAIM);
-                prepStmt.setString(2, String.valueOf(lookupMin));
-                prepStmt.setString(3, String.valueOf(lookupMax));
-                prepStmt.setInt(4, IdentityTenantUtil.getTenantId(tenantDomain));
-                try (ResultSet resultSet = prepStmt.executeQuery()) {
-                    while (resultSet.next()) {
-                        String userName = resultSet.getString(1);
-                        if (StringUtils.isNotBlank(userName)) {
-                            String[] claims = new String[2];
-                            claims[0] = NotificationConstants.FIRST_NAME_CLAIM;
-                            claims[1] = NotificationConstants.EMAIL_CLAIM;
-                            UserStoreManager userStoreManager = (UserStoreManager) realmService.getTenantUserRealm
-                                    (IdentityTenantUtil.getTenantId(tenantDomain)).getUserStoreManager();
-
-                            if (userStoreDomain != null &&
+        int tenantId = IdentityTenantUtil.getTenantId(tenantDomain);
+        UserStoreManager userStoreManager;
+        try {
+            userStoreManager = (UserStoreManager) realmService.getTenantUserRealm(tenantId).getUserStoreManager();
+        } catch (UserStoreException e) {
+            throw new AccountSuspensionNotificationException(e.getMessage(), e);
+        }
+        String[] claims = {NotificationConstants.FIRST_NAME_CLAIM, NotificationConstants.EMAIL_CLAIM};
+
+        String lastUserName = null;
+        String databaseType = null;
+        int rowCount;
+        do {
+            rowCount = 0;
+            List<String> userNames = new ArrayList<>();
+            List<String> lastLoginTimes = new ArrayList<>();
+            String sqlStmt = NotificationConstants.GET_USERS_FILTERED_BY_LAST_LOGIN_TIME_IDENTITY_CLAIM;
+            long startTime = System.nanoTime();
+            try (Connection connection = IdentityDatabaseUtil.getDBConnection(false)) {
+                if (databaseType == null) {
+                    databaseType = getDatabaseType(connection);
+                }
+                sqlStmt = getPagedQuery(databaseType, sqlStmt + (lastUserName == null ? "" :
+                        NotificationConstants.IDENTITY_CLAIM_USER_NAME_AFTER_CLAUSE) +
+                        NotificationConstants.IDENTITY_CLAIM_ORDER_BY_USER_NAME_CLAUSE);
+                try (PreparedStatement prepStmt = connection.prepareStatement(sqlStmt)) {
+                    int index = 1;
+                    prepStmt.setString(index++, NotificationConstants.LAST_LOGIN_TIME_IDENTITY_CLAIM);
+                    prepStmt.setString(index++, String.valueOf(lookupMin));
+                    prepStmt.setString(index++, String.valueOf(lookupMax));
+                    prepStmt.setInt(index++, tenantId);
+                    if (lastUserName != null) {
+                        prepStmt.setString(index++, lastUserName);
+                    }
+                    prepStmt.setInt(index, pageSize);
+                    try (ResultSet resultSet = prepStmt.executeQuery()) {
+                        while (resultSet.next()) {
+                            rowCount++;
+                            String userName = resultSet.getString(1);
+                            lastUserName = userName;
+                            if (StringUtils.isNotBlank(userName) && userStoreDomain != null &&
                                     userStoreDomain.equalsIgnoreCase(UserCoreUtil.extractDomainFromName(userName))) {
-
-                                Map<String, String> map = userStoreManager.getUserClaimValues(userName, claims, null);
-                                NotificationReceiver receiver = new NotificationReceiver();
-                                receiver.setEmail(map.get(NotificationConstants.EMAIL_CLAIM));
-                                receiver.setUsername(UserCoreUtil.removeDomainFromName(userName));
-                                receiver.setFirstName(map.get(NotificationConstants.FIRST_NAME_CLAIM));
-                                receiver.setUserStoreDomain(userStoreDomain);
-
-                                long lastLoginTime = Long.parseLong(resultSet.getString(2));
-                                long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
-                                receiver.setExpireDate(new SimpleDateFormat("dd-MM-yyyy").format(new Date(expireDate)));
-                                users.add(receiver);
+                                userNames.add(userName);
+                                lastLoginTimes.add(resultSet.getString(2));
                             }
                         }
                     }
                 }
-                IdentityDatabaseUtil.commitTransaction(connection);
-                return users;
+            } catch (SQLException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Error occurred while running the sql query: " + sqlStmt);
+                }
+                throw new AccountSuspensionNotificationException(e.getMessage(), e);
+            } finally {
+                NotificationTaskDataHolder.getInstance().getTaskMetrics().recordPhase(TaskPhase.RECEIVER_QUERY,
+                        startTime);
             }
-        } catch (SQLException e) {
-            if (log.isDebugEnabled()) {
-                log.debug("Error occurred while running the sql query: " + sqlStmt);
+
+            if (userNames.isEmpty()) {
+                continue;
             }
-            throw new AccountSuspensionNotificationException(e.getMessage(), e);
-        } catch (UserStoreException e) {
-            throw new AccountSuspensionNotificationException(e.getMessage(), e);
+
+            Map<String, Map<String, String>> claimsOfUsers;
+            try {
+                claimsOfUsers = getUsersClaimValues(userStoreManager, userNames.toArray(new String[0]), claims);
+            } catch (UserStoreException e) {
+                throw new AccountSuspensionNotificationException(e.getMessage(), e);
+            }
+
+            List<NotificationReceiver> receivers = new ArrayList<>(userNames.size());
+            for (int i = 0; i < userNames.size(); i++) {
+                String userName = UserCoreUtil.removeDomainFromName(userNames.get(i));
+                Map<String, String> map = claimsOfUsers.get(userName);
+                if (map == null) {
+                    map = Collections.emptyMap();
+                }
+                NotificationReceiver receiver = new NotificationReceiver();
+                receiver.setEmail(map.get(NotificationConstants.EMAIL_CLAIM));
+                receiver.setUsername(userName);
+                receiver.setFirstName(map.get(NotificationConstants.FIRST_NAME_CLAIM));
+                receiver.setUserStoreDomain(userStoreDomain);
+
+                long lastLoginTime = Long.parseLong(lastLoginTimes.get(i));
+                receiver.setLastLoginTime(lastLoginTime);
+                long expireDate = lastLoginTime + TimeUnit.DAYS.toMillis(delayForSuspension);
+                receiver.setExpireDate(new SimpleDateFormat("dd-MM-yyyy").format(new Date(expireDate)));
+                receivers.add(receiver);
+            }
+            if (!handler.handle(receivers)) {
+                return;
+            }
+        } while (rowCount == pageSize);
+    }
+
+    /**
+     * Fetch the claims of a set of users with a single user store call.
+     *
+     * @param userStoreManager User store manager.
+     * @param userNames        Usernames, qualified with the user store domain where required.
+     * @param claims           Claims to be fetched.
+     * @return Claims of the users keyed by the username without the user store domain.
+     * @throws org.wso2.carbon.user.core.UserStoreException If the claims could not be fetched.
+     */
+    public static Map<String, Map<String, String>> getUsersClaimValues(UserStoreManager userStoreManager,
+                                                                       String[] userNames, String[] claims)
+            throws org.wso2.carbon.user.core.UserStoreException {
+
+        Map<String, Map<String, String>> claimsOfUsers = new HashMap<>();
+        UserClaimSearchEntry[] searchEntries;
+        long startTime = System.nanoTime();
+        try {
+            searchEntries = userStoreManager.getUsersClaimValues(userNames, claims, UserCoreConstants.DEFAULT_PROFILE);
+        } finally {
+            NotificationTaskDataHolder.getInstance().getTaskMetrics().recordPhase(TaskPhase.RECEIVER_ENRICHMENT,
+                    startTime);
+        }
+        if (searchEntries != null) {
+            for (UserClaimSearchEntry searchEntry : searchEntries) {
+                if (searchEntry != null && searchEntry.getUserName() != null && searchEntry.getClaims() != null) {
+                    claimsOfUsers.put(UserCoreUtil.removeDomainFromName(searchEntry.getUserName()),
+                            searchEntry.getClaims());
+                }
+            }
+        }
+        return claimsOfUsers;
+    }
+
+    /**
+     * Resolve the type of the database of a connection, to be resolved once and passed to
+     * {@link #getPagedQuery(String, String)} for each page.
+     *
+     * @param connection Database connection.
+     * @return Database type.
+     * @throws SQLException If the database type could not be resolved.
+     */
+    public static String getDatabaseType(Connection connection) throws SQLException {
+
+        try {
+            return DatabaseCreator.getDatabaseType(connection);
+        } catch (Exception e) {
+            throw new SQLException("Error while resolving the database type.", e);
+        }
+    }
+
+    /**
+     * Append the row limiting clause supported by the database to the given query. The page size is bound as the last
+     * parameter of the query.
+     *
+     * @param databaseType Database type, resolved by {@link #getDatabaseType(Connection)}.
+     * @param query        Query ordered by a unique key.
+     * @return Query limited to a page.
+     */
+    public static String getPagedQuery(String databaseType, String query) {
+
+        if (MSSQL.equals(databaseType) || ORACLE.equals(databaseType) || POSTGRE_SQL.equals(databaseType)) {
+            return query + NotificationConstants.FETCH_NEXT_ROWS_CLAUSE;
         }
+        return query + NotificationConstants.LIMIT_CLAUSE;
     }
 }
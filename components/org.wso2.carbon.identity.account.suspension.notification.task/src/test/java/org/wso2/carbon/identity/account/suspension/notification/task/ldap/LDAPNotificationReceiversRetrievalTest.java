@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.account.suspension.notification.task.ldap;
+
+import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.account.suspension.notification.task.internal.NotificationTaskDataHolder;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationConstants;
+import org.wso2.carbon.identity.account.suspension.notification.task.util.NotificationReceiver;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.user.api.RealmConfiguration;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.UserRealm;
+import org.wso2.carbon.user.core.claim.ClaimManager;
+import org.wso2.carbon.user.core.ldap.LDAPConnectionContext;
+import org.wso2.carbon.user.core.ldap.LDAPConstants;
+import org.wso2.carbon.user.core.service.RealmService;
+
+import javax.naming.CommunicationException;
+import javax.naming.NamingEnumeration;
+import javax.naming.directory.BasicAttribute;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * LDAP notification receivers retrieval test cases.
+ */
+public class LDAPNotificationReceiversRetrievalTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String USER_STORE_DOMAIN = "LDAP";
+    private static final String SEARCH_BASE = "ou=Users,dc=wso2,dc=org";
+    private static final String EMAIL_ATTRIBUTE = "mail";
+    private static final String USERNAME_ATTRIBUTE = "uid";
+    private static final String FIRST_NAME_ATTRIBUTE = "givenName";
+    private static final String LAST_LOGIN_ATTRIBUTE = "carLicense";
+
+    private MockedStatic<IdentityTenantUtil> mockedIdentityTenantUtil;
+    private MockedStatic<IdentityUtil> mockedIdentityUtil;
+    private LDAPNotificationReceiversRetrieval retrieval;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        mockedIdentityTenantUtil = Mockito.mockStatic(IdentityTenantUtil.class);
+        mockedIdentityTenantUtil.when(() -> IdentityTenantUtil.getTenantId(TENANT_DOMAIN)).thenReturn(-1234);
+        mockedIdentityUtil = Mockito.mockStatic(IdentityUtil.class);
+        mockedIdentityUtil.when(() -> IdentityUtil.getProperty(
+                NotificationConstants.USE_IDENTITY_CLAIM_FOR_LAST_LOGIN_TIME)).thenReturn("false");
+
+        ClaimManager claimManager = mock(ClaimManager.class);
+        when(claimManager.getAttributeName(USER_STORE_DOMAIN, NotificationConstants.EMAIL_CLAIM))
+                .thenReturn(EMAIL_ATTRIBUTE);
+        when(claimManager.getAttributeName(USER_STORE_DOMAIN, NotificationConstants.USERNAME_CLAIM))
+                .thenReturn(USERNAME_ATTRIBUTE);
+        when(claimManager.getAttributeName(USER_STORE_DOMAIN, NotificationConstants.FIRST_NAME_CLAIM))
+                .thenReturn(FIRST_NAME_ATTRIBUTE);
+        when(claimManager.getAttributeName(USER_STORE_DOMAIN, NotificationConstants.LAST_LOGIN_TIME))
+                .thenReturn(LAST_LOGIN_ATTRIBUTE);
+        UserRealm userRealm = mock(UserRealm.class);
+        when(userRealm.getClaimManager()).thenReturn(claimManager);
+        RealmService realmService = mock(RealmService.class);
+        when(realmService.getTenantUserRealm(anyInt())).thenReturn(userRealm);
+        NotificationTaskDataHolder.getInstance().setRealmService(realmService);
+
+        RealmConfiguration realmConfiguration = mock(RealmConfiguration.class);
+        when(realmConfiguration.getUserStoreProperty(LDAPConstants.USER_SEARCH_BASE)).thenReturn(SEARCH_BASE);
+        when(realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME))
+                .thenReturn(USER_STORE_DOMAIN);
+        retrieval = new LDAPNotificationReceiversRetrieval();
+        retrieval.init(realmConfiguration);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        retrieval.close();
+        mockedIdentityTenantUtil.close();
+        mockedIdentityUtil.close();
+        NotificationTaskDataHolder.getInstance().setRealmService(null);
+    }
+
+    @Test
+    public void testPagedResults() throws Exception {
+
+        LdapContext context = createContext();
+        when(context.search(eq(SEARCH_BASE), anyString(), any(SearchControls.class)))
+                .thenReturn(createResults("alice", "bob"), createResults("carol"));
+        when(context.getResponseControls()).thenReturn(createResponseControls(new byte[]{1}),
+                createResponseControls(new byte[0]));
+
+        List<List<NotificationReceiver>> pages = new ArrayList<>();
+        try (MockedConstruction<LDAPConnectionContext> ignored = Mockito.mockConstruction(
+                LDAPConnectionContext.class, (mock, construction) -> when(mock.getContext()).thenReturn(context))) {
+            retrieval.processNotificationReceivers(0, 1000, 90, TENANT_DOMAIN, 2, page -> {
+                pages.add(page);
+                return true;
+            });
+        }
+
+        assertEquals(pages.size(), 2);
+        assertEquals(getUsernames(pages.get(0)), Arrays.asList("alice", "bob"));
+        assertEquals(getUsernames(pages.get(1)), Arrays.asList("carol"));
+        assertEquals(pages.get(0).get(0).getUserStoreDomain(), USER_STORE_DOMAIN);
+        assertEquals(pages.get(0).get(0).getLastLoginTime(), 500);
+        verify(context, times(2)).search(eq(SEARCH_BASE), anyString(), any(SearchControls.class));
+        verify(context, times(2)).setRequestControls(any(Control[].class));
+        // The request controls of the kept connection are reset once the search is completed.
+        verify(context).setRequestControls((Control[]) isNull());
+    }
+
+    @Test
+    public void testPagedResultsStoppedByHandler() throws Exception {
+
+        LdapContext context = createContext();
+        when(context.search(eq(SEARCH_BASE), anyString(), any(SearchControls.class)))
+                .thenReturn(createResults("alice", "bob"), createResults("carol"));
+        when(context.getResponseControls()).thenReturn(createResponseControls(new byte[]{1}));
+
+        List<List<NotificationReceiver>> pages = new ArrayList<>();
+        try (MockedConstruction<LDAPConnectionContext> ignored = Mockito.mockConstruction(
+                LDAPConnectionContext.class, (mock, construction) -> when(mock.getContext()).thenReturn(context))) {
+            retrieval.processNotificationReceivers(0, 1000, 90, TENANT_DOMAIN, 2, page -> {
+                pages.add(page);
+                return false;
+            });
+        }
+
+        assertEquals(pages.size(), 1);
+        verify(context, times(1)).search(eq(SEARCH_BASE), anyString(), any(SearchControls.class));
+    }
+
+    @Test
+    public void testReconnectOnCommunicationException() throws Exception {
+
+        LdapContext staleContext = createContext();
+        when(staleContext.search(eq(SEARCH_BASE), anyString(), any(SearchControls.class)))
+                .thenThrow(new CommunicationException("Connection closed"));
+        LdapContext newContext = createContext();
+        when(newContext.search(eq(SEARCH_BASE), anyString(), any(SearchControls.class)))
+                .thenReturn(createResults("alice"));
+        when(newContext.getResponseControls()).thenReturn(createResponseControls(new byte[0]));
+
+        List<NotificationReceiver> receivers = new ArrayList<>();
+        try (MockedConstruction<LDAPConnectionContext> construction = Mockito.mockConstruction(
+                LDAPConnectionContext.class, (mock, context) -> when(mock.getContext()).thenReturn(
+                        context.getCount() == 1 ? staleContext : newContext))) {
+            retrieval.processNotificationReceivers(0, 1000, 90, TENANT_DOMAIN, 2, page -> {
+                receivers.addAll(page);
+                return true;
+            });
+            assertEquals(construction.constructed().size(), 2);
+        }
+
+        assertEquals(getUsernames(receivers), Arrays.asList("alice"));
+        verify(staleContext).close();
+        verify(newContext, never()).close();
+    }
+
+    private LdapContext createContext() throws Exception {
+
+        LdapContext context = mock(LdapContext.class);
+        BasicAttributes rootAttributes = new BasicAttributes(true);
+        rootAttributes.put(new BasicAttribute("supportedControl", PagedResultsControl.OID));
+        when(context.getAttributes(eq(""), any(String[].class))).thenReturn(rootAttributes);
+        return context;
+    }
+
+    private Control[] createResponseControls(byte[] cookie) {
+
+        PagedResultsResponseControl control = mock(PagedResultsResponseControl.class);
+        when(control.getCookie()).thenReturn(cookie);
+        return new Control[]{control};
+    }
+
+    private NamingEnumeration<SearchResult> createResults(String... usernames) {
+
+        List<SearchResult> results = new ArrayList<>();
+        for (String username : usernames) {
+            BasicAttributes attributes = new BasicAttributes(true);
+            attributes.put(EMAIL_ATTRIBUTE, username + "@wso2.com");
+            attributes.put(USERNAME_ATTRIBUTE, username);
+            attributes.put(FIRST_NAME_ATTRIBUTE, username);
+            attributes.put(LAST_LOGIN_ATTRIBUTE, "500");
+            results.add(new SearchResult(USERNAME_ATTRIBUTE + "=" + username, null, attributes));
+        }
+        return new ListNamingEnumeration(results);
+    }
+
+    private List<String> getUsernames(List<NotificationReceiver> receivers) {
+
+        List<String> usernames = new ArrayList<>();
+        for (NotificationReceiver receiver : receivers) {
+            usernames.add(receiver.getUsername());
+        }
+        return usernames;
+    }
+
+    /**
+     * Search results backed by a list.
+     */
+    private static class ListNamingEnumeration implements NamingEnumeration<SearchResult> {
+
+        private final Iterator<SearchResult> iterator;
+
+        private ListNamingEnumeration(List<SearchResult> results) {
+
+            this.iterator = results.iterator();
+        }
+
+        @Override
+        public SearchResult next() {
+
+            return iterator.next();
+        }
+
+        @Override
+        public boolean hasMore() {
+
+            return iterator.hasNext();
+        }
+
+        @Override
+        public void close() {
+
+        }
+
+        @Override
+        public boolean hasMoreElements() {
+
+            return iterator.hasNext();
+        }
+
+        @Override
+        public SearchResult nextElement() {
+
+            return iterator.next();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.account.suspension.notification.task.lease;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.account.suspension.notification.task.lease.TenantLeaseManager.TenantLease;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tenant lease manager test cases. Two managers on a shared H2 database act as two nodes of a cluster.
+ */
+public class TenantLeaseManagerTest {
+
+    private static final String DB_URL = "jdbc:h2:mem:idle_account_task;DB_CLOSE_DELAY=-1";
+    private static final long TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(5);
+    private static final long RUN_INTERVAL = TimeUnit.HOURS.toMillis(24);
+    private static final int TENANT_ID = 1;
+
+    private final List<TenantLeaseManager> managers = new ArrayList<>();
+
+    @BeforeClass
+    public void setUp() throws Exception {
+
+        try (Connection connection = DriverManager.getConnection(DB_URL);
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:dbscripts/h2.sql'");
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        for (TenantLeaseManager manager : managers) {
+            manager.shutdown();
+        }
+        managers.clear();
+        try (Connection connection = DriverManager.getConnection(DB_URL);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM IDN_IDLE_ACCOUNT_TASK_LEASE");
+        }
+    }
+
+    @Test
+    public void testAcquire() {
+
+        TenantLeaseManager node1 = createManager("node1", TIME_TO_LIVE, RUN_INTERVAL);
+        TenantLeaseManager node2 = createManager("node2", TIME_TO_LIVE, RUN_INTERVAL);
+
+        TenantLease lease = node1.acquire(TENANT_ID);
+        assertNotNull(lease);
+        assertEquals(lease.getTenantId(), TENANT_ID);
+        assertFalse(lease.isLost());
+        assertNull(node2.acquire(TENANT_ID), "A lease held by another node should not be acquired.");
+        assertNotNull(node2.acquire(TENANT_ID + 1), "Leases of the other tenants should be independent.");
+    }
+
+    @Test
+    public void testRelease() {
+
+        TenantLeaseManager node1 = createManager("node1", TIME_TO_LIVE, RUN_INTERVAL);
+        TenantLeaseManager node2 = createManager("node2", TIME_TO_LIVE, RUN_INTERVAL);
+
+        node1.acquire(TENANT_ID).release();
+        assertNotNull(node2.acquire(TENANT_ID), "A released lease should be acquired by another node.");
+    }
+
+    @Test
+    public void testTakeoverAfterExpiry() throws Exception {
+
+        TenantLeaseManager node1 = createManager("node1", 3000, RUN_INTERVAL);
+        TenantLeaseManager node2 = createManager("node2", 3000, RUN_INTERVAL);
+
+        TenantLease lease = node1.acquire(TENANT_ID);
+        assertNotNull(lease);
+        // Node 1 stops renewing, e.g. it is stopped, and the lease expires.
+        expireLease(TENANT_ID);
+
+        TenantLease takenOverLease = node2.acquire(TENANT_ID);
+        assertNotNull(takenOverLease, "An expired lease should be taken over by another node.");
+        assertTrue(waitUntilLost(lease, 5000), "The lease should be lost by the node which held it.");
+        assertFalse(takenOverLease.isLost());
+        assertNull(node1.acquire(TENANT_ID), "A lease which is taken over should not be acquired back.");
+    }
+
+    @Test
+    public void testCompletion() throws Exception {
+
+        TenantLeaseManager node1 = createManager("node1", TIME_TO_LIVE, RUN_INTERVAL);
+        TenantLeaseManager node2 = createManager("node2", TIME_TO_LIVE, RUN_INTERVAL);
+
+        node1.acquire(TENANT_ID).complete();
+        assertNull(node2.acquire(TENANT_ID), "A tenant should not be run again within the run interval.");
+        assertNull(node1.acquire(TENANT_ID), "A tenant should not be run again within the run interval.");
+
+        Thread.sleep(10);
+        TenantLeaseManager node3 = createManager("node3", TIME_TO_LIVE, 0);
+        assertNotNull(node3.acquire(TENANT_ID), "A tenant should be run again once the run interval elapses.");
+    }
+
+    private TenantLeaseManager createManager(String ownerId, long timeToLive, long runInterval) {
+
+        TenantLeaseManager manager = new TenantLeaseManager(ownerId, timeToLive, runInterval, () -> {
+            Connection connection = DriverManager.getConnection(DB_URL);
+            connection.setAutoCommit(false);
+            return connection;
+        });
+        managers.add(manager);
+        return manager;
+    }
+
+    private void expireLease(int tenantId) throws SQLException {
+
+        try (Connection connection = DriverManager.getConnection(DB_URL);
+             PreparedStatement prepStmt = connection.prepareStatement(
+                     "UPDATE IDN_IDLE_ACCOUNT_TASK_LEASE SET EXPIRY_TIME = ? WHERE TENANT_ID = ?")) {
+            prepStmt.setLong(1, System.currentTimeMillis() - 1);
+            prepStmt.setInt(2, tenantId);
+            prepStmt.executeUpdate();
+        }
+    }
+
+    private boolean waitUntilLost(TenantLease lease, long timeout) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + timeout;
+        while (!lease.isLost() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        return lease.isLost();
+    }
+}
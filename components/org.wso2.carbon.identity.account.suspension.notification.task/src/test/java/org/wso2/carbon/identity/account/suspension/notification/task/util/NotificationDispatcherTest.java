@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.account.suspension.notification.task.util;
+
+import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.base.CarbonBaseConstants;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.user.api.UserStoreException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Notification dispatcher test cases.
+ */
+public class NotificationDispatcherTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+
+    private MockedStatic<IdentityTenantUtil> mockedIdentityTenantUtil;
+    private MockedConstruction<EmailUtil> mockedEmailUtil;
+    private NotificationDispatcher dispatcher;
+
+    @BeforeClass
+    public void setUpClass() {
+
+        System.setProperty(CarbonBaseConstants.CARBON_HOME,
+                NotificationDispatcherTest.class.getResource("/").getFile());
+    }
+
+    @BeforeMethod
+    public void setUp() {
+
+        mockedIdentityTenantUtil = Mockito.mockStatic(IdentityTenantUtil.class);
+        mockedIdentityTenantUtil.when(() -> IdentityTenantUtil.getTenantId(TENANT_DOMAIN)).thenReturn(-1234);
+        mockedEmailUtil = Mockito.mockConstruction(EmailUtil.class, (mock, context) ->
+                when(mock.buildEmailEvent(any(NotificationReceiver.class))).thenReturn(new Event("TEST_EVENT")));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+            dispatcher = null;
+        }
+        mockedEmailUtil.close();
+        mockedIdentityTenantUtil.close();
+    }
+
+    @Test
+    public void testDispatch() throws Exception {
+
+        dispatcher = new NotificationDispatcher(2, 10, 0, 0, 0);
+        EmailUtil emailUtil = getEmailUtil();
+        AtomicInteger sentCount = new AtomicInteger();
+
+        NotificationDispatcher.TenantDispatch dispatch = dispatcher.startDispatch(TENANT_DOMAIN);
+        for (int i = 0; i < 5; i++) {
+            dispatch.submit(createReceiver("user" + i), receiver -> sentCount.incrementAndGet());
+        }
+        dispatch.awaitCompletion();
+
+        assertEquals(dispatch.getSentCount(), 5);
+        assertEquals(dispatch.getFailedCount(), 0);
+        assertEquals(dispatch.getSkippedCount(), 0);
+        assertEquals(sentCount.get(), 5);
+        verify(emailUtil, times(5)).publishEvent(any(Event.class));
+    }
+
+    @Test
+    public void testRateLimit() throws Exception {
+
+        dispatcher = new NotificationDispatcher(2, 20, 5, 0, 0);
+        NotificationDispatcher.TenantDispatch dispatch = dispatcher.startDispatch(TENANT_DOMAIN);
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            dispatch.submit(createReceiver("user" + i));
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        dispatch.awaitCompletion();
+
+        // The bucket holds a second worth of tokens, hence the second half of the reminders waits for a second.
+        assertTrue(elapsed >= 800, "Reminders should be throttled to the rate limit. Elapsed: " + elapsed + "ms");
+        assertEquals(dispatch.getSentCount(), 10);
+    }
+
+    @Test
+    public void testRetryWithBackoff() throws Exception {
+
+        dispatcher = new NotificationDispatcher(1, 10, 0, 3, 100);
+        EmailUtil emailUtil = getEmailUtil();
+        doThrow(new IdentityEventException("Handler failed")).doThrow(new IdentityEventException("Handler failed"))
+                .doNothing().when(emailUtil).publishEvent(any(Event.class));
+
+        NotificationDispatcher.TenantDispatch dispatch = dispatcher.startDispatch(TENANT_DOMAIN);
+        long startTime = System.nanoTime();
+        dispatch.submit(createReceiver("user"));
+        dispatch.awaitCompletion();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+        assertEquals(dispatch.getSentCount(), 1);
+        assertEquals(dispatch.getFailedCount(), 0);
+        // Retried after 100ms and then after 200ms.
+        assertTrue(elapsed >= 300, "Retries should be delayed with an exponential backoff. Elapsed: " + elapsed +
+                "ms");
+        verify(emailUtil, times(3)).publishEvent(any(Event.class));
+        // The event is built once and reused by the retries.
+        verify(emailUtil, times(1)).buildEmailEvent(any(NotificationReceiver.class));
+    }
+
+    @Test
+    public void testRetriesExhausted() throws Exception {
+
+        dispatcher = new NotificationDispatcher(1, 10, 0, 2, 10);
+        EmailUtil emailUtil = getEmailUtil();
+        doThrow(new IdentityEventException("Handler failed")).when(emailUtil).publishEvent(any(Event.class));
+
+        NotificationDispatcher.TenantDispatch dispatch = dispatcher.startDispatch(TENANT_DOMAIN);
+        dispatch.submit(createReceiver("user"));
+        dispatch.awaitCompletion();
+
+        assertEquals(dispatch.getSentCount(), 0);
+        assertEquals(dispatch.getFailedCount(), 1);
+        verify(emailUtil, times(3)).publishEvent(any(Event.class));
+    }
+
+    @Test
+    public void testFailedEventNotRetried() throws Exception {
+
+        dispatcher = new NotificationDispatcher(1, 10, 0, 3, 10);
+        EmailUtil emailUtil = getEmailUtil();
+        when(emailUtil.buildEmailEvent(any(NotificationReceiver.class)))
+                .thenThrow(new UserStoreException("User store failed"));
+
+        NotificationDispatcher.TenantDispatch dispatch = dispatcher.startDispatch(TENANT_DOMAIN);
+        dispatch.submit(createReceiver("user"));
+        dispatch.awaitCompletion();
+
+        assertEquals(dispatch.getFailedCount(), 1);
+        verify(emailUtil, times(1)).buildEmailEvent(any(NotificationReceiver.class));
+        verify(emailUtil, never()).publishEvent(any(Event.class));
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+
+        dispatcher = new NotificationDispatcher(1, 10, 0, 0, 0);
+        EmailUtil emailUtil = getEmailUtil();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(emailUtil).publishEvent(any(Event.class));
+
+        NotificationDispatcher.TenantDispatch dispatch = dispatcher.startDispatch(TENANT_DOMAIN);
+        for (int i = 0; i < 3; i++) {
+            dispatch.submit(createReceiver("user" + i));
+        }
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        dispatch.cancel();
+        release.countDown();
+        dispatch.awaitCompletion();
+
+        // The reminder in progress is sent, while the queued reminders are skipped.
+        assertEquals(dispatch.getSentCount(), 1);
+        assertEquals(dispatch.getSkippedCount(), 2);
+        assertEquals(dispatch.getFailedCount(), 0);
+        verify(emailUtil, times(1)).publishEvent(any(Event.class));
+    }
+
+    @Test
+    public void testCancelDuringRetry() throws Exception {
+
+        dispatcher = new NotificationDispatcher(1, 10, 0, 3, 200);
+        EmailUtil emailUtil = getEmailUtil();
+        CountDownLatch failed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            failed.countDown();
+            throw new IdentityEventException("Handler failed");
+        }).when(emailUtil).publishEvent(any(Event.class));
+
+        NotificationDispatcher.TenantDispatch dispatch = dispatcher.startDispatch(TENANT_DOMAIN);
+        dispatch.submit(createReceiver("user"));
+        assertTrue(failed.await(10, TimeUnit.SECONDS));
+        dispatch.cancel();
+        dispatch.awaitCompletion();
+
+        // A reminder waiting for a retry is counted once, as either skipped or failed.
+        assertEquals(dispatch.getSkippedCount() + dispatch.getFailedCount(), 1);
+        assertEquals(dispatch.getSentCount(), 0);
+    }
+
+    private EmailUtil getEmailUtil() {
+
+        return mockedEmailUtil.constructed().get(0);
+    }
+
+    private NotificationReceiver createReceiver(String username) {
+
+        NotificationReceiver receiver = new NotificationReceiver();
+        receiver.setUsername(username);
+        receiver.setEmail(username + "@wso2.com");
+        receiver.setUserStoreDomain("PRIMARY");
+        return receiver;
+    }
+}
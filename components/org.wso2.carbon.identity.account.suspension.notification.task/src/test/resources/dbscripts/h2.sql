@@ -0,0 +1,25 @@
+CREATE TABLE IF NOT EXISTS IDN_IDLE_ACCOUNT_TASK_LEASE (
+    TENANT_ID INTEGER NOT NULL,
+    OWNER_ID VARCHAR(255) NOT NULL,
+    EXPIRY_TIME BIGINT NOT NULL,
+    COMPLETED_TIME BIGINT NOT NULL,
+    PRIMARY KEY (TENANT_ID)
+);
+
+CREATE TABLE IF NOT EXISTS IDN_IDLE_ACCOUNT_SCAN (
+    TENANT_ID INTEGER NOT NULL,
+    USER_STORE_DOMAIN VARCHAR(255) NOT NULL,
+    NOTIFICATION_DELAY INTEGER NOT NULL,
+    LAST_LOGIN_TIME BIGINT NOT NULL,
+    UPDATED_TIME BIGINT NOT NULL,
+    PRIMARY KEY (TENANT_ID, USER_STORE_DOMAIN, NOTIFICATION_DELAY)
+);
+
+CREATE TABLE IF NOT EXISTS IDN_IDLE_ACCOUNT_REMINDER (
+    TENANT_ID INTEGER NOT NULL,
+    USER_STORE_DOMAIN VARCHAR(255) NOT NULL,
+    USER_NAME VARCHAR(255) NOT NULL,
+    NOTIFICATION_DELAY INTEGER NOT NULL,
+    REMINDER_DAY BIGINT NOT NULL,
+    PRIMARY KEY (TENANT_ID, USER_STORE_DOMAIN, USER_NAME, NOTIFICATION_DELAY, REMINDER_DAY)
+);
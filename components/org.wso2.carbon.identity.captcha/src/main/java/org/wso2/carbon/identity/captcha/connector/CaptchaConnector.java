@@ -21,6 +21,7 @@ package org.wso2.carbon.identity.captcha.connector;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 
+import java.util.List;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 
@@ -33,6 +34,18 @@ public interface CaptchaConnector {
 
     int getPriority();
 
+    /**
+     * Get the request paths which the connector handles. The connector is asked whether it can handle a request only
+     * if the path of the request is one of them. A path ending with "*" matches the paths which start with the rest
+     * of it.
+     *
+     * @return Handled request paths, or null if the connector has to be asked for the requests of any path.
+     */
+    default List<String> getHandledPaths() {
+
+        return null;
+    }
+
     boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException;
 
     CaptchaPreValidationResponse preValidate(ServletRequest servletRequest, ServletResponse servletResponse) throws
@@ -40,6 +53,20 @@ public interface CaptchaConnector {
 
     boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException;
 
+    /**
+     * Read the captcha response of a request. It is called on the servlet thread, so that only the call to the captcha
+     * provider is made on the verification threads, which never access the request.
+     *
+     * @return Captcha response of the request, or null if the connector verifies the request itself with
+     * {@link #verifyCaptcha(ServletRequest, ServletResponse)}, in which case it is verified on the servlet thread.
+     * @throws CaptchaException If the request does not carry a captcha response.
+     */
+    default String getCaptchaResponse(ServletRequest servletRequest, ServletResponse servletResponse)
+            throws CaptchaException {
+
+        return null;
+    }
+
     CaptchaPostValidationResponse postValidate(ServletRequest servletRequest, ServletResponse servletResponse) throws
             CaptchaException;
 }
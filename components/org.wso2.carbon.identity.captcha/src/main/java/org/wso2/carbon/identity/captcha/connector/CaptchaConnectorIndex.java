@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.connector;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable index of the captcha connectors by the request paths they handle, declared by
+ * {@link CaptchaConnector#getHandledPaths()}. It gives the connectors which may handle a request, in the order in
+ * which they are to be asked: highest priority first, and in the order of registration among equal priorities.
+ * <p>
+ * A request whose path none of the connectors handles resolves to the connectors which do not declare their paths,
+ * without asking any of the others.
+ */
+public final class CaptchaConnectorIndex {
+
+    private static final String WILDCARD = "*";
+
+    private static final CaptchaConnectorIndex EMPTY = new CaptchaConnectorIndex(Collections.emptyList());
+
+    private final Map<String, List<CaptchaConnector>> exactPathConnectors = new HashMap<>();
+    private final Map<String, List<CaptchaConnector>> prefixPathConnectors = new HashMap<>();
+    private final List<CaptchaConnector> unindexedConnectors = new ArrayList<>();
+    private final Map<CaptchaConnector, Integer> ranks = new IdentityHashMap<>();
+    private final Comparator<CaptchaConnector> rankComparator = Comparator.comparing(ranks::get);
+
+    private CaptchaConnectorIndex(List<CaptchaConnector> connectors) {
+
+        List<CaptchaConnector> rankedConnectors = new ArrayList<>(connectors);
+        // Stable, hence connectors of the same priority keep the order of registration.
+        rankedConnectors.sort(Comparator.comparingInt(CaptchaConnector::getPriority).reversed());
+        for (CaptchaConnector connector : rankedConnectors) {
+            if (ranks.containsKey(connector)) {
+                continue;
+            }
+            ranks.put(connector, ranks.size());
+            List<String> paths = connector.getHandledPaths();
+            if (paths == null) {
+                unindexedConnectors.add(connector);
+                continue;
+            }
+            for (String path : new LinkedHashSet<>(paths)) {
+                if (StringUtils.isBlank(path)) {
+                    continue;
+                }
+                if (path.endsWith(WILDCARD)) {
+                    prefixPathConnectors.computeIfAbsent(path.substring(0, path.length() - 1),
+                            k -> new ArrayList<>()).add(connector);
+                } else {
+                    exactPathConnectors.computeIfAbsent(path, k -> new ArrayList<>()).add(connector);
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the index of the given connectors.
+     *
+     * @param connectors Captcha connectors.
+     * @return Index of the connectors.
+     */
+    public static CaptchaConnectorIndex build(List<CaptchaConnector> connectors) {
+
+        if (connectors == null || connectors.isEmpty()) {
+            return EMPTY;
+        }
+        return new CaptchaConnectorIndex(connectors);
+    }
+
+    /**
+     * Get the connectors which may handle a request path.
+     *
+     * @param path Request path.
+     * @return Connectors which handle the path or do not declare their paths, in the order in which they are to be
+     * asked. The list must not be modified.
+     */
+    public List<CaptchaConnector> getCandidates(String path) {
+
+        if (StringUtils.isBlank(path)) {
+            return unindexedConnectors;
+        }
+
+        List<CaptchaConnector> exactMatches = exactPathConnectors.get(path);
+        List<CaptchaConnector> prefixMatches = null;
+        if (!prefixPathConnectors.isEmpty()) {
+            for (Map.Entry<String, List<CaptchaConnector>> entry : prefixPathConnectors.entrySet()) {
+                if (path.startsWith(entry.getKey())) {
+                    if (prefixMatches == null) {
+                        prefixMatches = new ArrayList<>();
+                    }
+                    prefixMatches.addAll(entry.getValue());
+                }
+            }
+        }
+
+        if (prefixMatches == null && unindexedConnectors.isEmpty()) {
+            return exactMatches != null ? exactMatches : Collections.emptyList();
+        }
+        if (exactMatches == null && prefixMatches == null) {
+            return unindexedConnectors;
+        }
+
+        Set<CaptchaConnector> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (exactMatches != null) {
+            candidates.addAll(exactMatches);
+        }
+        if (prefixMatches != null) {
+            candidates.addAll(prefixMatches);
+        }
+        candidates.addAll(unindexedConnectors);
+        List<CaptchaConnector> orderedCandidates = new ArrayList<>(candidates);
+        orderedCandidates.sort(rankComparator);
+        return orderedCandidates;
+    }
+}
@@ -37,6 +37,13 @@ public abstract class AbstractReCaptchaConnector implements CaptchaConnector {
     public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
+        return CaptchaUtil.isValidCaptcha(getCaptchaResponse(servletRequest, servletResponse));
+    }
+
+    @Override
+    public String getCaptchaResponse(ServletRequest servletRequest, ServletResponse servletResponse)
+            throws CaptchaException {
+
         if (((HttpServletRequest) servletRequest).getMethod().equalsIgnoreCase("GET")) {
             throw new CaptchaClientException("reCaptcha response must send in a POST request.");
         }
@@ -45,7 +52,6 @@ public abstract class AbstractReCaptchaConnector implements CaptchaConnector {
         if (StringUtils.isBlank(reCaptchaResponse)) {
             throw new CaptchaClientException("reCaptcha response is not available in the request.");
         }
-
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return reCaptchaResponse;
     }
 }
@@ -27,7 +27,9 @@ import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.servlet.ServletRequest;
@@ -57,6 +59,12 @@ public class LiteUserSelfSignUpReCaptchaConnector extends AbstractReCaptchaConne
         return 11;
     }
 
+    @Override
+    public List<String> getHandledPaths() {
+
+        return Arrays.asList(LITE_USER_REGISTRATION_URL);
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
@@ -94,14 +102,14 @@ public class LiteUserSelfSignUpReCaptchaConnector extends AbstractReCaptchaConne
     }
 
     @Override
-    public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
+    public String getCaptchaResponse(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
         String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
         if (StringUtils.isBlank(reCaptchaResponse)) {
             throw new CaptchaClientException("reCaptcha response is not available in the request.");
         }
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return reCaptchaResponse;
     }
 
     @Override
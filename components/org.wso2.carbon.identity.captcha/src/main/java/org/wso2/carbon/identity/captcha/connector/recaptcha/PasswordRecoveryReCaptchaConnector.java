@@ -25,7 +25,6 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.application.common.model.User;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPostValidationResponse;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPreValidationResponse;
@@ -33,6 +32,7 @@ import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaServerException;
 import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
+import org.wso2.carbon.identity.captcha.policy.CaptchaPolicy;
 import org.wso2.carbon.identity.captcha.util.CaptchaHttpServletRequestWrapper;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
 import org.wso2.carbon.identity.captcha.util.EnabledSecurityMechanism;
@@ -49,7 +49,9 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
@@ -95,6 +97,13 @@ public class PasswordRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
         return 10;
     }
 
+    @Override
+    public List<String> getHandledPaths() {
+
+        return Arrays.asList(ACCOUNT_SECURITY_QUESTION_URL, ACCOUNT_SECURITY_QUESTIONS_URL,
+                ACCOUNT_VALIDATE_ANSWER_URL, RECOVER_PASSWORD_URL);
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
@@ -130,13 +139,13 @@ public class PasswordRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
 
         // Handle recover with security questions option.
         HttpServletRequest httpServletRequestWrapper;
-        try {
+        if (servletRequest instanceof CaptchaHttpServletRequestWrapper) {
+            // Already wrapped by the filter. Reuse it, hence the body is buffered once.
+            httpServletRequestWrapper = (CaptchaHttpServletRequestWrapper) servletRequest;
+        } else {
             httpServletRequestWrapper = new CaptchaHttpServletRequestWrapper((HttpServletRequest) servletRequest);
-            preValidationResponse.setWrappedHttpServletRequest(httpServletRequestWrapper);
-        } catch (IOException e) {
-            log.error("Error occurred while wrapping ServletRequest.", e);
-            return preValidationResponse;
         }
+        preValidationResponse.setWrappedHttpServletRequest(httpServletRequestWrapper);
 
         String path = httpServletRequestWrapper.getRequestURI();
 
@@ -181,39 +190,25 @@ public class PasswordRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
             user.setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
         }
 
-        Property[] connectorConfigs;
+        CaptchaPolicy captchaPolicy;
         try {
-            connectorConfigs = identityGovernanceService.getConfiguration(new String[]{
-                            RECOVERY_QUESTION_PASSWORD_RECAPTCHA_ENABLE,
-                            RECOVERY_QUESTION_PASSWORD_RECAPTCHA_MAX_FAILED_ATTEMPTS},
-                    user.getTenantDomain());
+            captchaPolicy = CaptchaUtil.getCaptchaPolicy(user.getTenantDomain(), identityGovernanceService);
         } catch (IdentityGovernanceException e) {
             throw new CaptchaServerException("Unable to retrieve connector configs.", e);
         }
 
-        String connectorEnabled = null;
-        String maxAttemptsStr = null;
-        for (Property connectorConfig : connectorConfigs) {
-            if ((RECOVERY_QUESTION_PASSWORD_RECAPTCHA_ENABLE)
-                    .equals(connectorConfig.getName())) {
-                connectorEnabled = connectorConfig.getValue();
-            } else if ((RECOVERY_QUESTION_PASSWORD_RECAPTCHA_MAX_FAILED_ATTEMPTS)
-                    .equals(connectorConfig.getName())) {
-                maxAttemptsStr = connectorConfig.getValue();
-            }
-        }
-
         if (!CaptchaDataHolder.getInstance().isForcefullyEnabledRecaptchaForAllTenants() &&
-                !Boolean.parseBoolean(connectorEnabled)) {
+                !captchaPolicy.isEnabled(RECOVERY_QUESTION_PASSWORD_RECAPTCHA_ENABLE)) {
             return preValidationResponse;
         }
 
-        if (StringUtils.isBlank(maxAttemptsStr) || !NumberUtils.isNumber(maxAttemptsStr)) {
+        Integer maxAttempts = captchaPolicy.getIntProperty(RECOVERY_QUESTION_PASSWORD_RECAPTCHA_MAX_FAILED_ATTEMPTS);
+        if (maxAttempts == null) {
             log.warn("Invalid configuration found in the PasswordRecoveryReCaptchaConnector for the tenant - " +
                     user.getTenantDomain());
             return preValidationResponse;
         }
-        int maxFailedAttempts = Integer.parseInt(maxAttemptsStr);
+        int maxFailedAttempts = maxAttempts;
 
         int tenantId;
         try {
@@ -268,15 +263,14 @@ public class PasswordRecoveryReCaptchaConnector extends AbstractReCaptchaConnect
     }
 
     @Override
-    public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
+    public String getCaptchaResponse(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
         String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
         if (StringUtils.isBlank(reCaptchaResponse)) {
             throw new CaptchaClientException("reCaptcha response is not available in the request.");
         }
-
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return reCaptchaResponse;
     }
 
     @Override
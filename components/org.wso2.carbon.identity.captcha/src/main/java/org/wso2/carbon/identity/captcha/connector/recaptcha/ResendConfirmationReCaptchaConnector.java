@@ -34,7 +34,9 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -59,6 +61,12 @@ public class ResendConfirmationReCaptchaConnector extends AbstractReCaptchaConne
         return 3;
     }
 
+    @Override
+    public List<String> getHandledPaths() {
+
+        return Arrays.asList(RESEND_CONFIRMATION_URL);
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
@@ -96,14 +104,14 @@ public class ResendConfirmationReCaptchaConnector extends AbstractReCaptchaConne
     }
 
     @Override
-    public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
+    public String getCaptchaResponse(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
         String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
         if (StringUtils.isBlank(reCaptchaResponse)) {
             throw new CaptchaClientException("reCaptcha response is not available in the request.");
         }
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return reCaptchaResponse;
     }
 
     @Override
@@ -18,17 +18,16 @@
 
 package org.wso2.carbon.identity.captcha.connector.recaptcha;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
-import org.wso2.carbon.identity.application.common.model.Property;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPostValidationResponse;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPreValidationResponse;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
+import org.wso2.carbon.identity.captcha.policy.CaptchaPolicy;
 import org.wso2.carbon.identity.captcha.util.CaptchaConstants;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
@@ -79,6 +78,12 @@ public class SSOLoginReCaptchaConfig extends AbstractReCaptchaConnector implemen
         return 20;
     }
 
+    @Override
+    public List<String> getHandledPaths() {
+
+        return Arrays.asList(SECURED_DESTINATIONS.split(","));
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
@@ -114,23 +119,22 @@ public class SSOLoginReCaptchaConfig extends AbstractReCaptchaConnector implemen
         String tenantDomain = getTenant(context, username);
 
         // Verify whether recaptcha is enforced always for basic authentication.
-        Property[] connectorConfigs = null;
+        CaptchaPolicy captchaPolicy = null;
         try {
-            connectorConfigs = identityGovernanceService.getConfiguration(new String[]{
-                    CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE_ALWAYS}, tenantDomain);
+            captchaPolicy = CaptchaUtil.getCaptchaPolicy(tenantDomain, identityGovernanceService);
         } catch (IdentityGovernanceException e) {
             // Can happen due to invalid user/ invalid tenant/ invalid configuration.
             log.error("Unable to load connector configuration.", e);
         }
 
-        if (CaptchaDataHolder.getInstance().isForcefullyEnabledRecaptchaForAllTenants() || (connectorConfigs != null &&
-                connectorConfigs.length != 0 && (Boolean.valueOf(connectorConfigs[0].getValue())))) {
+        if (CaptchaDataHolder.getInstance().isForcefullyEnabledRecaptchaForAllTenants() || (captchaPolicy != null &&
+                captchaPolicy.isEnabled(CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE_ALWAYS))) {
 
             Map<String, String> params = new HashMap<>();
             params.put("authFailure", "true");
             params.put("authFailureMsg", "recaptcha.fail.message");
             preValidationResponse.setCaptchaAttributes(params);
-            preValidationResponse.setOnCaptchaFailRedirectUrls(getFailedUrlList());
+            preValidationResponse.setOnCaptchaFailRedirectUrls(getFailedUrlList(captchaPolicy));
             preValidationResponse.setCaptchaValidationRequired(true);
 
         } else if (CaptchaUtil.isMaximumFailedLoginAttemptsReached(MultitenantUtils.getTenantAwareUsername(username),
@@ -138,7 +142,7 @@ public class SSOLoginReCaptchaConfig extends AbstractReCaptchaConnector implemen
             preValidationResponse.setCaptchaValidationRequired(true);
             preValidationResponse.setMaxFailedLimitReached(true);
 
-            preValidationResponse.setOnCaptchaFailRedirectUrls(getFailedUrlList());
+            preValidationResponse.setOnCaptchaFailRedirectUrls(getFailedUrlList(captchaPolicy));
             Map<String, String> params = new HashMap<>();
             params.put("reCaptcha", "true");
             params.put("authFailure", "true");
@@ -287,16 +291,20 @@ public class SSOLoginReCaptchaConfig extends AbstractReCaptchaConnector implemen
     /**
      * Get the URLs  which need to send back in case of failure.
      *
+     * @param captchaPolicy Captcha policy of the tenant. May be null.
      * @return list of failed urls
      */
-    private List<String> getFailedUrlList() {
+    private List<String> getFailedUrlList(CaptchaPolicy captchaPolicy) {
 
         List<String> failedRedirectUrls = new ArrayList<>();
 
-        String failedRedirectUrlStr = CaptchaDataHolder.getInstance().getReCaptchaErrorRedirectUrls();
-
-        if (StringUtils.isNotBlank(failedRedirectUrlStr)) {
-            failedRedirectUrls = new ArrayList<>(Arrays.asList(failedRedirectUrlStr.split(",")));
+        if (captchaPolicy != null) {
+            failedRedirectUrls.addAll(captchaPolicy.getFailedRedirectUrls());
+        } else {
+            String failedRedirectUrlStr = CaptchaDataHolder.getInstance().getReCaptchaErrorRedirectUrls();
+            if (StringUtils.isNotBlank(failedRedirectUrlStr)) {
+                failedRedirectUrls.addAll(Arrays.asList(failedRedirectUrlStr.split(",")));
+            }
         }
 
         failedRedirectUrls.add(ON_FAIL_REDIRECT_URL);
@@ -346,12 +354,9 @@ public class SSOLoginReCaptchaConfig extends AbstractReCaptchaConnector implemen
             return false;
         }
 
-        Property[] connectorConfigs;
+        CaptchaPolicy captchaPolicy;
         try {
-            connectorConfigs = identityGovernanceService.getConfiguration(new String[]{
-                            CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE_ALWAYS,
-                            CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE},
-                    tenantDomain);
+            captchaPolicy = CaptchaUtil.getCaptchaPolicy(tenantDomain, identityGovernanceService);
         } catch (IdentityGovernanceException e) {
             // Can happen due to invalid user/ invalid tenant/ invalid configuration.
             if (log.isDebugEnabled()) {
@@ -360,12 +365,7 @@ public class SSOLoginReCaptchaConfig extends AbstractReCaptchaConnector implemen
             return false;
         }
 
-        if (ArrayUtils.isEmpty(connectorConfigs) || connectorConfigs.length != 2 ||
-                !(Boolean.parseBoolean(connectorConfigs[0].getValue()) ||
-                        Boolean.parseBoolean(connectorConfigs[1].getValue()))) {
-            return false;
-        }
-
-        return true;
+        return captchaPolicy.isEnabled(CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE_ALWAYS) ||
+                captchaPolicy.isEnabled(CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE);
     }
 }
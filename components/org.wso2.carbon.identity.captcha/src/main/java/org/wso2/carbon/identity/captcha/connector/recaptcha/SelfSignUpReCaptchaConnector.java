@@ -30,6 +30,8 @@ import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 
+import java.util.Arrays;
+import java.util.List;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
@@ -61,6 +63,12 @@ public class SelfSignUpReCaptchaConnector extends AbstractReCaptchaConnector {
         return 10;
     }
 
+    @Override
+    public List<String> getHandledPaths() {
+
+        return Arrays.asList(SELF_REGISTRATION_INITIATE_URL, SELF_REGISTRATION_URL);
+    }
+
     @Override
     public boolean canHandle(ServletRequest servletRequest, ServletResponse servletResponse) throws CaptchaException {
 
@@ -113,15 +121,14 @@ public class SelfSignUpReCaptchaConnector extends AbstractReCaptchaConnector {
     }
 
     @Override
-    public boolean verifyCaptcha(ServletRequest servletRequest, ServletResponse servletResponse)
+    public String getCaptchaResponse(ServletRequest servletRequest, ServletResponse servletResponse)
             throws CaptchaException {
 
         String reCaptchaResponse = ((HttpServletRequest) servletRequest).getHeader("g-recaptcha-response");
         if (StringUtils.isBlank(reCaptchaResponse)) {
             throw new CaptchaClientException("reCaptcha response is not available in the request.");
         }
-
-        return CaptchaUtil.isValidCaptcha(reCaptchaResponse);
+        return reCaptchaResponse;
     }
 
     @Override
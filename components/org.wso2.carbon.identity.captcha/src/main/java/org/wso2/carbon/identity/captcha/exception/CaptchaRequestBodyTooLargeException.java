@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.exception;
+
+import java.io.IOException;
+
+/**
+ * Thrown when the body of a request which is buffered for the captcha connectors is larger than the configured
+ * maximum. It is an {@link IOException}, as it is raised while the body is read through the servlet APIs.
+ */
+public class CaptchaRequestBodyTooLargeException extends IOException {
+
+    private final int maxBodySize;
+
+    public CaptchaRequestBodyTooLargeException(String message, int maxBodySize) {
+
+        super(message);
+        this.maxBodySize = maxBodySize;
+    }
+
+    public int getMaxBodySize() {
+
+        return maxBodySize;
+    }
+}
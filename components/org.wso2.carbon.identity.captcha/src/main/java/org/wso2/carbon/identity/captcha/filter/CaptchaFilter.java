@@ -29,10 +29,12 @@ import org.wso2.carbon.identity.captcha.connector.CaptchaPostValidationResponse;
 import org.wso2.carbon.identity.captcha.connector.CaptchaPreValidationResponse;
 import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
+import org.wso2.carbon.identity.captcha.exception.CaptchaRequestBodyTooLargeException;
 import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 import org.wso2.carbon.identity.captcha.util.CaptchaHttpServletRequestWrapper;
 import org.wso2.carbon.identity.captcha.util.CaptchaHttpServletResponseWrapper;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
+import org.wso2.carbon.identity.captcha.verification.CaptchaVerifier;
 
 import java.io.IOException;
 import java.util.List;
@@ -75,23 +77,25 @@ public class CaptchaFilter implements Filter {
 
             // Wrap Servlet request for password recovery flow as the data are in POST body of request.
             // May need multiple reads of request body value from connectors.
+            String currentPath = null;
             if (servletRequest instanceof HttpServletRequest) {
-                String currentPath = ((HttpServletRequest) servletRequest).getRequestURI();
+                currentPath = ((HttpServletRequest) servletRequest).getRequestURI();
 
                 if (StringUtils.isNotBlank(currentPath) &&
-                        CaptchaUtil.isPathAvailable(currentPath, CaptchaDataHolder.getInstance()
-                                .getReCaptchaRequestWrapUrls())) {
+                        CaptchaDataHolder.getInstance().getReCaptchaRequestWrapPaths().contains(currentPath)) {
                     servletRequest = new CaptchaHttpServletRequestWrapper((HttpServletRequest) servletRequest);
                 }
             }
 
-            List<CaptchaConnector> captchaConnectors = CaptchaDataHolder.getInstance().getCaptchaConnectors();
+            // Candidates are ordered by priority, hence the first one which can handle the request is selected.
+            List<CaptchaConnector> captchaConnectors = CaptchaDataHolder.getInstance().getCaptchaConnectorIndex()
+                    .getCandidates(currentPath);
 
             CaptchaConnector selectedCaptchaConnector = null;
             for (CaptchaConnector captchaConnector : captchaConnectors) {
-                if (captchaConnector.canHandle(servletRequest, servletResponse) && (selectedCaptchaConnector == null ||
-                        captchaConnector.getPriority() > selectedCaptchaConnector.getPriority())) {
+                if (captchaConnector.canHandle(servletRequest, servletResponse)) {
                     selectedCaptchaConnector = captchaConnector;
+                    break;
                 }
             }
 
@@ -104,6 +108,12 @@ public class CaptchaFilter implements Filter {
             CaptchaPreValidationResponse captchaPreValidationResponse = selectedCaptchaConnector
                     .preValidate(servletRequest, servletResponse);
 
+            if (isBodyLimitExceeded(servletRequest, captchaPreValidationResponse)) {
+                // The connector could not read the body. Reject instead of letting the request skip the captcha.
+                sendBodyTooLarge(servletResponse);
+                return;
+            }
+
             if (captchaPreValidationResponse == null) {
                 // Captcha connector failed to response. Default is success.
                 filterChain.doFilter(servletRequest, servletResponse);
@@ -128,7 +138,12 @@ public class CaptchaFilter implements Filter {
                 }
 
                 try {
-                    boolean validCaptcha = selectedCaptchaConnector.verifyCaptcha(servletRequest, servletResponse);
+                    CaptchaVerifier captchaVerifier = CaptchaDataHolder.getInstance().getCaptchaVerifier();
+                    if (captchaVerifier == null) {
+                        throw new CaptchaClientException("Captcha verifier is not available.");
+                    }
+                    boolean validCaptcha = captchaVerifier.verify(selectedCaptchaConnector, servletRequest,
+                            servletResponse);
                     if (!validCaptcha) {
                         log.warn("Captcha validation failed for the user.");
                         httpResponse.sendRedirect(CaptchaUtil.getOnFailRedirectUrl(redirectURL,
@@ -186,7 +201,34 @@ public class CaptchaFilter implements Filter {
             log.error("Error occurred in processing captcha.", e);
             ((HttpServletResponse) servletResponse).sendRedirect(CaptchaUtil.getErrorPage("Server Error", "Something " +
                     "went wrong. Please try again"));
+        } catch (CaptchaRequestBodyTooLargeException e) {
+            if (servletResponse.isCommitted()) {
+                throw e;
+            }
+            sendBodyTooLarge(servletResponse);
+        }
+    }
+
+    private boolean isBodyLimitExceeded(ServletRequest servletRequest,
+                                        CaptchaPreValidationResponse preValidationResponse) {
+
+        if (servletRequest instanceof CaptchaHttpServletRequestWrapper &&
+                ((CaptchaHttpServletRequestWrapper) servletRequest).isBodyLimitExceeded()) {
+            return true;
+        }
+        return preValidationResponse != null &&
+                preValidationResponse.getWrappedHttpServletRequest() instanceof CaptchaHttpServletRequestWrapper &&
+                ((CaptchaHttpServletRequestWrapper) preValidationResponse.getWrappedHttpServletRequest())
+                        .isBodyLimitExceeded();
+    }
+
+    private void sendBodyTooLarge(ServletResponse servletResponse) throws IOException {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Rejecting the request as its body is larger than the maximum of " +
+                    CaptchaDataHolder.getInstance().getReCaptchaRequestWrapMaxBodySize() + " bytes.");
         }
+        ((HttpServletResponse) servletResponse).sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
     }
 
     @Override
@@ -28,12 +28,17 @@ import org.wso2.carbon.identity.captcha.connector.recaptcha.ResendConfirmationRe
 import org.wso2.carbon.identity.captcha.connector.recaptcha.SSOLoginReCaptchaConfig;
 import org.wso2.carbon.identity.captcha.connector.recaptcha.SelfSignUpReCaptchaConnector;
 import org.wso2.carbon.identity.captcha.connector.recaptcha.UsernameRecoveryReCaptchaConnector;
+import org.wso2.carbon.identity.captcha.policy.CaptchaPolicyConfigListener;
+import org.wso2.carbon.identity.captcha.provider.CaptchaProvider;
 import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
 import org.wso2.carbon.identity.captcha.validator.FailLoginAttemptValidationHandler;
 import org.wso2.carbon.identity.captcha.validator.FailLoginAttemptValidator;
+import org.wso2.carbon.identity.captcha.validator.FailedLoginAttemptTrackingHandler;
+import org.wso2.carbon.identity.captcha.verification.CaptchaVerifier;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
 import org.wso2.carbon.identity.handler.event.account.lock.service.AccountLockService;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.osgi.service.component.annotations.Activate;
@@ -56,6 +61,12 @@ public class CaptchaComponent {
         try {
             // Initialize reCaptcha.
             CaptchaUtil.buildReCaptchaFilterProperties();
+            if (CaptchaDataHolder.getInstance().getCaptchaVerifier() == null) {
+                // Not configured by the captcha config file, hence use the default configuration.
+                CaptchaDataHolder.getInstance().setCaptchaVerifier(new CaptchaVerifier(null,
+                        CaptchaDataHolder.getInstance().getCaptchaVerificationMetrics()));
+            }
+            CaptchaDataHolder.getInstance().getCaptchaVerificationMetrics().registerMBean();
             // Initialize and register SSOLoginReCaptchaConfig.
             IdentityConnectorConfig connector = new SSOLoginReCaptchaConfig();
             ((SSOLoginReCaptchaConfig) connector).init(CaptchaDataHolder.getInstance().getIdentityGovernanceService());
@@ -86,6 +97,10 @@ public class CaptchaComponent {
                     failedLoginAttemptValidator, null);
             context.getBundleContext().registerService(AbstractEventHandler.class.getName(), new
                     FailLoginAttemptValidationHandler(), null);
+            context.getBundleContext().registerService(AbstractEventHandler.class.getName(), new
+                    FailedLoginAttemptTrackingHandler(), null);
+            context.getBundleContext().registerService(IdentityGovernanceConfigListener.class.getName(),
+                    new CaptchaPolicyConfigListener(), null);
             if (log.isDebugEnabled()) {
                 log.debug("Captcha Component is activated");
             }
@@ -97,6 +112,10 @@ public class CaptchaComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        CaptchaDataHolder.getInstance().setCaptchaVerifier(null);
+        CaptchaDataHolder.getInstance().getCaptchaPolicyCache().clear();
+        CaptchaDataHolder.getInstance().getCaptchaVerificationMetrics().unregisterMBean();
+        CaptchaDataHolder.getInstance().closeReCaptchaHttpClient();
         if (log.isDebugEnabled()) {
             log.debug("Captcha Component is de-activated");
         }
@@ -115,7 +134,23 @@ public class CaptchaComponent {
 
     protected void unsetCaptchaConnector(CaptchaConnector captchaConnector) {
 
-        CaptchaDataHolder.getInstance().getCaptchaConnectors().remove(captchaConnector);
+        CaptchaDataHolder.getInstance().removeCaptchaConnector(captchaConnector);
+    }
+
+    @Reference(
+            name = "CaptchaProviders",
+            service = CaptchaProvider.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetCaptchaProvider")
+    protected void setCaptchaProvider(CaptchaProvider captchaProvider) {
+
+        CaptchaDataHolder.getInstance().addCaptchaProvider(captchaProvider);
+    }
+
+    protected void unsetCaptchaProvider(CaptchaProvider captchaProvider) {
+
+        CaptchaDataHolder.getInstance().removeCaptchaProvider(captchaProvider);
     }
 
     @Reference(
@@ -135,7 +170,7 @@ public class CaptchaComponent {
     protected void unsetIdentityGovernanceConnector(IdentityConnectorConfig identityConnectorConfig) {
 
         if (identityConnectorConfig instanceof CaptchaConnector) {
-            CaptchaDataHolder.getInstance().getCaptchaConnectors().remove(identityConnectorConfig);
+            CaptchaDataHolder.getInstance().removeCaptchaConnector((CaptchaConnector) identityConnectorConfig);
         }
     }
 
@@ -18,15 +18,31 @@
 
 package org.wso2.carbon.identity.captcha.internal;
 
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.impl.client.CloseableHttpClient;
 import org.wso2.carbon.identity.captcha.connector.CaptchaConnector;
+import org.wso2.carbon.identity.captcha.connector.CaptchaConnectorIndex;
+import org.wso2.carbon.identity.captcha.policy.CaptchaPolicyCache;
+import org.wso2.carbon.identity.captcha.provider.CaptchaProvider;
+import org.wso2.carbon.identity.captcha.provider.ReCaptchaProvider;
+import org.wso2.carbon.identity.captcha.util.CaptchaConstants;
+import org.wso2.carbon.identity.captcha.util.ReCaptchaHttpClientProvider;
+import org.wso2.carbon.identity.captcha.validator.FailedLoginAttemptTracker;
+import org.wso2.carbon.identity.captcha.verification.CaptchaVerificationMetrics;
+import org.wso2.carbon.identity.captcha.verification.CaptchaVerifier;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 import org.wso2.carbon.identity.handler.event.account.lock.service.AccountLockService;
 import org.wso2.carbon.user.core.service.RealmService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Captcha Data Holder.
@@ -49,9 +65,30 @@ public class CaptchaDataHolder {
 
     private String reCaptchaRequestWrapUrls;
 
+    private Set<String> reCaptchaRequestWrapPaths = Collections.emptySet();
+
+    private int reCaptchaRequestWrapMaxBodySize = CaptchaConstants.DEFAULT_REQUEST_WRAP_MAX_BODY_SIZE;
+
     // Threshold for score in reCAPTCHA v3.
     private double reCaptchaScoreThreshold;
 
+    // Shared by all the verifications, so that the connections to the verify endpoint are pooled.
+    private ReCaptchaHttpClientProvider reCaptchaHttpClientProvider;
+
+    // Read on every captcha verification, hence volatile rather than guarded by the holder.
+    private volatile CaptchaVerifier captchaVerifier;
+
+    private final CaptchaVerificationMetrics captchaVerificationMetrics = new CaptchaVerificationMetrics();
+
+    private volatile FailedLoginAttemptTracker failedLoginAttemptTracker;
+
+    private final CaptchaPolicyCache captchaPolicyCache =
+            new CaptchaPolicyCache(CaptchaConstants.DEFAULT_POLICY_CACHE_TTL);
+
+    private final Map<String, CaptchaProvider> captchaProviders = new ConcurrentHashMap<>();
+
+    private volatile String captchaProviderName = ReCaptchaProvider.NAME;
+
     private IdentityGovernanceService identityGovernanceService;
 
     private RealmService realmService;
@@ -60,6 +97,8 @@ public class CaptchaDataHolder {
 
     private List<CaptchaConnector> captchaConnectors = new ArrayList<>();
 
+    private volatile CaptchaConnectorIndex captchaConnectorIndex = CaptchaConnectorIndex.build(null);
+
     private Map<String, String> ssoLoginReCaptchaConnectorPropertyMap = new HashMap<>();
 
     private Map<String, String> pathBasedReCaptchaConnectorPropertyMap = new HashMap<>();
@@ -70,6 +109,7 @@ public class CaptchaDataHolder {
 
     private CaptchaDataHolder() {
 
+        addCaptchaProvider(new ReCaptchaProvider());
     }
 
     public static CaptchaDataHolder getInstance() {
@@ -122,6 +162,61 @@ public class CaptchaDataHolder {
 
     public void setReCaptchaRequestWrapUrls(String reCaptchaRequestWrapUrls) {
         this.reCaptchaRequestWrapUrls = reCaptchaRequestWrapUrls;
+        this.reCaptchaRequestWrapPaths = StringUtils.isBlank(reCaptchaRequestWrapUrls) ? Collections.emptySet() :
+                new HashSet<>(Arrays.asList(reCaptchaRequestWrapUrls.split(",")));
+    }
+
+    /**
+     * @return Request paths of {@link #getReCaptchaRequestWrapUrls()}, split once when they are set.
+     */
+    public Set<String> getReCaptchaRequestWrapPaths() {
+        return reCaptchaRequestWrapPaths;
+    }
+
+    public CaptchaPolicyCache getCaptchaPolicyCache() {
+        return captchaPolicyCache;
+    }
+
+    public void addCaptchaProvider(CaptchaProvider captchaProvider) {
+        captchaProviders.put(captchaProvider.getName(), captchaProvider);
+    }
+
+    public void removeCaptchaProvider(CaptchaProvider captchaProvider) {
+        captchaProviders.remove(captchaProvider.getName(), captchaProvider);
+    }
+
+    /**
+     * @return Captcha provider selected in the captcha configuration, or null if it is not registered.
+     */
+    public CaptchaProvider getCaptchaProvider() {
+        return captchaProviders.get(captchaProviderName);
+    }
+
+    public String getCaptchaProviderName() {
+        return captchaProviderName;
+    }
+
+    public void setCaptchaProviderName(String captchaProviderName) {
+        this.captchaProviderName = captchaProviderName;
+    }
+
+    /**
+     * @return Tracker of the login attempts of the users, or null if the tracker is disabled.
+     */
+    public FailedLoginAttemptTracker getFailedLoginAttemptTracker() {
+        return failedLoginAttemptTracker;
+    }
+
+    public void setFailedLoginAttemptTracker(FailedLoginAttemptTracker failedLoginAttemptTracker) {
+        this.failedLoginAttemptTracker = failedLoginAttemptTracker;
+    }
+
+    public int getReCaptchaRequestWrapMaxBodySize() {
+        return reCaptchaRequestWrapMaxBodySize;
+    }
+
+    public void setReCaptchaRequestWrapMaxBodySize(int reCaptchaRequestWrapMaxBodySize) {
+        this.reCaptchaRequestWrapMaxBodySize = reCaptchaRequestWrapMaxBodySize;
     }
 
     public double getReCaptchaScoreThreshold() {
@@ -134,6 +229,71 @@ public class CaptchaDataHolder {
         this.reCaptchaScoreThreshold = reCaptchaScoreThreshold;
     }
 
+    /**
+     * Get the HTTP client used to call the reCaptcha verify endpoint. A client with the default configuration is
+     * created if none is set.
+     *
+     * @return Shared reCaptcha HTTP client.
+     */
+    public synchronized CloseableHttpClient getReCaptchaHttpClient() {
+
+        if (reCaptchaHttpClientProvider == null) {
+            reCaptchaHttpClientProvider = new ReCaptchaHttpClientProvider(null);
+        }
+        return reCaptchaHttpClientProvider.getHttpClient();
+    }
+
+    /**
+     * Set the provider of the reCaptcha HTTP client. The previously set provider, if any, is closed.
+     *
+     * @param reCaptchaHttpClientProvider Provider of the reCaptcha HTTP client.
+     */
+    public synchronized void setReCaptchaHttpClientProvider(ReCaptchaHttpClientProvider reCaptchaHttpClientProvider) {
+
+        ReCaptchaHttpClientProvider previousProvider = this.reCaptchaHttpClientProvider;
+        this.reCaptchaHttpClientProvider = reCaptchaHttpClientProvider;
+        if (previousProvider != null && previousProvider != reCaptchaHttpClientProvider) {
+            previousProvider.close();
+        }
+    }
+
+    /**
+     * Close the reCaptcha HTTP client along with its pooled connections.
+     */
+    public synchronized void closeReCaptchaHttpClient() {
+
+        setReCaptchaHttpClientProvider(null);
+    }
+
+    /**
+     * Get the verifier which runs the captcha verifications of the connectors.
+     *
+     * @return Captcha verifier, or null if the component is not active.
+     */
+    public CaptchaVerifier getCaptchaVerifier() {
+
+        return captchaVerifier;
+    }
+
+    /**
+     * Set the captcha verifier. The previously set verifier, if any, is shut down.
+     *
+     * @param captchaVerifier Captcha verifier.
+     */
+    public synchronized void setCaptchaVerifier(CaptchaVerifier captchaVerifier) {
+
+        CaptchaVerifier previousVerifier = this.captchaVerifier;
+        this.captchaVerifier = captchaVerifier;
+        if (previousVerifier != null && previousVerifier != captchaVerifier) {
+            previousVerifier.shutdown();
+        }
+    }
+
+    public CaptchaVerificationMetrics getCaptchaVerificationMetrics() {
+
+        return captchaVerificationMetrics;
+    }
+
     public String getReCaptchaErrorRedirectUrls() {
         return reCaptchaErrorRedirectUrls;
     }
@@ -179,8 +339,24 @@ public class CaptchaDataHolder {
         return captchaConnectors;
     }
 
-    public void addCaptchaConnector(CaptchaConnector captchaConnector) {
+    public synchronized void addCaptchaConnector(CaptchaConnector captchaConnector) {
         this.captchaConnectors.add(captchaConnector);
+        this.captchaConnectorIndex = CaptchaConnectorIndex.build(captchaConnectors);
+    }
+
+    public synchronized void removeCaptchaConnector(CaptchaConnector captchaConnector) {
+        this.captchaConnectors.remove(captchaConnector);
+        this.captchaConnectorIndex = CaptchaConnectorIndex.build(captchaConnectors);
+    }
+
+    /**
+     * Get the index of the captcha connectors by the request paths they handle. It is rebuilt whenever a connector is
+     * added or removed.
+     *
+     * @return Index of the captcha connectors.
+     */
+    public CaptchaConnectorIndex getCaptchaConnectorIndex() {
+        return captchaConnectorIndex;
     }
 
     public void setRealmService(RealmService realmService) {
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.policy;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.application.common.model.Property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the captcha policy of a tenant: whether captcha is enabled for each flow, the maximum failed
+ * attempts and the redirect URLs on a failed captcha. It is built once from the governance configurations of the
+ * tenant, with the values parsed, so that a captcha decision only looks them up.
+ */
+public final class CaptchaPolicy {
+
+    private final String tenantDomain;
+    private final Map<String, String> properties;
+    private final Map<String, Integer> intProperties;
+    private final List<String> failedRedirectUrls;
+    private final long creationTime;
+
+    /**
+     * @param tenantDomain       Tenant domain.
+     * @param connectorConfigs   Governance configurations of the tenant.
+     * @param failedRedirectUrls Comma separated redirect URLs on a failed captcha. May be null.
+     */
+    public CaptchaPolicy(String tenantDomain, Property[] connectorConfigs, String failedRedirectUrls) {
+
+        this.tenantDomain = tenantDomain;
+        Map<String, String> properties = new HashMap<>();
+        Map<String, Integer> intProperties = new HashMap<>();
+        if (connectorConfigs != null) {
+            for (Property connectorConfig : connectorConfigs) {
+                // The configurations may have trailing empty slots.
+                if (connectorConfig == null || connectorConfig.getName() == null) {
+                    continue;
+                }
+                properties.put(connectorConfig.getName(), connectorConfig.getValue());
+                Integer intValue = parseInt(connectorConfig.getValue());
+                if (intValue != null) {
+                    intProperties.put(connectorConfig.getName(), intValue);
+                }
+            }
+        }
+        this.properties = Collections.unmodifiableMap(properties);
+        this.intProperties = Collections.unmodifiableMap(intProperties);
+        this.failedRedirectUrls = StringUtils.isBlank(failedRedirectUrls) ? Collections.emptyList() :
+                Collections.unmodifiableList(new ArrayList<>(Arrays.asList(failedRedirectUrls.split(","))));
+        this.creationTime = System.currentTimeMillis();
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    /**
+     * @param propertyName Name of the governance property.
+     * @return Value of the property, or null if the tenant has no such property.
+     */
+    public String getProperty(String propertyName) {
+
+        return properties.get(propertyName);
+    }
+
+    public boolean hasProperty(String propertyName) {
+
+        return properties.containsKey(propertyName);
+    }
+
+    /**
+     * @param propertyName Name of the governance property, such as the enable property of a flow.
+     * @return True if the value of the property is true.
+     */
+    public boolean isEnabled(String propertyName) {
+
+        return Boolean.parseBoolean(properties.get(propertyName));
+    }
+
+    /**
+     * @param propertyName Name of the governance property, such as the maximum failed attempts of a flow.
+     * @return Value of the property, or null if the property is not set to an integer.
+     */
+    public Integer getIntProperty(String propertyName) {
+
+        return intProperties.get(propertyName);
+    }
+
+    /**
+     * @return Redirect URLs on a failed captcha, configured for all the flows. The list must not be modified.
+     */
+    public List<String> getFailedRedirectUrls() {
+
+        return failedRedirectUrls;
+    }
+
+    /**
+     * @return Time at which the snapshot was built, in milliseconds.
+     */
+    public long getCreationTime() {
+
+        return creationTime;
+    }
+
+    private static Integer parseInt(String value) {
+
+        if (StringUtils.isBlank(value)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.policy;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
+import org.wso2.carbon.identity.governance.IdentityGovernanceException;
+import org.wso2.carbon.identity.governance.IdentityGovernanceService;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Node local cache of the {@link CaptchaPolicy} of the tenants. The policy of a tenant is built on first use, and
+ * is rebuilt on the next use once the governance configurations of the tenant are updated on this node, or once the
+ * time to live has passed, which bounds how long an update made on another node goes unnoticed.
+ */
+public class CaptchaPolicyCache {
+
+    private static final Log log = LogFactory.getLog(CaptchaPolicyCache.class);
+
+    private final Map<String, CaptchaPolicy> policies = new ConcurrentHashMap<>();
+    // Incremented on every invalidation, so that a policy built from configurations read before an invalidation is
+    // not cached after it.
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long timeToLive;
+
+    /**
+     * @param timeToLive Time to live of a policy in milliseconds.
+     */
+    public CaptchaPolicyCache(long timeToLive) {
+
+        this.timeToLive = timeToLive;
+    }
+
+    public void setTimeToLive(long timeToLive) {
+
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Get the captcha policy of a tenant.
+     *
+     * @param tenantDomain              Tenant domain.
+     * @param identityGovernanceService Service from which the configurations are read if the policy is not cached.
+     * @return Captcha policy of the tenant.
+     * @throws IdentityGovernanceException If the configurations of the tenant could not be read.
+     */
+    public CaptchaPolicy getPolicy(String tenantDomain, IdentityGovernanceService identityGovernanceService)
+            throws IdentityGovernanceException {
+
+        if (tenantDomain == null) {
+            return buildPolicy(null, identityGovernanceService);
+        }
+
+        CaptchaPolicy policy = policies.get(tenantDomain);
+        if (policy != null && policy.getCreationTime() + timeToLive > System.currentTimeMillis()) {
+            return policy;
+        }
+
+        long currentGeneration = generation.get();
+        policy = buildPolicy(tenantDomain, identityGovernanceService);
+        policies.put(tenantDomain, policy);
+        if (generation.get() != currentGeneration) {
+            // Invalidated while being built. Used for this decision only.
+            policies.remove(tenantDomain, policy);
+        }
+        return policy;
+    }
+
+    private CaptchaPolicy buildPolicy(String tenantDomain, IdentityGovernanceService identityGovernanceService)
+            throws IdentityGovernanceException {
+
+        return new CaptchaPolicy(tenantDomain, identityGovernanceService.getConfiguration(tenantDomain),
+                CaptchaDataHolder.getInstance().getReCaptchaErrorRedirectUrls());
+    }
+
+    /**
+     * Remove the captcha policy of a tenant, so that it is rebuilt on the next use.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void invalidate(String tenantDomain) {
+
+        generation.incrementAndGet();
+        if (policies.remove(tenantDomain) != null && log.isDebugEnabled()) {
+            log.debug("Cleared the captcha policy of the tenant: " + tenantDomain);
+        }
+    }
+
+    /**
+     * Remove the captcha policies of all the tenants.
+     */
+    public void clear() {
+
+        generation.incrementAndGet();
+        policies.clear();
+    }
+}
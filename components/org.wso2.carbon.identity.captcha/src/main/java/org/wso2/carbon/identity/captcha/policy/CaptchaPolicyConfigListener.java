@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.policy;
+
+import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
+
+import java.util.Map;
+
+/**
+ * Clears the cached captcha policy of a tenant when the governance configurations of the tenant are updated. Any
+ * property may decide a captcha flow, hence the policy is cleared on every update.
+ */
+public class CaptchaPolicyConfigListener implements IdentityGovernanceConfigListener {
+
+    @Override
+    public void onPostUpdateConfiguration(String tenantDomain, Map<String, String> updatedProperties) {
+
+        CaptchaDataHolder.getInstance().getCaptchaPolicyCache().invalidate(tenantDomain);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.provider;
+
+import com.google.gson.JsonObject;
+import org.wso2.carbon.identity.captcha.exception.CaptchaException;
+
+/**
+ * Provider which verifies the captcha response tokens, selected by its name with the recaptcha.provider property of
+ * the captcha configuration. Providers other than the built in ones are registered as OSGi services.
+ */
+public interface CaptchaProvider {
+
+    /**
+     * @return Name of the provider, by which it is selected in the captcha configuration.
+     */
+    String getName();
+
+    /**
+     * Verify a captcha response token.
+     *
+     * @param captchaResponse Captcha response token posted by the client.
+     * @return Verification response, in the format of the reCAPTCHA siteverify response. It has the "success" member,
+     * and the "score" member for the score based (v3) verifications.
+     * @throws CaptchaException If the token could not be verified.
+     */
+    JsonObject verify(String captchaResponse) throws CaptchaException;
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.provider;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.captcha.exception.CaptchaException;
+import org.wso2.carbon.identity.captcha.exception.CaptchaServerException;
+import org.wso2.carbon.identity.captcha.util.CaptchaConstants;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Provider which verifies the tokens locally, without calling any external service, so that the captcha flows can be
+ * load and integration tested offline. It must not be used in production, as it accepts any token.
+ * <p>
+ * Each verification waits for a latency drawn from the configured distribution, then fails with a server error, or
+ * rejects the token, with the configured probabilities. Otherwise the token is accepted, with a score drawn uniformly
+ * from the configured range when a score range is configured, as reCAPTCHA v3 does.
+ */
+public class LocalStubCaptchaProvider implements CaptchaProvider {
+
+    private static final Log log = LogFactory.getLog(LocalStubCaptchaProvider.class);
+
+    public static final String NAME = "stub";
+
+    /**
+     * Distribution of the latency of the verifications.
+     */
+    public enum LatencyDistribution {
+        FIXED, UNIFORM, EXPONENTIAL
+    }
+
+    private final LatencyDistribution latencyDistribution;
+    private final long latency;
+    private final long minLatency;
+    private final long maxLatency;
+    private final double errorRate;
+    private final double invalidRate;
+    private final Double minScore;
+    private final Double maxScore;
+
+    /**
+     * @param properties Captcha configuration properties.
+     */
+    public LocalStubCaptchaProvider(Properties properties) {
+
+        String distribution = properties.getProperty(CaptchaConstants.RE_CAPTCHA_STUB_LATENCY_DISTRIBUTION);
+        LatencyDistribution latencyDistribution = LatencyDistribution.FIXED;
+        if (StringUtils.isNotBlank(distribution)) {
+            try {
+                latencyDistribution = LatencyDistribution.valueOf(distribution.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid value: " + distribution + " for the property: " +
+                        CaptchaConstants.RE_CAPTCHA_STUB_LATENCY_DISTRIBUTION + ". Using the fixed latency.");
+            }
+        }
+        this.latencyDistribution = latencyDistribution;
+        this.latency = (long) getDouble(properties, CaptchaConstants.RE_CAPTCHA_STUB_LATENCY, 0, Long.MAX_VALUE);
+        this.minLatency = (long) getDouble(properties, CaptchaConstants.RE_CAPTCHA_STUB_LATENCY_MIN, 0,
+                Long.MAX_VALUE);
+        this.maxLatency = (long) getDouble(properties, CaptchaConstants.RE_CAPTCHA_STUB_LATENCY_MAX, 0,
+                Long.MAX_VALUE);
+        this.errorRate = getDouble(properties, CaptchaConstants.RE_CAPTCHA_STUB_ERROR_RATE, 0, 1);
+        this.invalidRate = getDouble(properties, CaptchaConstants.RE_CAPTCHA_STUB_INVALID_RATE, 0, 1);
+        if (StringUtils.isNotBlank(properties.getProperty(CaptchaConstants.RE_CAPTCHA_STUB_SCORE_MIN)) ||
+                StringUtils.isNotBlank(properties.getProperty(CaptchaConstants.RE_CAPTCHA_STUB_SCORE_MAX))) {
+            double min = getDouble(properties, CaptchaConstants.RE_CAPTCHA_STUB_SCORE_MIN, 0, 1);
+            double max = getDouble(properties, CaptchaConstants.RE_CAPTCHA_STUB_SCORE_MAX, 1, 1);
+            this.minScore = Math.min(min, max);
+            this.maxScore = Math.max(min, max);
+        } else {
+            this.minScore = null;
+            this.maxScore = null;
+        }
+        log.warn("Captcha tokens are verified by the local stub provider, which accepts any token. It must not be " +
+                "used in production.");
+    }
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    @Override
+    public JsonObject verify(String captchaResponse) throws CaptchaException {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = nextLatency(random);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CaptchaServerException("Interrupted while simulating the captcha verification.", e);
+            }
+        }
+
+        if (random.nextDouble() < errorRate) {
+            throw new CaptchaServerException("Simulated failure of the captcha verification.");
+        }
+
+        JsonObject verificationResponse = new JsonObject();
+        verificationResponse.addProperty("challenge_ts", Instant.now().toString());
+        verificationResponse.addProperty("hostname", "localhost");
+        if (random.nextDouble() < invalidRate) {
+            verificationResponse.addProperty(CaptchaConstants.CAPTCHA_SUCCESS, false);
+            JsonArray errorCodes = new JsonArray();
+            errorCodes.add(new JsonPrimitive("invalid-input-response"));
+            verificationResponse.add("error-codes", errorCodes);
+            return verificationResponse;
+        }
+
+        verificationResponse.addProperty(CaptchaConstants.CAPTCHA_SUCCESS, true);
+        if (minScore != null) {
+            double score = minScore.equals(maxScore) ? minScore : minScore + (maxScore - minScore) *
+                    random.nextDouble();
+            verificationResponse.addProperty(CaptchaConstants.CAPTCHA_SCORE, score);
+        }
+        return verificationResponse;
+    }
+
+    private long nextLatency(ThreadLocalRandom random) {
+
+        long delay;
+        switch (latencyDistribution) {
+            case UNIFORM:
+                if (maxLatency <= minLatency) {
+                    return minLatency;
+                }
+                return random.nextLong(minLatency, maxLatency + 1);
+            case EXPONENTIAL:
+                // Minimum latency plus an exponentially distributed wait, whose mean is the latency.
+                delay = minLatency + (long) (-latency * Math.log(1 - random.nextDouble()));
+                break;
+            default:
+                delay = latency;
+        }
+        return maxLatency > 0 ? Math.min(delay, maxLatency) : delay;
+    }
+
+    private static double getDouble(Properties properties, String name, double defaultValue, double maxValue) {
+
+        String value = properties.getProperty(name);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            double doubleValue = Double.parseDouble(value.trim());
+            if (doubleValue >= 0 && doubleValue <= maxValue) {
+                return doubleValue;
+            }
+        } catch (NumberFormatException e) {
+            // Logged below.
+        }
+        log.warn("Invalid value: " + value + " for the property: " + name + ". Using the default value: " +
+                defaultValue);
+        return defaultValue;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.provider;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
+import org.wso2.carbon.identity.captcha.exception.CaptchaException;
+import org.wso2.carbon.identity.captcha.exception.CaptchaServerException;
+import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Provider which verifies the tokens with the reCAPTCHA verification URL of the captcha configuration. It is the
+ * default provider.
+ */
+public class ReCaptchaProvider implements CaptchaProvider {
+
+    public static final String NAME = "recaptcha";
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    @Override
+    public JsonObject verify(String captchaResponse) throws CaptchaException {
+
+        CloseableHttpClient httpclient = CaptchaDataHolder.getInstance().getReCaptchaHttpClient();
+        HttpPost httppost = new HttpPost(CaptchaDataHolder.getInstance().getReCaptchaVerifyUrl());
+
+        List<BasicNameValuePair> params = Arrays.asList(new BasicNameValuePair("secret", CaptchaDataHolder
+                .getInstance().getReCaptchaSecretKey()), new BasicNameValuePair("response", captchaResponse));
+        httppost.setEntity(new UrlEncodedFormEntity(params, StandardCharsets.UTF_8));
+
+        // The response is closed in any case, so that the connection is released back to the pool.
+        try (CloseableHttpResponse response = execute(httpclient, httppost)) {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                throw new CaptchaServerException("reCaptcha verification response is not received.");
+            }
+
+            try (InputStream in = entity.getContent()) {
+                JsonObject verificationResponse = new JsonParser().parse(IOUtils.toString(in)).getAsJsonObject();
+                if (verificationResponse == null) {
+                    throw new CaptchaClientException("Error receiving reCaptcha response from the server");
+                }
+                return verificationResponse;
+            }
+        } catch (IOException e) {
+            throw new CaptchaServerException("Unable to read the verification response.", e);
+        }
+    }
+
+    private static CloseableHttpResponse execute(CloseableHttpClient httpclient, HttpPost httppost)
+            throws CaptchaServerException {
+
+        try {
+            return httpclient.execute(httppost);
+        } catch (IOException e) {
+            throw new CaptchaServerException("Unable to get the verification response.", e);
+        }
+    }
+}
@@ -46,6 +46,11 @@ public class CaptchaConstants {
 
     public static final String RE_CAPTCHA_REQUEST_WRAP_URLS = "recaptcha.request.wrap.urls";
 
+    // In bytes. Bodies of wrapped requests which are larger are rejected with 413.
+    public static final String RE_CAPTCHA_REQUEST_WRAP_MAX_BODY_SIZE = "recaptcha.request.wrap.max.body.size";
+
+    public static final int DEFAULT_REQUEST_WRAP_MAX_BODY_SIZE = 1048576;
+
     public static final String FAIL_LOGIN_ATTEMPT_VALIDATOR_ENABLED = "failLoginAttemptValidator.enable";
 
     public static final String RE_CAPTCHA_FAILED_REDIRECT_URLS = "recaptcha.failed.redirect.urls";
@@ -63,6 +68,112 @@ public class CaptchaConstants {
     // Default value for threshold for score in reCAPTCHA v3.
     public static final double CAPTCHA_V3_DEFAULT_THRESHOLD = 0.5;
 
+    // HTTP client used to call the reCaptcha verify endpoint. Timeouts and durations are in milliseconds.
+    public static final String RE_CAPTCHA_HTTP_MAX_CONNECTIONS = "recaptcha.http.max.connections";
+
+    public static final String RE_CAPTCHA_HTTP_MAX_CONNECTIONS_PER_ROUTE = "recaptcha.http.max.connections.per.route";
+
+    public static final String RE_CAPTCHA_HTTP_CONNECT_TIMEOUT = "recaptcha.http.connect.timeout";
+
+    public static final String RE_CAPTCHA_HTTP_SOCKET_TIMEOUT = "recaptcha.http.socket.timeout";
+
+    public static final String RE_CAPTCHA_HTTP_CONNECTION_REQUEST_TIMEOUT = "recaptcha.http.connection.request.timeout";
+
+    public static final String RE_CAPTCHA_HTTP_KEEP_ALIVE = "recaptcha.http.keep.alive";
+
+    public static final String RE_CAPTCHA_HTTP_IDLE_TIMEOUT = "recaptcha.http.idle.timeout";
+
+    public static final int DEFAULT_HTTP_MAX_CONNECTIONS = 100;
+
+    public static final int DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE = 50;
+
+    public static final int DEFAULT_HTTP_TIMEOUT = 5000;
+
+    public static final int DEFAULT_HTTP_KEEP_ALIVE = 60000;
+
+    public static final int DEFAULT_HTTP_IDLE_TIMEOUT = 30000;
+
+    // Deadline of a captcha verification in milliseconds.
+    public static final String RE_CAPTCHA_VERIFICATION_TIMEOUT = "recaptcha.verification.timeout";
+
+    public static final String RE_CAPTCHA_VERIFICATION_THREAD_POOL_SIZE = "recaptcha.verification.thread.pool.size";
+
+    public static final String RE_CAPTCHA_VERIFICATION_QUEUE_CAPACITY = "recaptcha.verification.queue.capacity";
+
+    public static final String RE_CAPTCHA_CIRCUIT_BREAKER_FAILURE_THRESHOLD =
+            "recaptcha.circuit.breaker.failure.threshold";
+
+    // In milliseconds.
+    public static final String RE_CAPTCHA_CIRCUIT_BREAKER_OPEN_DURATION = "recaptcha.circuit.breaker.open.duration";
+
+    // "open" or "closed". Overridden for a connector by appending "." and the simple class name of the connector.
+    public static final String RE_CAPTCHA_FAILURE_POLICY = "recaptcha.failure.policy";
+
+    public static final int DEFAULT_VERIFICATION_TIMEOUT = 5000;
+
+    public static final int DEFAULT_VERIFICATION_THREAD_POOL_SIZE = 20;
+
+    public static final int DEFAULT_VERIFICATION_QUEUE_CAPACITY = 200;
+
+    public static final int DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+
+    public static final int DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = 30000;
+
+    // Disabled by default.
+    public static final String RE_CAPTCHA_VERIFICATION_CACHE_ENABLE = "recaptcha.verification.cache.enable";
+
+    // In milliseconds.
+    public static final String RE_CAPTCHA_VERIFICATION_CACHE_TTL = "recaptcha.verification.cache.ttl";
+
+    public static final String RE_CAPTCHA_VERIFICATION_CACHE_SIZE = "recaptcha.verification.cache.size";
+
+    // Tokens of the provider are valid for two minutes.
+    public static final int DEFAULT_VERIFICATION_CACHE_TTL = 120000;
+
+    public static final int DEFAULT_VERIFICATION_CACHE_SIZE = 10000;
+
+    public static final String RE_CAPTCHA_RESPONSE = "g-recaptcha-response";
+
+    // Name of the captcha provider which verifies the tokens.
+    public static final String RE_CAPTCHA_PROVIDER = "recaptcha.provider";
+
+    // "fixed", "uniform" or "exponential".
+    public static final String RE_CAPTCHA_STUB_LATENCY_DISTRIBUTION = "recaptcha.stub.latency.distribution";
+
+    // Latencies are in milliseconds. The latency is the fixed latency, or the mean of the exponential latency.
+    public static final String RE_CAPTCHA_STUB_LATENCY = "recaptcha.stub.latency";
+
+    public static final String RE_CAPTCHA_STUB_LATENCY_MIN = "recaptcha.stub.latency.min";
+
+    public static final String RE_CAPTCHA_STUB_LATENCY_MAX = "recaptcha.stub.latency.max";
+
+    // Probabilities, between 0 and 1.
+    public static final String RE_CAPTCHA_STUB_ERROR_RATE = "recaptcha.stub.error.rate";
+
+    public static final String RE_CAPTCHA_STUB_INVALID_RATE = "recaptcha.stub.invalid.rate";
+
+    // Scores, between 0 and 1, are returned only if a bound is set.
+    public static final String RE_CAPTCHA_STUB_SCORE_MIN = "recaptcha.stub.score.min";
+
+    public static final String RE_CAPTCHA_STUB_SCORE_MAX = "recaptcha.stub.score.max";
+
+    // In milliseconds. Bounds how long a configuration update made on another node goes unnoticed.
+    public static final String RE_CAPTCHA_POLICY_CACHE_TTL = "recaptcha.policy.cache.ttl";
+
+    public static final int DEFAULT_POLICY_CACHE_TTL = 60000;
+
+    // Disabled by default, as failed login attempts made on the other nodes are not seen by the tracker.
+    public static final String RE_CAPTCHA_FAILED_LOGIN_TRACKER_ENABLE = "recaptcha.failed.login.tracker.enable";
+
+    // In milliseconds.
+    public static final String RE_CAPTCHA_FAILED_LOGIN_TRACKER_WINDOW = "recaptcha.failed.login.tracker.window";
+
+    public static final String RE_CAPTCHA_FAILED_LOGIN_TRACKER_SIZE = "recaptcha.failed.login.tracker.size";
+
+    public static final int DEFAULT_FAILED_LOGIN_TRACKER_WINDOW = 900000;
+
+    public static final int DEFAULT_FAILED_LOGIN_TRACKER_SIZE = 100000;
+
     /**
      * Captcha Connector configuration constants from the identity.xml.
      */
@@ -18,53 +18,172 @@
 
 package org.wso2.carbon.identity.captcha.util;
 
-import org.apache.commons.io.IOUtils;
+import org.wso2.carbon.identity.captcha.exception.CaptchaRequestBodyTooLargeException;
+import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
 
 import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 
 /**
- * Captcha Response Wrapper.
+ * Captcha Request Wrapper, which lets the body of the request be read more than once.
+ * <p>
+ * The body is buffered when it is first read, up to the maximum body size, and every later read is served from the
+ * same buffer. A body which is larger than the maximum fails the read with a
+ * {@link CaptchaRequestBodyTooLargeException}.
  */
 public class CaptchaHttpServletRequestWrapper extends HttpServletRequestWrapper {
 
+    private static final int INITIAL_BUFFER_SIZE = 4096;
+
+    private final int maxBodySize;
     private byte[] body;
+    private int bodyLength;
+    private boolean bodyLimitExceeded;
+
+    public CaptchaHttpServletRequestWrapper(HttpServletRequest httpServletRequest) {
+
+        this(httpServletRequest, CaptchaDataHolder.getInstance().getReCaptchaRequestWrapMaxBodySize());
+    }
+
+    /**
+     * @param httpServletRequest Request to wrap.
+     * @param maxBodySize        Maximum size of the body in bytes.
+     */
+    public CaptchaHttpServletRequestWrapper(HttpServletRequest httpServletRequest, int maxBodySize) {
 
-    public CaptchaHttpServletRequestWrapper(HttpServletRequest httpServletRequest) throws IOException {
         super(httpServletRequest);
-        // Read the request body and save it as a byte array
-        InputStream is = super.getInputStream();
-        body = IOUtils.toByteArray(is);
+        this.maxBodySize = maxBodySize;
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        return new ServletInputStreamImpl(new ByteArrayInputStream(body));
+
+        bufferBody();
+        return new ServletInputStreamImpl();
     }
 
     @Override
     public BufferedReader getReader() throws IOException {
+
         String enc = getCharacterEncoding();
         if (enc == null) enc = "UTF-8";
         return new BufferedReader(new InputStreamReader(getInputStream(), enc));
     }
 
-    private class ServletInputStreamImpl extends ServletInputStream {
+    /**
+     * @return True if the body was read and found to be larger than the maximum body size.
+     */
+    public boolean isBodyLimitExceeded() {
+
+        return bodyLimitExceeded;
+    }
+
+    public int getMaxBodySize() {
 
-        private InputStream is;
+        return maxBodySize;
+    }
 
-        public ServletInputStreamImpl(InputStream is) {
-            this.is = is;
+    private void bufferBody() throws IOException {
+
+        if (bodyLimitExceeded) {
+            throw bodyTooLarge();
+        }
+        if (body != null) {
+            return;
         }
 
+        int contentLength = super.getContentLength();
+        if (contentLength > maxBodySize) {
+            bodyLimitExceeded = true;
+            throw bodyTooLarge();
+        }
+
+        // Sized to the declared length, if any, so that the buffer is not grown while reading a well formed request.
+        byte[] buffer = new byte[contentLength >= 0 ? contentLength : Math.min(INITIAL_BUFFER_SIZE, maxBodySize)];
+        int length = 0;
+        try (InputStream is = super.getInputStream()) {
+            while (true) {
+                if (length == buffer.length) {
+                    if (length == maxBodySize) {
+                        // Full at the limit. Any more data is over the limit.
+                        if (is.read() != -1) {
+                            bodyLimitExceeded = true;
+                            throw bodyTooLarge();
+                        }
+                        break;
+                    }
+                    byte[] grown = new byte[(int) Math.min((long) Math.max(length, 1) * 2, maxBodySize)];
+                    System.arraycopy(buffer, 0, grown, 0, length);
+                    buffer = grown;
+                }
+                int read = is.read(buffer, length, buffer.length - length);
+                if (read == -1) {
+                    break;
+                }
+                length += read;
+            }
+        }
+        body = buffer;
+        bodyLength = length;
+    }
+
+    private CaptchaRequestBodyTooLargeException bodyTooLarge() {
+
+        return new CaptchaRequestBodyTooLargeException("Request body is larger than the maximum of " + maxBodySize +
+                " bytes.", maxBodySize);
+    }
+
+    /**
+     * Stream over the buffered body. Streams share the buffer, hence creating one does not copy the body.
+     */
+    private class ServletInputStreamImpl extends ServletInputStream {
+
+        private int position;
+
+        @Override
         public int read() throws IOException {
-            return is.read();
+
+            return position < bodyLength ? body[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= bodyLength) {
+                return -1;
+            }
+            int count = Math.min(len, bodyLength - position);
+            System.arraycopy(body, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+
+            if (n <= 0) {
+                return 0;
+            }
+            int count = (int) Math.min(n, bodyLength - position);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+
+            return bodyLength - position;
         }
 
         public boolean markSupported() {
@@ -19,22 +19,13 @@
 package org.wso2.carbon.identity.captcha.util;
 
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import org.apache.commons.collections.MapUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
-import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.utils.URIBuilder;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.message.BasicNameValuePair;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.application.authentication.framework.ApplicationAuthenticator;
 import org.wso2.carbon.identity.application.authentication.framework.config.ConfigurationFacade;
@@ -48,6 +39,12 @@ import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaException;
 import org.wso2.carbon.identity.captcha.exception.CaptchaServerException;
 import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
+import org.wso2.carbon.identity.captcha.policy.CaptchaPolicy;
+import org.wso2.carbon.identity.captcha.provider.CaptchaProvider;
+import org.wso2.carbon.identity.captcha.provider.LocalStubCaptchaProvider;
+import org.wso2.carbon.identity.captcha.provider.ReCaptchaProvider;
+import org.wso2.carbon.identity.captcha.validator.FailedLoginAttemptTracker;
+import org.wso2.carbon.identity.captcha.verification.CaptchaVerifier;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.governance.IdentityGovernanceException;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
@@ -56,6 +53,7 @@ import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.UserRealm;
 import org.wso2.carbon.user.core.UserStoreManager;
 import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.user.core.util.UserCoreUtil;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 import org.wso2.securevault.SecretResolver;
@@ -63,7 +61,6 @@ import org.wso2.securevault.SecretResolverFactory;
 import org.wso2.securevault.commons.MiscellaneousUtil;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URISyntaxException;
@@ -71,7 +68,6 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -268,59 +264,42 @@ public class CaptchaUtil {
 
     public static boolean isValidCaptcha(String reCaptchaResponse) throws CaptchaException {
 
-        CloseableHttpClient httpclient = HttpClientBuilder.create().useSystemProperties().build();
-        HttpPost httppost = new HttpPost(CaptchaDataHolder.getInstance().getReCaptchaVerifyUrl());
-        final double scoreThreshold = CaptchaDataHolder.getInstance().getReCaptchaScoreThreshold();
-
-        List<BasicNameValuePair> params = Arrays.asList(new BasicNameValuePair("secret", CaptchaDataHolder
-                .getInstance().getReCaptchaSecretKey()), new BasicNameValuePair("response", reCaptchaResponse));
-        httppost.setEntity(new UrlEncodedFormEntity(params, StandardCharsets.UTF_8));
-
-        HttpResponse response;
-        try {
-            response = httpclient.execute(httppost);
-        } catch (IOException e) {
-            throw new CaptchaServerException("Unable to get the verification response.", e);
+        CaptchaProvider captchaProvider = CaptchaDataHolder.getInstance().getCaptchaProvider();
+        if (captchaProvider == null) {
+            throw new CaptchaServerException("Captcha provider: " + CaptchaDataHolder.getInstance()
+                    .getCaptchaProviderName() + " is not available.");
         }
+        final double scoreThreshold = CaptchaDataHolder.getInstance().getReCaptchaScoreThreshold();
 
-        HttpEntity entity = response.getEntity();
-        if (entity == null) {
-            throw new CaptchaServerException("reCaptcha verification response is not received.");
+        JsonObject verificationResponse = captchaProvider.verify(reCaptchaResponse);
+        if (verificationResponse == null) {
+            throw new CaptchaClientException("Error receiving reCaptcha response from the server");
         }
-
         try {
-            try (InputStream in = entity.getContent()) {
-                JsonObject verificationResponse = new JsonParser().parse(IOUtils.toString(in)).getAsJsonObject();
-                if (verificationResponse == null) {
-                    throw new CaptchaClientException("Error receiving reCaptcha response from the server");
+            boolean success = verificationResponse.get(CaptchaConstants.CAPTCHA_SUCCESS) != null
+                    && verificationResponse.get(CaptchaConstants.CAPTCHA_SUCCESS).getAsBoolean();
+            // Whether this request was a valid reCAPTCHA token.
+            if (!success) {
+                throw new CaptchaClientException("reCaptcha token is invalid. Error:" +
+                        verificationResponse.get("error-codes"));
+            }
+            if (verificationResponse.get(CaptchaConstants.CAPTCHA_SCORE) != null) {
+                double score = verificationResponse.get(CaptchaConstants.CAPTCHA_SCORE).getAsDouble();
+                // reCAPTCHA v3 response contains score
+                if (log.isDebugEnabled()) {
+                    log.debug("reCAPTCHA v3 response { timestamp:" +
+                            verificationResponse.get("challenge_ts") + ", action: " +
+                            verificationResponse.get("action") + ", score: " + score + " }");
                 }
-                boolean success = verificationResponse.get(CaptchaConstants.CAPTCHA_SUCCESS) != null
-                        && verificationResponse.get(CaptchaConstants.CAPTCHA_SUCCESS).getAsBoolean();
-                // Whether this request was a valid reCAPTCHA token.
-                if (!success) {
-                    throw new CaptchaClientException("reCaptcha token is invalid. Error:" +
-                            verificationResponse.get("error-codes"));
+                if (score < scoreThreshold) {
+                    throw new CaptchaClientException("reCaptcha score is less than the threshold.");
                 }
-                if (verificationResponse.get(CaptchaConstants.CAPTCHA_SCORE) != null) {
-                    double score = verificationResponse.get(CaptchaConstants.CAPTCHA_SCORE).getAsDouble();
-                    // reCAPTCHA v3 response contains score
-                    if (log.isDebugEnabled()) {
-                        log.debug("reCAPTCHA v3 response { timestamp:" +
-                                verificationResponse.get("challenge_ts") + ", action: " +
-                                verificationResponse.get("action") + ", score: " + score + " }");
-                    }
-                    if (score < scoreThreshold) {
-                        throw new CaptchaClientException("reCaptcha score is less than the threshold.");
-                    }
-                } else {
-                    if (log.isDebugEnabled()) {
-                        log.debug("reCAPTCHA v2 response { timestamp:" +
-                                verificationResponse.get("challenge_ts") + " }");
-                    }
+            } else {
+                if (log.isDebugEnabled()) {
+                    log.debug("reCAPTCHA v2 response { timestamp:" +
+                            verificationResponse.get("challenge_ts") + " }");
                 }
             }
-        } catch (IOException e) {
-            throw new CaptchaServerException("Unable to read the verification response.", e);
         } catch (ClassCastException e) {
             throw new CaptchaServerException("Unable to cast the response value.", e);
         }
@@ -333,11 +312,9 @@ public class CaptchaUtil {
 
         String CONNECTOR_NAME = "sso.login.recaptcha";
         String RECAPTCHA_VERIFICATION_CLAIM = "http://wso2.org/claims/identity/failedLoginAttempts";
-        Property[] connectorConfigs;
+        CaptchaPolicy captchaPolicy;
         try {
-            connectorConfigs = CaptchaDataHolder.getInstance().getIdentityGovernanceService()
-                    .getConfiguration(new String[]{CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE,
-                            CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.MAX_ATTEMPTS}, tenantDomain);
+            captchaPolicy = getCaptchaPolicy(tenantDomain);
         } catch (Exception e) {
             // Can happen due to invalid user/ invalid tenant/ invalid configuration
             if (log.isDebugEnabled()) {
@@ -346,26 +323,17 @@ public class CaptchaUtil {
             return false;
         }
 
-        if (connectorConfigs == null) {
+        if (captchaPolicy.hasProperty(CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE)
+                && !captchaPolicy.isEnabled(CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE)) {
             return false;
         }
 
-        String maxAttemptsStr = null;
-        for (Property property : connectorConfigs) {
-            if ((CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.ENABLE).equals(property.getName())
-                    && !Boolean.valueOf(property.getValue())) {
-                return false;
-            } else if ((CONNECTOR_NAME + ReCaptchaConnectorPropertySuffixes.MAX_ATTEMPTS).equals(property.getName())) {
-                maxAttemptsStr = property.getValue();
-            }
-        }
-
-        if (StringUtils.isBlank(maxAttemptsStr) || !NumberUtils.isNumber(maxAttemptsStr)) {
+        Integer maxAttempts = captchaPolicy.getIntProperty(CONNECTOR_NAME +
+                ReCaptchaConnectorPropertySuffixes.MAX_ATTEMPTS);
+        if (maxAttempts == null) {
             throw new CaptchaServerException("Invalid reCaptcha configuration.");
         }
 
-        int maxAttempts = Integer.parseInt(maxAttemptsStr);
-
         RealmService realmService = CaptchaDataHolder.getInstance().getRealmService();
         int tenantId;
         try {
@@ -379,6 +347,15 @@ public class CaptchaUtil {
             throw new CaptchaServerException("Invalid tenant domain : " + tenantDomain);
         }
 
+        // Fast path for the users who logged in successfully on this node, with no failed attempt since.
+        FailedLoginAttemptTracker failedLoginAttemptTracker =
+                CaptchaDataHolder.getInstance().getFailedLoginAttemptTracker();
+        if (failedLoginAttemptTracker != null && maxAttempts > 0 && failedLoginAttemptTracker.hasNoFailedAttempts(
+                tenantId, IdentityUtil.extractDomainFromName(usernameWithDomain),
+                UserCoreUtil.removeDomainFromName(usernameWithDomain))) {
+            return false;
+        }
+
         UserRealm userRealm;
         try {
             userRealm = (UserRealm) realmService.getTenantUserRealm(tenantId);
@@ -475,6 +452,9 @@ public class CaptchaUtil {
             throw new RuntimeException(getValidationErrorMessage(CaptchaConstants.RE_CAPTCHA_REQUEST_WRAP_URLS));
         }
         CaptchaDataHolder.getInstance().setReCaptchaRequestWrapUrls(reCaptchaRequestWrapUrls);
+        CaptchaDataHolder.getInstance().setReCaptchaRequestWrapMaxBodySize(getIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_REQUEST_WRAP_MAX_BODY_SIZE,
+                CaptchaConstants.DEFAULT_REQUEST_WRAP_MAX_BODY_SIZE));
 
         try {
             Double reCaptchaScoreThreshold = getReCaptchaThreshold(properties);
@@ -487,6 +467,35 @@ public class CaptchaUtil {
                 properties.getProperty(CaptchaConstants.FORCEFULLY_ENABLED_RECAPTCHA_FOR_ALL_TENANTS);
         CaptchaDataHolder.getInstance().setForcefullyEnabledRecaptchaForAllTenants(
                 Boolean.parseBoolean(forcefullyEnableRecaptchaForAllTenants));
+
+        CaptchaDataHolder.getInstance().getCaptchaPolicyCache().setTimeToLive(getIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_POLICY_CACHE_TTL, CaptchaConstants.DEFAULT_POLICY_CACHE_TTL));
+        CaptchaDataHolder.getInstance().getCaptchaPolicyCache().clear();
+
+        String failedLoginTrackerEnabled = properties.getProperty(
+                CaptchaConstants.RE_CAPTCHA_FAILED_LOGIN_TRACKER_ENABLE);
+        if (Boolean.parseBoolean(StringUtils.trim(failedLoginTrackerEnabled))) {
+            CaptchaDataHolder.getInstance().setFailedLoginAttemptTracker(new FailedLoginAttemptTracker(
+                    getIntProperty(properties, CaptchaConstants.RE_CAPTCHA_FAILED_LOGIN_TRACKER_WINDOW,
+                            CaptchaConstants.DEFAULT_FAILED_LOGIN_TRACKER_WINDOW),
+                    getIntProperty(properties, CaptchaConstants.RE_CAPTCHA_FAILED_LOGIN_TRACKER_SIZE,
+                            CaptchaConstants.DEFAULT_FAILED_LOGIN_TRACKER_SIZE)));
+        } else {
+            CaptchaDataHolder.getInstance().setFailedLoginAttemptTracker(null);
+        }
+
+        String captchaProviderName = StringUtils.trim(properties.getProperty(CaptchaConstants.RE_CAPTCHA_PROVIDER));
+        if (StringUtils.isBlank(captchaProviderName)) {
+            captchaProviderName = ReCaptchaProvider.NAME;
+        }
+        if (LocalStubCaptchaProvider.NAME.equals(captchaProviderName)) {
+            CaptchaDataHolder.getInstance().addCaptchaProvider(new LocalStubCaptchaProvider(properties));
+        }
+        CaptchaDataHolder.getInstance().setCaptchaProviderName(captchaProviderName);
+
+        CaptchaDataHolder.getInstance().setReCaptchaHttpClientProvider(new ReCaptchaHttpClientProvider(properties));
+        CaptchaDataHolder.getInstance().setCaptchaVerifier(new CaptchaVerifier(properties,
+                CaptchaDataHolder.getInstance().getCaptchaVerificationMetrics()));
     }
 
     /**
@@ -546,6 +555,32 @@ public class CaptchaUtil {
         CaptchaDataHolder.getInstance().setPathBasedReCaptchaConnectorPropertyMap(connectorPropertyMap);
     }
 
+    /**
+     * Get a positive integer property of the captcha configuration.
+     *
+     * @param properties   Captcha configuration properties. May be null.
+     * @param name         Name of the property.
+     * @param defaultValue Value returned if the property is not set or is not a positive integer.
+     * @return Value of the property.
+     */
+    public static int getIntProperty(Properties properties, String name, int defaultValue) {
+
+        String value = properties != null ? properties.getProperty(name) : null;
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            if (intValue > 0) {
+                return intValue;
+            }
+        } catch (NumberFormatException e) {
+            // Falls back to the default value below.
+        }
+        log.warn(getValidationErrorMessage(name) + " Using the default value: " + defaultValue);
+        return defaultValue;
+    }
+
     private static String getValidationErrorMessage(String property) {
 
         return "Invalid value for " + property + " in the " + CaptchaConstants
@@ -565,6 +600,43 @@ public class CaptchaUtil {
                                                  IdentityGovernanceService identityGovernanceService,
                                                  String PROPERTY_ENABLE_RECAPTCHA) throws Exception {
 
+        Property[] connectorConfigs = identityGovernanceService.getConfiguration(
+                new String[]{PROPERTY_ENABLE_RECAPTCHA}, getTenantDomain(servletRequest));
+
+        return connectorConfigs;
+    }
+
+    /**
+     * Get the captcha policy of a tenant, built from the governance configurations of the tenant and cached until
+     * they are updated.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Captcha policy of the tenant.
+     * @throws IdentityGovernanceException If the configurations of the tenant could not be read.
+     */
+    public static CaptchaPolicy getCaptchaPolicy(String tenantDomain) throws IdentityGovernanceException {
+
+        return getCaptchaPolicy(tenantDomain, CaptchaDataHolder.getInstance().getIdentityGovernanceService());
+    }
+
+    /**
+     * Get the captcha policy of a tenant.
+     *
+     * @param tenantDomain              Tenant domain.
+     * @param identityGovernanceService Service from which the configurations are read if the policy is not cached.
+     * @return Captcha policy of the tenant.
+     * @throws IdentityGovernanceException If the configurations of the tenant could not be read.
+     */
+    public static CaptchaPolicy getCaptchaPolicy(String tenantDomain,
+                                                 IdentityGovernanceService identityGovernanceService)
+            throws IdentityGovernanceException {
+
+        return CaptchaDataHolder.getInstance().getCaptchaPolicyCache().getPolicy(tenantDomain,
+                identityGovernanceService);
+    }
+
+    private static String getTenantDomain(ServletRequest servletRequest) {
+
         String tenantDomain = servletRequest.getParameter("tenantDomain");
         // This is because from swagger def we expect tenant domain as "tenant-domain"
         if (StringUtils.isEmpty(tenantDomain)) {
@@ -576,11 +648,7 @@ public class CaptchaUtil {
         if (StringUtils.isBlank(tenantDomain)) {
             tenantDomain = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
         }
-
-        Property[] connectorConfigs = identityGovernanceService.getConfiguration(
-                new String[]{PROPERTY_ENABLE_RECAPTCHA}, tenantDomain);
-
-        return connectorConfigs;
+        return tenantDomain;
     }
 
     /**
@@ -691,24 +759,18 @@ public class CaptchaUtil {
      */
     public static Boolean isReCaptchaEnabledForFlow(String configName, String tenantDomain) {
 
-        Property[] connectorConfigs = null;
+        CaptchaPolicy captchaPolicy = null;
         String configValue = null;
-        IdentityGovernanceService identityGovernanceService = CaptchaDataHolder.getInstance()
-                .getIdentityGovernanceService();
         if (StringUtils.isEmpty(tenantDomain)) {
             tenantDomain = org.wso2.carbon.base.MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
         }
         try {
-            connectorConfigs = identityGovernanceService.getConfiguration(tenantDomain);
+            captchaPolicy = getCaptchaPolicy(tenantDomain);
         } catch (IdentityGovernanceException e) {
             log.error("Error while retrieving resident Idp configurations for tenant: " + tenantDomain, e);
         }
-        if (connectorConfigs != null && StringUtils.isNotEmpty(configName)) {
-            for (Property connectorConfig : connectorConfigs) {
-                if (configName.equals(connectorConfig.getName())) {
-                    configValue = connectorConfig.getValue();
-                }
-            }
+        if (captchaPolicy != null && StringUtils.isNotEmpty(configName)) {
+            configValue = captchaPolicy.getProperty(configName);
         } else {
             log.warn(String.format("Connector configurations are null. Hence return true for %s configuration.",
                     configName));
@@ -728,10 +790,9 @@ public class CaptchaUtil {
     public static boolean isRecaptchaEnabledForConnector(IdentityGovernanceService identityGovernanceService,
                                                          ServletRequest servletRequest, String propertyName) {
 
-        Property[] connectorConfigs;
+        CaptchaPolicy captchaPolicy;
         try {
-            connectorConfigs = CaptchaUtil.getConnectorConfigs(servletRequest, identityGovernanceService,
-                    propertyName);
+            captchaPolicy = getCaptchaPolicy(getTenantDomain(servletRequest), identityGovernanceService);
         } catch (Exception e) {
             // Can happen due to invalid tenant/ invalid configuration
             if (log.isDebugEnabled()) {
@@ -739,13 +800,6 @@ public class CaptchaUtil {
             }
             return false;
         }
-
-        String enable = null;
-        for (Property connectorConfig : connectorConfigs) {
-            if ((propertyName).equals(connectorConfig.getName())) {
-                enable = connectorConfig.getValue();
-            }
-        }
-        return Boolean.parseBoolean(enable);
+        return captchaPolicy.isEnabled(propertyName);
     }
 }
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pooled HTTP client which is shared by all the reCaptcha verifications, so that the connections to the verify
+ * endpoint are kept alive and reused instead of paying a new handshake on each verification. Idle and expired
+ * connections are evicted from the pool in the background.
+ */
+public class ReCaptchaHttpClientProvider implements Closeable {
+
+    private static final Log log = LogFactory.getLog(ReCaptchaHttpClientProvider.class);
+
+    private final CloseableHttpClient httpClient;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final ScheduledExecutorService connectionEvictor;
+
+    /**
+     * Build the client from the HTTP client properties of the captcha configuration. Properties which are not set
+     * take their default values.
+     *
+     * @param properties Captcha configuration properties.
+     */
+    public ReCaptchaHttpClientProvider(Properties properties) {
+
+        int maxConnections = CaptchaUtil.getIntProperty(properties, CaptchaConstants.RE_CAPTCHA_HTTP_MAX_CONNECTIONS,
+                CaptchaConstants.DEFAULT_HTTP_MAX_CONNECTIONS);
+        int maxConnectionsPerRoute = CaptchaUtil.getIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_HTTP_MAX_CONNECTIONS_PER_ROUTE,
+                CaptchaConstants.DEFAULT_HTTP_MAX_CONNECTIONS_PER_ROUTE);
+        int connectTimeout = CaptchaUtil.getIntProperty(properties, CaptchaConstants.RE_CAPTCHA_HTTP_CONNECT_TIMEOUT,
+                CaptchaConstants.DEFAULT_HTTP_TIMEOUT);
+        int socketTimeout = CaptchaUtil.getIntProperty(properties, CaptchaConstants.RE_CAPTCHA_HTTP_SOCKET_TIMEOUT,
+                CaptchaConstants.DEFAULT_HTTP_TIMEOUT);
+        int connectionRequestTimeout = CaptchaUtil.getIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_HTTP_CONNECTION_REQUEST_TIMEOUT, CaptchaConstants.DEFAULT_HTTP_TIMEOUT);
+        long keepAlive = CaptchaUtil.getIntProperty(properties, CaptchaConstants.RE_CAPTCHA_HTTP_KEEP_ALIVE,
+                CaptchaConstants.DEFAULT_HTTP_KEEP_ALIVE);
+        long idleTimeout = CaptchaUtil.getIntProperty(properties, CaptchaConstants.RE_CAPTCHA_HTTP_IDLE_TIMEOUT,
+                CaptchaConstants.DEFAULT_HTTP_IDLE_TIMEOUT);
+
+        // The system socket factory honours the javax.net.ssl system properties, as the per request client did.
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", SSLConnectionSocketFactory.getSystemSocketFactory())
+                .build();
+        connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(socketTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .build();
+
+        httpClient = HttpClientBuilder.create()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(new BoundedKeepAliveStrategy(keepAlive))
+                .build();
+
+        connectionEvictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "recaptcha-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionInterval = Math.max(1000, idleTimeout / 2);
+        connectionEvictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        }, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+
+        if (log.isDebugEnabled()) {
+            log.debug("reCaptcha HTTP client is created with max connections: " + maxConnections +
+                    ", max connections per route: " + maxConnectionsPerRoute + ", connect timeout: " +
+                    connectTimeout + "ms, socket timeout: " + socketTimeout + "ms, keep alive: " + keepAlive +
+                    "ms, idle timeout: " + idleTimeout + "ms.");
+        }
+    }
+
+    public CloseableHttpClient getHttpClient() {
+
+        return httpClient;
+    }
+
+    /**
+     * Stop evicting connections and close the client along with its pooled connections.
+     */
+    @Override
+    public void close() {
+
+        connectionEvictor.shutdownNow();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.error("Error while closing the reCaptcha HTTP client.", e);
+        }
+    }
+
+    /**
+     * Keeps a connection alive for as long as the server allows, but no longer than the configured keep alive time,
+     * which also applies when the server does not send a keep alive timeout.
+     */
+    private static class BoundedKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+        private final long maxKeepAlive;
+
+        private BoundedKeepAliveStrategy(long maxKeepAlive) {
+
+            this.maxKeepAlive = maxKeepAlive;
+        }
+
+        @Override
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? Math.min(keepAlive, maxKeepAlive) : maxKeepAlive;
+        }
+    }
+}
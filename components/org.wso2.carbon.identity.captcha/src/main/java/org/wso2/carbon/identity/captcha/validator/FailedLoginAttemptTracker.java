@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.validator;
+
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Node local tracker of the login attempts of the users, fed by the POST_AUTHENTICATION events, which lets the captcha
+ * gating decide that a user has no failed login attempts without reading the failed login attempts claim from the
+ * user store.
+ * <p>
+ * A user is tracked from a successful login seen by this node, and is dropped on any failed attempt seen by this node,
+ * or once the successful login falls out of the sliding window. Failed attempts made on the other nodes are not seen,
+ * hence the tracker is only meant for single node deployments, and is disabled by default.
+ * <p>
+ * The tracker only answers that a user has no failed attempts. Any other case is left to the claim, which is shared
+ * by the nodes and reset by the account lock handlers.
+ */
+public class FailedLoginAttemptTracker {
+
+    private final long window;
+    private final int maxSize;
+    // Time of the last successful login of the users. Access ordered, hence the least recently used user is evicted
+    // when the tracker is full.
+    private final LinkedHashMap<String, Long> users = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+
+            return size() > maxSize;
+        }
+    };
+
+    /**
+     * @param window  Length of the sliding window in milliseconds.
+     * @param maxSize Maximum number of users tracked.
+     */
+    public FailedLoginAttemptTracker(long window, int maxSize) {
+
+        this.window = window;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Record a login attempt of a user.
+     *
+     * @param tenantId        Tenant id of the user.
+     * @param userStoreDomain User store domain of the user.
+     * @param username        Username of the user, without the user store domain.
+     * @param successful      Whether the attempt is successful.
+     */
+    public void recordAttempt(int tenantId, String userStoreDomain, String username, boolean successful) {
+
+        String key = getKey(tenantId, userStoreDomain, username);
+        synchronized (users) {
+            if (successful) {
+                users.put(key, System.currentTimeMillis());
+            } else {
+                users.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Check whether a user is known to have no failed login attempts.
+     *
+     * @param tenantId        Tenant id of the user.
+     * @param userStoreDomain User store domain of the user.
+     * @param username        Username of the user, without the user store domain.
+     * @return True if this node saw a successful login of the user within the window and no failed attempt since.
+     * False otherwise, in which case the claim decides.
+     */
+    public boolean hasNoFailedAttempts(int tenantId, String userStoreDomain, String username) {
+
+        String key = getKey(tenantId, userStoreDomain, username);
+        synchronized (users) {
+            Long lastSuccessTime = users.get(key);
+            if (lastSuccessTime == null) {
+                return false;
+            }
+            if (lastSuccessTime + window <= System.currentTimeMillis()) {
+                users.remove(key);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private static String getKey(int tenantId, String userStoreDomain, String username) {
+
+        String domain = userStoreDomain != null ? userStoreDomain.toUpperCase(Locale.ENGLISH) :
+                IdentityUtil.getPrimaryDomainName();
+        if (!IdentityUtil.isUserStoreCaseSensitive(domain, tenantId)) {
+            username = username.toLowerCase(Locale.ENGLISH);
+        }
+        return tenantId + ":" + domain + "/" + username;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.validator;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.base.IdentityRuntimeException;
+import org.wso2.carbon.identity.captcha.internal.CaptchaDataHolder;
+import org.wso2.carbon.identity.core.bean.context.MessageContext;
+import org.wso2.carbon.identity.event.IdentityEventConstants;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.bean.IdentityEventMessageContext;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.util.UserCoreUtil;
+
+import java.util.Map;
+
+/**
+ * Feeds the login attempts of the POST_AUTHENTICATION events to the {@link FailedLoginAttemptTracker}.
+ */
+public class FailedLoginAttemptTrackingHandler extends AbstractEventHandler {
+
+    private static final Log log = LogFactory.getLog(FailedLoginAttemptTrackingHandler.class);
+
+    @Override
+    public String getName() {
+
+        return "failedLoginAttemptTracker";
+    }
+
+    @Override
+    public boolean canHandle(MessageContext messageContext) throws IdentityRuntimeException {
+
+        Event event = ((IdentityEventMessageContext) messageContext).getEvent();
+        return IdentityEventConstants.Event.POST_AUTHENTICATION.equals(event.getEventName()) &&
+                CaptchaDataHolder.getInstance().getFailedLoginAttemptTracker() != null;
+    }
+
+    @Override
+    public void handleEvent(Event event) throws IdentityEventException {
+
+        FailedLoginAttemptTracker tracker = CaptchaDataHolder.getInstance().getFailedLoginAttemptTracker();
+        if (tracker == null || !IdentityEventConstants.Event.POST_AUTHENTICATION.equals(event.getEventName())) {
+            return;
+        }
+
+        Map<String, Object> eventProperties = event.getEventProperties();
+        String username = (String) eventProperties.get(IdentityEventConstants.EventProperty.USER_NAME);
+        Object userStoreManager = eventProperties.get(IdentityEventConstants.EventProperty.USER_STORE_MANAGER);
+        Object authenticated = eventProperties.get(IdentityEventConstants.EventProperty.OPERATION_STATUS);
+        if (StringUtils.isBlank(username) || !(userStoreManager instanceof UserStoreManager) ||
+                !(authenticated instanceof Boolean)) {
+            return;
+        }
+
+        UserStoreManager manager = (UserStoreManager) userStoreManager;
+        try {
+            tracker.recordAttempt(manager.getTenantId(), UserCoreUtil.getDomainName(manager.getRealmConfiguration()),
+                    UserCoreUtil.removeDomainFromName(username), (Boolean) authenticated);
+        } catch (UserStoreException e) {
+            // The claim is read for a user who is not tracked, hence the attempt is only not recorded.
+            if (log.isDebugEnabled()) {
+                log.debug("Unable to record the login attempt of the user: " + username, e);
+            }
+        }
+    }
+}
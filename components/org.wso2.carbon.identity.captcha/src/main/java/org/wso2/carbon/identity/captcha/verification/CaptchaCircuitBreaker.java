@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.verification;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Circuit breaker of the calls to the captcha provider. It opens after a number of consecutive failed calls, so that
+ * the calls are short circuited instead of waiting on a provider which is down. Once the open duration has passed, a
+ * single trial call is let through, which closes the breaker if it succeeds and opens it again otherwise.
+ */
+public class CaptchaCircuitBreaker {
+
+    private static final Log log = LogFactory.getLog(CaptchaCircuitBreaker.class);
+
+    /**
+     * States of the circuit breaker.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDuration;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedTime;
+    private boolean trialInProgress;
+    private long openCount;
+
+    /**
+     * @param failureThreshold Number of consecutive failures which opens the breaker.
+     * @param openDuration     Time in milliseconds for which the breaker stays open before a trial call.
+     */
+    public CaptchaCircuitBreaker(int failureThreshold, long openDuration) {
+
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+    }
+
+    /**
+     * @return True if a call can be made to the provider. The outcome of the call must then be recorded with
+     * {@link #recordSuccess()} or {@link #recordFailure()}.
+     */
+    public synchronized boolean allowRequest() {
+
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedTime < openDuration) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInProgress = false;
+        }
+        if (trialInProgress) {
+            return false;
+        }
+        trialInProgress = true;
+        return true;
+    }
+
+    public synchronized void recordSuccess() {
+
+        if (state != State.CLOSED) {
+            log.info("Captcha verification circuit breaker is closed.");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInProgress = false;
+    }
+
+    public synchronized void recordFailure() {
+
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            log.warn("Captcha verification circuit breaker is opened after " + consecutiveFailures +
+                    " consecutive failures. Verifications are short circuited for " + openDuration + "ms.");
+            state = State.OPEN;
+            openedTime = System.currentTimeMillis();
+            trialInProgress = false;
+            openCount++;
+        }
+    }
+
+    public synchronized State getState() {
+
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+
+        return consecutiveFailures;
+    }
+
+    /**
+     * @return Number of times the breaker is opened since the server started.
+     */
+    public synchronized long getOpenCount() {
+
+        return openCount;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.verification;
+
+import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Short lived, bounded record of the captcha response tokens which were verified, keyed by a hash of the token, which
+ * rejects a token submitted again without calling the provider. A token which was verified successfully is marked as
+ * used, hence it is rejected in any later submission, and a token which was rejected by the provider stays rejected.
+ * The record never accepts a token; every new submission is verified with the provider.
+ * <p>
+ * The record is local to the node. Entries live for the time to live from the time they are added, which is expected
+ * to be no shorter than the lifetime of a token at the provider.
+ */
+public class CaptchaVerificationCache {
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final long timeToLive;
+    private final int maxSize;
+    // Insertion ordered. As all the entries have the same time to live, the eldest entries expire first.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * @param timeToLive Time to live of an entry in milliseconds.
+     * @param maxSize    Maximum number of entries. The eldest entry is evicted when a new one is added to a full
+     *                   cache.
+     */
+    public CaptchaVerificationCache(long timeToLive, int maxSize) {
+
+        this.timeToLive = timeToLive;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Check that a token submitted in a new request was neither used nor rejected.
+     *
+     * @param tokenHash Hash of the token.
+     * @throws CaptchaClientException If the token was already used or was rejected.
+     */
+    public synchronized void checkToken(String tokenHash) throws CaptchaClientException {
+
+        Entry entry = getEntry(tokenHash);
+        if (entry == null) {
+            return;
+        }
+        if (!entry.valid) {
+            throw new CaptchaClientException(entry.error != null ? entry.error : "reCaptcha token is invalid.");
+        }
+        throw new CaptchaClientException("reCaptcha token is already used.");
+    }
+
+    /**
+     * Mark a token which is verified successfully as used.
+     *
+     * @param tokenHash Hash of the token.
+     * @return False if the token was already used or rejected, in which case it must be treated as a replay.
+     */
+    public synchronized boolean markUsed(String tokenHash) {
+
+        if (getEntry(tokenHash) != null) {
+            return false;
+        }
+        put(tokenHash, new Entry(true, null));
+        return true;
+    }
+
+    /**
+     * Record a token which is rejected by the provider.
+     *
+     * @param tokenHash Hash of the token.
+     * @param error     Message of the rejection, returned when the token is submitted again. May be null.
+     */
+    public synchronized void putRejected(String tokenHash, String error) {
+
+        Entry entry = getEntry(tokenHash);
+        if (entry == null || entry.valid) {
+            put(tokenHash, new Entry(false, error));
+        }
+    }
+
+    /**
+     * @param token Captcha response token.
+     * @return Hash of the token, used as the key of the cache, so that the tokens themselves are not kept.
+     */
+    public static String hash(String token) {
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available.", e);
+        }
+    }
+
+    private Entry getEntry(String tokenHash) {
+
+        Entry entry = entries.get(tokenHash);
+        if (entry != null && entry.expiryTime <= System.currentTimeMillis()) {
+            entries.remove(tokenHash);
+            return null;
+        }
+        return entry;
+    }
+
+    private void put(String tokenHash, Entry entry) {
+
+        entries.remove(tokenHash);
+        removeExpiredEntries();
+        if (entries.size() >= maxSize) {
+            Iterator<String> iterator = entries.keySet().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+        entries.put(tokenHash, entry);
+    }
+
+    private void removeExpiredEntries() {
+
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && iterator.next().getValue().expiryTime <= now) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Recorded outcome of a token.
+     */
+    private class Entry {
+
+        private final boolean valid;
+        private final String error;
+        private final long expiryTime;
+
+        private Entry(boolean valid, String error) {
+
+            this.valid = valid;
+            this.error = error;
+            this.expiryTime = System.currentTimeMillis() + timeToLive;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.verification;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Metrics of the captcha verifications and of the circuit breaker which guards them, registered as an MBean.
+ */
+public class CaptchaVerificationMetrics implements CaptchaVerificationMetricsMXBean {
+
+    private static final Log log = LogFactory.getLog(CaptchaVerificationMetrics.class);
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.identity.captcha:type=CaptchaVerificationMetrics";
+
+    private volatile CaptchaCircuitBreaker circuitBreaker;
+
+    private final LongAdder verificationCount = new LongAdder();
+    private final LongAdder verificationTime = new LongAdder();
+    private final AtomicLong maxVerificationTime = new AtomicLong();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder failOpenCount = new LongAdder();
+
+    /**
+     * Set the circuit breaker whose state is reported. The counts are kept when the breaker is replaced on a
+     * configuration reload.
+     *
+     * @param circuitBreaker Circuit breaker of the verifications.
+     */
+    public void setCircuitBreaker(CaptchaCircuitBreaker circuitBreaker) {
+
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Record a verification which got a response from the provider.
+     *
+     * @param startNanos Value of {@link System#nanoTime()} when the verification was started.
+     */
+    public void recordVerification(long startNanos) {
+
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        verificationCount.increment();
+        verificationTime.add(elapsed);
+        maxVerificationTime.accumulateAndGet(elapsed, Math::max);
+    }
+
+    public void recordFailure() {
+
+        failureCount.increment();
+    }
+
+    public void recordTimeout() {
+
+        timeoutCount.increment();
+    }
+
+    public void recordRejected() {
+
+        rejectedCount.increment();
+    }
+
+    public void recordFailOpen() {
+
+        failOpenCount.increment();
+    }
+
+    /**
+     * Register the metrics in the platform MBean server.
+     */
+    public void registerMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(this, objectName);
+        } catch (JMException e) {
+            log.error("Error while registering the captcha verification metrics MBean.", e);
+        }
+    }
+
+    /**
+     * Unregister the metrics from the platform MBean server.
+     */
+    public void unregisterMBean() {
+
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            log.error("Error while unregistering the captcha verification metrics MBean.", e);
+        }
+    }
+
+    @Override
+    public String getCircuitBreakerState() {
+
+        CaptchaCircuitBreaker breaker = circuitBreaker;
+        return breaker != null ? breaker.getState().name() : CaptchaCircuitBreaker.State.CLOSED.name();
+    }
+
+    @Override
+    public int getConsecutiveFailures() {
+
+        CaptchaCircuitBreaker breaker = circuitBreaker;
+        return breaker != null ? breaker.getConsecutiveFailures() : 0;
+    }
+
+    @Override
+    public long getCircuitBreakerOpenCount() {
+
+        CaptchaCircuitBreaker breaker = circuitBreaker;
+        return breaker != null ? breaker.getOpenCount() : 0;
+    }
+
+    @Override
+    public long getVerificationCount() {
+
+        return verificationCount.sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+
+        return failureCount.sum();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+
+        return timeoutCount.sum();
+    }
+
+    @Override
+    public long getRejectedCount() {
+
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public long getFailOpenCount() {
+
+        return failOpenCount.sum();
+    }
+
+    @Override
+    public long getAverageVerificationTime() {
+
+        long count = verificationCount.sum();
+        return count > 0 ? verificationTime.sum() / count : 0;
+    }
+
+    @Override
+    public long getMaxVerificationTime() {
+
+        return maxVerificationTime.get();
+    }
+}
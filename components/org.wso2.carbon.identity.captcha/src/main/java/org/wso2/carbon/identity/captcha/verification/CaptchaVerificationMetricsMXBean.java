@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.verification;
+
+/**
+ * JMX view of the metrics of the captcha verifications. Counts are since the server started and times are in
+ * milliseconds.
+ */
+public interface CaptchaVerificationMetricsMXBean {
+
+    /**
+     * @return State of the circuit breaker, one of CLOSED, OPEN and HALF_OPEN.
+     */
+    String getCircuitBreakerState();
+
+    int getConsecutiveFailures();
+
+    long getCircuitBreakerOpenCount();
+
+    /**
+     * @return Number of verifications which got a response from the provider, valid or not.
+     */
+    long getVerificationCount();
+
+    /**
+     * @return Number of verifications which failed with an error of the provider or of the server.
+     */
+    long getFailureCount();
+
+    /**
+     * @return Number of verifications which did not complete within the deadline.
+     */
+    long getTimeoutCount();
+
+    /**
+     * @return Number of verifications which were not attempted, as the circuit breaker was open or there was no
+     * capacity to run them.
+     */
+    long getRejectedCount();
+
+    /**
+     * @return Number of requests which were let through without a verification, as per the fail open policy.
+     */
+    long getFailOpenCount();
+
+    long getAverageVerificationTime();
+
+    long getMaxVerificationTime();
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.captcha.verification;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.captcha.connector.CaptchaConnector;
+import org.wso2.carbon.identity.captcha.exception.CaptchaClientException;
+import org.wso2.carbon.identity.captcha.exception.CaptchaException;
+import org.wso2.carbon.identity.captcha.exception.CaptchaServerException;
+import org.wso2.carbon.identity.captcha.util.CaptchaConstants;
+import org.wso2.carbon.identity.captcha.util.CaptchaUtil;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Runs the captcha verifications of the connectors on a bounded pool of threads, so that the servlet thread waits for
+ * a verification no longer than the configured deadline, however slow the captcha provider is. The captcha response
+ * is read from the request on the servlet thread, and only the call to the provider is made on the pool, as the
+ * request may be recycled by the container once the deadline passes. A connector which does not expose the captcha
+ * response of the request is verified on the servlet thread, without the deadline.
+ * <p>
+ * The calls to the provider are guarded by a {@link CaptchaCircuitBreaker}. When a verification cannot be completed,
+ * because it timed out, failed with a server error, or was short circuited, the failure policy of the connector
+ * decides the outcome. A connector with the open policy lets the request through, while one with the closed policy,
+ * which is the default, fails the request as before.
+ * <p>
+ * When enabled, the verified tokens are recorded in a {@link CaptchaVerificationCache}, which acts as a replay guard
+ * by rejecting a used or rejected token submitted again without calling the provider. A token is never accepted
+ * without calling the provider.
+ */
+public class CaptchaVerifier {
+
+    private static final Log log = LogFactory.getLog(CaptchaVerifier.class);
+
+    /**
+     * Outcome of a request whose captcha could not be verified.
+     */
+    public enum FailurePolicy {
+        OPEN, CLOSED
+    }
+
+    private final long timeout;
+    private final FailurePolicy defaultFailurePolicy;
+    private final Map<String, FailurePolicy> connectorFailurePolicies = new HashMap<>();
+    private final CaptchaCircuitBreaker circuitBreaker;
+    private final CaptchaVerificationMetrics metrics;
+    private final ThreadPoolExecutor executor;
+    private final CaptchaVerificationCache verificationCache;
+
+    /**
+     * Build the verifier from the verification properties of the captcha configuration. Properties which are not set
+     * take their default values.
+     *
+     * @param properties Captcha configuration properties. May be null.
+     * @param metrics    Metrics to which the verifications are recorded.
+     */
+    public CaptchaVerifier(Properties properties, CaptchaVerificationMetrics metrics) {
+
+        this.timeout = CaptchaUtil.getIntProperty(properties, CaptchaConstants.RE_CAPTCHA_VERIFICATION_TIMEOUT,
+                CaptchaConstants.DEFAULT_VERIFICATION_TIMEOUT);
+        this.circuitBreaker = new CaptchaCircuitBreaker(CaptchaUtil.getIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_CIRCUIT_BREAKER_FAILURE_THRESHOLD,
+                CaptchaConstants.DEFAULT_CIRCUIT_BREAKER_FAILURE_THRESHOLD), CaptchaUtil.getIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_CIRCUIT_BREAKER_OPEN_DURATION,
+                CaptchaConstants.DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION));
+        this.metrics = metrics;
+        this.metrics.setCircuitBreaker(circuitBreaker);
+
+        FailurePolicy failurePolicy = FailurePolicy.CLOSED;
+        if (properties != null) {
+            failurePolicy = parseFailurePolicy(CaptchaConstants.RE_CAPTCHA_FAILURE_POLICY,
+                    properties.getProperty(CaptchaConstants.RE_CAPTCHA_FAILURE_POLICY), FailurePolicy.CLOSED);
+            String prefix = CaptchaConstants.RE_CAPTCHA_FAILURE_POLICY + ".";
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith(prefix) && name.length() > prefix.length()) {
+                    connectorFailurePolicies.put(name.substring(prefix.length()),
+                            parseFailurePolicy(name, properties.getProperty(name), failurePolicy));
+                }
+            }
+        }
+        this.defaultFailurePolicy = failurePolicy;
+
+        int poolSize = CaptchaUtil.getIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_THREAD_POOL_SIZE,
+                CaptchaConstants.DEFAULT_VERIFICATION_THREAD_POOL_SIZE);
+        int queueCapacity = CaptchaUtil.getIntProperty(properties,
+                CaptchaConstants.RE_CAPTCHA_VERIFICATION_QUEUE_CAPACITY,
+                CaptchaConstants.DEFAULT_VERIFICATION_QUEUE_CAPACITY);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "captcha-verifier-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+
+        String cacheEnabled = properties != null ?
+                properties.getProperty(CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_ENABLE) : null;
+        if (Boolean.parseBoolean(StringUtils.trim(cacheEnabled))) {
+            int cacheTimeToLive = CaptchaUtil.getIntProperty(properties,
+                    CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_TTL,
+                    CaptchaConstants.DEFAULT_VERIFICATION_CACHE_TTL);
+            int cacheSize = CaptchaUtil.getIntProperty(properties, CaptchaConstants.RE_CAPTCHA_VERIFICATION_CACHE_SIZE,
+                    CaptchaConstants.DEFAULT_VERIFICATION_CACHE_SIZE);
+            this.verificationCache = new CaptchaVerificationCache(cacheTimeToLive, cacheSize);
+        } else {
+            this.verificationCache = null;
+        }
+    }
+
+    /**
+     * Verify the captcha of a request with the given connector, within the deadline.
+     *
+     * @param connector       Connector which handles the request.
+     * @param servletRequest  Servlet request.
+     * @param servletResponse Servlet response.
+     * @return True if the captcha is valid, or if it could not be verified and the failure policy of the connector is
+     * open.
+     * @throws CaptchaClientException If the captcha of the request is invalid.
+     * @throws CaptchaException       If the captcha could not be verified and the failure policy of the connector is
+     *                                closed.
+     */
+    public boolean verify(CaptchaConnector connector, ServletRequest servletRequest, ServletResponse servletResponse)
+            throws CaptchaException {
+
+        String captchaResponse = connector.getCaptchaResponse(servletRequest, servletResponse);
+        String tokenHash = null;
+        String token = captchaResponse != null ? captchaResponse : getCaptchaResponse(servletRequest);
+        if (verificationCache != null && StringUtils.isNotBlank(token)) {
+            tokenHash = CaptchaVerificationCache.hash(token);
+            verificationCache.checkToken(tokenHash);
+        }
+
+        boolean valid;
+        try {
+            valid = callProvider(connector, captchaResponse, servletRequest, servletResponse);
+        } catch (CaptchaClientException e) {
+            if (tokenHash != null) {
+                verificationCache.putRejected(tokenHash, e.getMessage());
+            }
+            throw e;
+        } catch (VerificationUnavailableException e) {
+            return onVerificationUnavailable(connector, e.error);
+        }
+
+        if (tokenHash != null) {
+            if (!valid) {
+                verificationCache.putRejected(tokenHash, null);
+            } else if (!verificationCache.markUsed(tokenHash)) {
+                throw new CaptchaClientException("reCaptcha token is already used.");
+            }
+        }
+        return valid;
+    }
+
+    private boolean callProvider(CaptchaConnector connector, String captchaResponse, ServletRequest servletRequest,
+                                 ServletResponse servletResponse) throws CaptchaException,
+            VerificationUnavailableException {
+
+        if (!circuitBreaker.allowRequest()) {
+            metrics.recordRejected();
+            throw new VerificationUnavailableException(new CaptchaServerException("Captcha verification is " +
+                    "short circuited as the circuit breaker is open."));
+        }
+
+        long startNanos = System.nanoTime();
+        if (captchaResponse == null) {
+            // The connector reads the request itself, which must not be done off the servlet thread.
+            try {
+                boolean valid = connector.verifyCaptcha(servletRequest, servletResponse);
+                circuitBreaker.recordSuccess();
+                metrics.recordVerification(startNanos);
+                return valid;
+            } catch (CaptchaException | RuntimeException e) {
+                throw onProviderFailure(e, startNanos);
+            }
+        }
+
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> CaptchaUtil.isValidCaptcha(captchaResponse));
+        } catch (RejectedExecutionException e) {
+            circuitBreaker.recordFailure();
+            metrics.recordRejected();
+            throw new VerificationUnavailableException(new CaptchaServerException("Captcha verification is " +
+                    "rejected as there are too many verifications in progress.", e));
+        }
+
+        try {
+            boolean valid = future.get(timeout, TimeUnit.MILLISECONDS);
+            circuitBreaker.recordSuccess();
+            metrics.recordVerification(startNanos);
+            return valid;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.recordFailure();
+            metrics.recordTimeout();
+            throw new VerificationUnavailableException(new CaptchaServerException("Captcha verification did not " +
+                    "complete within " + timeout + "ms.", e));
+        } catch (ExecutionException e) {
+            throw onProviderFailure(e.getCause(), startNanos);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new CaptchaServerException("Interrupted while waiting for the captcha verification.", e);
+        }
+    }
+
+    private VerificationUnavailableException onProviderFailure(Throwable cause, long startNanos)
+            throws CaptchaClientException {
+
+        if (cause instanceof CaptchaClientException) {
+            // The provider responded, rejecting the captcha.
+            circuitBreaker.recordSuccess();
+            metrics.recordVerification(startNanos);
+            throw (CaptchaClientException) cause;
+        }
+        circuitBreaker.recordFailure();
+        metrics.recordFailure();
+        if (cause instanceof CaptchaException) {
+            return new VerificationUnavailableException((CaptchaException) cause);
+        }
+        return new VerificationUnavailableException(new CaptchaServerException("Error while verifying the " +
+                "captcha.", cause));
+    }
+
+    /**
+     * Stop the verification threads. Verifications in progress are interrupted.
+     */
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    public CaptchaCircuitBreaker getCircuitBreaker() {
+
+        return circuitBreaker;
+    }
+
+    /**
+     * @param connector Captcha connector.
+     * @return Failure policy of the connector, configured by its simple class name.
+     */
+    public FailurePolicy getFailurePolicy(CaptchaConnector connector) {
+
+        FailurePolicy failurePolicy = connectorFailurePolicies.get(connector.getClass().getSimpleName());
+        return failurePolicy != null ? failurePolicy : defaultFailurePolicy;
+    }
+
+    private boolean onVerificationUnavailable(CaptchaConnector connector, CaptchaException e)
+            throws CaptchaException {
+
+        if (getFailurePolicy(connector) == FailurePolicy.CLOSED) {
+            throw e;
+        }
+        metrics.recordFailOpen();
+        log.warn("Captcha could not be verified. The request is allowed as the failure policy of the connector: " +
+                connector.getClass().getSimpleName() + " is open. Cause : " + e.getMessage());
+        return true;
+    }
+
+    private static String getCaptchaResponse(ServletRequest servletRequest) {
+
+        String captchaResponse = null;
+        if (servletRequest instanceof HttpServletRequest) {
+            captchaResponse = ((HttpServletRequest) servletRequest).getHeader(CaptchaConstants.RE_CAPTCHA_RESPONSE);
+        }
+        if (StringUtils.isBlank(captchaResponse)) {
+            captchaResponse = servletRequest.getParameter(CaptchaConstants.RE_CAPTCHA_RESPONSE);
+        }
+        return captchaResponse;
+    }
+
+    private static FailurePolicy parseFailurePolicy(String name, String value, FailurePolicy defaultPolicy) {
+
+        if (StringUtils.isBlank(value)) {
+            return defaultPolicy;
+        }
+        try {
+            return FailurePolicy.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid value: " + value + " for " + name + " in the " +
+                    CaptchaConstants.CAPTCHA_CONFIG_FILE_NAME + " file. Using the failure policy: " + defaultPolicy);
+            return defaultPolicy;
+        }
+    }
+
+    /**
+     * Thrown when a verification could not be completed, for the failure policy to decide the outcome.
+     */
+    private static class VerificationUnavailableException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CaptchaException error;
+
+        private VerificationUnavailableException(CaptchaException error) {
+
+            super(error.getMessage(), error);
+            this.error = error;
+        }
+    }
+}
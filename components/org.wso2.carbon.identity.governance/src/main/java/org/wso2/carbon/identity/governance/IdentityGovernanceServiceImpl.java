@@ -26,11 +26,13 @@ import org.wso2.carbon.identity.application.common.util.IdentityApplicationConst
 import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.governance.bean.ConnectorConfig;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
 import org.wso2.carbon.identity.governance.internal.IdentityMgtServiceDataHolder;
 import org.wso2.carbon.idp.mgt.IdentityProviderManagementException;
 import org.wso2.carbon.idp.mgt.IdpManager;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +47,12 @@ public class IdentityGovernanceServiceImpl implements IdentityGovernanceService
     public void updateConfiguration(String tenantDomain, Map<String, String> configurationDetails)
             throws IdentityGovernanceException {
 
+        // The configuration map is consumed while merging, hence keep a copy to notify the listeners.
+        Map<String, String> updatedProperties = Collections.unmodifiableMap(new HashMap<>(configurationDetails));
+        for (IdentityGovernanceConfigListener listener :
+                IdentityMgtServiceDataHolder.getInstance().getIdentityGovernanceConfigListeners()) {
+            listener.onPreUpdateConfiguration(tenantDomain, updatedProperties);
+        }
         try {
             IdpManager identityProviderManager = IdentityMgtServiceDataHolder.getInstance().getIdpManager();
             IdentityProvider residentIdp = identityProviderManager.getResidentIdP(tenantDomain);
@@ -85,8 +93,22 @@ public class IdentityGovernanceServiceImpl implements IdentityGovernanceService
             identityProviderManager.updateResidentIdP(residentIdp, tenantDomain);
         } catch (IdentityProviderManagementException e) {
             log.error("Error while updating identityManagement Properties of Resident Idp.", e);
+            return;
         }
+        notifyConfigListeners(tenantDomain, updatedProperties);
+    }
+
+    private void notifyConfigListeners(String tenantDomain, Map<String, String> updatedProperties) {
 
+        for (IdentityGovernanceConfigListener listener :
+                IdentityMgtServiceDataHolder.getInstance().getIdentityGovernanceConfigListeners()) {
+            try {
+                listener.onPostUpdateConfiguration(tenantDomain, updatedProperties);
+            } catch (RuntimeException e) {
+                log.error("Error while notifying the governance configuration listener: " +
+                        listener.getClass().getName() + " for the tenant: " + tenantDomain, e);
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.governance.common;
+
+import org.wso2.carbon.identity.governance.IdentityGovernanceException;
+
+import java.util.Map;
+
+/**
+ * Listener which gets notified when the governance connector configurations of a tenant are updated. Components
+ * that keep derived state (compiled policies, constructed stores etc.) built from connector configurations can
+ * register an implementation of this interface as an OSGi service to drop that state on change, and may reject
+ * configurations they can not build that state from before they are saved.
+ */
+public interface IdentityGovernanceConfigListener {
+
+    /**
+     * Invoked before the configurations of a tenant are updated.
+     *
+     * @param tenantDomain         Domain name of the tenant.
+     * @param configurationDetails Properties to be updated, keyed by the property name. Must not be modified.
+     * @throws IdentityGovernanceException If the configurations are invalid, in which case they are not saved.
+     */
+    default void onPreUpdateConfiguration(String tenantDomain, Map<String, String> configurationDetails)
+            throws IdentityGovernanceException {
+
+    }
+
+    /**
+     * Invoked after the configurations of a tenant are successfully updated.
+     *
+     * @param tenantDomain      Domain name of the tenant.
+     * @param updatedProperties Properties which were updated, keyed by the property name.
+     */
+    void onPostUpdateConfiguration(String tenantDomain, Map<String, String> updatedProperties);
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.governance.common;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Accumulates the user claims which are updated by the handlers of the POST_AUTHENTICATION event, such as the last
+ * login time, so that they are written to the user store with a single setUserClaimValues call once all the handlers
+ * are run, instead of one write with its own run of the listener chain per handler.
+ * <p>
+ * The accumulation is opened and flushed by the user operation event listener which fires the event, on the thread
+ * which runs the handlers. When it is not open, {@link #addClaims(UserStoreManager, String, Map, String)} returns
+ * false and the handler is expected to write the claims by itself.
+ * <p>
+ * Optionally, a group of claims carrying a timestamp is not written at all if the stored timestamp is within a given
+ * granularity of the new one.
+ */
+public class PostAuthenticationClaimWriter {
+
+    private static final Log log = LogFactory.getLog(PostAuthenticationClaimWriter.class);
+
+    private static final ThreadLocal<PostAuthenticationClaimWriter> currentWriter = new ThreadLocal<>();
+
+    private final long granularity;
+    private final Map<UserKey, List<ClaimGroup>> claimGroups = new LinkedHashMap<>();
+
+    private PostAuthenticationClaimWriter(long granularity) {
+
+        this.granularity = granularity;
+    }
+
+    /**
+     * Open the accumulation of the claims on the current thread.
+     *
+     * @param granularity Granularity of the timestamp claims in milliseconds. Zero or less writes every update.
+     * @return True if the accumulation is opened by this call, in which case the caller has to call {@link #flush()}
+     * or {@link #discard()}. False if it was already open, in which case it is flushed by the caller which opened it.
+     */
+    public static boolean begin(long granularity) {
+
+        if (currentWriter.get() != null) {
+            return false;
+        }
+        currentWriter.set(new PostAuthenticationClaimWriter(granularity));
+        return true;
+    }
+
+    /**
+     * Add claims of a user to be written once the POST_AUTHENTICATION event is handled.
+     *
+     * @param userStoreManager  User store manager of the user.
+     * @param userName          Username.
+     * @param claims            Claims to be written. A claim which is added more than once is written with the value
+     *                          which is added last.
+     * @param timestampClaimURI Claim of the given claims which holds a timestamp in milliseconds. If the stored value of
+     *                          it is within the granularity of the new value, none of the given claims are written.
+     *                          Null if the claims are always written.
+     * @return True if the claims are added, false if the accumulation is not open on the current thread.
+     */
+    public static boolean addClaims(UserStoreManager userStoreManager, String userName, Map<String, String> claims,
+                                    String timestampClaimURI) {
+
+        PostAuthenticationClaimWriter writer = currentWriter.get();
+        if (writer == null) {
+            return false;
+        }
+        writer.claimGroups.computeIfAbsent(new UserKey(userStoreManager, userName), k -> new ArrayList<>())
+                .add(new ClaimGroup(new HashMap<>(claims), timestampClaimURI));
+        return true;
+    }
+
+    /**
+     * Close the accumulation on the current thread and write the accumulated claims, with a single write per user.
+     * A failed write is logged and does not fail the authentication, as the handlers did when they wrote the claims
+     * by themselves. The claims of the remaining users are still written.
+     */
+    public static void flush() {
+
+        PostAuthenticationClaimWriter writer = currentWriter.get();
+        // Closed before writing, so that the events fired by the write are not accumulated.
+        currentWriter.remove();
+        if (writer == null) {
+            return;
+        }
+
+        for (Map.Entry<UserKey, List<ClaimGroup>> entry : writer.claimGroups.entrySet()) {
+            try {
+                writer.write(entry.getKey(), entry.getValue());
+            } catch (UserStoreException e) {
+                log.error("Error while writing the post authentication claims of user: " +
+                        entry.getKey().userName, e);
+            }
+        }
+    }
+
+    /**
+     * Close the accumulation on the current thread without writing the accumulated claims.
+     */
+    public static void discard() {
+
+        currentWriter.remove();
+    }
+
+    private void write(UserKey user, List<ClaimGroup> groups) throws UserStoreException {
+
+        Map<String, String> storedTimestamps = getStoredTimestamps(user, groups);
+        Map<String, String> claims = new HashMap<>();
+        for (ClaimGroup group : groups) {
+            if (isWithinGranularity(group, storedTimestamps)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Skipped writing the claim: " + group.timestampClaimURI + " of user: " + user.userName +
+                            " since the stored value is within the write granularity.");
+                }
+                continue;
+            }
+            claims.putAll(group.claims);
+        }
+        if (claims.isEmpty()) {
+            return;
+        }
+        user.userStoreManager.setUserClaimValues(user.userName, claims, null);
+        if (log.isDebugEnabled()) {
+            log.debug("Wrote " + claims.size() + " post authentication claims of user: " + user.userName);
+        }
+    }
+
+    private Map<String, String> getStoredTimestamps(UserKey user, List<ClaimGroup> groups) throws UserStoreException {
+
+        if (granularity <= 0) {
+            return new HashMap<>();
+        }
+        Set<String> timestampClaimURIs = new LinkedHashSet<>();
+        for (ClaimGroup group : groups) {
+            if (group.timestampClaimURI != null) {
+                timestampClaimURIs.add(group.timestampClaimURI);
+            }
+        }
+        if (timestampClaimURIs.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<String, String> storedValues = user.userStoreManager.getUserClaimValues(user.userName,
+                timestampClaimURIs.toArray(new String[0]), null);
+        return storedValues != null ? storedValues : new HashMap<>();
+    }
+
+    private boolean isWithinGranularity(ClaimGroup group, Map<String, String> storedTimestamps) {
+
+        if (granularity <= 0 || group.timestampClaimURI == null) {
+            return false;
+        }
+        String storedValue = storedTimestamps.get(group.timestampClaimURI);
+        String newValue = group.claims.get(group.timestampClaimURI);
+        if (StringUtils.isEmpty(storedValue) || StringUtils.isEmpty(newValue)) {
+            return false;
+        }
+        try {
+            long elapsed = Long.parseLong(newValue) - Long.parseLong(storedValue);
+            return elapsed >= 0 && elapsed < granularity;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Claims added by a handler, which are written or skipped together.
+     */
+    private static class ClaimGroup {
+
+        private final Map<String, String> claims;
+        private final String timestampClaimURI;
+
+        private ClaimGroup(Map<String, String> claims, String timestampClaimURI) {
+
+            this.claims = claims;
+            this.timestampClaimURI = timestampClaimURI;
+        }
+    }
+
+    /**
+     * A user of a user store manager instance.
+     */
+    private static class UserKey {
+
+        private final UserStoreManager userStoreManager;
+        private final String userName;
+
+        private UserKey(UserStoreManager userStoreManager, String userName) {
+
+            this.userStoreManager = userStoreManager;
+            this.userName = userName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof UserKey)) {
+                return false;
+            }
+            UserKey userKey = (UserKey) o;
+            return userStoreManager == userKey.userStoreManager && Objects.equals(userName, userKey.userName);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return 31 * System.identityHashCode(userStoreManager) + Objects.hashCode(userName);
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceServiceImpl;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
 import org.wso2.carbon.identity.governance.internal.service.impl.notification.DefaultNotificationChannelManager;
 import org.wso2.carbon.identity.governance.internal.service.impl.otp.DefaultOTPGenerator;
 import org.wso2.carbon.identity.governance.service.notification.NotificationChannelManager;
@@ -126,6 +127,22 @@ public class IdentityMgtServiceComponent {
         IdentityMgtServiceDataHolder.getInstance().unsetIdentityGovernanceConnector(identityConnectorConfig);
     }
 
+    @Reference(
+            name = "identity.governance.config.listener",
+            service = org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetIdentityGovernanceConfigListener")
+    protected void setIdentityGovernanceConfigListener(IdentityGovernanceConfigListener listener) {
+
+        IdentityMgtServiceDataHolder.getInstance().addIdentityGovernanceConfigListener(listener);
+    }
+
+    protected void unsetIdentityGovernanceConfigListener(IdentityGovernanceConfigListener listener) {
+
+        IdentityMgtServiceDataHolder.getInstance().unsetIdentityGovernanceConfigListener(listener);
+    }
+
     protected void unsetIdpManager(IdpManager idpManager) {
 
         IdentityMgtServiceDataHolder.getInstance().setIdpManager(null);
@@ -19,11 +19,13 @@ package org.wso2.carbon.identity.governance.internal;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceServiceImpl;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
 import org.wso2.carbon.idp.mgt.IdpManager;
 import org.wso2.carbon.user.core.service.RealmService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class IdentityMgtServiceDataHolder {
 
@@ -31,6 +33,8 @@ public class IdentityMgtServiceDataHolder {
     private IdentityEventService identityEventService;
     private IdpManager idpManager;
     private static volatile List<IdentityConnectorConfig> identityConnectorConfigList = new ArrayList<>();
+    private final List<IdentityGovernanceConfigListener> identityGovernanceConfigListeners =
+            new CopyOnWriteArrayList<>();
     private RealmService realmService;
     private IdentityGovernanceServiceImpl identityGovernanceService;
 
@@ -63,6 +67,21 @@ public class IdentityMgtServiceDataHolder {
         return identityConnectorConfigList;
     }
 
+    protected void addIdentityGovernanceConfigListener(IdentityGovernanceConfigListener listener) {
+
+        identityGovernanceConfigListeners.add(listener);
+    }
+
+    protected void unsetIdentityGovernanceConfigListener(IdentityGovernanceConfigListener listener) {
+
+        identityGovernanceConfigListeners.remove(listener);
+    }
+
+    public List<IdentityGovernanceConfigListener> getIdentityGovernanceConfigListeners() {
+
+        return identityGovernanceConfigListeners;
+    }
+
     public IdpManager getIdpManager() {
         return idpManager;
     }
@@ -23,15 +23,13 @@ import org.wso2.carbon.identity.governance.exceptions.otp.OTPGeneratorClientExce
 import org.wso2.carbon.identity.governance.exceptions.otp.OTPGeneratorException;
 import org.wso2.carbon.identity.governance.service.otp.OTPGenerator;
 
-import java.security.SecureRandom;
+import java.util.List;
 
 /**
  * Default class to generate OTP.
  */
 public class DefaultOTPGenerator implements OTPGenerator {
 
-    private static final String SMS_OTP_GENERATE_ALPHABET_CHAR_SET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
-    private static final String SMS_OTP_GENERATE_NUMERIC_CHAR_SET = "0123456789";
     private static final String DEFAULT_OTP_GENERATOR = "DefaultOTPGenerator";
 
     /**
@@ -52,19 +50,8 @@ public class DefaultOTPGenerator implements OTPGenerator {
                     IdentityMgtConstants.ErrorMessages.ERROR_CODE_INVALID_OTP_CHARACTER_SET.getMessage()
             );
         }
-        if (otpLength < IdentityMgtConstants.MINIMUM_SMS_OTP_LENGTH) {
-            throw new OTPGeneratorClientException(
-                    IdentityMgtConstants.ErrorMessages.ERROR_CODE_INVALID_OTP_LENGTH.getCode(),
-                    IdentityMgtConstants.ErrorMessages.ERROR_CODE_INVALID_OTP_LENGTH.getMessage()
-            );
-        }
-        SecureRandom secureRandom = new SecureRandom();
-        StringBuilder stringBuilder = new StringBuilder();
-        char[] otpCharacters = charSet.toCharArray();
-        for (int otpCharacterIndex = 0; otpCharacterIndex < otpLength; otpCharacterIndex++) {
-            stringBuilder.append(otpCharacters[secureRandom.nextInt(otpCharacters.length)]);
-        }
-        return stringBuilder.toString();
+        validateOTPLength(otpLength);
+        return OTPEngine.generate(charSet.toCharArray(), otpLength);
     }
 
     /**
@@ -82,22 +69,28 @@ public class DefaultOTPGenerator implements OTPGenerator {
     public String generateOTP(boolean useNumeric, boolean useUppercaseLetters, boolean useLowercaseLetters,
                               int otpLength, String recoveryScenario) throws OTPGeneratorException {
 
-        if (!useNumeric && !useUppercaseLetters && !useLowercaseLetters) {
-            throw new OTPGeneratorClientException(
-                    IdentityMgtConstants.ErrorMessages.ERROR_CODE_INVALID_OTP_CHARACTER_SET.getCode(),
-                    IdentityMgtConstants.ErrorMessages.ERROR_CODE_INVALID_OTP_CHARACTER_SET.getMessage());
-        }
-        StringBuilder charSet = new StringBuilder();
-        if (useUppercaseLetters) {
-            charSet.append(SMS_OTP_GENERATE_ALPHABET_CHAR_SET);
-        }
-        if (useLowercaseLetters) {
-            charSet.append(SMS_OTP_GENERATE_ALPHABET_CHAR_SET.toLowerCase());
-        }
-        if (useNumeric) {
-            charSet.append(SMS_OTP_GENERATE_NUMERIC_CHAR_SET);
-        }
-        return generateOTP(charSet.toString(), otpLength, recoveryScenario);
+        return OTPEngine.generate(getAlphabet(useNumeric, useUppercaseLetters, useLowercaseLetters, otpLength),
+                otpLength);
+    }
+
+    /**
+     * Generates a batch of OTPs based on the OTP properties.
+     *
+     * @param useNumeric             Whether numeric values should be used.
+     * @param useUppercaseLetters    Whether upper case letters should be used.
+     * @param useLowercaseLetters    Whether lower case letters should be used.
+     * @param otpLength              Length of each OTP.
+     * @param count                  Number of OTPs.
+     * @param recoveryScenario       Recovery Scenario.
+     * @return List                  Values of the OTP strings.
+     * @throws OTPGeneratorException OTP Generator Exception.
+     */
+    @Override
+    public List<String> generateOTPs(boolean useNumeric, boolean useUppercaseLetters, boolean useLowercaseLetters,
+                                     int otpLength, int count, String recoveryScenario) throws OTPGeneratorException {
+
+        return OTPEngine.generate(getAlphabet(useNumeric, useUppercaseLetters, useLowercaseLetters, otpLength),
+                otpLength, count);
     }
 
     /**
@@ -108,4 +101,26 @@ public class DefaultOTPGenerator implements OTPGenerator {
 
         return DEFAULT_OTP_GENERATOR;
     }
+
+    private char[] getAlphabet(boolean useNumeric, boolean useUppercaseLetters, boolean useLowercaseLetters,
+                               int otpLength) throws OTPGeneratorClientException {
+
+        if (!useNumeric && !useUppercaseLetters && !useLowercaseLetters) {
+            throw new OTPGeneratorClientException(
+                    IdentityMgtConstants.ErrorMessages.ERROR_CODE_INVALID_OTP_CHARACTER_SET.getCode(),
+                    IdentityMgtConstants.ErrorMessages.ERROR_CODE_INVALID_OTP_CHARACTER_SET.getMessage());
+        }
+        validateOTPLength(otpLength);
+        return OTPEngine.getAlphabet(useNumeric, useUppercaseLetters, useLowercaseLetters);
+    }
+
+    private void validateOTPLength(int otpLength) throws OTPGeneratorClientException {
+
+        if (otpLength < IdentityMgtConstants.MINIMUM_SMS_OTP_LENGTH) {
+            throw new OTPGeneratorClientException(
+                    IdentityMgtConstants.ErrorMessages.ERROR_CODE_INVALID_OTP_LENGTH.getCode(),
+                    IdentityMgtConstants.ErrorMessages.ERROR_CODE_INVALID_OTP_LENGTH.getMessage()
+            );
+        }
+    }
 }
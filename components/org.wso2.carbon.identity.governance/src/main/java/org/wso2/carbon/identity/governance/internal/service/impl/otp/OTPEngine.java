@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC (http://www.wso2.org).
+ *
+ * WSO2 LLC licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.wso2.carbon.identity.governance.internal.service.impl.otp;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generates the OTP strings of the {@link DefaultOTPGenerator}.
+ * <p>
+ * Each thread draws from its own pseudo random generator, which is seeded, and periodically reseeded, from a shared
+ * secure random source, so that the threads neither contend for one generator nor seed a new one per OTP. The
+ * characters are picked from random bytes with rejection sampling, so that each character of the alphabet is equally
+ * likely. The alphabets of the character classes are built once.
+ */
+final class OTPEngine {
+
+    private static final String UPPERCASE_CHAR_SET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String LOWERCASE_CHAR_SET = "abcdefghijklmnopqrstuvwxyz";
+    private static final String NUMERIC_CHAR_SET = "0123456789";
+
+    private static final int NUMERIC = 1;
+    private static final int UPPERCASE = 1 << 1;
+    private static final int LOWERCASE = 1 << 2;
+
+    // Indexed by the combination of the character classes.
+    private static final char[][] ALPHABETS = buildAlphabets();
+
+    private static final String PRNG_ALGORITHM = "SHA1PRNG";
+    private static final int SEED_LENGTH = 32;
+    private static final int BUFFER_SIZE = 64;
+    // Number of random bytes a thread draws before its generator is reseeded.
+    private static final long RESEED_INTERVAL = 1L << 20;
+    private static final int BYTE_RANGE = 256;
+
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+    private static final ThreadLocal<RandomSource> RANDOM_SOURCE = ThreadLocal.withInitial(RandomSource::new);
+
+    private OTPEngine() {
+
+    }
+
+    /**
+     * Get the alphabet of a combination of the character classes, in the order of upper case letters, lower case
+     * letters and digits.
+     *
+     * @param useNumeric          Whether digits are included.
+     * @param useUppercaseLetters Whether upper case letters are included.
+     * @param useLowercaseLetters Whether lower case letters are included.
+     * @return Alphabet, which must not be modified. Empty if none of the classes is included.
+     */
+    static char[] getAlphabet(boolean useNumeric, boolean useUppercaseLetters, boolean useLowercaseLetters) {
+
+        int classes = (useNumeric ? NUMERIC : 0) | (useUppercaseLetters ? UPPERCASE : 0) |
+                (useLowercaseLetters ? LOWERCASE : 0);
+        return ALPHABETS[classes];
+    }
+
+    /**
+     * Generate an OTP.
+     *
+     * @param alphabet  Characters of the OTP. A character which appears more than once is picked more often.
+     * @param otpLength Length of the OTP.
+     * @return OTP.
+     */
+    static String generate(char[] alphabet, int otpLength) {
+
+        char[] otp = new char[otpLength];
+        RANDOM_SOURCE.get().fill(alphabet, otp);
+        return new String(otp);
+    }
+
+    /**
+     * Generate a batch of OTPs.
+     *
+     * @param alphabet  Characters of the OTPs. A character which appears more than once is picked more often.
+     * @param otpLength Length of each OTP.
+     * @param count     Number of OTPs.
+     * @return OTPs. Empty if the count is not positive.
+     */
+    static List<String> generate(char[] alphabet, int otpLength, int count) {
+
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        RandomSource randomSource = RANDOM_SOURCE.get();
+        List<String> otps = new ArrayList<>(count);
+        char[] otp = new char[otpLength];
+        for (int i = 0; i < count; i++) {
+            randomSource.fill(alphabet, otp);
+            otps.add(new String(otp));
+        }
+        return otps;
+    }
+
+    private static char[][] buildAlphabets() {
+
+        char[][] alphabets = new char[(NUMERIC | UPPERCASE | LOWERCASE) + 1][];
+        for (int classes = 0; classes < alphabets.length; classes++) {
+            StringBuilder alphabet = new StringBuilder();
+            if ((classes & UPPERCASE) != 0) {
+                alphabet.append(UPPERCASE_CHAR_SET);
+            }
+            if ((classes & LOWERCASE) != 0) {
+                alphabet.append(LOWERCASE_CHAR_SET);
+            }
+            if ((classes & NUMERIC) != 0) {
+                alphabet.append(NUMERIC_CHAR_SET);
+            }
+            alphabets[classes] = alphabet.toString().toCharArray();
+        }
+        return alphabets;
+    }
+
+    private static byte[] newSeed() {
+
+        byte[] seed = new byte[SEED_LENGTH];
+        SEED_SOURCE.nextBytes(seed);
+        return seed;
+    }
+
+    /**
+     * Random bytes of a thread, drawn from the generator of the thread in blocks.
+     */
+    private static final class RandomSource {
+
+        private final SecureRandom random;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = BUFFER_SIZE;
+        private long bytesSinceReseed;
+
+        private RandomSource() {
+
+            SecureRandom prng;
+            try {
+                prng = SecureRandom.getInstance(PRNG_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                prng = new SecureRandom();
+            }
+            // Seeding before the first use replaces the self seeding of the generator.
+            prng.setSeed(newSeed());
+            this.random = prng;
+        }
+
+        private void fill(char[] alphabet, char[] otp) {
+
+            int size = alphabet.length;
+            if (size > BYTE_RANGE) {
+                for (int i = 0; i < otp.length; i++) {
+                    otp[i] = alphabet[random.nextInt(size)];
+                }
+                return;
+            }
+            // Bytes from the largest multiple of the size upwards are rejected, as they would favour the first
+            // characters of the alphabet.
+            int limit = BYTE_RANGE - BYTE_RANGE % size;
+            int i = 0;
+            while (i < otp.length) {
+                int value = nextByte();
+                if (value < limit) {
+                    otp[i++] = alphabet[value % size];
+                }
+            }
+        }
+
+        private int nextByte() {
+
+            if (position == BUFFER_SIZE) {
+                if (bytesSinceReseed >= RESEED_INTERVAL) {
+                    random.setSeed(newSeed());
+                    bytesSinceReseed = 0;
+                }
+                random.nextBytes(buffer);
+                bytesSinceReseed += BUFFER_SIZE;
+                position = 0;
+            }
+            return buffer[position++] & 0xFF;
+        }
+    }
+}
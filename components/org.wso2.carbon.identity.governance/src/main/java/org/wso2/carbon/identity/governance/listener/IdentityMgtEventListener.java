@@ -22,6 +22,7 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.core.AbstractIdentityUserOperationEventListener;
 import org.wso2.carbon.identity.core.model.IdentityErrorMsgContext;
+import org.wso2.carbon.identity.core.model.IdentityEventListenerConfig;
 import org.wso2.carbon.identity.core.util.IdentityCoreConstants;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.event.IdentityEventClientException;
@@ -31,6 +32,7 @@ import org.wso2.carbon.identity.event.event.Event;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceUtil;
 import org.wso2.carbon.identity.governance.IdentityMgtConstants;
+import org.wso2.carbon.identity.governance.common.PostAuthenticationClaimWriter;
 import org.wso2.carbon.identity.governance.internal.IdentityMgtServiceDataHolder;
 import org.wso2.carbon.identity.governance.model.UserIdentityClaim;
 import org.wso2.carbon.identity.governance.service.notification.NotificationChannels;
@@ -44,6 +46,7 @@ import org.wso2.carbon.user.core.UserStoreManager;
 import org.wso2.carbon.user.core.common.AuthenticationResult;
 import org.wso2.carbon.user.core.common.LoginIdentifier;
 import org.wso2.carbon.user.core.common.User;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
 import org.wso2.carbon.user.core.model.Condition;
 import org.wso2.carbon.user.core.model.UniqueIDUserClaimSearchEntry;
 import org.wso2.carbon.user.core.service.RealmService;
@@ -70,6 +73,11 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
      */
     private static String USER_EXIST_THREAD_LOCAL_PROPERTY = "userExistThreadLocalProperty";
 
+    /**
+     * Listener property of the granularity, in seconds, within which a stored last login time is not written again.
+     */
+    private static final String CLAIM_WRITE_GRANULARITY_PROPERTY = "PostAuthentication.ClaimWriteGranularity";
+
     @Override
     public int getExecutionOrderId() {
 
@@ -137,7 +145,18 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
         HashMap<String, Object> properties = new HashMap<>();
         properties.put(IdentityEventConstants.EventProperty.OPERATION_STATUS, authenticated);
 
-        handleEvent(userName, userStoreManager, eventName, properties);
+        // Claims updated by the handlers, such as the last login time, are written once all the handlers are run.
+        boolean claimWriterOpened = PostAuthenticationClaimWriter.begin(getClaimWriteGranularity());
+        try {
+            handleEvent(userName, userStoreManager, eventName, properties);
+            if (claimWriterOpened) {
+                PostAuthenticationClaimWriter.flush();
+            }
+        } finally {
+            if (claimWriterOpened) {
+                PostAuthenticationClaimWriter.discard();
+            }
+        }
 
         // This is not required for authenticated users.
         if (authenticated) {
@@ -1653,6 +1672,26 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
         return true;
     }
 
+    private long getClaimWriteGranularity() {
+
+        IdentityEventListenerConfig listenerConfig = IdentityUtil.readEventListenerProperty(
+                UserOperationEventListener.class.getName(), this.getClass().getName());
+        if (listenerConfig == null || listenerConfig.getProperties() == null) {
+            return 0;
+        }
+        Object granularity = listenerConfig.getProperties().get(CLAIM_WRITE_GRANULARITY_PROPERTY);
+        if (granularity == null || StringUtils.isBlank(granularity.toString())) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(granularity.toString().trim()) * 1000;
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value: " + granularity + " for the listener property: " +
+                    CLAIM_WRITE_GRANULARITY_PROPERTY + ". Post authentication claims are always written.");
+            return 0;
+        }
+    }
+
     private void handleEvent(String userName, UserStoreManager userStoreManager, String eventName, HashMap<String, Object> properties)
             throws UserStoreException {
 
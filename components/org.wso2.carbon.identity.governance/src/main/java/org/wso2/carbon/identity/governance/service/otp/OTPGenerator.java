@@ -19,6 +19,10 @@ package org.wso2.carbon.identity.governance.service.otp;
 
 import org.wso2.carbon.identity.governance.exceptions.otp.OTPGeneratorException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Service interface for OTP Generator.
  */
@@ -49,6 +53,32 @@ public interface OTPGenerator {
     String generateOTP(boolean useNumeric, boolean useUppercaseLetters, boolean useLowercaseLetters, int otpLength,
                        String recoveryScenario) throws OTPGeneratorException;
 
+    /**
+     * Generates a batch of OTPs based on the OTP properties, for the flows which issue many OTPs at once.
+     *
+     * @param useNumeric             Whether numeric values should be used.
+     * @param useUppercaseLetters    Whether upper case letters should be used.
+     * @param useLowercaseLetters    Whether lower case letters should be used.
+     * @param otpLength              Length of each OTP.
+     * @param count                  Number of OTPs.
+     * @param recoveryScenario       Recovery Scenario.
+     * @return List                  Values of the OTP strings. Empty if the count is not positive.
+     * @throws OTPGeneratorException OTP Generator Exception.
+     */
+    default List<String> generateOTPs(boolean useNumeric, boolean useUppercaseLetters, boolean useLowercaseLetters,
+                                      int otpLength, int count, String recoveryScenario)
+            throws OTPGeneratorException {
+
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        List<String> otps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            otps.add(generateOTP(useNumeric, useUppercaseLetters, useLowercaseLetters, otpLength, recoveryScenario));
+        }
+        return otps;
+    }
+
     /**
      * Retrieve the OTP Generator name.
      */
@@ -40,6 +40,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -57,6 +58,8 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
     private static final String ORACLE = "oracle";
     private static final String POSTGRE_SQL = "postgresql";
     private static final String MYSQL = "mysql";
+    // Keeps the IN clause within the limits of the databases, such as the 1000 expressions of Oracle.
+    private static final int MAX_USERS_PER_QUERY = 500;
 
     @Override
     public void store(UserIdentityClaim userIdentityDTO, UserStoreManager userStoreManager)
@@ -124,6 +127,160 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
         }
     }
 
+    /**
+     * Stores the data of several users within a single transaction. The existing data of the users is loaded with a
+     * single query, and the inserts and the updates of all the users are sent as two batches. The cached data of the
+     * users is cleared instead of being merged, so that it is loaded again in full on the next read.
+     */
+    @Override
+    public void store(List<UserIdentityClaim> userIdentityDTOs, UserStoreManager userStoreManager)
+            throws IdentityException {
+
+        if (userIdentityDTOs == null || userIdentityDTOs.isEmpty()) {
+            return;
+        }
+
+        String domainName = ((org.wso2.carbon.user.core.UserStoreManager) userStoreManager).getRealmConfiguration().
+                getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
+        int tenantId = MultitenantConstants.SUPER_TENANT_ID;
+        try {
+            tenantId = userStoreManager.getTenantId();
+        } catch (UserStoreException e) {
+            log.error("Error while getting tenant Id.", e);
+        }
+
+        List<UserIdentityClaim> userIdentityClaims = new ArrayList<>();
+        List<String> userNames = new ArrayList<>();
+        for (UserIdentityClaim userIdentityDTO : userIdentityDTOs) {
+            if (userIdentityDTO == null || userIdentityDTO.getUserIdentityDataMap().isEmpty()) {
+                continue;
+            }
+            String userName = UserCoreUtil.addDomainToName(userIdentityDTO.getUserName(), domainName);
+            userIdentityDTO.setUserName(userName);
+            userIdentityClaims.add(userIdentityDTO);
+            userNames.add(userName);
+        }
+        if (userNames.isEmpty()) {
+            return;
+        }
+        // All the users belong to the same user store, hence share the case sensitivity.
+        boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(userNames.get(0), tenantId);
+
+        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        PreparedStatement addPrepStmt = null;
+        PreparedStatement updatePrepStmt = null;
+        try {
+            Map<String, Map<String, String>> existingDataValues = getUserDataValues(connection, userNames, tenantId,
+                    isUsernameCaseSensitive);
+            addPrepStmt = connection.prepareStatement(SQLQuery.STORE_USER_DATA);
+            updatePrepStmt = connection.prepareStatement(isUsernameCaseSensitive ? SQLQuery.UPDATE_USER_DATA :
+                    SQLQuery.UPDATE_USER_DATA_CASE_INSENSITIVE);
+            int addCount = 0;
+            int updateCount = 0;
+            for (UserIdentityClaim userIdentityDTO : userIdentityClaims) {
+                String userName = userIdentityDTO.getUserName();
+                Map<String, String> userDataValues = existingDataValues.get(getUserNameKey(userName,
+                        isUsernameCaseSensitive));
+                if (userDataValues == null) {
+                    userDataValues = new HashMap<>();
+                }
+                for (Map.Entry<String, String> entry : userIdentityDTO.getUserIdentityDataMap().entrySet()) {
+                    if (!userDataValues.containsKey(entry.getKey())) {
+                        addPrepStmt.setInt(1, tenantId);
+                        addPrepStmt.setString(2, userName);
+                        addPrepStmt.setString(3, entry.getKey());
+                        addPrepStmt.setString(4, entry.getValue());
+                        addPrepStmt.addBatch();
+                        addCount++;
+                    } else if (!StringUtils.equals(userDataValues.get(entry.getKey()), entry.getValue())) {
+                        updatePrepStmt.setString(1, entry.getValue());
+                        updatePrepStmt.setInt(2, tenantId);
+                        updatePrepStmt.setString(3, userName);
+                        updatePrepStmt.setString(4, entry.getKey());
+                        updatePrepStmt.addBatch();
+                        updateCount++;
+                    }
+                }
+            }
+            if (addCount > 0) {
+                addPrepStmt.executeBatch();
+            }
+            if (updateCount > 0) {
+                updatePrepStmt.executeBatch();
+            }
+            IdentityDatabaseUtil.commitTransaction(connection);
+            if (log.isDebugEnabled()) {
+                log.debug("Stored identity data of " + userNames.size() + " users of domain: " + domainName +
+                        " with " + addCount + " inserts and " + updateCount + " updates.");
+            }
+        } catch (SQLException e) {
+            IdentityDatabaseUtil.rollbackTransaction(connection);
+            throw IdentityException.error("Error while persisting identity data of the users of domain: " +
+                    domainName, e);
+        } finally {
+            IdentityDatabaseUtil.closeStatement(addPrepStmt);
+            IdentityDatabaseUtil.closeStatement(updatePrepStmt);
+            IdentityDatabaseUtil.closeConnection(connection);
+            for (String userName : userNames) {
+                super.remove(userName, userStoreManager);
+            }
+        }
+    }
+
+    /**
+     * Loads the data of several users, with a single query for up to {@link #MAX_USERS_PER_QUERY} users.
+     *
+     * @return Data of the users, keyed by the user name, which is lower cased if the user names are case insensitive.
+     */
+    private Map<String, Map<String, String>> getUserDataValues(Connection connection, List<String> userNames,
+                                                               int tenantId, boolean isUsernameCaseSensitive)
+            throws SQLException {
+
+        Map<String, Map<String, String>> dataValues = new HashMap<>();
+        for (int from = 0; from < userNames.size(); from += MAX_USERS_PER_QUERY) {
+            List<String> queryUserNames = userNames.subList(from, Math.min(from + MAX_USERS_PER_QUERY,
+                    userNames.size()));
+            StringBuilder query = new StringBuilder(isUsernameCaseSensitive ? SQLQuery.LOAD_USERS_DATA :
+                    SQLQuery.LOAD_USERS_DATA_CASE_INSENSITIVE);
+            for (int i = 0; i < queryUserNames.size(); i++) {
+                if (i > 0) {
+                    query.append(",");
+                }
+                query.append(isUsernameCaseSensitive ? QUERY_BINDING_SYMBOL : "LOWER(" + QUERY_BINDING_SYMBOL + ")");
+            }
+            query.append(")");
+
+            PreparedStatement prepStmt = null;
+            ResultSet results = null;
+            try {
+                prepStmt = connection.prepareStatement(query.toString());
+                prepStmt.setInt(1, tenantId);
+                for (int i = 0; i < queryUserNames.size(); i++) {
+                    prepStmt.setString(i + 2, queryUserNames.get(i));
+                }
+                results = prepStmt.executeQuery();
+                while (results.next()) {
+                    String userNameKey = getUserNameKey(results.getString(1), isUsernameCaseSensitive);
+                    Map<String, String> userDataValues = dataValues.get(userNameKey);
+                    if (userDataValues == null) {
+                        userDataValues = new HashMap<>();
+                        dataValues.put(userNameKey, userDataValues);
+                    }
+                    userDataValues.put(results.getString(2), results.getString(3));
+                }
+            } finally {
+                IdentityDatabaseUtil.closeResultSet(results);
+                IdentityDatabaseUtil.closeStatement(prepStmt);
+            }
+        }
+        return dataValues;
+    }
+
+    private static String getUserNameKey(String userName, boolean isUsernameCaseSensitive) {
+
+        return isUsernameCaseSensitive ? userName : userName.toLowerCase(Locale.ENGLISH);
+    }
+
     private Map<String, String> getUserDataValues(Connection connection, String userName, int tenantId)
             throws SQLException {
 
@@ -549,6 +706,11 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
         public static final String LOAD_USER_DATA_CASE_INSENSITIVE = "SELECT " + "DATA_KEY, DATA_VALUE FROM " +
                 "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND LOWER(USER_NAME) = LOWER(?)";
 
+        public static final String LOAD_USERS_DATA = "SELECT USER_NAME, DATA_KEY, DATA_VALUE FROM " +
+                "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND USER_NAME IN (";
+        public static final String LOAD_USERS_DATA_CASE_INSENSITIVE = "SELECT USER_NAME, DATA_KEY, DATA_VALUE FROM " +
+                "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND LOWER(USER_NAME) IN (";
+
         public static final String DELETE_USER_DATA = "DELETE FROM IDN_IDENTITY_USER_DATA WHERE " +
                 "TENANT_ID = ? AND USER_NAME = ?";
         public static final String DELETE_USER_DATA_CASE_INSENSITIVE = "DELETE FROM IDN_IDENTITY_USER_DATA WHERE " +
@@ -61,6 +61,22 @@ public abstract class UserIdentityDataStore {
     public abstract void store(UserIdentityClaim userIdentityDTO, UserStoreManager userStoreManager)
             throws IdentityException;
 
+    /**
+     * Stores the data of several users of the same user store. The default implementation stores them one by one,
+     * while stores which can do better are expected to write them together.
+     *
+     * @param userIdentityDTOs Data of the users.
+     * @param userStoreManager User store manager of the users.
+     * @throws IdentityException If the data could not be stored.
+     */
+    public void store(List<UserIdentityClaim> userIdentityDTOs, UserStoreManager userStoreManager)
+            throws IdentityException {
+
+        for (UserIdentityClaim userIdentityDTO : userIdentityDTOs) {
+            store(userIdentityDTO, userStoreManager);
+        }
+    }
+
     /**
      * Loads
      *
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.governance.common;
+
+import org.mockito.ArgumentCaptor;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for PostAuthenticationClaimWriter.
+ */
+public class PostAuthenticationClaimWriterTest {
+
+    private static final String USER_NAME = "john";
+    private static final String IDENTITY_LAST_LOGIN_CLAIM = "http://wso2.org/claims/identity/lastLoginTime";
+    private static final String LAST_LOGIN_CLAIM = "http://wso2.org/claims/lastLoginTime";
+
+    @AfterMethod
+    public void tearDown() {
+
+        PostAuthenticationClaimWriter.discard();
+    }
+
+    @Test
+    public void testAddClaimsWhenNotOpen() {
+
+        UserStoreManager userStoreManager = mock(UserStoreManager.class);
+        assertFalse(PostAuthenticationClaimWriter.addClaims(userStoreManager, USER_NAME,
+                Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "1000"), IDENTITY_LAST_LOGIN_CLAIM));
+    }
+
+    @Test
+    public void testClaimsAreMergedIntoSingleWrite() throws Exception {
+
+        UserStoreManager userStoreManager = mock(UserStoreManager.class);
+        assertTrue(PostAuthenticationClaimWriter.begin(0));
+        assertFalse(PostAuthenticationClaimWriter.begin(0), "A nested begin should not reopen the accumulation.");
+
+        Map<String, String> suspensionClaims = new HashMap<>();
+        suspensionClaims.put(IDENTITY_LAST_LOGIN_CLAIM, "1000");
+        suspensionClaims.put(LAST_LOGIN_CLAIM, "1000");
+        assertTrue(PostAuthenticationClaimWriter.addClaims(userStoreManager, USER_NAME, suspensionClaims,
+                IDENTITY_LAST_LOGIN_CLAIM));
+        assertTrue(PostAuthenticationClaimWriter.addClaims(userStoreManager, USER_NAME,
+                Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "1001"), IDENTITY_LAST_LOGIN_CLAIM));
+        PostAuthenticationClaimWriter.flush();
+
+        ArgumentCaptor<Map> claimsCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(userStoreManager, times(1)).setUserClaimValues(eq(USER_NAME), claimsCaptor.capture(),
+                (String) isNull());
+        assertEquals(claimsCaptor.getValue().size(), 2);
+        assertEquals(claimsCaptor.getValue().get(IDENTITY_LAST_LOGIN_CLAIM), "1001");
+        verify(userStoreManager, never()).getUserClaimValues(anyString(), any(String[].class), any());
+
+        assertFalse(PostAuthenticationClaimWriter.addClaims(userStoreManager, USER_NAME,
+                Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "1002"), IDENTITY_LAST_LOGIN_CLAIM),
+                "The accumulation should be closed by the flush.");
+    }
+
+    @Test
+    public void testWriteSkippedWithinGranularity() throws Exception {
+
+        UserStoreManager userStoreManager = mock(UserStoreManager.class);
+        when(userStoreManager.getUserClaimValues(eq(USER_NAME), any(String[].class), (String) isNull()))
+                .thenReturn(Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "1000"));
+
+        PostAuthenticationClaimWriter.begin(60000);
+        PostAuthenticationClaimWriter.addClaims(userStoreManager, USER_NAME,
+                Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "31000"), IDENTITY_LAST_LOGIN_CLAIM);
+        PostAuthenticationClaimWriter.flush();
+        verify(userStoreManager, never()).setUserClaimValues(anyString(), anyMap(), any());
+
+        PostAuthenticationClaimWriter.begin(60000);
+        PostAuthenticationClaimWriter.addClaims(userStoreManager, USER_NAME,
+                Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "61000"), IDENTITY_LAST_LOGIN_CLAIM);
+        PostAuthenticationClaimWriter.flush();
+        verify(userStoreManager, times(1)).setUserClaimValues(eq(USER_NAME),
+                eq(Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "61000")), (String) isNull());
+    }
+
+    @Test
+    public void testFailedWriteDoesNotFailFlush() throws Exception {
+
+        UserStoreManager failingUserStoreManager = mock(UserStoreManager.class);
+        doThrow(new UserStoreException("Write failed")).when(failingUserStoreManager)
+                .setUserClaimValues(anyString(), anyMap(), any());
+        UserStoreManager userStoreManager = mock(UserStoreManager.class);
+
+        PostAuthenticationClaimWriter.begin(0);
+        PostAuthenticationClaimWriter.addClaims(failingUserStoreManager, USER_NAME,
+                Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "1000"), IDENTITY_LAST_LOGIN_CLAIM);
+        PostAuthenticationClaimWriter.addClaims(userStoreManager, USER_NAME,
+                Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "1000"), IDENTITY_LAST_LOGIN_CLAIM);
+        PostAuthenticationClaimWriter.flush();
+
+        verify(userStoreManager, times(1)).setUserClaimValues(eq(USER_NAME),
+                eq(Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "1000")), (String) isNull());
+        assertFalse(PostAuthenticationClaimWriter.addClaims(userStoreManager, USER_NAME,
+                Collections.singletonMap(IDENTITY_LAST_LOGIN_CLAIM, "1001"), IDENTITY_LAST_LOGIN_CLAIM),
+                "The accumulation should be closed by a failed flush.");
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.governance.internal.service.impl.otp;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.governance.exceptions.otp.OTPGeneratorClientException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for DefaultOTPGenerator.
+ */
+public class DefaultOTPGeneratorTest {
+
+    private static final String SCENARIO = "PASSWORD_RECOVERY";
+
+    private final DefaultOTPGenerator otpGenerator = new DefaultOTPGenerator();
+
+    @Test
+    public void testGenerateOTPWithCharacterClasses() throws Exception {
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(otpGenerator.generateOTP(true, false, false, 6, SCENARIO).matches("[0-9]{6}"));
+            assertTrue(otpGenerator.generateOTP(false, true, false, 8, SCENARIO).matches("[A-Z]{8}"));
+            assertTrue(otpGenerator.generateOTP(false, false, true, 4, SCENARIO).matches("[a-z]{4}"));
+            assertTrue(otpGenerator.generateOTP(true, true, true, 10, SCENARIO).matches("[A-Za-z0-9]{10}"));
+        }
+    }
+
+    @Test
+    public void testGenerateOTPWithCharacterSet() throws Exception {
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(otpGenerator.generateOTP("XYZ1", 6, SCENARIO).matches("[XYZ1]{6}"));
+        }
+    }
+
+    @Test(expectedExceptions = OTPGeneratorClientException.class)
+    public void testGenerateOTPWithoutCharacterClasses() throws Exception {
+
+        otpGenerator.generateOTP(false, false, false, 6, SCENARIO);
+    }
+
+    @Test(expectedExceptions = OTPGeneratorClientException.class)
+    public void testGenerateOTPWithBlankCharacterSet() throws Exception {
+
+        otpGenerator.generateOTP(" ", 6, SCENARIO);
+    }
+
+    @Test(expectedExceptions = OTPGeneratorClientException.class)
+    public void testGenerateOTPWithInvalidLength() throws Exception {
+
+        otpGenerator.generateOTP(true, true, true, 3, SCENARIO);
+    }
+
+    @Test
+    public void testGenerateOTPs() throws Exception {
+
+        List<String> otps = otpGenerator.generateOTPs(true, true, true, 12, 1000, SCENARIO);
+        assertEquals(otps.size(), 1000);
+        for (String otp : otps) {
+            assertTrue(otp.matches("[A-Za-z0-9]{12}"));
+        }
+        assertEquals(new HashSet<>(otps).size(), otps.size(), "A batch of long OTPs should not repeat.");
+        assertTrue(otpGenerator.generateOTPs(true, false, false, 6, 0, SCENARIO).isEmpty());
+    }
+
+    @Test
+    public void testCharactersAreEquallyLikely() throws Exception {
+
+        // 62 characters do not divide the byte range, hence a biased mapping would favour the first 8 characters.
+        char[] alphabet = OTPEngine.getAlphabet(true, true, true);
+        int otpLength = 100;
+        int otpCount = 6200;
+        int[] counts = new int[128];
+        for (String otp : OTPEngine.generate(alphabet, otpLength, otpCount)) {
+            for (char character : otp.toCharArray()) {
+                counts[character]++;
+            }
+        }
+        double expected = (double) otpLength * otpCount / alphabet.length;
+        double chiSquare = 0;
+        for (char character : alphabet) {
+            chiSquare += Math.pow(counts[character] - expected, 2) / expected;
+        }
+        // Critical value of the chi-square distribution with 61 degrees of freedom at p = 0.0001.
+        assertTrue(chiSquare < 113, "Characters are not uniformly distributed: " + chiSquare);
+    }
+
+    @Test
+    public void testGenerateOTPsConcurrently() throws Exception {
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Callable<List<String>> task = () -> otpGenerator.generateOTPs(true, true, true, 16, 500, SCENARIO);
+                futures.add(executorService.submit(task));
+            }
+            Set<String> otps = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                otps.addAll(future.get());
+            }
+            assertEquals(otps.size(), 4000, "OTPs generated by different threads should not repeat.");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
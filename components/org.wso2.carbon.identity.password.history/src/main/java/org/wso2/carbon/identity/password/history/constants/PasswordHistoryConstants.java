@@ -22,6 +22,8 @@ public class PasswordHistoryConstants {
     public static final String PW_HISTORY_COUNT = "passwordHistory.count";
     public static final String PW_HISTORY_HASHING_ALGORITHM = "passwordHistory.hashingAlgorithm";
     public static final String PW_HISTORY_DATA_STORE = "passwordHistory.dataStore";
+    public static final String PW_HISTORY_HASHER = "passwordHistory.hasher";
+    public static final String PW_HISTORY_PBKDF2_ITERATIONS = "passwordHistory.hasher.PBKDF2.iterations";
 
 
     public static class SQLQueries {
@@ -34,6 +36,22 @@ public class PasswordHistoryConstants {
 
         public static final String DELETE_HISTORY_RECORD = "DELETE FROM IDN_PASSWORD_HISTORY_DATA WHERE ID=?";
 
+        public static final String LOAD_RECENT_HISTORY_DATA = "SELECT SALT_VALUE, HASH FROM " +
+                "IDN_PASSWORD_HISTORY_DATA WHERE USER_NAME = ? AND USER_DOMAIN = ? AND TENANT_ID = ? " +
+                "ORDER BY TIME_CREATED DESC, ID DESC";
+
+        public static final String LOAD_RECENT_HISTORY_RECORDS = "SELECT ID, TIME_CREATED FROM " +
+                "IDN_PASSWORD_HISTORY_DATA WHERE USER_NAME = ? AND USER_DOMAIN = ? AND TENANT_ID = ? " +
+                "ORDER BY TIME_CREATED DESC, ID DESC";
+
+        public static final String LIMIT_CLAUSE = " LIMIT ?";
+
+        public static final String FETCH_NEXT_ROWS_CLAUSE = " OFFSET 0 ROWS FETCH NEXT ? ROWS ONLY";
+
+        public static final String DELETE_OLDER_HISTORY_RECORDS = "DELETE FROM IDN_PASSWORD_HISTORY_DATA WHERE " +
+                "USER_NAME = ? AND USER_DOMAIN = ? AND TENANT_ID = ? AND (TIME_CREATED < ? OR " +
+                "(TIME_CREATED = ? AND ID <= ?))";
+
         public static final String DELETE_USER_HISTORY = "DELETE FROM IDN_PASSWORD_HISTORY_DATA WHERE USER_NAME = ? " +
                 "AND USER_DOMAIN =? AND TENANT_ID =?";
 
@@ -32,13 +32,13 @@ import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
 import org.wso2.carbon.identity.password.history.Util.Utils;
 import org.wso2.carbon.identity.password.history.constants.PasswordHistoryConstants;
 import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+import org.wso2.carbon.identity.password.history.hash.PBKDF2PasswordHistoryHasher;
 import org.wso2.carbon.identity.password.history.internal.IdentityPasswordHistoryServiceDataHolder;
+import org.wso2.carbon.identity.password.history.internal.cache.PasswordHistoryDataStoreCache;
 import org.wso2.carbon.identity.password.history.store.PasswordHistoryDataStore;
 import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.UserStoreManager;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -110,13 +110,10 @@ public class PasswordHistoryValidationHandler extends AbstractEventHandler imple
 
         PasswordHistoryDataStore passwordHistoryDataStore;
         try {
-            Class<?> cls = Class.forName(passwordHistoryDataStoreClass);
-            Class[] parameterTypes = new Class[]{String.class, Integer.TYPE};
-            Constructor<?> cons = cls.getConstructor(parameterTypes);
-            Object[] arguments = {hashingAlgorithm, historyCount};
-            passwordHistoryDataStore = (PasswordHistoryDataStore) cons.newInstance(arguments);
-        } catch (ClassNotFoundException | InvocationTargetException | SecurityException | NoSuchMethodException |
-                InstantiationException | IllegalArgumentException | IllegalAccessException e) {
+            passwordHistoryDataStore = PasswordHistoryDataStoreCache.getInstance().getDataStore(tenantDomain,
+                    passwordHistoryDataStoreClass, hashingAlgorithm, historyCount);
+        } catch (ReflectiveOperationException | SecurityException | IllegalArgumentException |
+                ClassCastException e) {
             throw Utils.handleEventException(
                     PasswordHistoryConstants.ErrorMessages.ERROR_CODE_LOADING_HISTORY_DATA_SOURCE, null, e);
         }
@@ -219,6 +216,31 @@ public class PasswordHistoryValidationHandler extends AbstractEventHandler imple
         super.init(configuration);
         IdentityPasswordHistoryServiceDataHolder.getInstance().getBundleContext().registerService
                 (IdentityConnectorConfig.class.getName(), this, null);
+        initPasswordHistoryHasher();
+    }
+
+    private void initPasswordHistoryHasher() {
+
+        int iterations = PBKDF2PasswordHistoryHasher.DEFAULT_ITERATIONS;
+        String iterationsProperty = configs.getModuleProperties().getProperty(
+                PasswordHistoryConstants.PW_HISTORY_PBKDF2_ITERATIONS);
+        if (StringUtils.isNotBlank(iterationsProperty)) {
+            try {
+                iterations = Integer.parseInt(iterationsProperty.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid value: " + iterationsProperty + " configured for: " +
+                        PasswordHistoryConstants.PW_HISTORY_PBKDF2_ITERATIONS + ". Using the default value: " +
+                        iterations);
+            }
+        }
+        IdentityPasswordHistoryServiceDataHolder.getInstance().addPasswordHistoryHasher(
+                new PBKDF2PasswordHistoryHasher(iterations));
+
+        String hasherName = configs.getModuleProperties().getProperty(PasswordHistoryConstants.PW_HISTORY_HASHER);
+        if (StringUtils.isBlank(hasherName)) {
+            hasherName = PBKDF2PasswordHistoryHasher.NAME;
+        }
+        IdentityPasswordHistoryServiceDataHolder.getInstance().setPasswordHistoryHasherName(hasherName.trim());
     }
 
     public String[] getPropertyNames() {
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.apache.axiom.om.util.Base64;
+import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+import org.wso2.carbon.user.core.UserCoreConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Hasher for the history entries created with a plain message digest over the password and the salt. This is the
+ * format used by the history entries which were created before the hashers were introduced.
+ */
+public class DigestPasswordHistoryHasher implements PasswordHistoryHasher {
+
+    private final String digestFunction;
+    private final ThreadLocal<MessageDigest> messageDigest;
+
+    public DigestPasswordHistoryHasher(String digestFunction) {
+
+        this.digestFunction = digestFunction;
+        this.messageDigest = ThreadLocal.withInitial(() -> {
+            try {
+                return MessageDigest.getInstance(digestFunction);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Message digest algorithm: " + digestFunction + " is not available.",
+                        e);
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+
+        return digestFunction;
+    }
+
+    @Override
+    public String hash(String password, String saltValue) throws IdentityPasswordHistoryException {
+
+        if (digestFunction == null) {
+            return password;
+        }
+        if (UserCoreConstants.RealmConfig.PASSWORD_HASH_METHOD_PLAIN_TEXT.equals(digestFunction)) {
+            return password;
+        }
+
+        MessageDigest digest;
+        try {
+            digest = messageDigest.get();
+        } catch (IllegalStateException e) {
+            messageDigest.remove();
+            throw new IdentityPasswordHistoryException("Error occurred while preparing password.", e);
+        }
+        digest.reset();
+        digest.update(password.getBytes(StandardCharsets.UTF_8));
+        if (saltValue != null) {
+            digest.update(saltValue.getBytes(StandardCharsets.UTF_8));
+        }
+        return Base64.encode(digest.digest());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.apache.axiom.om.util.Base64;
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hasher which derives the history entry with PBKDF2 using HMAC-SHA256. The iteration count is encoded into the
+ * hash, hence entries created with a lower iteration count can still be verified after it is increased.
+ */
+public class PBKDF2PasswordHistoryHasher implements PasswordHistoryHasher {
+
+    public static final String NAME = "PBKDF2";
+    public static final int DEFAULT_ITERATIONS = 10000;
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int KEY_LENGTH = 256;
+    private static final String SEPARATOR = ":";
+
+    private static final ThreadLocal<SecretKeyFactory> keyFactory = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Key derivation algorithm: " + ALGORITHM + " is not available.", e);
+        }
+    });
+
+    private final int iterations;
+
+    public PBKDF2PasswordHistoryHasher() {
+
+        this(DEFAULT_ITERATIONS);
+    }
+
+    public PBKDF2PasswordHistoryHasher(int iterations) {
+
+        this.iterations = iterations > 0 ? iterations : DEFAULT_ITERATIONS;
+    }
+
+    @Override
+    public String getName() {
+
+        return NAME;
+    }
+
+    @Override
+    public String hash(String password, String saltValue) throws IdentityPasswordHistoryException {
+
+        return iterations + SEPARATOR + Base64.encode(derive(password, saltValue, iterations));
+    }
+
+    @Override
+    public boolean matches(String password, String saltValue, String storedHash)
+            throws IdentityPasswordHistoryException {
+
+        if (storedHash == null) {
+            return false;
+        }
+        String[] parts = StringUtils.split(storedHash, SEPARATOR);
+        if (parts.length != 2 || !StringUtils.isNumeric(parts[0])) {
+            throw new IdentityPasswordHistoryException("Invalid " + NAME + " password history entry.");
+        }
+        byte[] derived = derive(password, saltValue, Integer.parseInt(parts[0]));
+        return MessageDigest.isEqual(Base64.decode(parts[1]), derived);
+    }
+
+    private byte[] derive(String password, String saltValue, int iterationCount)
+            throws IdentityPasswordHistoryException {
+
+        if (StringUtils.isEmpty(saltValue)) {
+            throw new IdentityPasswordHistoryException("Salt value is required for " + NAME + " password history.");
+        }
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), saltValue.getBytes(StandardCharsets.UTF_8),
+                iterationCount, KEY_LENGTH);
+        try {
+            return keyFactory.get().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException | IllegalStateException e) {
+            throw new IdentityPasswordHistoryException("Error occurred while preparing password.", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * This interface provides to plug the hashing function used for password history entries. The name of the hasher
+ * is stored along with each history entry, hence a hasher must be able to verify any hash it has produced earlier
+ * even if its own configurations (ex: work factor) have changed since.
+ */
+public interface PasswordHistoryHasher {
+
+    /**
+     * Get the name of the hasher. This is used to tag the history entries created with this hasher.
+     *
+     * @return Name of the hasher.
+     */
+    String getName();
+
+    /**
+     * Hash the given password.
+     *
+     * @param password  Password to be hashed.
+     * @param saltValue Base64 encoded salt value.
+     * @return Encoded hash of the password.
+     * @throws IdentityPasswordHistoryException If an error occurs while hashing.
+     */
+    String hash(String password, String saltValue) throws IdentityPasswordHistoryException;
+
+    /**
+     * Check whether the given password matches a hash produced by this hasher.
+     *
+     * @param password   Password to be checked.
+     * @param saltValue  Base64 encoded salt value of the history entry.
+     * @param storedHash Encoded hash of the history entry.
+     * @return True if the password matches the stored hash.
+     * @throws IdentityPasswordHistoryException If an error occurs while hashing.
+     */
+    default boolean matches(String password, String saltValue, String storedHash)
+            throws IdentityPasswordHistoryException {
+
+        if (storedHash == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(storedHash.getBytes(StandardCharsets.UTF_8),
+                hash(password, saltValue).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -21,22 +21,33 @@ import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
 import org.wso2.carbon.identity.password.history.handler.PasswordHistoryValidationHandler;
+import org.wso2.carbon.identity.password.history.hash.PasswordHistoryHasher;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
+import org.wso2.carbon.identity.password.history.internal.cache.PasswordHistoryDataStoreCache;
+import org.wso2.carbon.identity.password.history.listener.PasswordHistoryConfigListener;
 import org.wso2.carbon.identity.password.history.listener.PasswordHistoryTenantMgtListener;
 import org.wso2.carbon.stratos.common.listeners.TenantMgtListener;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @Component(
         name = "org.wso2.carbon.identity.password.history.internal.IdentityPasswordHistoryServiceComponent",
         immediate = true)
 public class IdentityPasswordHistoryServiceComponent {
 
     private static final Log log = LogFactory.getLog(IdentityPasswordHistoryServiceComponent.class);
+    private static final int HISTORY_VERIFICATION_QUEUE_SIZE = 1000;
 
     @Activate
     protected void activate(ComponentContext context) {
@@ -47,10 +58,14 @@ public class IdentityPasswordHistoryServiceComponent {
             }
             BundleContext bundleContext = context.getBundleContext();
             IdentityPasswordHistoryServiceDataHolder.getInstance().setBundleContext(bundleContext);
+            IdentityPasswordHistoryServiceDataHolder.getInstance().setHistoryVerificationExecutor(
+                    createHistoryVerificationExecutor());
             PasswordHistoryValidationHandler handler = new PasswordHistoryValidationHandler();
             context.getBundleContext().registerService(AbstractEventHandler.class.getName(), handler, null);
             context.getBundleContext().registerService(TenantMgtListener.class.getName(),
                     new PasswordHistoryTenantMgtListener(), null);
+            context.getBundleContext().registerService(IdentityGovernanceConfigListener.class.getName(),
+                    new PasswordHistoryConfigListener(), null);
         } catch (Exception e) {
             log.error("Error while activating identity governance component.", e);
         }
@@ -62,6 +77,50 @@ public class IdentityPasswordHistoryServiceComponent {
         if (log.isDebugEnabled()) {
             log.debug("Identity Management bundle is de-activated");
         }
+        PasswordHistoryDataStoreCache.getInstance().clear();
+        ExecutorService executor = IdentityPasswordHistoryServiceDataHolder.getInstance()
+                .getHistoryVerificationExecutor();
+        IdentityPasswordHistoryServiceDataHolder.getInstance().setHistoryVerificationExecutor(null);
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Create the bounded pool used to verify a password against the history entries in parallel. When the pool is
+     * saturated the verification runs on the calling thread.
+     *
+     * @return Executor service.
+     */
+    private ExecutorService createHistoryVerificationExecutor() {
+
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(HISTORY_VERIFICATION_QUEUE_SIZE), runnable -> {
+                    Thread thread = new Thread(runnable, "password-history-verifier-" +
+                            threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Reference(
+            name = "password.history.hasher",
+            service = org.wso2.carbon.identity.password.history.hash.PasswordHistoryHasher.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetPasswordHistoryHasher")
+    protected void setPasswordHistoryHasher(PasswordHistoryHasher passwordHistoryHasher) {
+
+        IdentityPasswordHistoryServiceDataHolder.getInstance().addPasswordHistoryHasher(passwordHistoryHasher);
+    }
+
+    protected void unsetPasswordHistoryHasher(PasswordHistoryHasher passwordHistoryHasher) {
+
+        IdentityPasswordHistoryServiceDataHolder.getInstance().removePasswordHistoryHasher(passwordHistoryHasher);
     }
 
     protected void unsetIdentityGovernanceService(IdentityGovernanceService idpManager) {
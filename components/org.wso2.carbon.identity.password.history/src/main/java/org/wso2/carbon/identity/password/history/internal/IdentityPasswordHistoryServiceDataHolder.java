@@ -18,12 +18,20 @@ package org.wso2.carbon.identity.password.history.internal;
 
 import org.osgi.framework.BundleContext;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
+import org.wso2.carbon.identity.password.history.hash.PasswordHistoryHasher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 
 public class IdentityPasswordHistoryServiceDataHolder {
 
     private static IdentityPasswordHistoryServiceDataHolder instance = new IdentityPasswordHistoryServiceDataHolder();
     private IdentityGovernanceService identityGovernanceService;
     private BundleContext bundleContext;
+    private final Map<String, PasswordHistoryHasher> passwordHistoryHashers = new ConcurrentHashMap<>();
+    private volatile String passwordHistoryHasherName;
+    private volatile ExecutorService historyVerificationExecutor;
 
     private IdentityPasswordHistoryServiceDataHolder() {
     }
@@ -48,4 +56,51 @@ public class IdentityPasswordHistoryServiceDataHolder {
     public void setBundleContext(BundleContext bundleContext) {
         this.bundleContext = bundleContext;
     }
+
+    public void addPasswordHistoryHasher(PasswordHistoryHasher passwordHistoryHasher) {
+
+        passwordHistoryHashers.put(passwordHistoryHasher.getName(), passwordHistoryHasher);
+    }
+
+    public void removePasswordHistoryHasher(PasswordHistoryHasher passwordHistoryHasher) {
+
+        passwordHistoryHashers.remove(passwordHistoryHasher.getName(), passwordHistoryHasher);
+    }
+
+    /**
+     * Get the hasher registered with the given name.
+     *
+     * @param name Name of the hasher.
+     * @return Password history hasher or null if no hasher is registered with the name.
+     */
+    public PasswordHistoryHasher getPasswordHistoryHasher(String name) {
+
+        return passwordHistoryHashers.get(name);
+    }
+
+    /**
+     * Get the hasher to be used for the new password history entries.
+     *
+     * @return Password history hasher or null if the configured hasher is not available.
+     */
+    public PasswordHistoryHasher getPasswordHistoryHasher() {
+
+        String name = passwordHistoryHasherName;
+        return name == null ? null : passwordHistoryHashers.get(name);
+    }
+
+    public void setPasswordHistoryHasherName(String passwordHistoryHasherName) {
+
+        this.passwordHistoryHasherName = passwordHistoryHasherName;
+    }
+
+    public ExecutorService getHistoryVerificationExecutor() {
+
+        return historyVerificationExecutor;
+    }
+
+    public void setHistoryVerificationExecutor(ExecutorService historyVerificationExecutor) {
+
+        this.historyVerificationExecutor = historyVerificationExecutor;
+    }
 }
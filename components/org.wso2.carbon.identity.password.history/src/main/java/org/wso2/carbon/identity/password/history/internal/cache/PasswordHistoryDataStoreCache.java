@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.internal.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.password.history.store.PasswordHistoryDataStore;
+
+import java.lang.reflect.Constructor;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node local cache of the constructed {@link PasswordHistoryDataStore} instances. A single data store is kept per
+ * tenant and it is re-created whenever the data store class, hashing algorithm or history count of the tenant
+ * differs from the cached one.
+ */
+public class PasswordHistoryDataStoreCache {
+
+    private static final Log log = LogFactory.getLog(PasswordHistoryDataStoreCache.class);
+    private static final PasswordHistoryDataStoreCache instance = new PasswordHistoryDataStoreCache();
+
+    private final Map<String, CacheEntry> dataStores = new ConcurrentHashMap<>();
+
+    private PasswordHistoryDataStoreCache() {
+
+    }
+
+    public static PasswordHistoryDataStoreCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the data store of the tenant matching the given configurations. A new data store is constructed only if
+     * there is no cached data store for the tenant or if the configurations have changed.
+     *
+     * @param tenantDomain     Tenant domain.
+     * @param dataStoreClass   Fully qualified class name of the data store.
+     * @param hashingAlgorithm Hashing algorithm to be used by the data store.
+     * @param historyCount     Number of passwords to be kept in history.
+     * @return Password history data store.
+     * @throws ReflectiveOperationException If the data store could not be constructed.
+     */
+    public PasswordHistoryDataStore getDataStore(String tenantDomain, String dataStoreClass, String hashingAlgorithm,
+                                                 int historyCount) throws ReflectiveOperationException {
+
+        CacheEntry entry = dataStores.get(tenantDomain);
+        if (entry != null && entry.matches(dataStoreClass, hashingAlgorithm, historyCount)) {
+            return entry.dataStore;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Creating password history data store: " + dataStoreClass + " for the tenant: " +
+                    tenantDomain);
+        }
+        Class<?> cls = Class.forName(dataStoreClass);
+        Constructor<?> cons = cls.getConstructor(String.class, Integer.TYPE);
+        PasswordHistoryDataStore dataStore = (PasswordHistoryDataStore) cons.newInstance(hashingAlgorithm,
+                historyCount);
+        dataStores.put(tenantDomain, new CacheEntry(dataStoreClass, hashingAlgorithm, historyCount, dataStore));
+        return dataStore;
+    }
+
+    /**
+     * Remove the cached data store of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void clear(String tenantDomain) {
+
+        if (dataStores.remove(tenantDomain) != null && log.isDebugEnabled()) {
+            log.debug("Cleared the cached password history data store of the tenant: " + tenantDomain);
+        }
+    }
+
+    /**
+     * Remove all the cached data stores.
+     */
+    public void clear() {
+
+        dataStores.clear();
+    }
+
+    private static final class CacheEntry {
+
+        private final String dataStoreClass;
+        private final String hashingAlgorithm;
+        private final int historyCount;
+        private final PasswordHistoryDataStore dataStore;
+
+        private CacheEntry(String dataStoreClass, String hashingAlgorithm, int historyCount,
+                           PasswordHistoryDataStore dataStore) {
+
+            this.dataStoreClass = dataStoreClass;
+            this.hashingAlgorithm = hashingAlgorithm;
+            this.historyCount = historyCount;
+            this.dataStore = dataStore;
+        }
+
+        private boolean matches(String dataStoreClass, String hashingAlgorithm, int historyCount) {
+
+            return this.historyCount == historyCount && this.dataStoreClass.equals(dataStoreClass) &&
+                    Objects.equals(this.hashingAlgorithm, hashingAlgorithm);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.listener;
+
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
+import org.wso2.carbon.identity.password.history.constants.PasswordHistoryConstants;
+import org.wso2.carbon.identity.password.history.internal.cache.PasswordHistoryDataStoreCache;
+
+import java.util.Map;
+
+/**
+ * Clears the cached password history data store of a tenant when the password history connector configurations of
+ * the tenant are updated.
+ */
+public class PasswordHistoryConfigListener implements IdentityGovernanceConfigListener {
+
+    @Override
+    public void onPostUpdateConfiguration(String tenantDomain, Map<String, String> updatedProperties) {
+
+        if (updatedProperties.containsKey(PasswordHistoryConstants.PW_HISTORY_ENABLE) ||
+                updatedProperties.containsKey(PasswordHistoryConstants.PW_HISTORY_COUNT)) {
+            PasswordHistoryDataStoreCache.getInstance().clear(tenantDomain);
+        }
+    }
+}
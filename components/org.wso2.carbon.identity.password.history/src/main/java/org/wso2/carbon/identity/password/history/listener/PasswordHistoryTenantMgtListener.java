@@ -17,6 +17,8 @@
 package org.wso2.carbon.identity.password.history.listener;
 
 import org.wso2.carbon.identity.core.AbstractIdentityTenantMgtListener;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.identity.password.history.internal.cache.PasswordHistoryDataStoreCache;
 import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
 import org.wso2.carbon.identity.password.history.store.Impl.DefaultPasswordHistoryDataStore;
 import org.wso2.carbon.stratos.common.exception.StratosException;
@@ -54,5 +56,6 @@ public class PasswordHistoryTenantMgtListener extends AbstractIdentityTenantMgtL
         } catch (IdentityPasswordHistoryException e) {
             throw new StratosException("Error in deleting password history data of the tenant: " + tenantId, e);
         }
+        PasswordHistoryDataStoreCache.getInstance().clear(IdentityTenantUtil.getTenantDomain(tenantId));
     }
 }
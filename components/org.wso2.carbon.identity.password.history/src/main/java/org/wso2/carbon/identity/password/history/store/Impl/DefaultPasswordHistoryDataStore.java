@@ -24,12 +24,12 @@ import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.password.history.constants.PasswordHistoryConstants;
 import org.wso2.carbon.identity.password.history.exeption.IdentityPasswordHistoryException;
+import org.wso2.carbon.identity.password.history.hash.DigestPasswordHistoryHasher;
+import org.wso2.carbon.identity.password.history.hash.PasswordHistoryHasher;
+import org.wso2.carbon.identity.password.history.internal.IdentityPasswordHistoryServiceDataHolder;
 import org.wso2.carbon.identity.password.history.store.PasswordHistoryDataStore;
-import org.wso2.carbon.user.core.UserCoreConstants;
-import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.utils.dbcreator.DatabaseCreator;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.sql.Connection;
@@ -40,23 +40,36 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This interface provides to plug module for preferred persistence store.
  */
 public class DefaultPasswordHistoryDataStore implements PasswordHistoryDataStore {
     private static final String SHA_1_PRNG = "SHA1PRNG";
+    private static final String MSSQL = "mssql";
+    private static final String ORACLE = "oracle";
+    private static final String POSTGRE_SQL = "postgresql";
+    private static volatile String databaseType;
     private static final Log log = LogFactory.getLog(DefaultPasswordHistoryDataStore.class);
-    private String digestFunction;
+    private static final String HASHER_TAG_PREFIX = "{";
+    private static final String HASHER_TAG_SUFFIX = "}";
     private int maxHistoryCount;
+    private PasswordHistoryHasher legacyHasher;
 
     public DefaultPasswordHistoryDataStore(String digestFunction, int maxHistoryCount) {
-        this.digestFunction = digestFunction;
         this.maxHistoryCount = maxHistoryCount;
+        this.legacyHasher = new DigestPasswordHistoryHasher(digestFunction);
     }
 
     public DefaultPasswordHistoryDataStore() {
 
+        this.legacyHasher = new DigestPasswordHistoryHasher(null);
     }
 
     @Override
@@ -68,56 +81,59 @@ public class DefaultPasswordHistoryDataStore implements PasswordHistoryDataStore
             return;
         }
         String saltValue = generateSaltValue();
+        String hash = hashPassword(credential.toString(), saltValue);
+        int tenantId = IdentityTenantUtil.getTenantId(user.getTenantDomain());
 
         Connection connection = IdentityDatabaseUtil.getDBConnection();
-        List<Integer> recordsToDelete = new ArrayList<>();
-        int storedHistoryCount = 0;
-        PreparedStatement prepStmt1 = null;
-        PreparedStatement prepStmt2 = null;
-        PreparedStatement prepStmt3 = null;
-
-        ResultSet resultSet = null;
         try {
-            prepStmt1 = connection.prepareStatement(PasswordHistoryConstants.SQLQueries.LOAD_HISTORY_DATA);
-            prepStmt1.setString(1, user.getUserName());
-            prepStmt1.setString(2, user.getUserStoreDomain());
-            prepStmt1.setInt(3, IdentityTenantUtil.getTenantId(user.getTenantDomain()));
-
-            resultSet = prepStmt1.executeQuery();
-
-            while (resultSet.next()) {
-                storedHistoryCount++;
-                if (storedHistoryCount >= maxHistoryCount) {
-                    recordsToDelete.add(resultSet.getInt("ID"));
+            // Only the oldest record which should be retained is needed to trim the rest of the history.
+            Timestamp trimTimeCreated = null;
+            int trimRecordId = 0;
+            int retainedCount = 0;
+            try (PreparedStatement prepStmt = connection.prepareStatement(getRecentHistoryQuery(connection,
+                    PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_RECORDS))) {
+                prepStmt.setString(1, user.getUserName());
+                prepStmt.setString(2, user.getUserStoreDomain());
+                prepStmt.setInt(3, tenantId);
+                prepStmt.setInt(4, getHistoryLimit());
+                try (ResultSet resultSet = prepStmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        retainedCount++;
+                        trimTimeCreated = resultSet.getTimestamp("TIME_CREATED");
+                        trimRecordId = resultSet.getInt("ID");
+                    }
                 }
             }
 
-            if (recordsToDelete.size() > 0) {
-                for (int i = 0; i < recordsToDelete.size(); i++) {
-                    prepStmt2 = connection.prepareStatement(
-                            PasswordHistoryConstants.SQLQueries.DELETE_HISTORY_RECORD);
-                    prepStmt2.setInt(1, recordsToDelete.get(i));
-                    prepStmt2.execute();
+            // The new password takes one slot, hence the oldest of the fetched records goes along with any older.
+            if (retainedCount >= maxHistoryCount && trimTimeCreated != null) {
+                try (PreparedStatement prepStmt = connection.prepareStatement(
+                        PasswordHistoryConstants.SQLQueries.DELETE_OLDER_HISTORY_RECORDS)) {
+                    prepStmt.setString(1, user.getUserName());
+                    prepStmt.setString(2, user.getUserStoreDomain());
+                    prepStmt.setInt(3, tenantId);
+                    prepStmt.setTimestamp(4, trimTimeCreated);
+                    prepStmt.setTimestamp(5, trimTimeCreated);
+                    prepStmt.setInt(6, trimRecordId);
+                    prepStmt.executeUpdate();
                 }
             }
 
-            prepStmt3 = connection.prepareStatement(PasswordHistoryConstants.SQLQueries.STORE_HISTORY_DATA);
-            prepStmt3.setString(1, user.getUserName());
-            prepStmt3.setString(2, user.getUserStoreDomain().toUpperCase(Locale.ENGLISH));
-            prepStmt3.setInt(3, IdentityTenantUtil.getTenantId(user.getTenantDomain()));
-            prepStmt3.setString(4, saltValue);
-            prepStmt3.setString(5, preparePassword(credential.toString(), saltValue));
-            prepStmt3.setTimestamp(6, new Timestamp(new java.util.Date().getTime()));
-            prepStmt3.execute();
+            try (PreparedStatement prepStmt = connection.prepareStatement(
+                    PasswordHistoryConstants.SQLQueries.STORE_HISTORY_DATA)) {
+                prepStmt.setString(1, user.getUserName());
+                prepStmt.setString(2, user.getUserStoreDomain().toUpperCase(Locale.ENGLISH));
+                prepStmt.setInt(3, tenantId);
+                prepStmt.setString(4, saltValue);
+                prepStmt.setString(5, hash);
+                prepStmt.setTimestamp(6, new Timestamp(new java.util.Date().getTime()));
+                prepStmt.execute();
+            }
             IdentityDatabaseUtil.commitTransaction(connection);
         } catch (SQLException e) {
             IdentityDatabaseUtil.rollbackTransaction(connection);
             throw new IdentityPasswordHistoryException("Error while storing password history", e);
         } finally {
-            IdentityDatabaseUtil.closeStatement(prepStmt1);
-            IdentityDatabaseUtil.closeStatement(prepStmt2);
-            IdentityDatabaseUtil.closeStatement(prepStmt3);
-            IdentityDatabaseUtil.closeResultSet(resultSet);
             IdentityDatabaseUtil.closeConnection(connection);
         }
     }
@@ -178,46 +194,136 @@ public class DefaultPasswordHistoryDataStore implements PasswordHistoryDataStore
             return true;
         }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection(false);
-        int storedHistoryCount = 0;
-        PreparedStatement prepStmt = null;
-        ResultSet resultSet = null;
-        try {
-            prepStmt = connection.prepareStatement(PasswordHistoryConstants.SQLQueries
-                    .LOAD_HISTORY_DATA);
+        // Entries are read upfront so that the connection is released before the (slow) hashing starts.
+        List<HistoryEntry> historyEntries = new ArrayList<>();
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false);
+             PreparedStatement prepStmt = connection.prepareStatement(getRecentHistoryQuery(connection,
+                     PasswordHistoryConstants.SQLQueries.LOAD_RECENT_HISTORY_DATA))) {
             prepStmt.setString(1, user.getUserName());
             prepStmt.setString(2, user.getUserStoreDomain());
             prepStmt.setInt(3, IdentityTenantUtil.getTenantId(user.getTenantDomain()));
+            prepStmt.setInt(4, getHistoryLimit());
 
-            resultSet = prepStmt.executeQuery();
-
-            while (resultSet.next()) {
-                storedHistoryCount++;
-                if (storedHistoryCount <= maxHistoryCount) {
-                    if (isHistoryExists(resultSet.getString("SALT_VALUE"), resultSet.getString("HASH"), credential)) {
-                        return false;
-                    }
+            try (ResultSet resultSet = prepStmt.executeQuery()) {
+                while (resultSet.next()) {
+                    historyEntries.add(new HistoryEntry(resultSet.getString("SALT_VALUE"),
+                            resultSet.getString("HASH")));
                 }
             }
         } catch (SQLException e) {
             throw new IdentityPasswordHistoryException("Error while validating password history", e);
+        }
+        return !isHistoryExists(historyEntries, credential.toString());
+    }
+
+    /**
+     * Append the dialect specific row limiting clause to a history query ordered by the creation time.
+     *
+     * @param connection Database connection.
+     * @param query      History query without the row limiting clause.
+     * @return Query limiting the number of rows by a parameter.
+     * @throws IdentityPasswordHistoryException If the database type could not be resolved.
+     */
+    private String getRecentHistoryQuery(Connection connection, String query) throws
+            IdentityPasswordHistoryException {
+
+        String dbType = databaseType;
+        if (dbType == null) {
+            try {
+                dbType = DatabaseCreator.getDatabaseType(connection);
+            } catch (Exception e) {
+                throw new IdentityPasswordHistoryException("Error while resolving the database type.", e);
+            }
+            databaseType = dbType;
+        }
+        if (MSSQL.equals(dbType) || ORACLE.equals(dbType) || POSTGRE_SQL.equals(dbType)) {
+            return query + PasswordHistoryConstants.SQLQueries.FETCH_NEXT_ROWS_CLAUSE;
+        }
+        return query + PasswordHistoryConstants.SQLQueries.LIMIT_CLAUSE;
+    }
+
+    private int getHistoryLimit() {
+
+        return Math.max(maxHistoryCount, 1);
+    }
+
+    /**
+     * Check whether the password matches any of the history entries. The entries are verified in parallel on the
+     * history verification pool and the verification stops at the first match.
+     *
+     * @param historyEntries History entries of the user.
+     * @param password       Password to be checked.
+     * @return True if the password matches a history entry.
+     * @throws IdentityPasswordHistoryException If an error occurs while verifying.
+     */
+    private boolean isHistoryExists(List<HistoryEntry> historyEntries, String password) throws
+            IdentityPasswordHistoryException {
+
+        ExecutorService executor = IdentityPasswordHistoryServiceDataHolder.getInstance()
+                .getHistoryVerificationExecutor();
+        if (historyEntries.size() <= 1 || executor == null || executor.isShutdown()) {
+            for (HistoryEntry historyEntry : historyEntries) {
+                if (isHistoryExists(historyEntry, password)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        CompletionService<Boolean> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Boolean>> verifications = new ArrayList<>(historyEntries.size());
+        try {
+            for (HistoryEntry historyEntry : historyEntries) {
+                verifications.add(completionService.submit(() -> isHistoryExists(historyEntry, password)));
+            }
+            for (int i = 0; i < verifications.size(); i++) {
+                if (completionService.take().get()) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdentityPasswordHistoryException("Interrupted while validating password history", e);
+        } catch (RejectedExecutionException e) {
+            throw new IdentityPasswordHistoryException("Error while validating password history", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IdentityPasswordHistoryException) {
+                throw (IdentityPasswordHistoryException) e.getCause();
+            }
+            throw new IdentityPasswordHistoryException("Error while validating password history", e.getCause());
         } finally {
-            IdentityDatabaseUtil.closeStatement(prepStmt);
-            IdentityDatabaseUtil.closeResultSet(resultSet);
-            IdentityDatabaseUtil.closeConnection(connection);
+            for (Future<Boolean> verification : verifications) {
+                verification.cancel(true);
+            }
         }
-        return true;
     }
 
-    private boolean isHistoryExists(String saltValue, String storedPassword, Object credential) throws
+    private boolean isHistoryExists(HistoryEntry historyEntry, String password) throws
             IdentityPasswordHistoryException {
 
-        String password;
-        password = this.preparePassword(credential.toString(), saltValue);
-        if ((storedPassword != null) && (storedPassword.equals(password))) {
-            return true;
+        String storedHash = historyEntry.hash;
+        if (storedHash == null) {
+            return false;
         }
-        return false;
+        if (storedHash.startsWith(HASHER_TAG_PREFIX)) {
+            int tagEnd = storedHash.indexOf(HASHER_TAG_SUFFIX);
+            if (tagEnd > 0) {
+                String hasherName = storedHash.substring(HASHER_TAG_PREFIX.length(), tagEnd);
+                PasswordHistoryHasher hasher = IdentityPasswordHistoryServiceDataHolder.getInstance()
+                        .getPasswordHistoryHasher(hasherName);
+                if (hasher != null) {
+                    return hasher.matches(password, historyEntry.saltValue, storedHash.substring(tagEnd + 1));
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("No password history hasher is registered with the name: " + hasherName +
+                            ". Verifying the entry with the configured message digest.");
+                }
+            }
+        }
+        // Entries without a hasher tag are created with the configured message digest. Plain text entries and
+        // digests without a registered hasher name may also start with the tag prefix.
+        return legacyHasher.matches(password, historyEntry.saltValue, storedHash);
     }
 
     /**
@@ -240,36 +346,34 @@ public class DefaultPasswordHistoryDataStore implements PasswordHistoryDataStore
     }
 
     /**
-     * @param password
-     * @param saltValue
-     * @return
-     * @throws UserStoreException
+     * Hash the password with the configured password history hasher. The name of the hasher is prefixed to the hash
+     * so that the entry can be verified even after the configured hasher is changed. If the configured hasher is not
+     * available, the message digest is used without a tag.
+     *
+     * @param password  Password to be hashed.
+     * @param saltValue Salt value.
+     * @return Hash to be stored.
+     * @throws IdentityPasswordHistoryException If an error occurs while hashing.
      */
-    private String preparePassword(String password, String saltValue) throws
-            IdentityPasswordHistoryException {
-        try {
-            String digestInput = password;
-            if (saltValue != null) {
-                digestInput = password + saltValue;
-            }
+    private String hashPassword(String password, String saltValue) throws IdentityPasswordHistoryException {
 
-            if (digestFunction != null) {
+        PasswordHistoryHasher hasher = IdentityPasswordHistoryServiceDataHolder.getInstance()
+                .getPasswordHistoryHasher();
+        if (hasher == null) {
+            return legacyHasher.hash(password, saltValue);
+        }
+        return HASHER_TAG_PREFIX + hasher.getName() + HASHER_TAG_SUFFIX + hasher.hash(password, saltValue);
+    }
 
-                if (digestFunction.equals(UserCoreConstants.RealmConfig.PASSWORD_HASH_METHOD_PLAIN_TEXT)) {
-                    return password;
-                }
+    private static final class HistoryEntry {
 
-                MessageDigest dgst = MessageDigest.getInstance(digestFunction);
-                byte[] byteValue = dgst.digest(digestInput.getBytes(StandardCharsets.UTF_8));
-                password = Base64.encode(byteValue);
-            }
-            return password;
-        } catch (NoSuchAlgorithmException e) {
-            String msg = "Error occurred while preparing password.";
-            if (log.isDebugEnabled()) {
-                log.debug(msg, e);
-            }
-            throw new IdentityPasswordHistoryException(msg, e);
+        private final String saltValue;
+        private final String hash;
+
+        private HistoryEntry(String saltValue, String hash) {
+
+            this.saltValue = saltValue;
+            this.hash = hash;
         }
     }
 }
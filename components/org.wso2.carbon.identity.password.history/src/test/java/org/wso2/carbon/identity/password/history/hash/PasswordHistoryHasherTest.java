@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.hash;
+
+import org.apache.axiom.om.util.Base64;
+import org.testng.annotations.Test;
+import org.wso2.carbon.user.core.UserCoreConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Password history hasher test cases.
+ */
+public class PasswordHistoryHasherTest {
+
+    private static final String PASSWORD = "Wso2@test";
+    private static final String SALT = "c2FsdHZhbHVlMTIzNDU2Nw==";
+
+    @Test
+    public void testPBKDF2Hash() throws Exception {
+
+        PBKDF2PasswordHistoryHasher hasher = new PBKDF2PasswordHistoryHasher(1000);
+        String hash = hasher.hash(PASSWORD, SALT);
+        assertTrue(hash.startsWith("1000:"));
+        assertTrue(hasher.matches(PASSWORD, SALT, hash));
+        assertFalse(hasher.matches("Wso2@other", SALT, hash));
+        assertNotEquals(hasher.hash(PASSWORD, "b3RoZXJzYWx0dmFsdWUxMg=="), hash);
+    }
+
+    @Test
+    public void testPBKDF2HashAfterIterationChange() throws Exception {
+
+        String hash = new PBKDF2PasswordHistoryHasher(1000).hash(PASSWORD, SALT);
+        assertTrue(new PBKDF2PasswordHistoryHasher(2000).matches(PASSWORD, SALT, hash));
+    }
+
+    @Test
+    public void testDigestHashMatchesLegacyFormat() throws Exception {
+
+        byte[] expected = MessageDigest.getInstance("SHA-256").digest((PASSWORD + SALT)
+                .getBytes(StandardCharsets.UTF_8));
+        DigestPasswordHistoryHasher hasher = new DigestPasswordHistoryHasher("SHA-256");
+        assertEquals(hasher.hash(PASSWORD, SALT), Base64.encode(expected));
+        assertEquals(hasher.hash(PASSWORD, SALT), Base64.encode(expected));
+        assertTrue(hasher.matches(PASSWORD, SALT, Base64.encode(expected)));
+    }
+
+    @Test
+    public void testPlainTextDigest() throws Exception {
+
+        assertEquals(new DigestPasswordHistoryHasher(
+                UserCoreConstants.RealmConfig.PASSWORD_HASH_METHOD_PLAIN_TEXT).hash(PASSWORD, SALT), PASSWORD);
+    }
+}
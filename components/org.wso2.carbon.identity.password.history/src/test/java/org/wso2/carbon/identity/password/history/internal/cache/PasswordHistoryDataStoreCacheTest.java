@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.history.internal.cache;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.password.history.store.Impl.DefaultPasswordHistoryDataStore;
+import org.wso2.carbon.identity.password.history.store.PasswordHistoryDataStore;
+
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Password history data store cache test cases.
+ */
+public class PasswordHistoryDataStoreCacheTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String DATA_STORE_CLASS = DefaultPasswordHistoryDataStore.class.getName();
+
+    @AfterMethod
+    public void tearDown() {
+
+        PasswordHistoryDataStoreCache.getInstance().clear();
+    }
+
+    @Test
+    public void testDataStoreIsReused() throws Exception {
+
+        PasswordHistoryDataStoreCache cache = PasswordHistoryDataStoreCache.getInstance();
+        PasswordHistoryDataStore dataStore = cache.getDataStore(TENANT_DOMAIN, DATA_STORE_CLASS, "SHA-256", 5);
+        assertTrue(dataStore instanceof DefaultPasswordHistoryDataStore);
+        assertSame(cache.getDataStore(TENANT_DOMAIN, DATA_STORE_CLASS, "SHA-256", 5), dataStore);
+    }
+
+    @Test
+    public void testDataStoreIsRecreatedOnConfigChange() throws Exception {
+
+        PasswordHistoryDataStoreCache cache = PasswordHistoryDataStoreCache.getInstance();
+        PasswordHistoryDataStore dataStore = cache.getDataStore(TENANT_DOMAIN, DATA_STORE_CLASS, "SHA-256", 5);
+        assertNotSame(cache.getDataStore(TENANT_DOMAIN, DATA_STORE_CLASS, "SHA-256", 3), dataStore);
+        assertNotSame(cache.getDataStore(TENANT_DOMAIN, DATA_STORE_CLASS, "SHA-512", 3), dataStore);
+    }
+
+    @Test
+    public void testClearTenant() throws Exception {
+
+        PasswordHistoryDataStoreCache cache = PasswordHistoryDataStoreCache.getInstance();
+        PasswordHistoryDataStore dataStore = cache.getDataStore(TENANT_DOMAIN, DATA_STORE_CLASS, "SHA-256", 5);
+        PasswordHistoryDataStore otherDataStore = cache.getDataStore("wso2.com", DATA_STORE_CLASS, "SHA-256", 5);
+        cache.clear(TENANT_DOMAIN);
+        assertNotSame(cache.getDataStore(TENANT_DOMAIN, DATA_STORE_CLASS, "SHA-256", 5), dataStore);
+        assertSame(cache.getDataStore("wso2.com", DATA_STORE_CLASS, "SHA-256", 5), otherDataStore);
+    }
+
+    @Test(expectedExceptions = ClassNotFoundException.class)
+    public void testInvalidDataStoreClass() throws Exception {
+
+        PasswordHistoryDataStoreCache.getInstance().getDataStore(TENANT_DOMAIN, "org.wso2.invalid.DataStore",
+                "SHA-256", 5);
+    }
+}
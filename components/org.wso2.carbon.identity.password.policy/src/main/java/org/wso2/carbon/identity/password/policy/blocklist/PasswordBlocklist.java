@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.policy.blocklist;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Immutable, memory efficient set of blocked passwords. Only 64 bit fingerprints of the passwords are kept.
+ * Membership is first checked against an off-heap Bloom filter, and a hit is confirmed by a binary search over a
+ * sorted, memory mapped fingerprint file. Neither structure lives on the Java heap, hence a list of millions of
+ * passwords costs a few bits of native memory per entry for the filter plus the page cache for the confirmations.
+ */
+public final class PasswordBlocklist {
+
+    private static final Log log = LogFactory.getLog(PasswordBlocklist.class);
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int FINGERPRINT_BYTES = Long.BYTES;
+    private static final ThreadLocal<MessageDigest> messageDigest = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Message digest algorithm: " + HASH_ALGORITHM + " is not available.", e);
+        }
+    });
+
+    private final LongBuffer bloomFilter;
+    private final long bloomFilterBits;
+    private final int hashFunctions;
+    private final LongBuffer fingerprints;
+    private final int size;
+
+    private PasswordBlocklist(LongBuffer bloomFilter, long bloomFilterBits, int hashFunctions,
+                              LongBuffer fingerprints, int size) {
+
+        this.bloomFilter = bloomFilter;
+        this.bloomFilterBits = bloomFilterBits;
+        this.hashFunctions = hashFunctions;
+        this.fingerprints = fingerprints;
+        this.size = size;
+    }
+
+    /**
+     * Load the blocklist from a file which contains one password per line.
+     *
+     * @param blocklistFile     Blocklist file.
+     * @param falsePositiveRate Expected false positive rate of the Bloom filter.
+     * @return Loaded blocklist.
+     * @throws IOException If the blocklist file could not be read or the fingerprint file could not be written.
+     */
+    public static PasswordBlocklist load(Path blocklistFile, double falsePositiveRate) throws IOException {
+
+        long startTime = System.currentTimeMillis();
+        long expectedEntries = countLines(blocklistFile);
+        if (expectedEntries > Integer.MAX_VALUE / FINGERPRINT_BYTES) {
+            throw new IOException("Blocklist file: " + blocklistFile + " has too many entries.");
+        }
+
+        long bloomFilterBits = getBloomFilterBits(expectedEntries, falsePositiveRate);
+        int hashFunctions = getHashFunctionCount(expectedEntries, bloomFilterBits);
+        LongBuffer bloomFilter = ByteBuffer.allocateDirect((int) (bloomFilterBits / Byte.SIZE)).asLongBuffer();
+
+        // Fingerprints are written to a temporary file and mapped, so that the sort and the lookups stay off-heap.
+        Path fingerprintFile = Files.createTempFile(blocklistFile.getFileName().toString(), ".idx");
+        int size = 0;
+        try {
+            try (BufferedReader reader = Files.newBufferedReader(blocklistFile, StandardCharsets.UTF_8);
+                 DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(
+                         Files.newOutputStream(fingerprintFile)))) {
+                String line;
+                while ((line = reader.readLine()) != null && size < expectedEntries) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    byte[] hash = hash(line);
+                    addToBloomFilter(bloomFilter, bloomFilterBits, hashFunctions, hash);
+                    outputStream.writeLong(getLong(hash, 0));
+                    size++;
+                }
+            }
+
+            MappedByteBuffer mappedFingerprints;
+            try (FileChannel channel = FileChannel.open(fingerprintFile, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                mappedFingerprints = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        (long) size * FINGERPRINT_BYTES);
+            }
+            LongBuffer fingerprints = mappedFingerprints.asLongBuffer();
+            sort(fingerprints, size);
+            mappedFingerprints.force();
+
+            if (log.isDebugEnabled()) {
+                log.debug("Loaded " + size + " entries from the password blocklist: " + blocklistFile + " in " +
+                        (System.currentTimeMillis() - startTime) + "ms. Bloom filter size: " +
+                        bloomFilterBits / Byte.SIZE + " bytes, hash functions: " + hashFunctions);
+            }
+            return new PasswordBlocklist(bloomFilter, bloomFilterBits, hashFunctions, fingerprints, size);
+        } finally {
+            // The mapping stays valid after the file is removed. Where the platform does not allow removing a
+            // mapped file, it is removed on exit instead.
+            try {
+                Files.deleteIfExists(fingerprintFile);
+            } catch (IOException e) {
+                fingerprintFile.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Check whether the password is in the blocklist.
+     *
+     * @param password Password to be checked.
+     * @return True if the password is blocked.
+     */
+    public boolean contains(String password) {
+
+        if (size == 0 || password == null) {
+            return false;
+        }
+        byte[] hash = hash(password);
+        if (!mightContain(hash)) {
+            return false;
+        }
+        return binarySearch(getLong(hash, 0));
+    }
+
+    /**
+     * Get the number of entries in the blocklist.
+     *
+     * @return Number of entries.
+     */
+    public int size() {
+
+        return size;
+    }
+
+    private boolean mightContain(byte[] hash) {
+
+        long hash1 = getLong(hash, 8);
+        long hash2 = getLong(hash, 16);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bloomFilterBits;
+            if ((bloomFilter.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean binarySearch(long fingerprint) {
+
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = fingerprints.get(mid);
+            if (value < fingerprint) {
+                low = mid + 1;
+            } else if (value > fingerprint) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addToBloomFilter(LongBuffer bloomFilter, long bloomFilterBits, int hashFunctions,
+                                         byte[] hash) {
+
+        long hash1 = getLong(hash, 8);
+        long hash2 = getLong(hash, 16);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % bloomFilterBits;
+            int index = (int) (bit >>> 6);
+            bloomFilter.put(index, bloomFilter.get(index) | (1L << bit));
+        }
+    }
+
+    /**
+     * Sort the fingerprints in place with heap sort, which needs no extra memory for the mapped buffer.
+     */
+    private static void sort(LongBuffer buffer, int size) {
+
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(buffer, i, size);
+        }
+        for (int end = size - 1; end > 0; end--) {
+            long max = buffer.get(0);
+            buffer.put(0, buffer.get(end));
+            buffer.put(end, max);
+            siftDown(buffer, 0, end);
+        }
+    }
+
+    private static void siftDown(LongBuffer buffer, int index, int size) {
+
+        long value = buffer.get(index);
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && buffer.get(child + 1) > buffer.get(child)) {
+                child++;
+            }
+            long childValue = buffer.get(child);
+            if (childValue <= value) {
+                break;
+            }
+            buffer.put(index, childValue);
+            index = child;
+        }
+        buffer.put(index, value);
+    }
+
+    private static long getBloomFilterBits(long expectedEntries, double falsePositiveRate) {
+
+        long entries = Math.max(expectedEntries, 1);
+        long bits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        // Round up to a whole number of longs.
+        return Math.max(Long.SIZE, (bits + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+    }
+
+    private static int getHashFunctionCount(long expectedEntries, long bloomFilterBits) {
+
+        long entries = Math.max(expectedEntries, 1);
+        return Math.max(1, (int) Math.round((double) bloomFilterBits / entries * Math.log(2)));
+    }
+
+    private static long countLines(Path file) throws IOException {
+
+        long lines = 0;
+        boolean pendingLine = false;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        lines++;
+                        pendingLine = false;
+                    } else {
+                        pendingLine = true;
+                    }
+                }
+            }
+        }
+        return pendingLine ? lines + 1 : lines;
+    }
+
+    private static byte[] hash(String password) {
+
+        MessageDigest digest = messageDigest.get();
+        digest.reset();
+        return digest.digest(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+
+        long value = 0;
+        for (int i = offset; i < offset + Long.BYTES; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
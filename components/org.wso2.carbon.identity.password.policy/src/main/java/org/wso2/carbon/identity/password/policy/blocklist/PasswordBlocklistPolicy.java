@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.policy.blocklist;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.mgt.policy.AbstractPasswordPolicy;
+
+import java.util.Map;
+
+/**
+ * Password policy which rejects the passwords found in a blocklist of commonly used or breached passwords. While the
+ * blocklist is not available, as it is being loaded or could not be loaded, the passwords are accepted, unless the
+ * policy is configured to fail closed, in which case they are rejected.
+ */
+public class PasswordBlocklistPolicy extends AbstractPasswordPolicy {
+
+    public static final String BLOCKLIST_FILE = "blocklist.file";
+    public static final String FALSE_POSITIVE_RATE = "false.positive.rate";
+    public static final String RELOAD_INTERVAL = "reload.interval";
+    public static final String ERROR_MESSAGE = "errorMsg";
+    public static final String FAIL_CLOSED = "fail.closed";
+
+    private static final Log log = LogFactory.getLog(PasswordBlocklistPolicy.class);
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    private static final long DEFAULT_RELOAD_INTERVAL = 60000;
+    private static final String DEFAULT_ERROR_MESSAGE = "The password is found in a list of commonly used or " +
+            "breached passwords. Please choose a different password.";
+    private static final String UNAVAILABLE_ERROR_MESSAGE = "The password could not be checked against the list of " +
+            "commonly used or breached passwords. Please try again later.";
+
+    private ReloadablePasswordBlocklist blocklist;
+    private boolean failClosed;
+    private String blockedErrorMessage;
+
+    @Override
+    public void init(Map<String, String> params) {
+
+        if (params == null || StringUtils.isBlank(params.get(BLOCKLIST_FILE))) {
+            log.warn("Password blocklist file is not configured. Password blocklist policy will not be enforced.");
+            return;
+        }
+
+        double falsePositiveRate = NumberUtils.toDouble(params.get(FALSE_POSITIVE_RATE),
+                DEFAULT_FALSE_POSITIVE_RATE);
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            log.warn("Invalid password blocklist false positive rate: " + falsePositiveRate +
+                    ". Using the default value: " + DEFAULT_FALSE_POSITIVE_RATE);
+            falsePositiveRate = DEFAULT_FALSE_POSITIVE_RATE;
+        }
+        long reloadInterval = NumberUtils.toLong(params.get(RELOAD_INTERVAL), DEFAULT_RELOAD_INTERVAL);
+        blockedErrorMessage = StringUtils.defaultIfBlank(params.get(ERROR_MESSAGE), DEFAULT_ERROR_MESSAGE);
+        errorMessage = blockedErrorMessage;
+        failClosed = Boolean.parseBoolean(StringUtils.trim(params.get(FAIL_CLOSED)));
+        blocklist = ReloadablePasswordBlocklist.getInstance(params.get(BLOCKLIST_FILE).trim(), falsePositiveRate,
+                reloadInterval);
+    }
+
+    @Override
+    public boolean enforce(Object... args) {
+
+        if (blocklist == null || args == null || args.length == 0 || args[0] == null) {
+            return true;
+        }
+        if (!blocklist.isAvailable()) {
+            if (!failClosed) {
+                return true;
+            }
+            errorMessage = UNAVAILABLE_ERROR_MESSAGE;
+            return false;
+        }
+        errorMessage = blockedErrorMessage;
+        return !blocklist.contains(args[0].toString());
+    }
+}
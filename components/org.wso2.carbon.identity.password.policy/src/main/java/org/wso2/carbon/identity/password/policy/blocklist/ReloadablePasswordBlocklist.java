@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.policy.blocklist;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Password blocklist which is reloaded when its file changes. The blocklist is loaded in the background, and a reload
+ * builds a new {@link PasswordBlocklist} which is swapped in once ready, hence no validation waits for a load. Until
+ * the blocklist is loaded, or if it can not be loaded, it is not available, and a failed load is retried. A single
+ * instance is shared for each blocklist file, and it is replaced when requested with different load parameters.
+ */
+public final class ReloadablePasswordBlocklist {
+
+    private static final Log log = LogFactory.getLog(ReloadablePasswordBlocklist.class);
+    // Interval in milliseconds to retry a blocklist which could not be loaded, whether or not the reload is enabled.
+    private static final long LOAD_RETRY_INTERVAL = 60000;
+    private static final Map<Path, ReloadablePasswordBlocklist> blocklists = new ConcurrentHashMap<>();
+    private static final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "password-blocklist-reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path blocklistFile;
+    private final double falsePositiveRate;
+    private final long reloadCheckInterval;
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private volatile PasswordBlocklist blocklist;
+    private volatile long lastModified;
+    private volatile long lastReloadCheck;
+    private volatile long lastLoadAttempt;
+
+    private ReloadablePasswordBlocklist(Path blocklistFile, double falsePositiveRate, long reloadCheckInterval) {
+
+        this.blocklistFile = blocklistFile;
+        this.falsePositiveRate = falsePositiveRate;
+        this.reloadCheckInterval = reloadCheckInterval;
+    }
+
+    /**
+     * Get the shared blocklist of the given file. The blocklist is loaded in the background when it is first
+     * requested.
+     *
+     * @param blocklistFile       Path of the blocklist file.
+     * @param falsePositiveRate   Expected false positive rate of the Bloom filter.
+     * @param reloadCheckInterval Interval in milliseconds to check the file for changes. Zero or negative disables
+     *                            the reload.
+     * @return Reloadable blocklist.
+     */
+    public static ReloadablePasswordBlocklist getInstance(String blocklistFile, double falsePositiveRate,
+                                                          long reloadCheckInterval) {
+
+        Path path = Paths.get(blocklistFile).toAbsolutePath().normalize();
+        ReloadablePasswordBlocklist reloadableBlocklist = blocklists.compute(path, (key, existing) ->
+                existing != null && existing.falsePositiveRate == falsePositiveRate &&
+                        existing.reloadCheckInterval == reloadCheckInterval ? existing :
+                        new ReloadablePasswordBlocklist(key, falsePositiveRate, reloadCheckInterval));
+        // Scheduled outside of the map, so that the load never holds up the callers.
+        reloadableBlocklist.checkForLoad();
+        return reloadableBlocklist;
+    }
+
+    /**
+     * Check whether the password is in the current blocklist.
+     *
+     * @param password Password to be checked.
+     * @return True if the password is blocked. False if it is not, or if the blocklist is not available.
+     */
+    public boolean contains(String password) {
+
+        checkForLoad();
+        PasswordBlocklist currentBlocklist = blocklist;
+        return currentBlocklist != null && currentBlocklist.contains(password);
+    }
+
+    /**
+     * Check whether the blocklist is loaded.
+     *
+     * @return False if the blocklist is not loaded yet, or could not be loaded.
+     */
+    public boolean isAvailable() {
+
+        return blocklist != null;
+    }
+
+    /**
+     * Get the current blocklist.
+     *
+     * @return Blocklist or null if the blocklist is not available.
+     */
+    public PasswordBlocklist getBlocklist() {
+
+        return blocklist;
+    }
+
+    private void checkForLoad() {
+
+        long now = System.currentTimeMillis();
+        if (blocklist == null) {
+            if (now - lastLoadAttempt >= LOAD_RETRY_INTERVAL) {
+                lastLoadAttempt = now;
+                scheduleLoad(false);
+            }
+            return;
+        }
+        if (reloadCheckInterval <= 0 || now - lastReloadCheck < reloadCheckInterval) {
+            return;
+        }
+        lastReloadCheck = now;
+        scheduleLoad(true);
+    }
+
+    private void scheduleLoad(boolean onlyIfModified) {
+
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reloadExecutor.execute(() -> {
+                try {
+                    if (!onlyIfModified || getLastModified() != lastModified) {
+                        load();
+                    }
+                } finally {
+                    loading.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            loading.set(false);
+            log.error("Error while scheduling the load of the password blocklist: " + blocklistFile, e);
+        }
+    }
+
+    private void load() {
+
+        long modified = getLastModified();
+        try {
+            blocklist = PasswordBlocklist.load(blocklistFile, falsePositiveRate);
+            lastModified = modified;
+            log.info("Password blocklist: " + blocklistFile + " loaded with " + blocklist.size() + " entries.");
+        } catch (IOException | RuntimeException e) {
+            // Keep validating against the previous blocklist, if any.
+            lastModified = modified;
+            if (blocklist == null) {
+                log.error("Error while loading the password blocklist: " + blocklistFile + ". The blocklist is not " +
+                        "available, and the load is retried in " + LOAD_RETRY_INTERVAL + "ms.", e);
+            } else {
+                log.error("Error while reloading the password blocklist: " + blocklistFile + ". The previously " +
+                        "loaded blocklist is used.", e);
+            }
+        }
+    }
+
+    private long getLastModified() {
+
+        try {
+            return Files.getLastModifiedTime(blocklistFile).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
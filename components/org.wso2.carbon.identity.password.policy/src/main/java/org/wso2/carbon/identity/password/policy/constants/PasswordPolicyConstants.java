@@ -26,11 +26,19 @@ public class PasswordPolicyConstants {
     public static final String PW_POLICY_LENGTH_CLASS = "passwordPolicy.class.PasswordLengthPolicy";
     public static final String PW_POLICY_NAME_CLASS = "passwordPolicy.class.PasswordNamePolicy";
     public static final String PW_POLICY_PATTERN_CLASS = "passwordPolicy.class.PasswordPatternPolicy";
+    public static final String PW_POLICY_BLOCKLIST_CLASS = "passwordPolicy.class.PasswordBlocklistPolicy";
+    public static final String PW_POLICY_BLOCKLIST_FILE = "passwordPolicy.blocklist.file";
+    public static final String PW_POLICY_BLOCKLIST_FALSE_POSITIVE_RATE = "passwordPolicy.blocklist.falsePositiveRate";
+    public static final String PW_POLICY_BLOCKLIST_RELOAD_INTERVAL = "passwordPolicy.blocklist.reloadInterval";
+    public static final String PW_POLICY_BLOCKLIST_ERROR_MSG = "passwordPolicy.blocklist.errorMsg";
+    // Whether the passwords are rejected while the blocklist is not available. Disabled by default.
+    public static final String PW_POLICY_BLOCKLIST_FAIL_CLOSED = "passwordPolicy.blocklist.failClosed";
 
     public enum ErrorMessages {
 
         ERROR_CODE_LOADING_PASSWORD_POLICY_CLASSES("40001", "Error occurred while loading Password Policies"),
-        ERROR_CODE_VALIDATING_PASSWORD_POLICY("40002", "Error while validating password policy");
+        ERROR_CODE_VALIDATING_PASSWORD_POLICY("40002", "Error while validating password policy"),
+        ERROR_CODE_RETRIEVING_PASSWORD_POLICY_CONFIGS("40003", "Error while retrieving password policy properties.");
 
 
         private final String code;
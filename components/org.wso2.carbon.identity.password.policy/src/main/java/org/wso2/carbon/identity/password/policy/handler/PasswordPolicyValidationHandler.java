@@ -21,6 +21,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.common.model.Property;
+import org.wso2.carbon.identity.base.IdentityException;
 import org.wso2.carbon.identity.base.IdentityRuntimeException;
 import org.wso2.carbon.identity.core.handler.InitConfig;
 import org.wso2.carbon.identity.event.IdentityEventConstants;
@@ -29,23 +30,31 @@ import org.wso2.carbon.identity.event.event.Event;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.governance.IdentityGovernanceException;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
-import org.wso2.carbon.identity.mgt.policy.PolicyRegistry;
+import org.wso2.carbon.identity.mgt.policy.AbstractPasswordPolicy;
 import org.wso2.carbon.identity.mgt.policy.PolicyViolationException;
 import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordLengthPolicy;
 import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordNamePolicy;
 import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordPatternPolicy;
+import org.wso2.carbon.identity.password.policy.blocklist.PasswordBlocklistPolicy;
 import org.wso2.carbon.identity.password.policy.constants.PasswordPolicyConstants;
+import org.wso2.carbon.identity.password.policy.exeption.IdentityPasswordPolicyException;
 import org.wso2.carbon.identity.password.policy.internal.IdentityPasswordPolicyServiceDataHolder;
+import org.wso2.carbon.identity.password.policy.internal.cache.PasswordPolicyRegistryCache;
+import org.wso2.carbon.identity.password.policy.internal.cache.PasswordPolicyRegistryCache.CompiledPolicyRegistry;
+import org.wso2.carbon.identity.password.policy.internal.cache.PasswordPolicyRegistryCache.PolicyDefinition;
+import org.wso2.carbon.identity.password.policy.service.PasswordPolicyService;
 import org.wso2.carbon.identity.password.policy.util.Utils;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
-public class PasswordPolicyValidationHandler extends AbstractEventHandler implements IdentityConnectorConfig {
+public class PasswordPolicyValidationHandler extends AbstractEventHandler implements IdentityConnectorConfig,
+        PasswordPolicyService {
 
     private static final Log log = LogFactory.getLog(PasswordPolicyValidationHandler.class);
 
@@ -63,12 +72,47 @@ public class PasswordPolicyValidationHandler extends AbstractEventHandler implem
         String tenantDomain = (String) eventProperties.get(IdentityEventConstants.EventProperty.TENANT_DOMAIN);
         Object credentials = eventProperties.get(IdentityEventConstants.EventProperty.CREDENTIAL);
 
+        try {
+            validate(tenantDomain, userName, credentials.toString());
+        } catch (IdentityPasswordPolicyException e) {
+            throw IdentityException.error(IdentityEventException.class, e.getErrorCode(), e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void validate(String tenantDomain, String userName, String password)
+            throws IdentityPasswordPolicyException {
+
+        CompiledPolicyRegistry policyRegistry = getPolicyRegistry(tenantDomain);
+        if (policyRegistry == null) {
+            return;
+        }
+
+        try {
+            policyRegistry.enforcePasswordPolicies(password, userName);
+        } catch (PolicyViolationException e) {
+            throw Utils.handlePolicyException(
+                    PasswordPolicyConstants.ErrorMessages.ERROR_CODE_VALIDATING_PASSWORD_POLICY, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the policy registry of the tenant. The registry is built and cached when it is first requested for the
+     * current policy configurations of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Policy registry or null if the password policy validation is disabled for the tenant.
+     * @throws IdentityPasswordPolicyException If the configurations or the policies could not be loaded.
+     */
+    private CompiledPolicyRegistry getPolicyRegistry(String tenantDomain) throws IdentityPasswordPolicyException {
+
         Property[] identityProperties;
         try {
             identityProperties = IdentityPasswordPolicyServiceDataHolder.getInstance()
                     .getIdentityGovernanceService().getConfiguration(getPropertyNames(), tenantDomain);
         } catch (IdentityGovernanceException e) {
-            throw new IdentityEventException("Error while retrieving password policy properties.", e);
+            throw Utils.handlePolicyException(
+                    PasswordPolicyConstants.ErrorMessages.ERROR_CODE_RETRIEVING_PASSWORD_POLICY_CONFIGS, null, e);
         }
 
         // initialize to default values
@@ -94,7 +138,7 @@ public class PasswordPolicyValidationHandler extends AbstractEventHandler implem
                     if (log.isDebugEnabled()) {
                         log.debug("Password Policy validation is disabled");
                     }
-                    return;
+                    return null;
                 }
             } else if (PasswordPolicyConstants.PW_POLICY_MIN_LENGTH.equals(propertyName)) {
                 if (NumberUtils.isNumber(propertyValue) && Integer.parseInt(propertyValue) > 0) {
@@ -123,51 +167,80 @@ public class PasswordPolicyValidationHandler extends AbstractEventHandler implem
             }
         }
 
-        PolicyRegistry policyRegistry = new PolicyRegistry();
-
         String pwLengthPolicyCls = configs.getModuleProperties().
                 getProperty(PasswordPolicyConstants.PW_POLICY_LENGTH_CLASS);
         String pwNamePolicyCls = configs.getModuleProperties().
                 getProperty(PasswordPolicyConstants.PW_POLICY_NAME_CLASS);
         String pwPatternPolicyCls = configs.getModuleProperties().
                 getProperty(PasswordPolicyConstants.PW_POLICY_PATTERN_CLASS);
+        String pwBlocklistPolicyCls = configs.getModuleProperties().
+                getProperty(PasswordPolicyConstants.PW_POLICY_BLOCKLIST_CLASS);
+        String pwBlocklistFile = configs.getModuleProperties().
+                getProperty(PasswordPolicyConstants.PW_POLICY_BLOCKLIST_FILE);
+        String pwBlocklistFalsePositiveRate = configs.getModuleProperties().
+                getProperty(PasswordPolicyConstants.PW_POLICY_BLOCKLIST_FALSE_POSITIVE_RATE);
+        String pwBlocklistReloadInterval = configs.getModuleProperties().
+                getProperty(PasswordPolicyConstants.PW_POLICY_BLOCKLIST_RELOAD_INTERVAL);
+        String pwBlocklistErrorMsg = configs.getModuleProperties().
+                getProperty(PasswordPolicyConstants.PW_POLICY_BLOCKLIST_ERROR_MSG);
+        String pwBlocklistFailClosed = configs.getModuleProperties().
+                getProperty(PasswordPolicyConstants.PW_POLICY_BLOCKLIST_FAIL_CLOSED);
+
+        List<String> policyKey = Arrays.asList(pwMinLength, pwMaxLength, pwPattern, errorMsg, pwLengthPolicyCls,
+                pwNamePolicyCls, pwPatternPolicyCls, pwBlocklistPolicyCls, pwBlocklistFile,
+                pwBlocklistFalsePositiveRate, pwBlocklistReloadInterval, pwBlocklistErrorMsg, pwBlocklistFailClosed);
+        CompiledPolicyRegistry cachedPolicyRegistry = PasswordPolicyRegistryCache.getInstance()
+                .getPolicyRegistry(tenantDomain, policyKey);
+        if (cachedPolicyRegistry != null) {
+            return cachedPolicyRegistry;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Building the password policy registry for the tenant: " + tenantDomain);
+        }
+        List<PolicyDefinition> policies = new ArrayList<>();
         try {
             if (StringUtils.isNotBlank(pwLengthPolicyCls)) {
-                DefaultPasswordLengthPolicy defaultPasswordLengthPolicy = (DefaultPasswordLengthPolicy) Class.
-                        forName(pwLengthPolicyCls).newInstance();
-                HashMap pwPolicyLengthParams = new HashMap<String, String>();
+                Map<String, String> pwPolicyLengthParams = new HashMap<>();
                 pwPolicyLengthParams.put("min.length", pwMinLength);
                 pwPolicyLengthParams.put("max.length", pwMaxLength);
-                defaultPasswordLengthPolicy.init(pwPolicyLengthParams);
-                policyRegistry.addPolicy(defaultPasswordLengthPolicy);
+                policies.add(new PolicyDefinition(Class.forName(pwLengthPolicyCls)
+                        .asSubclass(DefaultPasswordLengthPolicy.class), pwPolicyLengthParams));
             }
 
             if (StringUtils.isNotBlank(pwNamePolicyCls)) {
-                DefaultPasswordNamePolicy defaultPasswordNamePolicy = (DefaultPasswordNamePolicy) Class.
-                        forName(pwNamePolicyCls).newInstance();
-                policyRegistry.addPolicy(defaultPasswordNamePolicy);
+                policies.add(new PolicyDefinition(Class.forName(pwNamePolicyCls)
+                        .asSubclass(DefaultPasswordNamePolicy.class), null));
             }
 
             if (StringUtils.isNotBlank(pwPatternPolicyCls)) {
-                DefaultPasswordPatternPolicy defaultPasswordPatternPolicy = (DefaultPasswordPatternPolicy) Class.
-                        forName(pwPatternPolicyCls).newInstance();
-                HashMap pwPolicyPatternParams = new HashMap<String, String>();
+                Map<String, String> pwPolicyPatternParams = new HashMap<>();
                 pwPolicyPatternParams.put("pattern", pwPattern);
                 pwPolicyPatternParams.put("errorMsg", errorMsg);
-                defaultPasswordPatternPolicy.init(pwPolicyPatternParams);
-                policyRegistry.addPolicy(defaultPasswordPatternPolicy);
+                policies.add(new PolicyDefinition(Class.forName(pwPatternPolicyCls)
+                        .asSubclass(DefaultPasswordPatternPolicy.class), pwPolicyPatternParams));
             }
-        } catch (Exception e) {
-            throw Utils.handleEventException(
+
+            if (StringUtils.isNotBlank(pwBlocklistPolicyCls)) {
+                Map<String, String> pwPolicyBlocklistParams = new HashMap<>();
+                pwPolicyBlocklistParams.put(PasswordBlocklistPolicy.BLOCKLIST_FILE, pwBlocklistFile);
+                pwPolicyBlocklistParams.put(PasswordBlocklistPolicy.FALSE_POSITIVE_RATE,
+                        pwBlocklistFalsePositiveRate);
+                pwPolicyBlocklistParams.put(PasswordBlocklistPolicy.RELOAD_INTERVAL, pwBlocklistReloadInterval);
+                pwPolicyBlocklistParams.put(PasswordBlocklistPolicy.ERROR_MESSAGE, pwBlocklistErrorMsg);
+                pwPolicyBlocklistParams.put(PasswordBlocklistPolicy.FAIL_CLOSED, pwBlocklistFailClosed);
+                policies.add(new PolicyDefinition(Class.forName(pwBlocklistPolicyCls)
+                        .asSubclass(AbstractPasswordPolicy.class), pwPolicyBlocklistParams));
+            }
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw Utils.handlePolicyException(
                     PasswordPolicyConstants.ErrorMessages.ERROR_CODE_LOADING_PASSWORD_POLICY_CLASSES, null, e);
         }
-
-        try {
-            policyRegistry.enforcePasswordPolicies(credentials.toString(), userName);
-        } catch (PolicyViolationException e) {
-            throw Utils.handleEventException(
-                    PasswordPolicyConstants.ErrorMessages.ERROR_CODE_VALIDATING_PASSWORD_POLICY, e.getMessage(), e);
+        // Instantiate the policies once so that an invalid configuration fails before the registry is cached.
+        for (PolicyDefinition policy : policies) {
+            policy.newPolicy();
         }
+        return PasswordPolicyRegistryCache.getInstance().addPolicyRegistry(tenantDomain, policyKey, policies);
     }
 
     @Override
@@ -234,6 +307,8 @@ public class PasswordPolicyValidationHandler extends AbstractEventHandler implem
         super.init(configuration);
         IdentityPasswordPolicyServiceDataHolder.getInstance().getBundleContext().registerService
                 (IdentityConnectorConfig.class.getName(), this, null);
+        IdentityPasswordPolicyServiceDataHolder.getInstance().getBundleContext().registerService
+                (PasswordPolicyService.class.getName(), this, null);
     }
 
     public String[] getPropertyNames() {
@@ -21,7 +21,10 @@ import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
 import org.wso2.carbon.identity.password.policy.handler.PasswordPolicyValidationHandler;
+import org.wso2.carbon.identity.password.policy.internal.cache.PasswordPolicyRegistryCache;
+import org.wso2.carbon.identity.password.policy.listener.PasswordPolicyConfigListener;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
@@ -47,6 +50,8 @@ public class IdentityPasswordPolicyServiceComponent {
             IdentityPasswordPolicyServiceDataHolder.getInstance().setBundleContext(bundleContext);
             PasswordPolicyValidationHandler handler = new PasswordPolicyValidationHandler();
             context.getBundleContext().registerService(AbstractEventHandler.class.getName(), handler, null);
+            context.getBundleContext().registerService(IdentityGovernanceConfigListener.class.getName(),
+                    new PasswordPolicyConfigListener(), null);
         } catch (Exception e) {
             log.error("Error while activating password policy component.", e);
         }
@@ -58,6 +63,7 @@ public class IdentityPasswordPolicyServiceComponent {
         if (log.isDebugEnabled()) {
             log.debug("Password Policy Service component is de-activated");
         }
+        PasswordPolicyRegistryCache.getInstance().clear();
     }
 
     protected void unsetIdentityGovernanceService(IdentityGovernanceService idpManager) {
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.policy.internal.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.mgt.policy.PolicyEnforcer;
+import org.wso2.carbon.identity.mgt.policy.PolicyRegistry;
+import org.wso2.carbon.identity.mgt.policy.PolicyViolationException;
+import org.wso2.carbon.identity.password.policy.constants.PasswordPolicyConstants;
+import org.wso2.carbon.identity.password.policy.exeption.IdentityPasswordPolicyException;
+import org.wso2.carbon.identity.password.policy.util.Utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node local cache of the compiled password policy registries. A single registry is kept per tenant along with
+ * the policy configurations it was built from, and the registry is rebuilt once the configurations differ.
+ */
+public class PasswordPolicyRegistryCache {
+
+    private static final Log log = LogFactory.getLog(PasswordPolicyRegistryCache.class);
+    private static final PasswordPolicyRegistryCache instance = new PasswordPolicyRegistryCache();
+
+    private final Map<String, CompiledPolicyRegistry> registries = new ConcurrentHashMap<>();
+
+    private PasswordPolicyRegistryCache() {
+
+    }
+
+    public static PasswordPolicyRegistryCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the cached policy registry of the tenant if it was built from the given policy configurations.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param policyKey    Policy configurations (lengths, pattern, error message and policy classes).
+     * @return Policy registry or null if there is no matching registry.
+     */
+    public CompiledPolicyRegistry getPolicyRegistry(String tenantDomain, List<String> policyKey) {
+
+        CompiledPolicyRegistry registry = registries.get(tenantDomain);
+        if (registry != null && registry.policyKey.equals(policyKey)) {
+            return registry;
+        }
+        return null;
+    }
+
+    /**
+     * Add the policy registry of the tenant replacing any registry built from previous configurations.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param policyKey    Policy configurations the registry was built from.
+     * @param policies     Policies of the registry, in the order they are enforced.
+     * @return Cached policy registry.
+     */
+    public CompiledPolicyRegistry addPolicyRegistry(String tenantDomain, List<String> policyKey,
+                                                    List<PolicyDefinition> policies) {
+
+        CompiledPolicyRegistry registry = new CompiledPolicyRegistry(policyKey, policies);
+        registries.put(tenantDomain, registry);
+        return registry;
+    }
+
+    /**
+     * Remove the cached policy registry of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void clear(String tenantDomain) {
+
+        if (registries.remove(tenantDomain) != null && log.isDebugEnabled()) {
+            log.debug("Cleared the cached password policy registry of the tenant: " + tenantDomain);
+        }
+    }
+
+    /**
+     * Remove all the cached policy registries.
+     */
+    public void clear() {
+
+        registries.clear();
+    }
+
+    /**
+     * Policy registry of a tenant along with the configurations it was built from. The registry is immutable. The
+     * policies keep the violation message of the last enforcement as state, hence fresh policy instances are created
+     * from the resolved policy classes and parameters for each enforcement, rather than being shared by the
+     * concurrent validations.
+     */
+    public static final class CompiledPolicyRegistry {
+
+        private final List<String> policyKey;
+        private final List<PolicyDefinition> policies;
+
+        private CompiledPolicyRegistry(List<String> policyKey, List<PolicyDefinition> policies) {
+
+            this.policyKey = policyKey;
+            this.policies = Collections.unmodifiableList(new ArrayList<>(policies));
+        }
+
+        /**
+         * Enforce the password policies.
+         *
+         * @param password Password to be validated.
+         * @param userName Username of the user.
+         * @throws PolicyViolationException        If a policy is violated.
+         * @throws IdentityPasswordPolicyException If a policy could not be instantiated.
+         */
+        public void enforcePasswordPolicies(String password, String userName) throws PolicyViolationException,
+                IdentityPasswordPolicyException {
+
+            PolicyRegistry policyRegistry = new PolicyRegistry();
+            for (PolicyDefinition policy : policies) {
+                policyRegistry.addPolicy(policy.newPolicy());
+            }
+            policyRegistry.enforcePasswordPolicies(password, userName);
+        }
+    }
+
+    /**
+     * Resolved class and initialization parameters of a password policy.
+     */
+    public static final class PolicyDefinition {
+
+        private final Class<? extends PolicyEnforcer> policyClass;
+        private final Map<String, String> params;
+
+        /**
+         * @param policyClass Policy class.
+         * @param params      Initialization parameters of the policy, or null if the policy is not initialized.
+         */
+        public PolicyDefinition(Class<? extends PolicyEnforcer> policyClass, Map<String, String> params) {
+
+            this.policyClass = policyClass;
+            this.params = params != null ? Collections.unmodifiableMap(new HashMap<>(params)) : null;
+        }
+
+        /**
+         * Create and initialize a new instance of the policy.
+         *
+         * @return Policy instance.
+         * @throws IdentityPasswordPolicyException If the policy could not be instantiated.
+         */
+        public PolicyEnforcer newPolicy() throws IdentityPasswordPolicyException {
+
+            try {
+                PolicyEnforcer policy = policyClass.newInstance();
+                if (params != null) {
+                    // The policies may keep the parameters, hence each instance gets its own copy.
+                    policy.init(new HashMap<>(params));
+                }
+                return policy;
+            } catch (InstantiationException | IllegalAccessException | RuntimeException e) {
+                throw Utils.handlePolicyException(
+                        PasswordPolicyConstants.ErrorMessages.ERROR_CODE_LOADING_PASSWORD_POLICY_CLASSES, null, e);
+            }
+        }
+    }
+}
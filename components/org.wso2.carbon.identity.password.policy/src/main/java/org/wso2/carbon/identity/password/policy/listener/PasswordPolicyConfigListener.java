@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.policy.listener;
+
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
+import org.wso2.carbon.identity.password.policy.internal.cache.PasswordPolicyRegistryCache;
+
+import java.util.Map;
+
+/**
+ * Clears the cached password policy registry of a tenant when the password policy connector configurations of the
+ * tenant are updated.
+ */
+public class PasswordPolicyConfigListener implements IdentityGovernanceConfigListener {
+
+    private static final String PW_POLICY_PROPERTY_PREFIX = "passwordPolicy.";
+
+    @Override
+    public void onPostUpdateConfiguration(String tenantDomain, Map<String, String> updatedProperties) {
+
+        for (String propertyName : updatedProperties.keySet()) {
+            if (propertyName.startsWith(PW_POLICY_PROPERTY_PREFIX)) {
+                PasswordPolicyRegistryCache.getInstance().clear(tenantDomain);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.policy.service;
+
+import org.wso2.carbon.identity.password.policy.exeption.IdentityPasswordPolicyException;
+
+/**
+ * Service to validate a password against the password policies of a tenant without publishing an event.
+ */
+public interface PasswordPolicyService {
+
+    /**
+     * Validate the password against the password policies configured for the tenant.
+     *
+     * @param tenantDomain Tenant domain of the user.
+     * @param userName     Username of the user.
+     * @param password     Password to be validated.
+     * @throws IdentityPasswordPolicyException If the password violates a policy or if the policies could not be
+     *                                         loaded. The error code of the exception identifies the failure.
+     */
+    void validate(String tenantDomain, String userName, String password) throws IdentityPasswordPolicyException;
+}
@@ -21,6 +21,7 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.base.IdentityException;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.password.policy.constants.PasswordPolicyConstants;
+import org.wso2.carbon.identity.password.policy.exeption.IdentityPasswordPolicyException;
 
 public class Utils {
 
@@ -35,4 +36,14 @@ public class Utils {
 
         return IdentityException.error(IdentityEventException.class, error.getCode(), errorText, throwable);
     }
+
+    public static IdentityPasswordPolicyException handlePolicyException(PasswordPolicyConstants.ErrorMessages error,
+                                                                        String errorText, Throwable throwable) {
+
+        if (StringUtils.isBlank(errorText)) {
+            errorText = error.getMessage();
+        }
+
+        return IdentityException.error(IdentityPasswordPolicyException.class, error.getCode(), errorText, throwable);
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.policy.blocklist;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Password blocklist policy test cases.
+ */
+public class PasswordBlocklistPolicyTest {
+
+    private static final int ENTRY_COUNT = 10000;
+    private Path blocklistFile;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+
+        List<String> passwords = new ArrayList<>();
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            passwords.add("password" + i);
+        }
+        passwords.add("");
+        passwords.add("Pass word@1");
+        blocklistFile = Files.createTempFile("password-blocklist", ".txt");
+        Files.write(blocklistFile, passwords, StandardCharsets.UTF_8);
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+
+        Files.deleteIfExists(blocklistFile);
+    }
+
+    @Test
+    public void testLoadBlocklist() throws Exception {
+
+        PasswordBlocklist blocklist = PasswordBlocklist.load(blocklistFile, 0.01);
+        assertEquals(blocklist.size(), ENTRY_COUNT + 1);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertTrue(blocklist.contains("password" + i));
+        }
+        assertTrue(blocklist.contains("Pass word@1"));
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertFalse(blocklist.contains("Wso2@password" + i));
+        }
+        assertFalse(blocklist.contains(""));
+        assertFalse(blocklist.contains(null));
+    }
+
+    @Test
+    public void testEnforce() throws Exception {
+
+        PasswordBlocklistPolicy policy = new PasswordBlocklistPolicy();
+        Map<String, String> params = new HashMap<>();
+        params.put(PasswordBlocklistPolicy.BLOCKLIST_FILE, blocklistFile.toString());
+        params.put(PasswordBlocklistPolicy.RELOAD_INTERVAL, "0");
+        policy.init(params);
+        awaitAvailable(ReloadablePasswordBlocklist.getInstance(blocklistFile.toString(), 0.01, 0));
+        assertFalse(policy.enforce("password42", "admin"));
+        assertTrue(policy.enforce("Wso2@password42", "admin"));
+    }
+
+    @Test
+    public void testGetInstanceWithChangedParameters() {
+
+        ReloadablePasswordBlocklist blocklist = ReloadablePasswordBlocklist.getInstance(blocklistFile.toString(),
+                0.01, 0);
+        assertSame(ReloadablePasswordBlocklist.getInstance(blocklistFile.toString(), 0.01, 0), blocklist);
+        assertNotSame(ReloadablePasswordBlocklist.getInstance(blocklistFile.toString(), 0.001, 0), blocklist);
+        assertNotSame(ReloadablePasswordBlocklist.getInstance(blocklistFile.toString(), 0.01, 1000), blocklist);
+    }
+
+    @Test
+    public void testEnforceWithUnavailableBlocklist() {
+
+        Map<String, String> params = new HashMap<>();
+        params.put(PasswordBlocklistPolicy.BLOCKLIST_FILE, blocklistFile.toString() + ".missing");
+        params.put(PasswordBlocklistPolicy.RELOAD_INTERVAL, "0");
+
+        PasswordBlocklistPolicy failOpenPolicy = new PasswordBlocklistPolicy();
+        failOpenPolicy.init(params);
+        assertTrue(failOpenPolicy.enforce("password42", "admin"));
+
+        params.put(PasswordBlocklistPolicy.FAIL_CLOSED, "true");
+        PasswordBlocklistPolicy failClosedPolicy = new PasswordBlocklistPolicy();
+        failClosedPolicy.init(params);
+        assertFalse(failClosedPolicy.enforce("Wso2@password42", "admin"));
+        assertNotNull(failClosedPolicy.getErrorMessage());
+    }
+
+    @Test
+    public void testEnforceWithoutBlocklistFile() {
+
+        PasswordBlocklistPolicy policy = new PasswordBlocklistPolicy();
+        policy.init(new HashMap<>());
+        assertTrue(policy.enforce("password42", "admin"));
+    }
+
+    private void awaitAvailable(ReloadablePasswordBlocklist blocklist) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (!blocklist.isAvailable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(blocklist.isAvailable());
+    }
+}
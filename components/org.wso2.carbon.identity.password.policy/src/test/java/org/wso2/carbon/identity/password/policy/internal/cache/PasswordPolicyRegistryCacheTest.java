@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.password.policy.internal.cache;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.mgt.policy.AbstractPasswordPolicy;
+import org.wso2.carbon.identity.mgt.policy.PolicyViolationException;
+import org.wso2.carbon.identity.mgt.policy.password.DefaultPasswordLengthPolicy;
+import org.wso2.carbon.identity.password.policy.internal.cache.PasswordPolicyRegistryCache.CompiledPolicyRegistry;
+import org.wso2.carbon.identity.password.policy.internal.cache.PasswordPolicyRegistryCache.PolicyDefinition;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Password policy registry cache test cases.
+ */
+public class PasswordPolicyRegistryCacheTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+
+    @AfterMethod
+    public void tearDown() {
+
+        PasswordPolicyRegistryCache.getInstance().clear();
+    }
+
+    @Test
+    public void testGetPolicyRegistry() {
+
+        PasswordPolicyRegistryCache cache = PasswordPolicyRegistryCache.getInstance();
+        CompiledPolicyRegistry registry = cache.addPolicyRegistry(TENANT_DOMAIN, getPolicyKey("6", "12"),
+                getPolicies("6", "12"));
+        assertSame(cache.getPolicyRegistry(TENANT_DOMAIN, getPolicyKey("6", "12")), registry);
+        assertNull(cache.getPolicyRegistry(TENANT_DOMAIN, getPolicyKey("8", "12")));
+        assertNull(cache.getPolicyRegistry("wso2.com", getPolicyKey("6", "12")));
+    }
+
+    @Test
+    public void testClear() {
+
+        PasswordPolicyRegistryCache cache = PasswordPolicyRegistryCache.getInstance();
+        cache.addPolicyRegistry(TENANT_DOMAIN, getPolicyKey("6", "12"), getPolicies("6", "12"));
+        cache.addPolicyRegistry("wso2.com", getPolicyKey("6", "12"), getPolicies("6", "12"));
+        cache.clear(TENANT_DOMAIN);
+        assertNull(cache.getPolicyRegistry(TENANT_DOMAIN, getPolicyKey("6", "12")));
+        assertNotNull(cache.getPolicyRegistry("wso2.com", getPolicyKey("6", "12")));
+    }
+
+    @Test(expectedExceptions = PolicyViolationException.class)
+    public void testEnforcePasswordPolicies() throws Exception {
+
+        CompiledPolicyRegistry registry = PasswordPolicyRegistryCache.getInstance().addPolicyRegistry(TENANT_DOMAIN,
+                getPolicyKey("6", "12"), getPolicies("6", "12"));
+        registry.enforcePasswordPolicies("Wso2@test", "admin");
+        registry.enforcePasswordPolicies("abc", "admin");
+    }
+
+    @Test
+    public void testEnforcePasswordPoliciesWithFreshInstances() throws Exception {
+
+        CompiledPolicyRegistry registry = PasswordPolicyRegistryCache.getInstance().addPolicyRegistry(TENANT_DOMAIN,
+                getPolicyKey("6", "12"), Collections.singletonList(
+                        new PolicyDefinition(RecordingPasswordPolicy.class, Collections.emptyMap())));
+        RecordingPasswordPolicy.INSTANCES.clear();
+        registry.enforcePasswordPolicies("Wso2@test", "admin");
+        registry.enforcePasswordPolicies("Wso2@test", "admin");
+        assertEquals(RecordingPasswordPolicy.INSTANCES.size(), 2);
+    }
+
+    private List<String> getPolicyKey(String minLength, String maxLength) {
+
+        return Arrays.asList(minLength, maxLength, null, null, DefaultPasswordLengthPolicy.class.getName(), null,
+                null);
+    }
+
+    private List<PolicyDefinition> getPolicies(String minLength, String maxLength) {
+
+        Map<String, String> params = new HashMap<>();
+        params.put("min.length", minLength);
+        params.put("max.length", maxLength);
+        return Collections.singletonList(new PolicyDefinition(DefaultPasswordLengthPolicy.class, params));
+    }
+
+    /**
+     * Password policy which records the instances it was enforced with.
+     */
+    public static class RecordingPasswordPolicy extends AbstractPasswordPolicy {
+
+        private static final Set<RecordingPasswordPolicy> INSTANCES = Collections.synchronizedSet(
+                Collections.newSetFromMap(new IdentityHashMap<RecordingPasswordPolicy, Boolean>()));
+
+        @Override
+        public boolean enforce(Object... args) {
+
+            INSTANCES.add(this);
+            return true;
+        }
+
+        @Override
+        public void init(Map<String, String> params) {
+
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.event.Event;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
+import org.wso2.carbon.identity.governance.common.PostAuthenticationClaimWriter;
 import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
 import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.carbon.user.core.UserStoreManager;
@@ -75,6 +76,14 @@ public class IdentityUserMetadataMgtHandler extends AbstractEventHandler {
         }
         if ((Boolean) eventProperties.get(IdentityEventConstants.EventProperty.OPERATION_STATUS)) {
             String lastLoginTime = Long.toString(System.currentTimeMillis());
+            String username = (String) eventProperties.get(IdentityEventConstants.EventProperty.USER_NAME);
+            Map<String, String> userClaims = new HashMap<>();
+            userClaims.put(IdentityMgtConstants.LAST_LOGIN_TIME, lastLoginTime);
+            // Written along with the claims of the other post authentication handlers, if the listener collects them.
+            if (PostAuthenticationClaimWriter.addClaims(userStoreManager, username, userClaims,
+                    IdentityMgtConstants.LAST_LOGIN_TIME)) {
+                return;
+            }
             setUserClaim(userStoreManager, eventProperties, IdentityMgtConstants.LAST_LOGIN_TIME,
                     lastLoginTime, POST_AUTHENTICATION);
         }
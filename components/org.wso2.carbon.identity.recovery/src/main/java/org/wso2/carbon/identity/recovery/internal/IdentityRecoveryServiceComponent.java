@@ -39,6 +39,7 @@ import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
 import org.wso2.carbon.identity.event.services.IdentityEventService;
 import org.wso2.carbon.identity.governance.IdentityGovernanceService;
 import org.wso2.carbon.identity.governance.common.IdentityConnectorConfig;
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
 import org.wso2.carbon.identity.governance.service.otp.OTPGenerator;
 import org.wso2.carbon.identity.handler.event.account.lock.service.AccountLockService;
 import org.wso2.carbon.identity.input.validation.mgt.services.InputValidationManagementService;
@@ -66,7 +67,9 @@ import org.wso2.carbon.identity.recovery.handler.UserSelfRegistrationHandler;
 import org.wso2.carbon.identity.recovery.handler.request.PostAuthnMissingChallengeQuestionsHandler;
 import org.wso2.carbon.identity.recovery.internal.service.impl.password.PasswordRecoveryManagerImpl;
 import org.wso2.carbon.identity.recovery.internal.service.impl.username.UsernameRecoveryManagerImpl;
+import org.wso2.carbon.identity.recovery.listener.SMSOTPFormatConfigListener;
 import org.wso2.carbon.identity.recovery.listener.TenantManagementListener;
+import org.wso2.carbon.identity.recovery.otp.SMSOTPFormatCache;
 import org.wso2.carbon.identity.recovery.password.NotificationPasswordRecoveryManager;
 import org.wso2.carbon.identity.recovery.password.SecurityQuestionPasswordRecoveryManager;
 import org.wso2.carbon.identity.recovery.services.password.PasswordRecoveryManager;
@@ -148,6 +151,8 @@ public class IdentityRecoveryServiceComponent {
                     new ChallengeAnswerValidationHandler(), null);
             bundleContext.registerService(InputValidationManagementService.class.getName(),
                     new InputValidationManagementServiceImpl(), null);
+            bundleContext.registerService(IdentityGovernanceConfigListener.class.getName(),
+                    new SMSOTPFormatConfigListener(), null);
         } catch (Exception e) {
             log.error("Error while activating identity governance component.", e);
         }
@@ -169,6 +174,7 @@ public class IdentityRecoveryServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        SMSOTPFormatCache.getInstance().clear();
         if (log.isDebugEnabled()) {
             log.debug("Identity Management bundle is de-activated");
         }
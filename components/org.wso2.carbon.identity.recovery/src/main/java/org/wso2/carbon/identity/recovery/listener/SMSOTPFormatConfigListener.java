@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.listener;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.governance.IdentityGovernanceException;
+import org.wso2.carbon.identity.governance.common.IdentityGovernanceConfigListener;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryConstants;
+import org.wso2.carbon.identity.recovery.otp.SMSOTPFormat;
+import org.wso2.carbon.identity.recovery.otp.SMSOTPFormatCache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rejects unsupported SMS OTP regex configurations before they are saved, and clears the cached SMS OTP formats of a
+ * tenant when its SMS OTP regex configurations are updated.
+ */
+public class SMSOTPFormatConfigListener implements IdentityGovernanceConfigListener {
+
+    private static final List<String> SMS_OTP_REGEX_PROPERTIES = Collections.unmodifiableList(Arrays.asList(
+            IdentityRecoveryConstants.ConnectorConfig.PASSWORD_RECOVERY_SMS_OTP_REGEX,
+            IdentityRecoveryConstants.ConnectorConfig.SELF_REGISTRATION_SMS_OTP_REGEX,
+            IdentityRecoveryConstants.ConnectorConfig.LITE_REGISTRATION_SMS_OTP_REGEX));
+
+    @Override
+    public void onPreUpdateConfiguration(String tenantDomain, Map<String, String> configurationDetails)
+            throws IdentityGovernanceException {
+
+        for (String propertyName : SMS_OTP_REGEX_PROPERTIES) {
+            String otpRegex = configurationDetails.get(propertyName);
+            // A blank regex falls back to the default OTP format.
+            if (StringUtils.isNotBlank(otpRegex) && SMSOTPFormat.parse(otpRegex) == null) {
+                throw new IdentityGovernanceException(
+                        IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_UNSUPPORTED_SMS_OTP_REGEX.getMessage() +
+                                " Property: " + propertyName + ", value: " + otpRegex);
+            }
+        }
+    }
+
+    @Override
+    public void onPostUpdateConfiguration(String tenantDomain, Map<String, String> updatedProperties) {
+
+        for (String propertyName : SMS_OTP_REGEX_PROPERTIES) {
+            if (updatedProperties.containsKey(propertyName)) {
+                SMSOTPFormatCache.getInstance().clear(tenantDomain);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.otp;
+
+import org.wso2.carbon.identity.governance.IdentityMgtConstants;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryConstants;
+import org.wso2.carbon.identity.recovery.RecoveryScenarios;
+
+import java.util.regex.Pattern;
+
+/**
+ * Format of the SMS OTPs of a recovery scenario, parsed from the SMS OTP regex configured for the scenario, such as
+ * [a-z0-9]{6}. The regex is parsed once, so that issuing an OTP does not evaluate it.
+ */
+public final class SMSOTPFormat {
+
+    /**
+     * Format of the OTPs of the scenarios which do not configure a regex.
+     */
+    public static final SMSOTPFormat DEFAULT = new SMSOTPFormat(IdentityRecoveryConstants.SMS_OTP_CODE_LENGTH, true,
+            true, true);
+
+    private static final Pattern SUPPORTED_OTP_REGEX =
+            Pattern.compile(IdentityRecoveryConstants.VALID_SMS_OTP_REGEX_PATTERN);
+    private static final String NUMERIC_CHARACTERS = "0-9";
+    private static final String UPPERCASE_CHARACTERS = "A-Z";
+    private static final String LOWERCASE_CHARACTERS = "a-z";
+
+    private final int otpLength;
+    private final boolean useNumeric;
+    private final boolean useUppercaseLetters;
+    private final boolean useLowercaseLetters;
+
+    private SMSOTPFormat(int otpLength, boolean useNumeric, boolean useUppercaseLetters,
+                         boolean useLowercaseLetters) {
+
+        this.otpLength = otpLength;
+        this.useNumeric = useNumeric;
+        this.useUppercaseLetters = useUppercaseLetters;
+        this.useLowercaseLetters = useLowercaseLetters;
+    }
+
+    /**
+     * Parse an SMS OTP regex.
+     *
+     * @param otpRegex SMS OTP regex.
+     * @return Format of the OTPs, or null if the regex is not supported or the length is below the minimum.
+     */
+    public static SMSOTPFormat parse(String otpRegex) {
+
+        if (otpRegex == null || !SUPPORTED_OTP_REGEX.matcher(otpRegex).matches()) {
+            return null;
+        }
+        int lengthStart = otpRegex.indexOf('{');
+        String characterClasses = otpRegex.substring(0, lengthStart);
+        int otpLength;
+        try {
+            otpLength = Integer.parseInt(otpRegex.substring(lengthStart + 1, otpRegex.length() - 1));
+        } catch (NumberFormatException e) {
+            // Too long to be a length.
+            return null;
+        }
+        if (otpLength < IdentityMgtConstants.MINIMUM_SMS_OTP_LENGTH) {
+            return null;
+        }
+        return new SMSOTPFormat(otpLength, characterClasses.contains(NUMERIC_CHARACTERS),
+                characterClasses.contains(UPPERCASE_CHARACTERS), characterClasses.contains(LOWERCASE_CHARACTERS));
+    }
+
+    /**
+     * Get the connector property which configures the SMS OTP regex of a recovery scenario.
+     *
+     * @param recoveryScenario Recovery scenario.
+     * @return Name of the property, or null if the OTPs of the scenario are not configurable.
+     */
+    public static String getRegexProperty(String recoveryScenario) {
+
+        if (RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY.name().equals(recoveryScenario)) {
+            return IdentityRecoveryConstants.ConnectorConfig.PASSWORD_RECOVERY_SMS_OTP_REGEX;
+        } else if (RecoveryScenarios.SELF_SIGN_UP.name().equals(recoveryScenario)) {
+            return IdentityRecoveryConstants.ConnectorConfig.SELF_REGISTRATION_SMS_OTP_REGEX;
+        } else if (RecoveryScenarios.LITE_SIGN_UP.name().equals(recoveryScenario)) {
+            return IdentityRecoveryConstants.ConnectorConfig.LITE_REGISTRATION_SMS_OTP_REGEX;
+        }
+        return null;
+    }
+
+    public int getOtpLength() {
+
+        return otpLength;
+    }
+
+    public boolean isUseNumeric() {
+
+        return useNumeric;
+    }
+
+    public boolean isUseUppercaseLetters() {
+
+        return useUppercaseLetters;
+    }
+
+    public boolean isUseLowercaseLetters() {
+
+        return useLowercaseLetters;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.otp;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node local cache of the parsed SMS OTP formats, per tenant and recovery scenario. A format is kept along with the
+ * regex it was parsed from, and is parsed again once the configured regex differs, hence a regex updated on another
+ * node is picked up on the next OTP.
+ */
+public class SMSOTPFormatCache {
+
+    private static final Log log = LogFactory.getLog(SMSOTPFormatCache.class);
+    private static final SMSOTPFormatCache instance = new SMSOTPFormatCache();
+
+    private final Map<String, Map<String, ParsedFormat>> formats = new ConcurrentHashMap<>();
+
+    private SMSOTPFormatCache() {
+
+    }
+
+    public static SMSOTPFormatCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the format of the SMS OTPs of a recovery scenario of the tenant.
+     *
+     * @param tenantDomain     Tenant domain.
+     * @param recoveryScenario Recovery scenario.
+     * @param otpRegex         SMS OTP regex currently configured for the scenario.
+     * @return Format of the OTPs, or null if the regex is not supported.
+     */
+    public SMSOTPFormat getFormat(String tenantDomain, String recoveryScenario, String otpRegex) {
+
+        if (tenantDomain == null || recoveryScenario == null || otpRegex == null) {
+            return SMSOTPFormat.parse(otpRegex);
+        }
+        Map<String, ParsedFormat> tenantFormats = formats.computeIfAbsent(tenantDomain,
+                k -> new ConcurrentHashMap<>());
+        ParsedFormat parsedFormat = tenantFormats.get(recoveryScenario);
+        if (parsedFormat == null || !parsedFormat.otpRegex.equals(otpRegex)) {
+            parsedFormat = new ParsedFormat(otpRegex, SMSOTPFormat.parse(otpRegex));
+            tenantFormats.put(recoveryScenario, parsedFormat);
+        }
+        return parsedFormat.format;
+    }
+
+    /**
+     * Remove the cached formats of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void clear(String tenantDomain) {
+
+        if (formats.remove(tenantDomain) != null && log.isDebugEnabled()) {
+            log.debug("Cleared the cached SMS OTP formats of the tenant: " + tenantDomain);
+        }
+    }
+
+    /**
+     * Remove all the cached formats.
+     */
+    public void clear() {
+
+        formats.clear();
+    }
+
+    /**
+     * Format of the OTPs along with the regex it was parsed from.
+     */
+    private static final class ParsedFormat {
+
+        private final String otpRegex;
+        private final SMSOTPFormat format;
+
+        private ParsedFormat(String otpRegex, SMSOTPFormat format) {
+
+            this.otpRegex = otpRegex;
+            this.format = format;
+        }
+    }
+}
@@ -58,6 +58,8 @@ import org.wso2.carbon.identity.recovery.exception.SelfRegistrationException;
 import org.wso2.carbon.identity.recovery.internal.IdentityRecoveryServiceDataHolder;
 import org.wso2.carbon.identity.recovery.model.ChallengeQuestion;
 import org.wso2.carbon.identity.recovery.model.UserRecoveryData;
+import org.wso2.carbon.identity.recovery.otp.SMSOTPFormat;
+import org.wso2.carbon.identity.recovery.otp.SMSOTPFormatCache;
 import org.wso2.carbon.identity.user.functionality.mgt.UserFunctionalityMgtConstants;
 import org.wso2.carbon.registry.core.utils.UUIDGenerator;
 import org.wso2.carbon.user.api.Claim;
@@ -89,7 +91,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Pattern;
 
 import static org.wso2.carbon.identity.auth.attribute.handler.AuthAttributeHandlerConstants.ErrorMessages.ERROR_CODE_AUTH_ATTRIBUTE_HANDLER_NOT_FOUND;
 import static org.wso2.carbon.identity.recovery.IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_INVALID_REGISTRATION_OPTION;
@@ -1132,48 +1133,24 @@ public class Utils {
             throws IdentityRecoveryServerException {
 
         if (NotificationChannels.SMS_CHANNEL.getChannelType().equals(channel)) {
-            int otpLength = IdentityRecoveryConstants.SMS_OTP_CODE_LENGTH;
-            String otpRegex = null;
-            boolean useNumeric = true;
-            boolean useUppercaseLetters = true;
-            boolean useLowercaseLetters = true;
-            if (StringUtils.equals(RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY.name(), recoveryScenario)) {
-                otpRegex = Utils.getRecoveryConfigs(IdentityRecoveryConstants.ConnectorConfig.
-                        PASSWORD_RECOVERY_SMS_OTP_REGEX, tenantDomain);
-            } else if (StringUtils.equals(RecoveryScenarios.SELF_SIGN_UP.name(), recoveryScenario)) {
-                otpRegex = Utils.getRecoveryConfigs(IdentityRecoveryConstants.ConnectorConfig.
-                        SELF_REGISTRATION_SMS_OTP_REGEX, tenantDomain);
-            } else if (StringUtils.equals(RecoveryScenarios.LITE_SIGN_UP.name(), recoveryScenario)) {
-                otpRegex = Utils.getRecoveryConfigs(IdentityRecoveryConstants.ConnectorConfig.
-                        LITE_REGISTRATION_SMS_OTP_REGEX, tenantDomain);
-            }
-            // If the OTP regex is not specified we need to ensure that the default behavior will be executed.
-            if (StringUtils.isNotBlank(otpRegex)) {
-                if (StringUtils.equals(RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY.name(), recoveryScenario) ||
-                        StringUtils.equals(RecoveryScenarios.SELF_SIGN_UP.name(), recoveryScenario) ||
-                        StringUtils.equals(RecoveryScenarios.LITE_SIGN_UP.name(), recoveryScenario)) {
-                    if (!Pattern.matches(IdentityRecoveryConstants.VALID_SMS_OTP_REGEX_PATTERN, otpRegex)) {
+            SMSOTPFormat otpFormat = SMSOTPFormat.DEFAULT;
+            String otpRegexProperty = SMSOTPFormat.getRegexProperty(recoveryScenario);
+            if (otpRegexProperty != null) {
+                String otpRegex = Utils.getRecoveryConfigs(otpRegexProperty, tenantDomain);
+                // If the OTP regex is not specified we need to ensure that the default behavior will be executed.
+                if (StringUtils.isNotBlank(otpRegex)) {
+                    otpFormat = SMSOTPFormatCache.getInstance().getFormat(tenantDomain, recoveryScenario, otpRegex);
+                    if (otpFormat == null) {
                         throw new IdentityRecoveryServerException(
                                 IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_UNSUPPORTED_SMS_OTP_REGEX.getCode(),
                                 IdentityRecoveryConstants.ErrorMessages.ERROR_CODE_UNSUPPORTED_SMS_OTP_REGEX.getMessage());
                     }
-                    String charsRegex = otpRegex.replaceAll("[{].*", "");
-                    otpLength = Integer.parseInt(otpRegex.replaceAll(".*[{]", "").replaceAll("}", ""));
-                    if (!charsRegex.contains("A-Z")) {
-                        useUppercaseLetters = false;
-                    }
-                    if (!charsRegex.contains("a-z")) {
-                        useLowercaseLetters = false;
-                    }
-                    if (!charsRegex.contains("0-9")) {
-                        useNumeric = false;
-                    }
                 }
             }
             try {
                 OTPGenerator otpGenerator = IdentityRecoveryServiceDataHolder.getInstance().getOtpGenerator();
-                return otpGenerator.generateOTP(useNumeric, useUppercaseLetters, useLowercaseLetters, otpLength,
-                        recoveryScenario);
+                return otpGenerator.generateOTP(otpFormat.isUseNumeric(), otpFormat.isUseUppercaseLetters(),
+                        otpFormat.isUseLowercaseLetters(), otpFormat.getOtpLength(), recoveryScenario);
             } catch (OTPGeneratorException otpGeneratorException) {
                 throw new IdentityRecoveryServerException(otpGeneratorException.getErrorCode(),
                         otpGeneratorException.getMessage());
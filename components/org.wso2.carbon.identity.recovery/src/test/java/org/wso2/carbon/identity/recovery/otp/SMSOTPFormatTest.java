@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.recovery.otp;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.governance.IdentityGovernanceException;
+import org.wso2.carbon.identity.recovery.IdentityRecoveryConstants;
+import org.wso2.carbon.identity.recovery.RecoveryScenarios;
+import org.wso2.carbon.identity.recovery.listener.SMSOTPFormatConfigListener;
+
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Test class for SMSOTPFormat and SMSOTPFormatCache.
+ */
+public class SMSOTPFormatTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String SCENARIO = RecoveryScenarios.SELF_SIGN_UP.name();
+
+    @AfterMethod
+    public void tearDown() {
+
+        SMSOTPFormatCache.getInstance().clear();
+    }
+
+    @DataProvider(name = "supportedRegexes")
+    public Object[][] supportedRegexes() {
+
+        return new Object[][]{
+                {"[0-9]{6}", 6, true, false, false},
+                {"[A-Z]{8}", 8, false, true, false},
+                {"[a-z0-9]{4}", 4, true, false, true},
+                {"[A-Za-z0-9]{10}", 10, true, true, true}
+        };
+    }
+
+    @Test(dataProvider = "supportedRegexes")
+    public void testParse(String otpRegex, int otpLength, boolean useNumeric, boolean useUppercaseLetters,
+                          boolean useLowercaseLetters) {
+
+        SMSOTPFormat otpFormat = SMSOTPFormat.parse(otpRegex);
+        assertNotNull(otpFormat);
+        assertEquals(otpFormat.getOtpLength(), otpLength);
+        assertEquals(otpFormat.isUseNumeric(), useNumeric);
+        assertEquals(otpFormat.isUseUppercaseLetters(), useUppercaseLetters);
+        assertEquals(otpFormat.isUseLowercaseLetters(), useLowercaseLetters);
+    }
+
+    @Test
+    public void testParseUnsupportedRegex() {
+
+        assertNull(SMSOTPFormat.parse("[a-f]{6}"));
+        assertNull(SMSOTPFormat.parse("[0-9]+"));
+        assertNull(SMSOTPFormat.parse("[0-9]{99999999999}"));
+        assertNull(SMSOTPFormat.parse("[0-9]{0}"));
+        assertNull(SMSOTPFormat.parse("[0-9]{3}"));
+        assertNull(SMSOTPFormat.parse(null));
+    }
+
+    @Test
+    public void testGetRegexProperty() {
+
+        assertEquals(SMSOTPFormat.getRegexProperty(RecoveryScenarios.NOTIFICATION_BASED_PW_RECOVERY.name()),
+                IdentityRecoveryConstants.ConnectorConfig.PASSWORD_RECOVERY_SMS_OTP_REGEX);
+        assertEquals(SMSOTPFormat.getRegexProperty(RecoveryScenarios.LITE_SIGN_UP.name()),
+                IdentityRecoveryConstants.ConnectorConfig.LITE_REGISTRATION_SMS_OTP_REGEX);
+        assertNull(SMSOTPFormat.getRegexProperty(RecoveryScenarios.ASK_PASSWORD.name()));
+    }
+
+    @Test
+    public void testFormatIsParsedOnlyWhenRegexChanges() {
+
+        SMSOTPFormatCache cache = SMSOTPFormatCache.getInstance();
+        SMSOTPFormat otpFormat = cache.getFormat(TENANT_DOMAIN, SCENARIO, "[0-9]{6}");
+        assertSame(cache.getFormat(TENANT_DOMAIN, SCENARIO, "[0-9]{6}"), otpFormat);
+
+        SMSOTPFormat updatedFormat = cache.getFormat(TENANT_DOMAIN, SCENARIO, "[0-9]{8}");
+        assertNotSame(updatedFormat, otpFormat);
+        assertEquals(updatedFormat.getOtpLength(), 8);
+        assertNull(cache.getFormat(TENANT_DOMAIN, SCENARIO, "[0-8]{6}"));
+    }
+
+    @Test
+    public void testConfigListenerClearsTenantFormats() {
+
+        SMSOTPFormatCache cache = SMSOTPFormatCache.getInstance();
+        SMSOTPFormat otpFormat = cache.getFormat(TENANT_DOMAIN, SCENARIO, "[0-9]{6}");
+        new SMSOTPFormatConfigListener().onPostUpdateConfiguration(TENANT_DOMAIN, Collections.singletonMap(
+                IdentityRecoveryConstants.ConnectorConfig.SELF_REGISTRATION_SMS_OTP_REGEX, "[0-9]{6}"));
+        assertNotSame(cache.getFormat(TENANT_DOMAIN, SCENARIO, "[0-9]{6}"), otpFormat);
+    }
+
+    @Test
+    public void testConfigListenerAcceptsSupportedRegex() throws Exception {
+
+        SMSOTPFormatConfigListener listener = new SMSOTPFormatConfigListener();
+        listener.onPreUpdateConfiguration(TENANT_DOMAIN, Collections.singletonMap(
+                IdentityRecoveryConstants.ConnectorConfig.PASSWORD_RECOVERY_SMS_OTP_REGEX, "[a-z0-9]{6}"));
+        listener.onPreUpdateConfiguration(TENANT_DOMAIN, Collections.singletonMap(
+                IdentityRecoveryConstants.ConnectorConfig.PASSWORD_RECOVERY_SMS_OTP_REGEX, ""));
+    }
+
+    @Test(expectedExceptions = IdentityGovernanceException.class)
+    public void testConfigListenerRejectsUnsupportedRegex() throws Exception {
+
+        new SMSOTPFormatConfigListener().onPreUpdateConfiguration(TENANT_DOMAIN, Collections.singletonMap(
+                IdentityRecoveryConstants.ConnectorConfig.LITE_REGISTRATION_SMS_OTP_REGEX, "\\d{6}"));
+    }
+}